@@ -0,0 +1,314 @@
+package com.medilabo.assessmentService.cache;
+
+import com.medilabo.assessmentService.dto.CategoryCacheReportDto;
+import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.NoteEventDto;
+import com.medilabo.assessmentService.feign.NoteFeignClient;
+import com.medilabo.assessmentService.matcher.NormalizedText;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import com.medilabo.assessmentService.service.TriggerTermsLoader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-patient cache of the trigger categories found in the notes, as a category bitmask.
+ * The mask of each note is kept alongside the union, so that the note events reported by
+ * the Note Service (see {@link NoteEventDto}) update a patient incrementally: only the created
+ * or updated note is scanned, and a deleted note is simply dropped from the union.
+ * Since events may arrive out of order, the version of the last event applied to each note is
+ * kept, deleted notes included, and an older event is ignored: a late update cannot bring back
+ * a deleted note. An event without a version cannot be ordered and evicts the patient instead.
+ * <p>
+ * Patients enter the cache when they are assessed; events about other patients are ignored.
+ * An event that arrives while a patient is being loaded prevents the load from being cached,
+ * using one stamp per stripe of patients, so a concurrent change is never lost.
+ * Entries are invalidated when the trigger-term dictionary is reloaded, since the bits of
+ * the masks depend on it, and expire after a maximum age to bound the effect of a lost event.
+ * {@link #verify(UUID)} recomputes a patient from all its notes and reports any difference.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientCategoryCache {
+
+  static final String REQUESTS_METRIC = "assessment.category-cache.requests";
+  static final String SIZE_METRIC = "assessment.category-cache.size";
+  static final String INCONSISTENCIES_METRIC = "assessment.category-cache.inconsistencies";
+
+  private static final int STRIPES = 1024;
+
+  private final TriggerTermsLoader termsLoader;
+  private final NoteFeignClient noteFeignClient;
+
+  @Value("${assessment.category-cache.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${assessment.category-cache.max-entries:100000}")
+  private int maxEntries = 100_000;
+
+  @Value("${assessment.category-cache.max-age:PT1H}")
+  private Duration maxAge = Duration.ofHours(1);
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+  private final AtomicLong dictionaryVersion = new AtomicLong();
+
+  /**
+   * Categories of one patient, computed with one version of the dictionary.
+   */
+  private record Entry(
+    long dictionaryVersion,
+    long loadedAt,
+    Map<String, Long> noteMasks,
+    Map<String, Long> noteVersions,
+    long mask
+  ) {}
+
+  /**
+   * Registers the size of the cache as a metric.
+   */
+  @PostConstruct
+  public void registerMetrics() {
+    Gauge.builder(SIZE_METRIC, entries, Map::size)
+      .description("Patients in the trigger-category cache")
+      .register(meterRegistry);
+  }
+
+  /**
+   * Returns the cached categories of a patient.
+   *
+   * @param patientId the UUID of the patient
+   * @return the category mask, or empty if the patient is not cached or its entry is stale
+   */
+  public OptionalLong get(UUID patientId) {
+    long version = currentDictionaryVersion();
+    Entry entry = entries.get(patientId);
+    if (entry != null && entry.dictionaryVersion() == version && !isExpired(entry)) {
+      requests("hit").increment();
+      return OptionalLong.of(entry.mask());
+    }
+    if (entry != null) entries.remove(patientId, entry);
+    requests("miss").increment();
+    return OptionalLong.empty();
+  }
+
+  /**
+   * Returns the change stamp of a patient, to be read before fetching its notes
+   * and handed back to {@link #load(UUID, List, long)}.
+   *
+   * @param patientId the UUID of the patient
+   * @return the current stamp of the patient
+   */
+  public long stamp(UUID patientId) {
+    return stamps.get(stripe(patientId));
+  }
+
+  /**
+   * Computes the categories of a patient from all its notes and caches them, unless a note
+   * event for the patient has been received since the given stamp was read.
+   *
+   * @param patientId the UUID of the patient
+   * @param notes all the notes of the patient
+   * @param stamp the stamp read before fetching the notes
+   * @return the category mask of the notes
+   */
+  public long load(UUID patientId, List<NoteDto> notes, long stamp) {
+    Entry loaded = compute(notes);
+    store(patientId, loaded, stamp);
+    return loaded.mask();
+  }
+
+  /**
+   * Applies a note event to the cached patient, if any: the note is scanned alone and its
+   * mask replaces the previous one, or is removed for a deleted note.
+   * The event is ignored if an event with the same or a later version was already applied to the note.
+   *
+   * @param event the note event reported by the Note Service
+   */
+  public void onNoteEvent(NoteEventDto event) {
+    UUID patientId;
+    try {
+      patientId = UUID.fromString(event.getPatient());
+    } catch (IllegalArgumentException | NullPointerException e) {
+      log.warn("Ignoring note event for invalid patient {}", event.getPatient());
+      return;
+    }
+    stamps.incrementAndGet(stripe(patientId));
+
+    long version = currentDictionaryVersion();
+    long noteMask = event.getType() == NoteEventDto.Type.DELETED
+      ? 0L
+      : termsLoader.getMatcher().scan(event.getNote(), 0L);
+
+    entries.computeIfPresent(patientId, (id, entry) -> {
+      if (entry.dictionaryVersion() != version || event.getNoteId() == null || event.getVersion() == null) {
+        return null;
+      }
+      Long applied = entry.noteVersions().get(event.getNoteId());
+      if (applied != null && applied >= event.getVersion()) return entry;
+
+      Map<String, Long> noteMasks = new HashMap<>(entry.noteMasks());
+      if (event.getType() == NoteEventDto.Type.DELETED) {
+        noteMasks.remove(event.getNoteId());
+      } else {
+        noteMasks.put(event.getNoteId(), noteMask);
+      }
+      Map<String, Long> noteVersions = new HashMap<>(entry.noteVersions());
+      noteVersions.put(event.getNoteId(), event.getVersion());
+      return new Entry(
+        entry.dictionaryVersion(),
+        entry.loadedAt(),
+        Map.copyOf(noteMasks),
+        Map.copyOf(noteVersions),
+        union(noteMasks)
+      );
+    });
+  }
+
+  /**
+   * Recomputes a patient from all its notes, replaces its cached categories
+   * and tells whether they were consistent.
+   * Like a load, the recompute is not cached if a note event for the patient was received meanwhile.
+   *
+   * @param patientId the UUID of the patient
+   * @return true if the patient was not cached, changed during the recompute, or cached with the same note masks
+   */
+  public boolean verify(UUID patientId) {
+    long stamp = stamp(patientId);
+    Entry recomputed = compute(noteFeignClient.getAllNotesByPatient(patientId));
+    // Read the entry before checking the stamp: an event changes the stamp before the entry
+    Entry cached = entries.get(patientId);
+    boolean consistent = cached == null
+      || stamp(patientId) != stamp
+      || cached.dictionaryVersion() != recomputed.dictionaryVersion()
+      || cached.noteMasks().equals(recomputed.noteMasks());
+    if (!consistent) {
+      Counter.builder(INCONSISTENCIES_METRIC)
+        .description("Cached patients whose categories differed from a full recompute")
+        .register(meterRegistry)
+        .increment();
+      log.warn("Inconsistent trigger categories in cache for patient {}", patientId);
+    }
+    store(patientId, recomputed, stamp);
+    return consistent;
+  }
+
+  /**
+   * Forces a full recompute of every cached patient.
+   *
+   * @return the number of patients checked and the ones that were inconsistent
+   */
+  public CategoryCacheReportDto verifyAll() {
+    List<UUID> inconsistent = new ArrayList<>();
+    List<UUID> patients = List.copyOf(entries.keySet());
+    for (UUID patientId : patients) {
+      if (!verify(patientId)) inconsistent.add(patientId);
+    }
+    CategoryCacheReportDto report = new CategoryCacheReportDto();
+    report.setChecked(patients.size());
+    report.setInconsistentPatients(inconsistent);
+    return report;
+  }
+
+  /**
+   * Removes a patient from the cache.
+   *
+   * @param patientId the UUID of the patient
+   */
+  public void invalidate(UUID patientId) {
+    stamps.incrementAndGet(stripe(patientId));
+    entries.remove(patientId);
+  }
+
+  /**
+   * @return the number of cached patients
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Caches the categories of a patient, unless the cache is disabled or full,
+   * or a note event for the patient has been received since the given stamp was read.
+   */
+  private void store(UUID patientId, Entry loaded, long stamp) {
+    if (!enabled) return;
+
+    int stripe = stripe(patientId);
+    entries.compute(patientId, (id, current) -> {
+      if (stamps.get(stripe) != stamp) return current;
+      if (current == null && entries.size() >= maxEntries) return null;
+      return loaded;
+    });
+  }
+
+  private Entry compute(List<NoteDto> notes) {
+    // Read the version before the matcher, so that a concurrent reload can only make
+    // the entry look older than it is, and never the other way round.
+    long version = currentDictionaryVersion();
+    TermMatcher matcher = termsLoader.getMatcher();
+    NormalizedText buffer = new NormalizedText();
+    Map<String, Long> noteMasks = new HashMap<>();
+    for (int i = 0; i < notes.size(); i++) {
+      NoteDto note = notes.get(i);
+      String noteId = note.getId() != null ? note.getId() : "#" + i;
+      noteMasks.merge(noteId, matcher.scan(note.getNote(), buffer, 0L), (a, b) -> a | b);
+    }
+    return new Entry(version, System.nanoTime(), Map.copyOf(noteMasks), Map.of(), union(noteMasks));
+  }
+
+  /**
+   * Returns the version of the dictionary in use, dropping every entry
+   * of the previous versions the first time a reload is observed.
+   */
+  private long currentDictionaryVersion() {
+    long version = termsLoader.getVersion();
+    long previous = dictionaryVersion.get();
+    if (previous != version && dictionaryVersion.compareAndSet(previous, version)) {
+      entries.values().removeIf(entry -> entry.dictionaryVersion() != version);
+    }
+    return version;
+  }
+
+  private boolean isExpired(Entry entry) {
+    return System.nanoTime() - entry.loadedAt() > maxAge.toNanos();
+  }
+
+  private Counter requests(String result) {
+    return Counter.builder(REQUESTS_METRIC)
+      .description("Lookups in the trigger-category cache")
+      .tag("result", result)
+      .register(meterRegistry);
+  }
+
+  private static long union(Map<String, Long> noteMasks) {
+    long mask = 0L;
+    for (long noteMask : noteMasks.values()) mask |= noteMask;
+    return mask;
+  }
+
+  private static int stripe(UUID patientId) {
+    return patientId.hashCode() & (STRIPES - 1);
+  }
+}
@@ -0,0 +1,69 @@
+package com.medilabo.assessmentService.config;
+
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration of the diabetes risk rules ({@code assessment.risk-rules}).
+ * Patients are split into age bands, and each rule gives, for a gender and an age band,
+ * the minimum number of trigger categories of each risk level. The most severe level whose
+ * threshold is reached applies, or {@link RiskLevel#NONE} if there is none.
+ * The defaults are the historical rules of the assessment.
+ *
+ * @see com.medilabo.assessmentService.risk.RiskTable
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "assessment.risk-rules")
+public class RiskRulesProperties {
+
+  /**
+   * Lower bounds of the age bands following the first one, in ascending order:
+   * {@code [30]} defines the bands "under 30" (0) and "30 and over" (1).
+   */
+  private List<Integer> ageBands = new ArrayList<>(List.of(30));
+
+  /**
+   * One rule per gender and age band.
+   */
+  private List<Rule> rules = new ArrayList<>(
+    List.of(
+      new Rule(Gender.M, 0, Map.of(RiskLevel.EARLY_ONSET, 5, RiskLevel.IN_DANGER, 3)),
+      new Rule(Gender.F, 0, Map.of(RiskLevel.EARLY_ONSET, 7, RiskLevel.IN_DANGER, 4)),
+      new Rule(
+        null,
+        1,
+        Map.of(RiskLevel.EARLY_ONSET, 8, RiskLevel.IN_DANGER, 6, RiskLevel.BORDERLINE, 2)
+      )
+    )
+  );
+
+  /**
+   * Thresholds of the risk levels for a gender, or every gender, and an age band.
+   */
+  @Getter
+  @Setter
+  @NoArgsConstructor
+  public static class Rule {
+
+    private Gender gender;
+    private int ageBand;
+    private Map<RiskLevel, Integer> thresholds = new EnumMap<>(RiskLevel.class);
+
+    public Rule(Gender gender, int ageBand, Map<RiskLevel, Integer> thresholds) {
+      this.gender = gender;
+      this.ageBand = ageBand;
+      this.thresholds.putAll(thresholds);
+    }
+  }
+}
@@ -1,19 +1,36 @@
 package com.medilabo.assessmentService.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medilabo.assessmentService.dto.AssessmentDto;
+import com.medilabo.assessmentService.dto.CohortAssessmentDto;
 import com.medilabo.assessmentService.service.AssessmentService;
+import com.medilabo.assessmentService.service.CohortAssessmentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * Controller for handling assessment requests related to diabetes risk.
- * Provides endpoints to assess the diabetes risk for a given patient.
+ * Provides endpoints to assess the diabetes risk for a given patient, or for a cohort of patients
+ * with the results streamed as newline-delimited JSON.
  */
 @Slf4j
 @RestController
@@ -22,6 +39,8 @@ import java.util.UUID;
 public class AssessmentController {
 
     private final AssessmentService assessmentService;
+    private final CohortAssessmentService cohortAssessmentService;
+    private final ObjectMapper objectMapper;
 
     /**
      * Endpoint to assess the diabetes risk for a patient.
@@ -38,4 +57,57 @@ public class AssessmentController {
             throw new RuntimeException("Error assessing diabetes risk", e);
         }
     }
+
+    /**
+     * Endpoint to assess the diabetes risk for a list of patients.
+     * Each assessment is streamed as one JSON line as soon as its chunk has been processed.
+     *
+     * @param patientIds the UUIDs of the patients to assess
+     * @return the assessments, as newline-delimited JSON
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> assessBatch(@RequestBody List<UUID> patientIds) {
+        return stream(sink -> cohortAssessmentService.assessPatients(patientIds, sink));
+    }
+
+    /**
+     * Endpoint to assess the diabetes risk for all the patients, fetched page by page.
+     *
+     * @return the assessments, as newline-delimited JSON
+     */
+    @GetMapping(value = "/batch/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> assessAll() {
+        return stream(cohortAssessmentService::assessAllPatients);
+    }
+
+    /**
+     * Streams the assessments produced by a cohort assessment.
+     * The body is written on an asynchronous thread, so the request attributes are bound to it
+     * for the Feign calls to propagate the auth cookie.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<CohortAssessmentDto>> assessment) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        StreamingResponseBody body = outputStream -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            OutputStream out = new BufferedOutputStream(outputStream);
+            try {
+                assessment.accept(result -> writeLine(out, result));
+                out.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, CohortAssessmentDto result) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,53 @@
+package com.medilabo.assessmentService.controller;
+
+import com.medilabo.assessmentService.cache.PatientCategoryCache;
+import com.medilabo.assessmentService.dto.CategoryCacheReportDto;
+import com.medilabo.assessmentService.dto.NoteEventDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller for keeping the per-patient trigger-category cache up to date.
+ * Receives the note events of the Note Service and exposes the consistency check of the cache.
+ * Both are service-to-service calls, so they are kept out of the paths routed by the gateway.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/assessment")
+public class CategoryCacheController {
+
+    private final PatientCategoryCache categoryCache;
+
+    /**
+     * Endpoint notified by the Note Service when a note is created, updated or deleted.
+     *
+     * @param event the note event
+     */
+    @PostMapping("/events/notes")
+    public void onNoteEvent(@RequestBody NoteEventDto event) {
+        categoryCache.onNoteEvent(event);
+    }
+
+    /**
+     * Endpoint to force a full recompute of the cache and report the inconsistent patients.
+     *
+     * @param patientId the UUID of the patient to check, or none to check every cached patient
+     * @return the number of patients checked and the inconsistent ones
+     */
+    @PostMapping("/cache/verify")
+    public CategoryCacheReportDto verify(@RequestParam(required = false) UUID patientId) {
+        if (patientId == null) return categoryCache.verifyAll();
+
+        CategoryCacheReportDto report = new CategoryCacheReportDto();
+        report.setChecked(1);
+        report.setInconsistentPatients(categoryCache.verify(patientId) ? List.of() : List.of(patientId));
+        return report;
+    }
+}
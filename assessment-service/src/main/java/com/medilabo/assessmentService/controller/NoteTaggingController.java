@@ -0,0 +1,49 @@
+package com.medilabo.assessmentService.controller;
+
+import com.medilabo.assessmentService.dto.NoteTagsDto;
+import com.medilabo.assessmentService.service.NoteTaggingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller used by the Note Service to tag the notes with their trigger categories
+ * once they are written, and to find out which notes must be tagged again after
+ * the dictionary has changed. It is kept out of the paths routed by the gateway.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/assessment/tags")
+public class NoteTaggingController {
+
+    private final NoteTaggingService noteTaggingService;
+
+    /**
+     * Endpoint to compute the trigger categories of a batch of notes.
+     *
+     * @param notes the text of the notes
+     * @return the dictionary version and the categories of each note, in the same order
+     */
+    @PostMapping
+    public NoteTagsDto tag(@RequestBody List<String> notes) {
+        return noteTaggingService.tag(notes);
+    }
+
+    /**
+     * Endpoint to retrieve the version of the dictionary the notes are tagged with.
+     *
+     * @return the dictionary version, without categories
+     */
+    @GetMapping("/version")
+    public NoteTagsDto getDictionaryVersion() {
+        NoteTagsDto tags = new NoteTagsDto();
+        tags.setDictionaryVersion(noteTaggingService.getDictionaryVersion());
+        tags.setCategories(List.of());
+        return tags;
+    }
+}
@@ -0,0 +1,17 @@
+package com.medilabo.assessmentService.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the result of a consistency check of the trigger-category cache.
+ * It lists the patients whose cached categories differed from a full recompute of their notes.
+ */
+@Getter
+@Setter
+public class CategoryCacheReportDto {
+  private int checked;
+  private List<UUID> inconsistentPatients;
+}
@@ -0,0 +1,22 @@
+package com.medilabo.assessmentService.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * CohortAssessmentDto is a Data Transfer Object that represents the assessment of one patient
+ * of a cohort, streamed as one line of the batch response.
+ * When the patient could not be assessed, only the error is set.
+ */
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CohortAssessmentDto {
+  private UUID patientId;
+  private RiskLevel riskLevel;
+  private Integer triggerTermsCount;
+  private String error;
+}
@@ -9,6 +9,7 @@ import lombok.Setter;
 @Getter
 @Setter
 public class NoteDto {
+    private String id;
     private String patient;
     private String note;
 }
@@ -0,0 +1,30 @@
+package com.medilabo.assessmentService.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for a change of a note, reported by the Note Service.
+ * The content of the note is only set for created and updated notes.
+ * The version increases with each change published, since events may arrive out of order;
+ * it is null in the events of a Note Service that does not version them.
+ */
+@Getter
+@Setter
+public class NoteEventDto {
+
+  /**
+   * Kind of change made to a note.
+   */
+  public enum Type {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+
+  private Type type;
+  private String noteId;
+  private String patient;
+  private String note;
+  private Long version;
+}
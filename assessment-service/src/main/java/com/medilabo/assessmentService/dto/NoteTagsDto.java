@@ -0,0 +1,16 @@
+package com.medilabo.assessmentService.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the trigger categories of a batch of notes, as computed
+ * for the Note Service, which stores them with the fingerprint of the dictionary used.
+ */
+@Getter
+@Setter
+public class NoteTagsDto {
+  private String dictionaryVersion;
+  private List<List<String>> categories;
+}
@@ -0,0 +1,20 @@
+package com.medilabo.assessmentService.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the union of the trigger categories stored with the notes of a patient
+ * by the Note Service.
+ * The dictionary version is only set when every tagged note was tagged with the same dictionary.
+ */
+@Getter
+@Setter
+public class PatientCategoriesDto {
+  private String patient;
+  private List<String> categories;
+  private long notes;
+  private long untaggedNotes;
+  private String dictionaryVersion;
+}
@@ -1,6 +1,7 @@
 package com.medilabo.assessmentService.dto;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 import com.medilabo.assessmentService.enums.Gender;
 
@@ -13,6 +14,7 @@ import lombok.Setter;
 @Getter
 @Setter
 public class PatientDto {
+  private UUID id;
   private String firstName;
   private String lastName;
   private LocalDate birthDate;
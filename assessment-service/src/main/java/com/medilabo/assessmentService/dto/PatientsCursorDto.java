@@ -0,0 +1,17 @@
+package com.medilabo.assessmentService.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for a page of patients listed by cursor.
+ * The next cursor is null on the last page.
+ */
+@Getter
+@Setter
+public class PatientsCursorDto {
+  private List<PatientDto> data;
+  private String nextCursor;
+  private int pageSize;
+}
@@ -0,0 +1,12 @@
+package com.medilabo.assessmentService.enums;
+
+/**
+ * MatchingMode is an enumeration of the ways trigger terms are compared to the notes.
+ * STRICT ignores case only, so "cholesterol" does not match "cholestérol".
+ * ACCENT_INSENSITIVE ignores both case and diacritics.
+ * In both modes, decomposed (NFD) and composed (NFC) encodings of a note match the same terms.
+ */
+public enum MatchingMode {
+    STRICT,
+    ACCENT_INSENSITIVE
+}
@@ -0,0 +1,11 @@
+package com.medilabo.assessmentService.enums;
+
+/**
+ * MatchingStrategy is an enumeration of the ways trigger terms are located in the notes.
+ * SUBSTRING matches a term anywhere, including inside a longer word, so "fume" matches "parfume".
+ * TOKEN only matches whole words, and multi-word terms whatever separates their words.
+ */
+public enum MatchingStrategy {
+    SUBSTRING,
+    TOKEN
+}
@@ -2,15 +2,19 @@ package com.medilabo.assessmentService.feign;
 
 import com.medilabo.assessmentService.config.FeignConfig;
 import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.PatientCategoriesDto;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 /**
  * Feign client for interacting with the Note Service.
- * This client provides methods to retrieve notes associated with a patient.
+ * This client provides methods to retrieve notes associated with a patient or with several patients,
+ * and the trigger categories precomputed for their notes.
  */
 @FeignClient(
   name = "note-service",
@@ -26,4 +30,31 @@ public interface NoteFeignClient {
    */
   @GetMapping("/all/patient/{id}")
   List<NoteDto> getAllNotesByPatient(@PathVariable UUID id);
+
+  /**
+   * Retrieves all notes associated with several patients in a single request.
+   *
+   * @param patients the identifiers of the patients
+   * @return the notes of these patients, in no particular order
+   */
+  @PostMapping("/bulk/patients")
+  List<NoteDto> getAllNotesByPatients(@RequestBody List<String> patients);
+
+  /**
+   * Retrieves the union of the trigger categories stored with the notes of a patient.
+   *
+   * @param id the UUID of the patient
+   * @return the categories of the patient and the dictionary version they were computed with
+   */
+  @GetMapping("/categories/patient/{id}")
+  PatientCategoriesDto getCategoriesByPatient(@PathVariable UUID id);
+
+  /**
+   * Retrieves the union of the trigger categories stored with the notes of several patients.
+   *
+   * @param patients the identifiers of the patients
+   * @return the categories of each of these patients
+   */
+  @PostMapping("/categories/bulk/patients")
+  List<PatientCategoriesDto> getCategoriesByPatients(@RequestBody List<String> patients);
 }
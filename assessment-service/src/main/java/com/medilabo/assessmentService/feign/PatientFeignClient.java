@@ -2,14 +2,19 @@ package com.medilabo.assessmentService.feign;
 
 import com.medilabo.assessmentService.config.FeignConfig;
 import com.medilabo.assessmentService.dto.PatientDto;
+import com.medilabo.assessmentService.dto.PatientsCursorDto;
+import java.util.List;
 import java.util.UUID;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 /**
  * Feign client for interacting with the Patient Service.
- * This client provides methods to retrieve patient information by ID.
+ * This client provides methods to retrieve patient information by ID, in bulk or page by page.
  */
 @FeignClient(
   name = "patient-service",
@@ -25,4 +30,24 @@ public interface PatientFeignClient {
    */
   @GetMapping("/{patientId}")
   PatientDto getPatientById(@PathVariable UUID patientId);
+
+  /**
+   * Retrieves several patients by their unique identifiers in a single request.
+   *
+   * @param patientIds the UUIDs of the patients
+   * @return the patients found, unknown IDs being ignored
+   */
+  @PostMapping("/bulk")
+  List<PatientDto> getPatientsByIds(@RequestBody List<UUID> patientIds);
+
+  /**
+   * Retrieves a page of patients from a cursor, sorted by last name then by ID,
+   * so that paging through every patient neither skips nor repeats any of them.
+   *
+   * @param cursor the cursor returned with the previous page, null for the first page
+   * @param size the number of patients per page
+   * @return the page of patients and the cursor of the next page
+   */
+  @GetMapping("/cursor")
+  PatientsCursorDto getPatientsByCursor(@RequestParam(required = false) String cursor, @RequestParam int size);
 }
@@ -0,0 +1,193 @@
+package com.medilabo.assessmentService.matcher;
+
+import com.medilabo.assessmentService.enums.MatchingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Multi-pattern matcher for trigger terms based on the Aho-Corasick automaton.
+ * All the terms of the dictionary are compiled once into a single automaton whose
+ * accepting states carry the bitmask of the categories they belong to, so a note is
+ * scanned exactly once whatever the number of terms.
+ * Terms are matched anywhere in the text, including inside longer words.
+ */
+public final class AhoCorasickMatcher extends TermMatcher {
+
+  private static final int ROOT = 0;
+
+  private final long emptyTermsMask;
+  private final char[][] edgeChars;
+  private final int[][] edgeTargets;
+  private final int[] failure;
+  private final long[] outputs;
+
+  private AhoCorasickMatcher(
+    TextNormalizer normalizer,
+    Map<String, List<String>> categorizedTerms,
+    long emptyTermsMask,
+    List<TreeMap<Character, Integer>> trie,
+    int[] failure,
+    long[] outputs
+  ) {
+    super(normalizer, categorizedTerms);
+    this.emptyTermsMask = emptyTermsMask;
+    this.failure = failure;
+    this.outputs = outputs;
+    this.edgeChars = new char[trie.size()][];
+    this.edgeTargets = new int[trie.size()][];
+    for (int state = 0; state < trie.size(); state++) {
+      TreeMap<Character, Integer> edges = trie.get(state);
+      char[] chars = new char[edges.size()];
+      int[] targets = new int[edges.size()];
+      int i = 0;
+      for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+        chars[i] = edge.getKey();
+        targets[i] = edge.getValue();
+        i++;
+      }
+      edgeChars[state] = chars;
+      edgeTargets[state] = targets;
+    }
+  }
+
+  /**
+   * Compiles the categorized terms into a strict automaton, which only ignores case
+   * (see {@link MatchingMode#STRICT}).
+   *
+   * @param categorizedTerms the trigger terms grouped by category
+   * @return the compiled matcher
+   * @throws IllegalArgumentException if there are more than {@link #MAX_CATEGORIES} categories
+   * @see #compile(Map, TextNormalizer)
+   */
+  public static AhoCorasickMatcher compile(
+    Map<String, List<String>> categorizedTerms
+  ) {
+    return compile(categorizedTerms, new TextNormalizer(MatchingMode.STRICT));
+  }
+
+  /**
+   * Compiles the categorized terms into an automaton, after normalizing them.
+   * Categories keep the iteration order of the given map, which defines their bit
+   * position in the masks returned by the scans.
+   *
+   * @param categorizedTerms the trigger terms grouped by category
+   * @param normalizer the normalizer applied to the terms and to the scanned notes
+   * @return the compiled matcher
+   * @throws IllegalArgumentException if there are more than {@link #MAX_CATEGORIES} categories
+   */
+  public static AhoCorasickMatcher compile(
+    Map<String, List<String>> categorizedTerms,
+    TextNormalizer normalizer
+  ) {
+    if (categorizedTerms.size() > MAX_CATEGORIES) {
+      throw new IllegalArgumentException(
+        "Too many trigger categories: " + categorizedTerms.size()
+      );
+    }
+
+    List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+    List<Long> terminals = new ArrayList<>();
+    trie.add(new TreeMap<>());
+    terminals.add(0L);
+    long emptyTermsMask = 0L;
+    int categoryIndex = 0;
+
+    for (Map.Entry<String, List<String>> category : categorizedTerms.entrySet()) {
+      long bit = 1L << categoryIndex++;
+      for (String term : category.getValue()) {
+        term = normalizer.normalize(term);
+        if (term.isEmpty()) {
+          emptyTermsMask |= bit;
+          continue;
+        }
+        int state = ROOT;
+        for (int i = 0; i < term.length(); i++) {
+          char c = term.charAt(i);
+          Integer next = trie.get(state).get(c);
+          if (next == null) {
+            next = trie.size();
+            trie.add(new TreeMap<>());
+            terminals.add(0L);
+            trie.get(state).put(c, next);
+          }
+          state = next;
+        }
+        terminals.set(state, terminals.get(state) | bit);
+      }
+    }
+
+    int[] failure = new int[trie.size()];
+    long[] outputs = new long[trie.size()];
+    for (int state = 0; state < trie.size(); state++) {
+      outputs[state] = terminals.get(state);
+    }
+
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int child : trie.get(ROOT).values()) {
+      failure[child] = ROOT;
+      queue.add(child);
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      for (Map.Entry<Character, Integer> edge : trie.get(state).entrySet()) {
+        int child = edge.getValue();
+        int fallback = failure[state];
+        Integer target = trie.get(fallback).get(edge.getKey());
+        while (target == null && fallback != ROOT) {
+          fallback = failure[fallback];
+          target = trie.get(fallback).get(edge.getKey());
+        }
+        failure[child] = target == null ? ROOT : target;
+        outputs[child] |= outputs[failure[child]];
+        queue.add(child);
+      }
+    }
+
+    return new AhoCorasickMatcher(
+      normalizer,
+      categorizedTerms,
+      emptyTermsMask,
+      trie,
+      failure,
+      outputs
+    );
+  }
+
+  @Override
+  protected long scanNormalized(NormalizedText normalized, long matched) {
+    char[] text = normalized.array();
+    int length = normalized.length();
+    matched |= emptyTermsMask;
+    if (isComplete(matched)) return matched;
+
+    int state = ROOT;
+    for (int i = 0; i < length; i++) {
+      char c = text[i];
+      int next = next(state, c);
+      while (next < 0 && state != ROOT) {
+        state = failure[state];
+        next = next(state, c);
+      }
+      state = next < 0 ? ROOT : next;
+
+      long output = outputs[state];
+      if (output != 0L) {
+        matched |= output;
+        if (isComplete(matched)) return matched;
+      }
+    }
+    return matched;
+  }
+
+  private int next(int state, char c) {
+    char[] chars = edgeChars[state];
+    if (chars.length == 0) return -1;
+    int index = Arrays.binarySearch(chars, c);
+    return index < 0 ? -1 : edgeTargets[state][index];
+  }
+}
@@ -0,0 +1,90 @@
+package com.medilabo.assessmentService.matcher;
+
+/**
+ * Reusable character buffer holding a note once it has gone through the {@link TextNormalizer}.
+ * A single instance is meant to be reused for every note of an assessment, so the
+ * normalization allocates nothing once the buffer has grown to the longest note.
+ * Instances are not thread-safe.
+ */
+public final class NormalizedText implements CharSequence {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  private char[] chars;
+  private int length;
+  private int[] scratch = new int[0];
+
+  /**
+   * Creates an empty buffer with a default capacity.
+   */
+  public NormalizedText() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty buffer with the given capacity.
+   *
+   * @param capacity the initial capacity, in characters
+   */
+  public NormalizedText(int capacity) {
+    this.chars = new char[capacity];
+  }
+
+  /**
+   * Empties the buffer and makes room for at least the given number of characters.
+   *
+   * @param capacity the number of characters about to be appended
+   */
+  void reset(int capacity) {
+    if (chars.length < capacity) {
+      chars = new char[Math.max(capacity, chars.length * 2)];
+    }
+    length = 0;
+  }
+
+  void append(char c) {
+    chars[length++] = c;
+  }
+
+  /**
+   * Gives direct access to the backing array, valid up to {@link #length()}.
+   *
+   * @return the backing array
+   */
+  char[] array() {
+    return chars;
+  }
+
+  /**
+   * Gives a reusable scratch array for the matchers, such as token offsets.
+   * Its content is undefined.
+   *
+   * @param size the minimum size of the array
+   * @return a scratch array of at least the given size
+   */
+  int[] scratch(int size) {
+    if (scratch.length < size) scratch = new int[size];
+    return scratch;
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length) throw new IndexOutOfBoundsException(index);
+    return chars[index];
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    return new String(chars, 0, length);
+  }
+}
@@ -0,0 +1,129 @@
+package com.medilabo.assessmentService.matcher;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class of the compiled trigger-term matchers.
+ * A matcher reports the categories found in a text as a bitmask, one bit per category
+ * in dictionary order, so that the results of several notes are merged with a bitwise or.
+ * Terms and notes go through the same {@link TextNormalizer} before being compared.
+ * Implementations are immutable and can be shared between threads.
+ */
+public abstract class TermMatcher {
+
+  /**
+   * Maximum number of categories, one bit of the category mask per category.
+   */
+  public static final int MAX_CATEGORIES = Long.SIZE;
+
+  private final TextNormalizer normalizer;
+  private final List<String> categories;
+  private final long allCategoriesMask;
+
+  /**
+   * Initializes the categories shared by every matcher.
+   *
+   * @param normalizer the normalizer applied to the terms and to the scanned notes
+   * @param categorizedTerms the trigger terms grouped by category
+   * @throws IllegalArgumentException if there are more than {@link #MAX_CATEGORIES} categories
+   */
+  protected TermMatcher(
+    TextNormalizer normalizer,
+    Map<String, List<String>> categorizedTerms
+  ) {
+    if (categorizedTerms.size() > MAX_CATEGORIES) {
+      throw new IllegalArgumentException(
+        "Too many trigger categories: " + categorizedTerms.size()
+      );
+    }
+    this.normalizer = normalizer;
+    this.categories = List.copyOf(categorizedTerms.keySet());
+    this.allCategoriesMask = categories.size() == MAX_CATEGORIES
+      ? -1L
+      : (1L << categories.size()) - 1;
+  }
+
+  /**
+   * Scans a text once and adds the categories it matches to the given mask.
+   * This variant allocates a buffer on each call; prefer
+   * {@link #scan(CharSequence, NormalizedText, long)} when scanning several notes.
+   *
+   * @param text the text to scan, may be null
+   * @param matched the categories already matched
+   * @return the given mask with the categories found in the text
+   */
+  public long scan(CharSequence text, long matched) {
+    if (text == null) return matched;
+    return scan(text, new NormalizedText(text.length()), matched);
+  }
+
+  /**
+   * Normalizes a text into the given buffer, then scans it once and adds the categories
+   * it matches to the given mask.
+   * The scan stops as soon as every category has matched.
+   *
+   * @param text the text to scan, may be null
+   * @param buffer the buffer reused to hold the normalized text
+   * @param matched the categories already matched
+   * @return the given mask with the categories found in the text
+   */
+  public long scan(CharSequence text, NormalizedText buffer, long matched) {
+    if (text == null || isComplete(matched)) return matched;
+    normalizer.normalize(text, buffer);
+    return scanNormalized(buffer, matched);
+  }
+
+  /**
+   * Scans an already normalized text.
+   *
+   * @param normalized the normalized text
+   * @param matched the categories already matched
+   * @return the given mask with the categories found in the text
+   */
+  protected abstract long scanNormalized(NormalizedText normalized, long matched);
+
+  /**
+   * Tells whether every category is present in the given mask.
+   *
+   * @param matched a category mask
+   * @return true if no further scan can add a category
+   */
+  public boolean isComplete(long matched) {
+    return (matched & allCategoriesMask) == allCategoriesMask;
+  }
+
+  /**
+   * Resolves a category mask to the names of its categories.
+   *
+   * @param matched a category mask
+   * @return the category names, in dictionary order
+   */
+  public Set<String> categoriesOf(long matched) {
+    Set<String> names = new LinkedHashSet<>();
+    for (int i = 0; i < categories.size(); i++) {
+      if ((matched & (1L << i)) != 0L) names.add(categories.get(i));
+    }
+    return names;
+  }
+
+  /**
+   * Returns the normalizer shared by the terms and the scanned notes.
+   *
+   * @return the normalizer of this matcher
+   */
+  public TextNormalizer getNormalizer() {
+    return normalizer;
+  }
+
+  /**
+   * Returns the category names in bit order.
+   *
+   * @return the categories of the dictionary
+   */
+  public List<String> getCategories() {
+    return categories;
+  }
+}
@@ -0,0 +1,127 @@
+package com.medilabo.assessmentService.matcher;
+
+import com.medilabo.assessmentService.enums.MatchingMode;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds the notes and the trigger terms into a common form before matching.
+ * Case is always folded the way {@code String.regionMatches(true, ...)} compares
+ * characters; in {@link MatchingMode#ACCENT_INSENSITIVE} mode diacritics are removed too.
+ * The folding of the Latin blocks is precomputed in a lookup table, so a note is
+ * normalized in a single pass into a reusable {@link NormalizedText} buffer.
+ * Instances are immutable and can be shared between threads.
+ */
+public final class TextNormalizer {
+
+  /**
+   * Upper bound of the precomputed table: Basic Latin up to Latin Extended-B.
+   */
+  private static final int TABLE_SIZE = 0x250;
+
+  private static final char FIRST_COMBINING_MARK = '\u0300';
+  private static final char LAST_COMBINING_MARK = '\u036f';
+
+  private final MatchingMode mode;
+  private final boolean stripMarks;
+  private final char[] table = new char[TABLE_SIZE];
+
+  /**
+   * Creates a normalizer for the given matching mode.
+   *
+   * @param mode the matching mode
+   */
+  public TextNormalizer(MatchingMode mode) {
+    this.mode = mode;
+    this.stripMarks = mode == MatchingMode.ACCENT_INSENSITIVE;
+    for (char c = 0; c < TABLE_SIZE; c++) {
+      char base = stripMarks
+        ? Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0)
+        : c;
+      table[c] = fold(base);
+    }
+  }
+
+  /**
+   * Returns the matching mode of this normalizer.
+   *
+   * @return the matching mode
+   */
+  public MatchingMode getMode() {
+    return mode;
+  }
+
+  /**
+   * Normalizes a text into the given buffer, replacing its previous content.
+   * Composed text, which is what the notes are made of, is folded without any allocation.
+   * Text containing combining marks is first composed (NFC) in strict mode, while the
+   * marks are simply dropped in accent-insensitive mode.
+   *
+   * @param text the text to normalize
+   * @param target the buffer receiving the normalized text
+   */
+  public void normalize(CharSequence text, NormalizedText target) {
+    if (!stripMarks && hasCombiningMark(text)) {
+      text = Normalizer.normalize(text, Normalizer.Form.NFC);
+    }
+
+    int length = text.length();
+    target.reset(length);
+    for (int i = 0; i < length; i++) {
+      char c = text.charAt(i);
+      if (c < TABLE_SIZE) {
+        target.append(table[c]);
+      } else if (!stripMarks || Character.getType(c) != Character.NON_SPACING_MARK) {
+        target.append(fold(c));
+      }
+    }
+  }
+
+  /**
+   * Normalizes a single term.
+   * Meant for building dictionaries, not for the matching hot path.
+   *
+   * @param term the term to normalize
+   * @return the normalized term
+   */
+  public String normalize(String term) {
+    NormalizedText buffer = new NormalizedText(term.length());
+    normalize(term, buffer);
+    return buffer.toString();
+  }
+
+  /**
+   * Normalizes every term of a categorized dictionary, keeping the category order.
+   *
+   * @param categorizedTerms the trigger terms grouped by category
+   * @return a new dictionary with the normalized terms
+   */
+  public Map<String, List<String>> normalize(
+    Map<String, List<String>> categorizedTerms
+  ) {
+    Map<String, List<String>> normalizedTerms = new LinkedHashMap<>();
+    for (Map.Entry<String, List<String>> category : categorizedTerms.entrySet()) {
+      List<String> terms = new ArrayList<>(category.getValue().size());
+      for (String term : category.getValue()) {
+        terms.add(normalize(term));
+      }
+      normalizedTerms.put(category.getKey(), List.copyOf(terms));
+    }
+    return normalizedTerms;
+  }
+
+  private static boolean hasCombiningMark(CharSequence text) {
+    for (int i = 0, length = text.length(); i < length; i++) {
+      char c = text.charAt(i);
+      if (c >= FIRST_COMBINING_MARK && c <= LAST_COMBINING_MARK) return true;
+    }
+    return false;
+  }
+
+  private static char fold(char c) {
+    return Character.toLowerCase(Character.toUpperCase(c));
+  }
+}
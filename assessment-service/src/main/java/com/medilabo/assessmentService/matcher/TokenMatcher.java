@@ -0,0 +1,190 @@
+package com.medilabo.assessmentService.matcher;
+
+import com.medilabo.assessmentService.enums.MatchingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Word-boundary aware matcher for trigger terms.
+ * A note is split into tokens (runs of letters and digits) in a single pass, and every
+ * token, together with the few tokens preceding it, is looked up in a hash table of terms.
+ * A term therefore only matches whole words: "fume" matches "il fume" but not "parfume".
+ * Multi-word terms such as "hémoglobine a1c" match whatever separates their words in the note.
+ * The scan is linear in the length of the note and does not depend on the number of terms.
+ */
+public final class TokenMatcher extends TermMatcher {
+
+  private static final char SEPARATOR = ' ';
+
+  private final int maxWords;
+  private final int tableMask;
+  private final char[][] keys;
+  private final int[] hashes;
+  private final long[] masks;
+
+  private TokenMatcher(
+    TextNormalizer normalizer,
+    Map<String, List<String>> categorizedTerms,
+    Map<String, Long> phrases,
+    int maxWords
+  ) {
+    super(normalizer, categorizedTerms);
+    this.maxWords = maxWords;
+
+    int capacity = Integer.highestOneBit(Math.max(phrases.size(), 1) * 4);
+    this.tableMask = capacity - 1;
+    this.keys = new char[capacity][];
+    this.hashes = new int[capacity];
+    this.masks = new long[capacity];
+    for (Map.Entry<String, Long> phrase : phrases.entrySet()) {
+      char[] key = phrase.getKey().toCharArray();
+      int hash = hash(key, 0, key.length);
+      int slot = hash & tableMask;
+      while (keys[slot] != null) slot = (slot + 1) & tableMask;
+      keys[slot] = key;
+      hashes[slot] = hash;
+      masks[slot] = phrase.getValue();
+    }
+  }
+
+  /**
+   * Compiles the categorized terms into a strict token matcher, which only ignores case
+   * (see {@link MatchingMode#STRICT}).
+   *
+   * @param categorizedTerms the trigger terms grouped by category
+   * @return the compiled matcher
+   * @throws IllegalArgumentException if there are more than {@link #MAX_CATEGORIES} categories
+   * @see #compile(Map, TextNormalizer)
+   */
+  public static TokenMatcher compile(Map<String, List<String>> categorizedTerms) {
+    return compile(categorizedTerms, new TextNormalizer(MatchingMode.STRICT));
+  }
+
+  /**
+   * Compiles the categorized terms into a token matcher, after normalizing them.
+   * Each term is tokenized like the notes and stored with its words separated by a single space.
+   * Terms without any letter or digit can never match and are ignored.
+   *
+   * @param categorizedTerms the trigger terms grouped by category
+   * @param normalizer the normalizer applied to the terms and to the scanned notes
+   * @return the compiled matcher
+   * @throws IllegalArgumentException if there are more than {@link #MAX_CATEGORIES} categories
+   */
+  public static TokenMatcher compile(
+    Map<String, List<String>> categorizedTerms,
+    TextNormalizer normalizer
+  ) {
+    if (categorizedTerms.size() > MAX_CATEGORIES) {
+      throw new IllegalArgumentException(
+        "Too many trigger categories: " + categorizedTerms.size()
+      );
+    }
+
+    Map<String, Long> phrases = new LinkedHashMap<>();
+    int maxWords = 1;
+    int categoryIndex = 0;
+
+    for (Map.Entry<String, List<String>> category : categorizedTerms.entrySet()) {
+      long bit = 1L << categoryIndex++;
+      for (String term : category.getValue()) {
+        List<String> words = tokenize(normalizer.normalize(term));
+        if (words.isEmpty()) continue;
+        maxWords = Math.max(maxWords, words.size());
+        phrases.merge(String.join(String.valueOf(SEPARATOR), words), bit, (a, b) -> a | b);
+      }
+    }
+
+    return new TokenMatcher(normalizer, categorizedTerms, phrases, maxWords);
+  }
+
+  @Override
+  protected long scanNormalized(NormalizedText normalized, long matched) {
+    char[] text = normalized.array();
+    int length = normalized.length();
+    int[] bounds = normalized.scratch(2 * maxWords);
+    int tokens = 0;
+
+    int i = 0;
+    while (i < length) {
+      while (i < length && !isWordChar(text[i])) i++;
+      if (i == length) break;
+      int start = i;
+      while (i < length && isWordChar(text[i])) i++;
+
+      int slot = 2 * (tokens % maxWords);
+      bounds[slot] = start;
+      bounds[slot + 1] = i;
+      tokens++;
+
+      for (int words = 1; words <= Math.min(tokens, maxWords); words++) {
+        matched |= lookup(text, bounds, tokens - words, tokens);
+      }
+      if (isComplete(matched)) return matched;
+    }
+    return matched;
+  }
+
+  /**
+   * Looks up the phrase made of the tokens {@code [from, to)}, whose start and end offsets
+   * are kept in a ring buffer of {@code maxWords} pairs.
+   */
+  private long lookup(char[] text, int[] bounds, int from, int to) {
+    int hash = 0;
+    for (int t = from; t < to; t++) {
+      if (t > from) hash = 31 * hash + SEPARATOR;
+      int slot = 2 * (t % maxWords);
+      for (int i = bounds[slot]; i < bounds[slot + 1]; i++) hash = 31 * hash + text[i];
+    }
+
+    for (int slot = hash & tableMask; keys[slot] != null; slot = (slot + 1) & tableMask) {
+      if (hashes[slot] == hash && phraseEquals(keys[slot], text, bounds, from, to)) {
+        return masks[slot];
+      }
+    }
+    return 0L;
+  }
+
+  private boolean phraseEquals(
+    char[] key,
+    char[] text,
+    int[] bounds,
+    int from,
+    int to
+  ) {
+    int k = 0;
+    for (int t = from; t < to; t++) {
+      if (t > from) {
+        if (k == key.length || key[k++] != SEPARATOR) return false;
+      }
+      int slot = 2 * (t % maxWords);
+      for (int i = bounds[slot]; i < bounds[slot + 1]; i++) {
+        if (k == key.length || key[k++] != text[i]) return false;
+      }
+    }
+    return k == key.length;
+  }
+
+  private static List<String> tokenize(String text) {
+    List<String> words = new ArrayList<>();
+    int i = 0;
+    while (i < text.length()) {
+      while (i < text.length() && !isWordChar(text.charAt(i))) i++;
+      int start = i;
+      while (i < text.length() && isWordChar(text.charAt(i))) i++;
+      if (i > start) words.add(text.substring(start, i));
+    }
+    return words;
+  }
+
+  private static int hash(char[] key, int from, int to) {
+    int hash = 0;
+    for (int i = from; i < to; i++) hash = 31 * hash + key[i];
+    return hash;
+  }
+
+  private static boolean isWordChar(char c) {
+    return Character.isLetterOrDigit(c);
+  }
+}
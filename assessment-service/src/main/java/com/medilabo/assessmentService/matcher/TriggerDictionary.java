@@ -0,0 +1,29 @@
+package com.medilabo.assessmentService.matcher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Immutable snapshot of the trigger-term dictionary: the terms as loaded, their normalized
+ * form and the matcher compiled from them.
+ * A snapshot is published as a whole, so a reader never sees terms and matcher coming from
+ * two different versions of the dictionary.
+ * The version numbers the snapshots of this process, while the fingerprint identifies the
+ * content of the dictionary and the way it is matched, and is therefore the same on every
+ * instance loading the same file: it is the stamp stored with the categories precomputed
+ * by the Note Service.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class TriggerDictionary {
+
+  private final long version;
+  private final String fingerprint;
+  private final Instant loadedAt;
+  private final Map<String, List<String>> categorizedTerms;
+  private final Map<String, List<String>> normalizedTerms;
+  private final TermMatcher matcher;
+}
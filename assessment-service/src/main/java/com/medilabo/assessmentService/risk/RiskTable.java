@@ -0,0 +1,135 @@
+package com.medilabo.assessmentService.risk;
+
+import com.medilabo.assessmentService.config.RiskRulesProperties;
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Risk rules compiled into a lookup table indexed by gender, age band and trigger count.
+ * Evaluating a patient reads the band of its age from a table of every age,
+ * then its risk level from the table of levels, without any branch on the rules.
+ * Ages and trigger counts are clamped to the range covered by the tables: a negative value
+ * counts as 0, an age above {@link #MAX_AGE} as {@link #MAX_AGE}, and a trigger count above
+ * {@link #MAX_TRIGGERS} as {@link #MAX_TRIGGERS}, the number of categories a matcher can report.
+ */
+public final class RiskTable {
+
+  static final int MAX_AGE = 150;
+  static final int MAX_TRIGGERS = TermMatcher.MAX_CATEGORIES;
+
+  private static final int GENDERS = Gender.values().length;
+  private static final int COUNTS = MAX_TRIGGERS + 1;
+
+  private final int bands;
+  private final byte[] bandOfAge;
+  private final RiskLevel[] levels;
+
+  private RiskTable(int bands, byte[] bandOfAge, RiskLevel[] levels) {
+    this.bands = bands;
+    this.bandOfAge = bandOfAge;
+    this.levels = levels;
+  }
+
+  /**
+   * Compiles risk rules into a table.
+   *
+   * @param properties the age bands and the rules
+   * @return the compiled table
+   * @throws IllegalArgumentException if the age bands are not ascending, or the rules do not
+   *     cover each gender and age band exactly once, or a threshold is not positive
+   */
+  public static RiskTable compile(RiskRulesProperties properties) {
+    List<Integer> ageBands = properties.getAgeBands();
+    int bands = ageBands.size() + 1;
+    if (bands > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many age bands: " + bands);
+    }
+    byte[] bandOfAge = new byte[MAX_AGE + 1];
+    int previous = 0;
+    for (int band = 1; band < bands; band++) {
+      Integer lowerBound = ageBands.get(band - 1);
+      if (lowerBound == null || lowerBound <= previous || lowerBound > MAX_AGE) {
+        throw new IllegalArgumentException("Age bands must be ascending between 1 and " + MAX_AGE);
+      }
+      for (int age = lowerBound; age <= MAX_AGE; age++) {
+        bandOfAge[age] = (byte) band;
+      }
+      previous = lowerBound;
+    }
+
+    RiskLevel[] levels = new RiskLevel[GENDERS * bands * COUNTS];
+    for (RiskRulesProperties.Rule rule : properties.getRules()) {
+      if (rule.getAgeBand() < 0 || rule.getAgeBand() >= bands) {
+        throw new IllegalArgumentException("Unknown age band in risk rules: " + rule.getAgeBand());
+      }
+      for (Gender gender : Gender.values()) {
+        if (rule.getGender() == null || rule.getGender() == gender) {
+          fill(levels, index(bands, gender, rule.getAgeBand(), 0), rule.getThresholds());
+        }
+      }
+    }
+    for (Gender gender : Gender.values()) {
+      for (int band = 0; band < bands; band++) {
+        if (levels[index(bands, gender, band, 0)] == null) {
+          throw new IllegalArgumentException(
+            "No risk rule for gender " + gender + " and age band " + band
+          );
+        }
+      }
+    }
+    return new RiskTable(bands, bandOfAge, levels);
+  }
+
+  /**
+   * Fills the levels of every trigger count of a gender and an age band.
+   */
+  private static void fill(RiskLevel[] levels, int offset, Map<RiskLevel, Integer> thresholds) {
+    if (levels[offset] != null) {
+      throw new IllegalArgumentException("Several risk rules for the same gender and age band");
+    }
+    for (Map.Entry<RiskLevel, Integer> threshold : thresholds.entrySet()) {
+      if (threshold.getKey() == RiskLevel.NONE || threshold.getValue() == null || threshold.getValue() < 1) {
+        throw new IllegalArgumentException("Invalid risk threshold: " + threshold);
+      }
+    }
+    RiskLevel[] bySeverity = RiskLevel.values();
+    for (int count = 0; count < COUNTS; count++) {
+      RiskLevel level = RiskLevel.NONE;
+      for (int i = bySeverity.length - 1; i > 0; i--) {
+        Integer threshold = thresholds.get(bySeverity[i]);
+        if (threshold != null && count >= threshold) {
+          level = bySeverity[i];
+          break;
+        }
+      }
+      levels[offset + count] = level;
+    }
+  }
+
+  private static int index(int bands, Gender gender, int band, int triggerCount) {
+    return (gender.ordinal() * bands + band) * COUNTS + triggerCount;
+  }
+
+  /**
+   * Evaluates the risk level of a patient.
+   *
+   * @param gender the gender of the patient
+   * @param age the age of the patient
+   * @param triggerCount the number of trigger categories found in the notes of the patient
+   * @return the risk level of the patient
+   */
+  public RiskLevel evaluate(Gender gender, int age, int triggerCount) {
+    int band = bandOfAge[Math.clamp(age, 0, MAX_AGE)];
+    return levels[index(bands, gender, band, Math.clamp(triggerCount, 0, MAX_TRIGGERS))];
+  }
+
+  /**
+   * @return the number of age bands
+   */
+  public int getBands() {
+    return bands;
+  }
+}
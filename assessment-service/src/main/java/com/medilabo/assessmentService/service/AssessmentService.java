@@ -2,22 +2,40 @@ package com.medilabo.assessmentService.service;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
-import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import com.medilabo.assessmentService.cache.PatientCategoryCache;
 import com.medilabo.assessmentService.dto.AssessmentDto;
+import com.medilabo.assessmentService.enums.Gender;
 import com.medilabo.assessmentService.enums.RiskLevel;
 import com.medilabo.assessmentService.feign.NoteFeignClient;
 import com.medilabo.assessmentService.feign.PatientFeignClient;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import com.medilabo.assessmentService.matcher.NormalizedText;
+import com.medilabo.assessmentService.matcher.TriggerDictionary;
 import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.PatientCategoriesDto;
 import com.medilabo.assessmentService.dto.PatientDto;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,106 +51,277 @@ public class AssessmentService {
     private final NoteFeignClient noteFeignClient;
     private final TriggerTermsLoader termsLoader;
     private final PatientFeignClient patientFeignClient;
+    private final MeterRegistry meterRegistry;
+    private final PatientCategoryCache categoryCache;
+    private final RiskRuleEngine riskRuleEngine;
+
+    static final String FETCH_METRIC = "assessment.fetch";
+    static final String PRECOMPUTED_METRIC = "assessment.precomputed-categories";
+
+    /**
+     * Runs the patient and notes calls of an assessment concurrently, one virtual thread per call.
+     */
+    private static final ExecutorService FETCH_EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${assessment.fetch.patient-timeout-ms:2000}")
+    private long patientTimeoutMillis = 2000;
+
+    @Value("${assessment.fetch.notes-timeout-ms:2000}")
+    private long notesTimeoutMillis = 2000;
+
+    @Getter
+    @Value("${assessment.precomputed-categories.enabled:true}")
+    private boolean precomputedCategoriesEnabled = true;
 
     /**
      * Assesses a given patient's diabetes risk.
-     * It retrieves patient information and notes, counts triggers,
+     * It retrieves patient information and notes concurrently, counts triggers,
      * and calculates the risk level based on their data.
+     * When the trigger categories of the patient are cached, the notes are neither fetched nor scanned.
+     * Otherwise the categories precomputed by the Note Service are fetched first, and the notes are
+     * only fetched and scanned when some of them are not tagged with the current dictionary.
+     * The patient call has its own timeout; the categories and notes calls share theirs, so that
+     * fetching the notes after the categories does not double it. The latency of each call and
+     * of the whole fan-out is recorded in the {@value #FETCH_METRIC} histogram.
      * @param patientId the UUID of the patient to assess
      * @return AssessmentDto containing the risk level and count of trigger terms
      * @throws RuntimeException if the patient is not found or an error occurs during assessment
      * @see RiskLevel
      * @see NoteFeignClient
      * @see PatientFeignClient
+     * @see PatientCategoryCache
      * @see NoteDto
      * @see PatientDto
      * @see AssessmentDto
      **/
     public AssessmentDto assessDiabetesRisk(UUID patientId) {
         try {
-            PatientDto patient = patientFeignClient.getPatientById(patientId);
-            if (patient == null) throw new RuntimeException("Patient not found");
-
-            List<NoteDto> notes = noteFeignClient.getAllNotesByPatient(patientId);
-
-            int age = Period.between(patient.getBirthDate(), LocalDate.now()).getYears();
+            long start = System.nanoTime();
+            long notesDeadline = start + TimeUnit.MILLISECONDS.toNanos(notesTimeoutMillis);
+            long stamp = categoryCache.stamp(patientId);
+            OptionalLong cachedCategories = categoryCache.get(patientId);
 
-            int triggerCount = countTriggerTerms(notes);
+            CompletableFuture<PatientDto> patientCall =
+                fetch("patient", patientTimeoutMillis, () -> patientFeignClient.getPatientById(patientId));
+            RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+            Supplier<CompletableFuture<List<NoteDto>>> notesFetch = () ->
+                fetch("notes", remainingMillis(notesDeadline), attributes, () -> noteFeignClient.getAllNotesByPatient(patientId));
+            CompletableFuture<OptionalInt> precomputedCall = null;
+            CompletableFuture<List<NoteDto>> notesCall = null;
+            if (cachedCategories.isEmpty() && precomputedCategoriesEnabled) {
+                // The notes are only fetched if the precomputed categories cannot be used,
+                // but still concurrently with the patient.
+                precomputedCall = fetch("categories", notesTimeoutMillis, attributes, () -> noteFeignClient.getCategoriesByPatient(patientId))
+                    .handle((categories, failure) -> countPrecomputedCategories(patientId, categories, failure));
+                notesCall = precomputedCall.thenCompose(precomputed ->
+                    precomputed.isPresent() ? CompletableFuture.completedFuture(null) : notesFetch.get());
+            } else if (cachedCategories.isEmpty()) {
+                notesCall = notesFetch.get();
+            }
 
-            RiskLevel riskLevel = calculateRiskLevel(age, patient.getGender().name(), triggerCount);
+            PatientDto patient = await(patientCall);
+            if (patient == null) {
+                if (notesCall != null) notesCall.cancel(false);
+                throw new RuntimeException("Patient not found");
+            }
+            if (cachedCategories.isPresent()) {
+                fetchTimer("fan-out").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return assess(patient, Long.bitCount(cachedCategories.getAsLong()));
+            }
+            OptionalInt precomputed = precomputedCall == null ? OptionalInt.empty() : await(precomputedCall);
+            if (precomputed.isPresent()) {
+                fetchTimer("fan-out").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return assess(patient, precomputed.getAsInt());
+            }
 
-            AssessmentDto assessmentDto = new AssessmentDto();
-            assessmentDto.setRiskLevel(riskLevel);
-            assessmentDto.setTriggerTermsCount(triggerCount);
+            List<NoteDto> notes = await(notesCall);
+            fetchTimer("fan-out").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
-            return assessmentDto;
+            return assess(patient, Long.bitCount(categoryCache.load(patientId, notes, stamp)));
         } catch (feign.FeignException e) {
             log.error("Feign error assessing diabetes risk for patient {}: {}", patientId, e.getMessage());
             throw new RuntimeException("Error assessing diabetes risk: Feign client error");
         } catch (NullPointerException e) {
             log.error("Null pointer error assessing diabetes risk for patient {}: {}", patientId, e.getMessage());
             throw new RuntimeException("Error assessing diabetes risk: Null value encountered");
+        } catch (TimeoutException e) {
+            log.error("Timeout assessing diabetes risk for patient {}", patientId);
+            throw new RuntimeException("Error assessing diabetes risk: Timeout");
         }
     }
 
+    /**
+     * Assesses the diabetes risk of a patient whose data and notes have already been fetched.
+     * This is the CPU-bound part of an assessment, shared by the single and the cohort assessments.
+     * @param patient the patient to assess
+     * @param notes the notes of the patient
+     * @return AssessmentDto containing the risk level and count of trigger terms
+     * @throws NullPointerException if the notes or a required patient field are missing
+     * @see CohortAssessmentService
+     **/
+    public AssessmentDto assess(PatientDto patient, List<NoteDto> notes) {
+        return assess(patient, countTriggerTerms(notes));
+    }
+
+    /**
+     * Assesses the diabetes risk of a patient whose trigger categories are already known.
+     * @param patient the patient to assess
+     * @param triggerCount the number of trigger categories found in the notes of the patient
+     * @return AssessmentDto containing the risk level and count of trigger terms
+     * @throws NullPointerException if a required patient field is missing
+     **/
+    public AssessmentDto assess(PatientDto patient, int triggerCount) {
+        int age = Period.between(patient.getBirthDate(), LocalDate.now()).getYears();
+
+        RiskLevel riskLevel = calculateRiskLevel(age, patient.getGender().name(), triggerCount);
+
+        AssessmentDto assessmentDto = new AssessmentDto();
+        assessmentDto.setRiskLevel(riskLevel);
+        assessmentDto.setTriggerTermsCount(triggerCount);
+
+        return assessmentDto;
+    }
+
+    /**
+     * Counts the trigger categories precomputed by the Note Service for the notes of a patient,
+     * provided that they can be trusted: every note must have been tagged with the dictionary
+     * currently in use, as identified by its fingerprint.
+     * @param categories the categories stored with the notes of the patient, or null if unavailable
+     * @return the number of trigger categories, or empty if the notes must be fetched and scanned
+     * @see TriggerDictionary#getFingerprint()
+     **/
+    public OptionalInt countPrecomputedCategories(PatientCategoriesDto categories) {
+        if (!precomputedCategoriesEnabled || categories == null) {
+            return precomputed("unavailable", OptionalInt.empty());
+        }
+        if (categories.getNotes() == 0) {
+            return precomputed("used", OptionalInt.of(0));
+        }
+        TriggerDictionary dictionary = termsLoader.getDictionary();
+        if (categories.getUntaggedNotes() > 0
+            || dictionary == null
+            || !dictionary.getFingerprint().equals(categories.getDictionaryVersion())) {
+            return precomputed("stale", OptionalInt.empty());
+        }
+        return precomputed("used", OptionalInt.of(categories.getCategories().size()));
+    }
+
+    private OptionalInt precomputed(String result, OptionalInt count) {
+        Counter.builder(PRECOMPUTED_METRIC)
+            .description("Assessments that could rely on the trigger categories precomputed by the Note Service")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+        return count;
+    }
+
+    /**
+     * Counts the precomputed categories of a patient once fetched. The notes can always be scanned
+     * instead, so a failure of the call, e.g. against an older Note Service, is not an error.
+     **/
+    private OptionalInt countPrecomputedCategories(UUID patientId, PatientCategoriesDto categories, Throwable failure) {
+        if (failure != null) {
+            log.warn("Precomputed categories unavailable for patient {}: {}", patientId, failure.getMessage());
+            return countPrecomputedCategories(null);
+        }
+        return countPrecomputedCategories(categories);
+    }
+
+    /**
+     * Starts a remote call on a virtual thread.
+     * The request attributes of the calling thread are bound to the virtual thread for the
+     * duration of the call, so that {@code FeignConfig} still propagates the auth cookie.
+     * @param call the name of the call, used as the metric tag
+     * @param timeoutMillis the time after which the returned future fails with a TimeoutException
+     * @param supplier the remote call
+     * @return the future result of the call
+     * @see com.medilabo.assessmentService.config.FeignConfig
+     **/
+    private <T> CompletableFuture<T> fetch(String call, long timeoutMillis, Supplier<T> supplier) {
+        return fetch(call, timeoutMillis, RequestContextHolder.getRequestAttributes(), supplier);
+    }
+
+    /**
+     * Starts a remote call on a virtual thread, with the given request attributes,
+     * for calls started from another call rather than from the request thread.
+     **/
+    private <T> CompletableFuture<T> fetch(String call, long timeoutMillis, RequestAttributes attributes, Supplier<T> supplier) {
+        Timer timer = fetchTimer(call);
+        return CompletableFuture.supplyAsync(() -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            long start = System.nanoTime();
+            try {
+                return supplier.get();
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }, FETCH_EXECUTOR).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static long remainingMillis(long deadline) {
+        return Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()));
+    }
+
+    /**
+     * Waits for a remote call and rethrows its failure as is, so that Feign errors
+     * are reported like when the calls were sequential.
+     **/
+    private static <T> T await(CompletableFuture<T> call) throws TimeoutException {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) throw timeout;
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new RuntimeException("Error assessing diabetes risk", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error assessing diabetes risk: Interrupted");
+        }
+    }
+
+    private Timer fetchTimer(String call) {
+        return Timer.builder(FETCH_METRIC)
+            .description("Latency of the remote calls of an assessment, and of their concurrent fan-out")
+            .tag("call", call)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
     /**
      * Counts the number of unique trigger terms found in the patient's notes.
-     * Trigger terms are categorized and checked against the content of each note.
+     * Each note is normalized once into a buffer shared by all the notes, then scanned
+     * once by the compiled matcher; the scan stops as soon as every trigger category has been found.
      * @param notes List of NoteDto objects containing patient notes
      * @return The count of unique trigger categories found in the notes
      * @see NoteDto
      * @see TriggerTermsLoader
-     * @see StringUtils
-     * @see Set
-     * @see Map
+     * @see TermMatcher
+     * @see NormalizedText
      **/
     private int countTriggerTerms(List<NoteDto> notes) {
-        Set<String> uniqueCategories = new HashSet<>();
-        Map<String, List<String>> categorizedTerms = termsLoader.getCategorizedTerms();
+        TermMatcher matcher = termsLoader.getMatcher();
+        NormalizedText buffer = new NormalizedText();
+        long matched = 0L;
 
         for (NoteDto note : notes) {
-            String content = note.getNote();
-            for (Map.Entry<String, List<String>> category : categorizedTerms.entrySet()) {
-                for (String term : category.getValue()) {
-                    if (StringUtils.containsIgnoreCase(content, term)) {
-                        uniqueCategories.add(category.getKey());
-                        break;
-                    }
-                }
-            }
+            if (matcher.isComplete(matched)) break;
+            matched = matcher.scan(note.getNote(), buffer, matched);
         }
 
-        return uniqueCategories.size();
+        return Long.bitCount(matched);
     }
 
     /**
-     * Calculates the risk level based on the patient's
+     * Calculates the risk level based on the patient's age, gender and trigger count,
+     * with the configured risk rules.
      * @param age the age of the patient
-     * @param gender the gender of the patient (M/F)
+     * @param gender the gender of the patient (M/F), any other value being evaluated as F
      * @param triggerCount the count of unique trigger terms found in the patient's notes
      * @return RiskLevel enum representing the calculated risk level
+     * @see RiskRuleEngine
      **/
     private RiskLevel calculateRiskLevel(int age, String gender, int triggerCount) {
-        if (triggerCount == 0) return RiskLevel.NONE;
-
-        boolean isMale = "M".equalsIgnoreCase(gender);
-        boolean isUnder30 = age < 30;
-
-        if (isUnder30) {
-            if (isMale) {
-                if (triggerCount >= 5) return RiskLevel.EARLY_ONSET;
-                else if (triggerCount >= 3) return RiskLevel.IN_DANGER;
-                else return RiskLevel.NONE;
-            } else {
-                if (triggerCount >= 7) return RiskLevel.EARLY_ONSET;
-                else if (triggerCount >= 4) return RiskLevel.IN_DANGER;
-                else return RiskLevel.NONE;
-            }
-        } else {
-            if (triggerCount >= 8) return RiskLevel.EARLY_ONSET;
-            else if (triggerCount >= 6) return RiskLevel.IN_DANGER;
-            else if (triggerCount >= 2) return RiskLevel.BORDERLINE;
-            else return RiskLevel.NONE;
-        }
+        return riskRuleEngine.evaluate("M".equalsIgnoreCase(gender) ? Gender.M : Gender.F, age, triggerCount);
     }
 }
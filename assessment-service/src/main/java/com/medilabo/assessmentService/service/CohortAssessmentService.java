@@ -0,0 +1,250 @@
+package com.medilabo.assessmentService.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.medilabo.assessmentService.dto.AssessmentDto;
+import com.medilabo.assessmentService.dto.CohortAssessmentDto;
+import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.PatientCategoriesDto;
+import com.medilabo.assessmentService.dto.PatientDto;
+import com.medilabo.assessmentService.dto.PatientsCursorDto;
+import com.medilabo.assessmentService.feign.NoteFeignClient;
+import com.medilabo.assessmentService.feign.PatientFeignClient;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service for assessing the diabetes risk of a whole cohort of patients.
+ * Patients are processed by chunks: the patients and the notes of a chunk are fetched with one
+ * bulk request each, then the patients are assessed in parallel on a bounded pool of threads.
+ * The notes are only fetched for the patients whose trigger categories have not been precomputed
+ * by the Note Service with the current dictionary.
+ * Results are handed over one by one, so that they can be streamed while the next chunks are processed.
+ **/
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CohortAssessmentService {
+
+    static final String ASSESSMENTS_METRIC = "assessment.cohort.assessments";
+    static final String THROUGHPUT_METRIC = "assessment.cohort.throughput";
+
+    private final PatientFeignClient patientFeignClient;
+    private final NoteFeignClient noteFeignClient;
+    private final AssessmentService assessmentService;
+
+    @Value("${assessment.cohort.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Value("${assessment.cohort.parallelism:0}")
+    private int parallelism = 0;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ExecutorService executor;
+    private volatile double lastThroughput;
+
+    /**
+     * Starts the pool of threads assessing the patients, one per core unless configured otherwise.
+     **/
+    @PostConstruct
+    public void start() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        executor = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("cohort-assessment-", 0).daemon().factory());
+        Gauge.builder(THROUGHPUT_METRIC, this, service -> service.lastThroughput)
+            .description("Assessments per second of the last cohort assessment")
+            .baseUnit("assessments/s")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Stops the pool of threads assessing the patients.
+     **/
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Assesses the given patients.
+     * An unknown patient, or a patient that cannot be assessed, is reported with an error
+     * instead of interrupting the whole cohort.
+     * @param patientIds the UUIDs of the patients to assess
+     * @param sink receives the assessments, on the calling thread, in the order of the IDs of each chunk
+     * @return the number of assessments handed over to the sink
+     * @throws RuntimeException if a bulk request fails
+     **/
+    public long assessPatients(List<UUID> patientIds, Consumer<CohortAssessmentDto> sink) {
+        long start = System.nanoTime();
+        long count = 0;
+        for (int from = 0; from < patientIds.size(); from += chunkSize) {
+            List<UUID> chunk = patientIds.subList(from, Math.min(from + chunkSize, patientIds.size()));
+            Map<UUID, PatientDto> patients = new HashMap<>();
+            for (PatientDto patient : patientFeignClient.getPatientsByIds(chunk)) {
+                patients.put(patient.getId(), patient);
+            }
+            List<PatientDto> ordered = new ArrayList<>(chunk.size());
+            for (UUID patientId : chunk) {
+                PatientDto patient = patients.get(patientId);
+                if (patient == null) {
+                    sink.accept(error(patientId, "Patient not found"));
+                    count++;
+                } else {
+                    ordered.add(patient);
+                }
+            }
+            count += assessChunk(ordered, sink);
+        }
+        return report(count, start);
+    }
+
+    /**
+     * Assesses every patient, fetching them page by page from a cursor, so that patients
+     * created or deleted meanwhile do not shift the pages.
+     * @param sink receives the assessments, on the calling thread
+     * @return the number of assessments handed over to the sink
+     * @throws RuntimeException if a bulk request fails
+     **/
+    public long assessAllPatients(Consumer<CohortAssessmentDto> sink) {
+        long start = System.nanoTime();
+        long count = 0;
+        String cursor = null;
+        do {
+            PatientsCursorDto patients = patientFeignClient.getPatientsByCursor(cursor, chunkSize);
+            count += assessChunk(patients.getData(), sink);
+            cursor = patients.getNextCursor();
+        } while (cursor != null);
+        return report(count, start);
+    }
+
+    /**
+     * Fetches the precomputed categories of a chunk of patients in bulk, then the notes of the
+     * patients that still need to be scanned, then assesses the patients in parallel.
+     **/
+    private long assessChunk(List<PatientDto> patients, Consumer<CohortAssessmentDto> sink) {
+        if (patients.isEmpty()) return 0;
+
+        List<String> patientIds = new ArrayList<>(patients.size());
+        for (PatientDto patient : patients) {
+            patientIds.add(patient.getId().toString());
+        }
+        Map<String, Integer> precomputed = fetchPrecomputedCategories(patientIds);
+        List<String> scannedIds = new ArrayList<>(patientIds.size());
+        for (String patientId : patientIds) {
+            if (!precomputed.containsKey(patientId)) scannedIds.add(patientId);
+        }
+        Map<String, List<NoteDto>> notesByPatient = new HashMap<>();
+        if (!scannedIds.isEmpty()) {
+            for (NoteDto note : noteFeignClient.getAllNotesByPatients(scannedIds)) {
+                notesByPatient.computeIfAbsent(note.getPatient(), patient -> new ArrayList<>()).add(note);
+            }
+        }
+
+        List<Future<CohortAssessmentDto>> assessments = new ArrayList<>(patients.size());
+        for (PatientDto patient : patients) {
+            Integer triggerCount = precomputed.get(patient.getId().toString());
+            if (triggerCount != null) {
+                assessments.add(executor.submit(() -> assess(patient, () -> assessmentService.assess(patient, triggerCount))));
+                continue;
+            }
+            List<NoteDto> notes = notesByPatient.getOrDefault(patient.getId().toString(), List.of());
+            assessments.add(executor.submit(() -> assess(patient, () -> assessmentService.assess(patient, notes))));
+        }
+        for (Future<CohortAssessmentDto> assessment : assessments) {
+            sink.accept(await(assessment));
+        }
+        return assessments.size();
+    }
+
+    /**
+     * Fetches the trigger counts that can be taken from the categories precomputed by the Note Service.
+     * Patients missing from the result are scanned as usual, so a failure of this call is not an error.
+     **/
+    private Map<String, Integer> fetchPrecomputedCategories(List<String> patientIds) {
+        Map<String, Integer> triggerCounts = new HashMap<>();
+        if (!assessmentService.isPrecomputedCategoriesEnabled()) return triggerCounts;
+        try {
+            for (PatientCategoriesDto categories : noteFeignClient.getCategoriesByPatients(patientIds)) {
+                OptionalInt triggerCount = assessmentService.countPrecomputedCategories(categories);
+                if (triggerCount.isPresent()) triggerCounts.put(categories.getPatient(), triggerCount.getAsInt());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Precomputed categories unavailable, scanning the notes: {}", e.getMessage());
+            triggerCounts.clear();
+        }
+        return triggerCounts;
+    }
+
+    private CohortAssessmentDto assess(PatientDto patient, Supplier<AssessmentDto> assessor) {
+        try {
+            AssessmentDto assessment = assessor.get();
+            CohortAssessmentDto result = new CohortAssessmentDto();
+            result.setPatientId(patient.getId());
+            result.setRiskLevel(assessment.getRiskLevel());
+            result.setTriggerTermsCount(assessment.getTriggerTermsCount());
+            counter("success").increment();
+            return result;
+        } catch (RuntimeException e) {
+            log.error("Error assessing diabetes risk for patient {}: {}", patient.getId(), e.getMessage());
+            return error(patient.getId(), "Error assessing diabetes risk");
+        }
+    }
+
+    private CohortAssessmentDto error(UUID patientId, String message) {
+        counter("error").increment();
+        CohortAssessmentDto result = new CohortAssessmentDto();
+        result.setPatientId(patientId);
+        result.setError(message);
+        return result;
+    }
+
+    private static CohortAssessmentDto await(Future<CohortAssessmentDto> assessment) {
+        try {
+            return assessment.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error assessing cohort", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Error assessing cohort: Interrupted");
+        }
+    }
+
+    private long report(long count, long start) {
+        double seconds = Math.max(System.nanoTime() - start, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        lastThroughput = count / seconds;
+        log.info("Assessed {} patients in {} ms ({} assessments/s)",
+            count, Math.round(seconds * 1000), Math.round(lastThroughput));
+        return count;
+    }
+
+    private Counter counter(String outcome) {
+        return Counter.builder(ASSESSMENTS_METRIC)
+            .description("Patients assessed by cohort assessments")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.medilabo.assessmentService.service;
+
+import com.medilabo.assessmentService.dto.NoteTagsDto;
+import com.medilabo.assessmentService.matcher.NormalizedText;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import com.medilabo.assessmentService.matcher.TriggerDictionary;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service computing the trigger categories of notes on behalf of the Note Service,
+ * which stores them with each note so that assessments do not need the text of the notes.
+ * All the notes of a batch are tagged with the same snapshot of the dictionary,
+ * whose fingerprint is returned as the version of the tags.
+ */
+@Service
+@RequiredArgsConstructor
+public class NoteTaggingService {
+
+  /**
+   * Maximum number of notes tagged by a single request.
+   */
+  public static final int MAX_BATCH_SIZE = 1000;
+
+  private final TriggerTermsLoader termsLoader;
+
+  /**
+   * Computes the trigger categories of each note.
+   *
+   * @param notes the text of the notes, at most {@link #MAX_BATCH_SIZE}
+   * @return the fingerprint of the dictionary and the categories of each note, in the same order
+   * @throws RuntimeException if too many notes are given
+   */
+  public NoteTagsDto tag(List<String> notes) {
+    if (notes.size() > MAX_BATCH_SIZE) {
+      throw new RuntimeException(
+        "Too many notes: " + notes.size() + " (max " + MAX_BATCH_SIZE + ")"
+      );
+    }
+    TriggerDictionary dictionary = termsLoader.getDictionary();
+    TermMatcher matcher = dictionary.getMatcher();
+    NormalizedText buffer = new NormalizedText();
+    List<List<String>> categories = new ArrayList<>(notes.size());
+    for (String note : notes) {
+      long matched = note == null ? 0L : matcher.scan(note, buffer, 0L);
+      categories.add(List.copyOf(matcher.categoriesOf(matched)));
+    }
+
+    NoteTagsDto tags = new NoteTagsDto();
+    tags.setDictionaryVersion(dictionary.getFingerprint());
+    tags.setCategories(categories);
+    return tags;
+  }
+
+  /**
+   * @return the fingerprint of the dictionary the notes are currently tagged with
+   */
+  public String getDictionaryVersion() {
+    return termsLoader.getFingerprint();
+  }
+}
@@ -0,0 +1,71 @@
+package com.medilabo.assessmentService.service;
+
+import com.medilabo.assessmentService.config.RiskRulesProperties;
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import com.medilabo.assessmentService.risk.RiskTable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates the diabetes risk rules of the configuration, compiled once into a {@link RiskTable}.
+ * The thresholds can be tuned without a release, through the environment or an external
+ * configuration file read at startup. The refresh endpoint is not exposed, since the service
+ * does not authenticate its callers, but a refresh of the configuration triggered from within,
+ * e.g. by a configuration client, compiles the rules again and swaps the new table in atomically.
+ * Invalid rules are rejected at startup, and ignored on a refresh, keeping the current table.
+ */
+@Slf4j
+@Component
+public class RiskRuleEngine {
+
+  private final RiskRulesProperties properties;
+  private volatile RiskTable table;
+
+  /**
+   * Compiles the configured rules.
+   *
+   * @param properties the risk rules
+   * @throws RuntimeException if the rules are invalid
+   */
+  public RiskRuleEngine(RiskRulesProperties properties) {
+    this.properties = properties;
+    try {
+      this.table = RiskTable.compile(properties);
+    } catch (IllegalArgumentException e) {
+      log.error("Error compiling risk rules", e);
+      throw new RuntimeException("Error compiling risk rules");
+    }
+  }
+
+  /**
+   * Compiles the rules again after a refresh of the configuration.
+   *
+   * @return true if the new rules are in use
+   */
+  @EventListener(RefreshScopeRefreshedEvent.class)
+  public boolean reload() {
+    try {
+      table = RiskTable.compile(properties);
+      log.info("Risk rules reloaded: {} age bands", table.getBands());
+      return true;
+    } catch (IllegalArgumentException e) {
+      log.error("Error reloading risk rules, keeping the current ones", e);
+      return false;
+    }
+  }
+
+  /**
+   * Evaluates the risk level of a patient.
+   *
+   * @param gender the gender of the patient
+   * @param age the age of the patient
+   * @param triggerCount the number of trigger categories found in the notes of the patient
+   * @return the risk level of the patient
+   */
+  public RiskLevel evaluate(Gender gender, int age, int triggerCount) {
+    return table.evaluate(gender, age, triggerCount);
+  }
+}
@@ -2,24 +2,77 @@ package com.medilabo.assessmentService.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.assessmentService.enums.MatchingMode;
+import com.medilabo.assessmentService.enums.MatchingStrategy;
+import com.medilabo.assessmentService.matcher.AhoCorasickMatcher;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import com.medilabo.assessmentService.matcher.TextNormalizer;
+import com.medilabo.assessmentService.matcher.TokenMatcher;
+import com.medilabo.assessmentService.matcher.TriggerDictionary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
  * Service to load and provide categorized trigger terms from a JSON file.
  * The terms are categorized by their type (e.g., "symptoms", "lifestyle", etc.).
+ * The terms are also normalized according to the configured {@link MatchingMode}
+ * and compiled once into the {@link TermMatcher} of the configured {@link MatchingStrategy},
+ * used to scan the notes. By default, they are matched as the notes always were: anywhere in a note,
+ * ignoring case only; matching regardless of accents or on whole words changes which notes count
+ * as triggers, and so the risk levels, and must be opted into.
+ * The dictionary is read from the classpath, or from the file system when
+ * {@code assessment.trigger-terms.path} is set, in which case it can be reloaded at runtime
+ * (see {@link TriggerTermsWatcher}). Each load publishes a new immutable {@link TriggerDictionary}
+ * with a single atomic swap.
  */
 @Slf4j
-@Getter
 @Component
 public class TriggerTermsLoader {
 
-  private Map<String, List<String>> categorizedTerms;
+  static final String CLASSPATH_RESOURCE = "/trigger-terms.json";
+  static final String VERSION_METRIC = "assessment.trigger-terms.version";
+  static final String RELOAD_METRIC = "assessment.trigger-terms.reload";
+
+  @Getter
+  @Value("${assessment.trigger-terms.matching-mode:STRICT}")
+  private MatchingMode matchingMode = MatchingMode.STRICT;
+
+  @Getter
+  @Value("${assessment.trigger-terms.matching-strategy:SUBSTRING}")
+  private MatchingStrategy matchingStrategy = MatchingStrategy.SUBSTRING;
+
+  @Getter
+  @Value("${assessment.trigger-terms.path:}")
+  private String path = "";
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  private final AtomicReference<TriggerDictionary> dictionary = new AtomicReference<>();
+  private final AtomicLong versions = new AtomicLong();
 
   /**
    * Retrieves the resource as an InputStream.
@@ -32,8 +85,10 @@ public class TriggerTermsLoader {
   }
 
   /**
-   * Loads the trigger terms from a JSON file into a categorized map.
-   * The JSON file should be located in the resources directory.
+   * Loads the trigger terms from a JSON file into a categorized map,
+   * normalizes them for the configured matching mode and compiles them into the matcher
+   * of the configured matching strategy.
+   * The JSON file is read from the resources directory, or from the configured path if any.
    * If an error occurs during loading, it logs the error and throws a RuntimeException.
    * This method is called automatically after the component is constructed.
    * @throws RuntimeException if there is an error reading the JSON file
@@ -43,17 +98,187 @@ public class TriggerTermsLoader {
    * @see List
    * @see InputStream
    * @see TriggerTermsLoader
+   * @see TokenMatcher
+   * @see AhoCorasickMatcher
+   * @see TextNormalizer
    **/
   @PostConstruct
   public void loadTerms() {
-    ObjectMapper mapper = new ObjectMapper();
-    try (InputStream is = getResourceAsStream("/trigger-terms.json")) {
-      TypeReference<Map<String, List<String>>> typeRef =
-        new TypeReference<>() {};
-      categorizedTerms = mapper.readValue(is, typeRef);
+    try {
+      publish();
     } catch (Exception e) {
       log.error("Error loading trigger terms from JSON file", e);
       throw new RuntimeException("Error loading trigger terms");
     }
+    if (meterRegistry.find(VERSION_METRIC).gauge() == null) {
+      Gauge.builder(VERSION_METRIC, this, TriggerTermsLoader::getVersion)
+        .description("Version of the trigger-term dictionary in use")
+        .register(meterRegistry);
+    }
+  }
+
+  /**
+   * Reloads the trigger terms and swaps the dictionary in use.
+   * The new dictionary is built and validated on the calling thread while the assessments
+   * keep using the current one. If the new file cannot be read or is invalid, the error
+   * is logged and the current dictionary is kept.
+   * @return true if a new dictionary has been published
+   * @see TriggerTermsWatcher
+   */
+  public boolean reload() {
+    try {
+      TriggerDictionary reloaded = publish();
+      log.info(
+        "Trigger terms reloaded: version {}, {} categories",
+        reloaded.getVersion(),
+        reloaded.getCategorizedTerms().size()
+      );
+      return true;
+    } catch (Exception e) {
+      log.error("Error reloading trigger terms, keeping version {}", getVersion(), e);
+      return false;
+    }
+  }
+
+  private TriggerDictionary publish() throws IOException {
+    long start = System.nanoTime();
+    String outcome = "failure";
+    try {
+      TriggerDictionary built = build(readTerms());
+      dictionary.set(built);
+      outcome = "success";
+      return built;
+    } finally {
+      Timer.builder(RELOAD_METRIC)
+        .description("Time to read, validate and compile the trigger-term dictionary")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private Map<String, List<String>> readTerms() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    TypeReference<Map<String, List<String>>> typeRef = new TypeReference<>() {};
+    try (InputStream is = openTerms()) {
+      return mapper.readValue(is, typeRef);
+    }
+  }
+
+  private InputStream openTerms() throws IOException {
+    if (path == null || path.isBlank()) {
+      return getResourceAsStream(CLASSPATH_RESOURCE);
+    }
+    return Files.newInputStream(Path.of(path));
+  }
+
+  private TriggerDictionary build(Map<String, List<String>> categorizedTerms) {
+    validate(categorizedTerms);
+    TextNormalizer normalizer = new TextNormalizer(matchingMode);
+    Map<String, List<String>> normalizedTerms = normalizer.normalize(categorizedTerms);
+    TermMatcher matcher = matchingStrategy == MatchingStrategy.TOKEN
+      ? TokenMatcher.compile(normalizedTerms, normalizer)
+      : AhoCorasickMatcher.compile(normalizedTerms, normalizer);
+    return new TriggerDictionary(
+      versions.incrementAndGet(),
+      fingerprint(normalizedTerms),
+      Instant.now(),
+      categorizedTerms,
+      normalizedTerms,
+      matcher
+    );
+  }
+
+  /**
+   * Hashes the normalized terms, sorted by category, together with the matching options,
+   * so that two instances loading the same dictionary agree on its fingerprint.
+   */
+  private String fingerprint(Map<String, List<String>> normalizedTerms) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update((matchingMode + "|" + matchingStrategy).getBytes(StandardCharsets.UTF_8));
+      for (Map.Entry<String, List<String>> category : new TreeMap<>(normalizedTerms).entrySet()) {
+        digest.update(("\n" + category.getKey() + "=").getBytes(StandardCharsets.UTF_8));
+        for (String term : category.getValue()) {
+          digest.update(("\0" + term).getBytes(StandardCharsets.UTF_8));
+        }
+      }
+      return HexFormat.of().formatHex(digest.digest(), 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  /**
+   * Rejects dictionaries that would silently change the assessments, such as an empty
+   * file or a blank term, which would match every note in substring mode.
+   */
+  private static void validate(Map<String, List<String>> categorizedTerms) {
+    if (categorizedTerms == null || categorizedTerms.isEmpty()) {
+      throw new IllegalArgumentException("Trigger terms dictionary is empty");
+    }
+    for (Map.Entry<String, List<String>> category : categorizedTerms.entrySet()) {
+      if (category.getValue() == null || category.getValue().isEmpty()) {
+        throw new IllegalArgumentException(
+          "Trigger category without terms: " + category.getKey()
+        );
+      }
+      for (String term : category.getValue()) {
+        if (term == null || term.isBlank()) {
+          throw new IllegalArgumentException(
+            "Blank trigger term in category: " + category.getKey()
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the dictionary in use. Callers that need several of its parts should read it
+   * once and keep the snapshot, rather than calling the other getters in turn.
+   * @return the current dictionary, or null before the first load
+   */
+  public TriggerDictionary getDictionary() {
+    return dictionary.get();
+  }
+
+  /**
+   * @return the trigger terms of the current dictionary, as loaded
+   */
+  public Map<String, List<String>> getCategorizedTerms() {
+    TriggerDictionary current = dictionary.get();
+    return current == null ? null : current.getCategorizedTerms();
+  }
+
+  /**
+   * @return the trigger terms of the current dictionary, normalized for the matching mode
+   */
+  public Map<String, List<String>> getNormalizedTerms() {
+    TriggerDictionary current = dictionary.get();
+    return current == null ? null : current.getNormalizedTerms();
+  }
+
+  /**
+   * @return the matcher of the current dictionary
+   */
+  public TermMatcher getMatcher() {
+    TriggerDictionary current = dictionary.get();
+    return current == null ? null : current.getMatcher();
+  }
+
+  /**
+   * @return the version of the current dictionary, starting at 1, or 0 before the first load
+   */
+  public long getVersion() {
+    TriggerDictionary current = dictionary.get();
+    return current == null ? 0L : current.getVersion();
+  }
+
+  /**
+   * @return the fingerprint of the current dictionary, or null before the first load
+   */
+  public String getFingerprint() {
+    TriggerDictionary current = dictionary.get();
+    return current == null ? null : current.getFingerprint();
   }
 }
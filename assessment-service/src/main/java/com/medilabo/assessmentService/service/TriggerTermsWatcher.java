@@ -0,0 +1,110 @@
+package com.medilabo.assessmentService.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the trigger-term dictionary file and reloads it when it changes.
+ * The watch is only started when the dictionary is read from the file system
+ * ({@code assessment.trigger-terms.path}). The directory of the file is watched, so that
+ * editors and deployment tools that replace the file instead of writing it in place are
+ * also detected. Changes are debounced, then the dictionary is rebuilt on the watcher
+ * thread while the assessments keep using the previous one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TriggerTermsWatcher {
+
+  private final TriggerTermsLoader termsLoader;
+
+  @Value("${assessment.trigger-terms.reload-debounce-ms:250}")
+  private long debounceMillis = 250;
+
+  private WatchService watchService;
+  private Thread thread;
+
+  /**
+   * Starts watching the dictionary file, if it is read from the file system.
+   * @throws RuntimeException if the directory of the file cannot be watched
+   */
+  @PostConstruct
+  public void start() {
+    String path = termsLoader.getPath();
+    if (path == null || path.isBlank()) return;
+
+    Path file = Path.of(path).toAbsolutePath();
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      file.getParent().register(
+        watchService,
+        StandardWatchEventKinds.ENTRY_CREATE,
+        StandardWatchEventKinds.ENTRY_MODIFY
+      );
+    } catch (IOException e) {
+      log.error("Error watching trigger terms file {}", file, e);
+      throw new RuntimeException("Error watching trigger terms file");
+    }
+
+    thread = Thread.ofPlatform()
+      .name("trigger-terms-watcher")
+      .daemon()
+      .start(() -> watch(file.getFileName()));
+    log.info("Watching trigger terms file {}", file);
+  }
+
+  /**
+   * Stops watching the dictionary file.
+   */
+  @PreDestroy
+  public void stop() {
+    if (watchService == null) return;
+    try {
+      watchService.close();
+    } catch (IOException e) {
+      log.warn("Error closing trigger terms watcher", e);
+    }
+    thread.interrupt();
+  }
+
+  private void watch(Path fileName) {
+    try {
+      while (true) {
+        WatchKey key = watchService.take();
+        boolean changed = concerns(key, fileName);
+        // Drain the events that follow quickly, e.g. truncate then write, into a single reload.
+        WatchKey next;
+        while ((next = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+          changed |= concerns(next, fileName);
+        }
+        if (changed) termsLoader.reload();
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      log.debug("Trigger terms watcher stopped");
+    }
+  }
+
+  private static boolean concerns(WatchKey key, Path fileName) {
+    boolean changed = false;
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+        changed = true;
+      }
+    }
+    key.reset();
+    return changed;
+  }
+}
@@ -4,6 +4,7 @@ import com.medilabo.assessmentService.dto.AssessmentDto;
 import com.medilabo.assessmentService.enums.RiskLevel;
 import com.medilabo.assessmentService.feign.NoteFeignClient;
 import com.medilabo.assessmentService.feign.PatientFeignClient;
+import com.medilabo.assessmentService.matcher.AhoCorasickMatcher;
 import com.medilabo.assessmentService.dto.NoteDto;
 import com.medilabo.assessmentService.dto.PatientDto;
 import com.medilabo.assessmentService.enums.Gender;
@@ -46,7 +47,7 @@ class AssessmentServiceIT {
         when(patientFeignClient.getPatientById(patientId)).thenReturn(patientDto);
         when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(Collections.emptyList());
         Map<String, List<String>> categorizedTerms = new HashMap<>();
-        when(triggerTermsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(triggerTermsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         AssessmentDto result = assessmentService.assessDiabetesRisk(patientId);
 
@@ -74,7 +75,7 @@ class AssessmentServiceIT {
         categorizedTerms.put("vertige", List.of("vertiges"));
         categorizedTerms.put("fumeur", List.of("fume"));
         categorizedTerms.put("poids", List.of("poids"));
-        when(triggerTermsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(triggerTermsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         AssessmentDto result = assessmentService.assessDiabetesRisk(patientId);
 
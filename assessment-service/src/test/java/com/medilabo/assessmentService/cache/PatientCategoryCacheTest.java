@@ -0,0 +1,230 @@
+package com.medilabo.assessmentService.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.assessmentService.dto.CategoryCacheReportDto;
+import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.NoteEventDto;
+import com.medilabo.assessmentService.feign.NoteFeignClient;
+import com.medilabo.assessmentService.matcher.TokenMatcher;
+import com.medilabo.assessmentService.service.TriggerTermsLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PatientCategoryCacheTest {
+
+  private static final long SMOKER = 1L;
+  private static final long WEIGHT = 1L << 1;
+
+  private TriggerTermsLoader termsLoader;
+  private NoteFeignClient noteFeignClient;
+  private PatientCategoryCache cache;
+  private SimpleMeterRegistry registry;
+  private UUID patientId;
+  private long lastVersion;
+
+  @BeforeEach
+  void setUp() {
+    Map<String, List<String>> terms = new LinkedHashMap<>();
+    terms.put("fumeur", List.of("fumeur"));
+    terms.put("poids", List.of("poids"));
+    termsLoader = mock(TriggerTermsLoader.class);
+    when(termsLoader.getMatcher()).thenReturn(TokenMatcher.compile(terms));
+    when(termsLoader.getVersion()).thenReturn(1L);
+    noteFeignClient = mock(NoteFeignClient.class);
+    registry = new SimpleMeterRegistry();
+    cache = new PatientCategoryCache(termsLoader, noteFeignClient);
+    ReflectionTestUtils.setField(cache, "meterRegistry", registry);
+    cache.registerMetrics();
+    patientId = UUID.randomUUID();
+  }
+
+  private NoteDto note(String id, String content) {
+    NoteDto note = new NoteDto();
+    note.setId(id);
+    note.setPatient(patientId.toString());
+    note.setNote(content);
+    return note;
+  }
+
+  private NoteEventDto event(NoteEventDto.Type type, String noteId, String content) {
+    NoteEventDto event = new NoteEventDto();
+    event.setType(type);
+    event.setNoteId(noteId);
+    event.setPatient(patientId.toString());
+    event.setNote(content);
+    event.setVersion(++lastVersion);
+    return event;
+  }
+
+  private void load(NoteDto... notes) {
+    cache.load(patientId, List.of(notes), cache.stamp(patientId));
+  }
+
+  @Test
+  void load_shouldCacheUnionOfNoteCategories() {
+    assertEquals(OptionalLong.empty(), cache.get(patientId));
+
+    load(note("n1", "Fumeur"), note("n2", "Poids stable"));
+
+    assertEquals(OptionalLong.of(SMOKER | WEIGHT), cache.get(patientId));
+    assertEquals(1.0, registry.get(PatientCategoryCache.REQUESTS_METRIC).tag("result", "hit").counter().count());
+    assertEquals(1.0, registry.get(PatientCategoryCache.REQUESTS_METRIC).tag("result", "miss").counter().count());
+    assertEquals(1.0, registry.get(PatientCategoryCache.SIZE_METRIC).gauge().value());
+  }
+
+  @Test
+  void onNoteEvent_shouldUpdateCachedPatientIncrementally() {
+    load(note("n1", "Fumeur"), note("n2", "Rien"));
+
+    cache.onNoteEvent(event(NoteEventDto.Type.CREATED, "n3", "Poids en hausse"));
+    assertEquals(OptionalLong.of(SMOKER | WEIGHT), cache.get(patientId));
+
+    cache.onNoteEvent(event(NoteEventDto.Type.UPDATED, "n1", "Ne fume plus"));
+    assertEquals(OptionalLong.of(WEIGHT), cache.get(patientId));
+
+    cache.onNoteEvent(event(NoteEventDto.Type.DELETED, "n3", null));
+    assertEquals(OptionalLong.of(0L), cache.get(patientId));
+  }
+
+  @Test
+  void onNoteEvent_shouldIgnoreEventsOlderThanTheAppliedOnes() {
+    load(note("n1", "Fumeur"), note("n2", "Rien"));
+    NoteEventDto update = event(NoteEventDto.Type.UPDATED, "n1", "Fumeur et poids");
+    NoteEventDto delete = event(NoteEventDto.Type.DELETED, "n1", null);
+    NoteEventDto firstUpdate = event(NoteEventDto.Type.UPDATED, "n2", "Poids");
+    NoteEventDto secondUpdate = event(NoteEventDto.Type.UPDATED, "n2", "Rien");
+
+    cache.onNoteEvent(delete);
+    cache.onNoteEvent(update);
+    cache.onNoteEvent(secondUpdate);
+    cache.onNoteEvent(firstUpdate);
+
+    assertEquals(OptionalLong.of(0L), cache.get(patientId));
+  }
+
+  @Test
+  void onNoteEvent_shouldEvictPatientWhenEventHasNoVersion() {
+    load(note("n1", "Fumeur"));
+    NoteEventDto unversioned = event(NoteEventDto.Type.UPDATED, "n1", "Poids");
+    unversioned.setVersion(null);
+
+    cache.onNoteEvent(unversioned);
+
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void onNoteEvent_shouldIgnoreUncachedAndInvalidPatients() {
+    cache.onNoteEvent(event(NoteEventDto.Type.CREATED, "n1", "Fumeur"));
+    NoteEventDto invalid = event(NoteEventDto.Type.CREATED, "n1", "Fumeur");
+    invalid.setPatient("not-a-uuid");
+    cache.onNoteEvent(invalid);
+
+    assertEquals(OptionalLong.empty(), cache.get(patientId));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void load_shouldNotCacheWhenNoteChangedDuringLoad() {
+    long stamp = cache.stamp(patientId);
+    cache.onNoteEvent(event(NoteEventDto.Type.CREATED, "n2", "Poids"));
+
+    long mask = cache.load(patientId, List.of(note("n1", "Fumeur")), stamp);
+
+    assertEquals(SMOKER, mask);
+    assertEquals(OptionalLong.empty(), cache.get(patientId));
+  }
+
+  @Test
+  void get_shouldInvalidateEntriesOnDictionaryReload() {
+    load(note("n1", "Fumeur"));
+    UUID otherPatientId = UUID.randomUUID();
+    cache.load(otherPatientId, List.of(), cache.stamp(otherPatientId));
+
+    when(termsLoader.getVersion()).thenReturn(2L);
+
+    assertEquals(OptionalLong.empty(), cache.get(patientId));
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  void get_shouldExpireOldEntries() {
+    ReflectionTestUtils.setField(cache, "maxAge", Duration.ZERO);
+    load(note("n1", "Fumeur"));
+
+    assertEquals(OptionalLong.empty(), cache.get(patientId));
+  }
+
+  @Test
+  void load_shouldNotCacheWhenDisabledOrFull() {
+    ReflectionTestUtils.setField(cache, "enabled", false);
+    load(note("n1", "Fumeur"));
+    assertEquals(0, cache.size());
+
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    ReflectionTestUtils.setField(cache, "maxEntries", 1);
+    load(note("n1", "Fumeur"));
+    UUID otherPatientId = UUID.randomUUID();
+    cache.load(otherPatientId, List.of(), cache.stamp(otherPatientId));
+    assertEquals(1, cache.size());
+    assertEquals(OptionalLong.empty(), cache.get(otherPatientId));
+  }
+
+  @Test
+  void verify_shouldRecomputeAndReportInconsistentPatients() {
+    load(note("n1", "Fumeur"));
+    when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(
+      List.of(note("n1", "Fumeur"), note("n2", "Poids"))
+    );
+
+    assertFalse(cache.verify(patientId));
+    assertEquals(OptionalLong.of(SMOKER | WEIGHT), cache.get(patientId));
+    assertTrue(cache.verify(patientId));
+    assertEquals(1.0, registry.get(PatientCategoryCache.INCONSISTENCIES_METRIC).counter().count());
+  }
+
+  @Test
+  void verify_shouldNotCacheWhenDisabledOrChangedMeanwhile() {
+    when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(List.of(note("n1", "Fumeur")));
+    ReflectionTestUtils.setField(cache, "enabled", false);
+    assertTrue(cache.verify(patientId));
+    assertEquals(0, cache.size());
+
+    ReflectionTestUtils.setField(cache, "enabled", true);
+    load(note("n1", "Poids"));
+    when(noteFeignClient.getAllNotesByPatient(patientId)).thenAnswer(invocation -> {
+      cache.onNoteEvent(event(NoteEventDto.Type.UPDATED, "n1", "Fumeur et poids"));
+      return List.of(note("n1", "Fumeur"));
+    });
+
+    assertTrue(cache.verify(patientId));
+    assertEquals(OptionalLong.of(SMOKER | WEIGHT), cache.get(patientId));
+  }
+
+  @Test
+  void verifyAll_shouldCheckEveryCachedPatient() {
+    load(note("n1", "Fumeur"));
+    UUID otherPatientId = UUID.randomUUID();
+    cache.load(otherPatientId, List.of(), cache.stamp(otherPatientId));
+    when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(List.of(note("n1", "Poids")));
+    when(noteFeignClient.getAllNotesByPatient(otherPatientId)).thenReturn(List.of());
+
+    CategoryCacheReportDto report = cache.verifyAll();
+
+    assertEquals(2, report.getChecked());
+    assertEquals(List.of(patientId), report.getInconsistentPatients());
+  }
+}
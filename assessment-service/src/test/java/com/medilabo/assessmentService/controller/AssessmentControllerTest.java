@@ -1,6 +1,10 @@
 package com.medilabo.assessmentService.controller;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
@@ -11,13 +15,22 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medilabo.assessmentService.dto.AssessmentDto;
+import com.medilabo.assessmentService.dto.CohortAssessmentDto;
+import com.medilabo.assessmentService.enums.RiskLevel;
 import com.medilabo.assessmentService.service.AssessmentService;
+import com.medilabo.assessmentService.service.CohortAssessmentService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @ExtendWith(MockitoExtension.class)
 class AssessmentControllerTest {
@@ -25,6 +38,9 @@ class AssessmentControllerTest {
   @Mock
   private AssessmentService assessmentService;
 
+  @Mock
+  private CohortAssessmentService cohortAssessmentService;
+
   @InjectMocks
   private AssessmentController assessmentController;
 
@@ -65,4 +81,46 @@ class AssessmentControllerTest {
     );
     verify(assessmentService, times(1)).assessDiabetesRisk(patientId);
   }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void assessBatch_ShouldStreamOneJsonLinePerPatient() throws Exception {
+    UUID otherPatientId = UUID.randomUUID();
+    CohortAssessmentDto assessed = new CohortAssessmentDto();
+    assessed.setPatientId(patientId);
+    assessed.setRiskLevel(RiskLevel.IN_DANGER);
+    assessed.setTriggerTermsCount(6);
+    CohortAssessmentDto failed = new CohortAssessmentDto();
+    failed.setPatientId(otherPatientId);
+    failed.setError("Patient not found");
+    when(
+      cohortAssessmentService.assessPatients(
+        eq(List.of(patientId, otherPatientId)),
+        any(Consumer.class)
+      )
+    ).thenAnswer(invocation -> {
+      Consumer<CohortAssessmentDto> sink = invocation.getArgument(1);
+      sink.accept(assessed);
+      sink.accept(failed);
+      return 2L;
+    });
+    AssessmentController controller = new AssessmentController(
+      assessmentService,
+      cohortAssessmentService,
+      new ObjectMapper()
+    );
+
+    ResponseEntity<StreamingResponseBody> response = controller.assessBatch(
+      List.of(patientId, otherPatientId)
+    );
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    response.getBody().writeTo(out);
+
+    assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+    assertEquals(
+      "{\"patientId\":\"" + patientId + "\",\"riskLevel\":\"IN_DANGER\",\"triggerTermsCount\":6}\n" +
+      "{\"patientId\":\"" + otherPatientId + "\",\"error\":\"Patient not found\"}\n",
+      out.toString(StandardCharsets.UTF_8)
+    );
+  }
 }
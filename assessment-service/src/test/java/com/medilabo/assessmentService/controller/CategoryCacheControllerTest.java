@@ -0,0 +1,56 @@
+package com.medilabo.assessmentService.controller;
+
+import com.medilabo.assessmentService.cache.PatientCategoryCache;
+import com.medilabo.assessmentService.dto.CategoryCacheReportDto;
+import com.medilabo.assessmentService.dto.NoteEventDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCacheControllerTest {
+
+    @Mock
+    private PatientCategoryCache categoryCache;
+
+    @InjectMocks
+    private CategoryCacheController categoryCacheController;
+
+    @Test
+    void onNoteEvent_ShouldUpdateCache() {
+        NoteEventDto event = new NoteEventDto();
+
+        categoryCacheController.onNoteEvent(event);
+
+        verify(categoryCache).onNoteEvent(event);
+    }
+
+    @Test
+    void verify_ShouldCheckEveryPatient_WhenNoPatientGiven() {
+        CategoryCacheReportDto report = new CategoryCacheReportDto();
+        when(categoryCache.verifyAll()).thenReturn(report);
+
+        assertSame(report, categoryCacheController.verify(null));
+    }
+
+    @Test
+    void verify_ShouldReportInconsistentPatient() {
+        UUID patientId = UUID.randomUUID();
+        when(categoryCache.verify(patientId)).thenReturn(false);
+
+        CategoryCacheReportDto report = categoryCacheController.verify(patientId);
+
+        assertEquals(1, report.getChecked());
+        assertEquals(List.of(patientId), report.getInconsistentPatients());
+    }
+}
@@ -0,0 +1,44 @@
+package com.medilabo.assessmentService.controller;
+
+import com.medilabo.assessmentService.dto.NoteTagsDto;
+import com.medilabo.assessmentService.service.NoteTaggingService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NoteTaggingControllerTest {
+
+    @Mock
+    private NoteTaggingService noteTaggingService;
+
+    @InjectMocks
+    private NoteTaggingController noteTaggingController;
+
+    @Test
+    void tag_ShouldReturnTagsFromService() {
+        NoteTagsDto tags = new NoteTagsDto();
+        when(noteTaggingService.tag(List.of("Fumeur"))).thenReturn(tags);
+
+        assertSame(tags, noteTaggingController.tag(List.of("Fumeur")));
+    }
+
+    @Test
+    void getDictionaryVersion_ShouldReturnVersionWithoutCategories() {
+        when(noteTaggingService.getDictionaryVersion()).thenReturn("fp");
+
+        NoteTagsDto tags = noteTaggingController.getDictionaryVersion();
+
+        assertEquals("fp", tags.getDictionaryVersion());
+        assertTrue(tags.getCategories().isEmpty());
+    }
+}
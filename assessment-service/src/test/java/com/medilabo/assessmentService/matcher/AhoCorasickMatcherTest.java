@@ -0,0 +1,161 @@
+package com.medilabo.assessmentService.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.medilabo.assessmentService.service.TriggerTermsLoader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.Test;
+
+class AhoCorasickMatcherTest {
+
+  /**
+   * Reference implementation: the per-term loop the matcher replaces.
+   */
+  private static Set<String> legacyCategories(
+    Map<String, List<String>> categorizedTerms,
+    List<String> notes
+  ) {
+    Set<String> uniqueCategories = new HashSet<>();
+    for (String content : notes) {
+      for (Map.Entry<String, List<String>> category : categorizedTerms.entrySet()) {
+        for (String term : category.getValue()) {
+          if (StringUtils.containsIgnoreCase(content, term)) {
+            uniqueCategories.add(category.getKey());
+            break;
+          }
+        }
+      }
+    }
+    return uniqueCategories;
+  }
+
+  private static Set<String> matcherCategories(
+    AhoCorasickMatcher matcher,
+    List<String> notes
+  ) {
+    long matched = 0L;
+    for (String note : notes) {
+      matched = matcher.scan(note, matched);
+    }
+    return matcher.categoriesOf(matched);
+  }
+
+  @Test
+  void scan_shouldMatchCaseInsensitively() {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(
+      Map.of("cholesterol", List.of("cholestérol"), "fumeur", List.of("fume"))
+    );
+
+    long matched = matcher.scan("Taux de CHOLESTÉROL élevé, Fume", 0L);
+
+    assertEquals(Set.of("cholesterol", "fumeur"), matcher.categoriesOf(matched));
+    assertTrue(matcher.isComplete(matched));
+  }
+
+  @Test
+  void scan_shouldFollowFailureLinks() {
+    Map<String, List<String>> terms = new LinkedHashMap<>();
+    terms.put("long", List.of("abcd"));
+    terms.put("suffix", List.of("bce"));
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(terms);
+
+    assertEquals(Set.of("suffix"), matcher.categoriesOf(matcher.scan("abce", 0L)));
+    assertEquals(Set.of("long"), matcher.categoriesOf(matcher.scan("aabcd", 0L)));
+  }
+
+  @Test
+  void scan_shouldIgnoreNullText() {
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(
+      Map.of("poids", List.of("poids"))
+    );
+
+    assertEquals(0L, matcher.scan(null, 0L));
+    assertFalse(matcher.isComplete(0L));
+  }
+
+  @Test
+  void compile_shouldRejectTooManyCategories() {
+    Map<String, List<String>> terms = new LinkedHashMap<>();
+    for (int i = 0; i <= AhoCorasickMatcher.MAX_CATEGORIES; i++) {
+      terms.put("category" + i, List.of("term" + i));
+    }
+
+    assertThrows(
+      IllegalArgumentException.class,
+      () -> AhoCorasickMatcher.compile(terms)
+    );
+  }
+
+  @Test
+  void scan_shouldMatchLegacyLoopOnDictionary() {
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    loader.loadTerms();
+    Map<String, List<String>> terms = loader.getCategorizedTerms();
+    List<String> vocabulary = new ArrayList<>();
+    terms.values().forEach(vocabulary::addAll);
+    vocabulary.addAll(List.of("le", "patient", "déclare", "parfum", "TABA", "fum", "Hémoglobine", "a1c"));
+
+    AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(terms);
+    Random random = new Random(42);
+    for (int run = 0; run < 500; run++) {
+      List<String> notes = new ArrayList<>();
+      for (int n = random.nextInt(4); n >= 0; n--) {
+        StringBuilder note = new StringBuilder();
+        for (int w = random.nextInt(12); w >= 0; w--) {
+          String word = vocabulary.get(random.nextInt(vocabulary.size()));
+          note.append(random.nextBoolean() ? word.toUpperCase() : word);
+          note.append(random.nextInt(3) == 0 ? "" : " ");
+        }
+        notes.add(note.toString());
+      }
+
+      assertEquals(
+        legacyCategories(terms, notes),
+        matcherCategories(matcher, notes)
+      );
+    }
+  }
+
+  @Test
+  void scan_shouldMatchLegacyLoopOnOverlappingTerms() {
+    Random random = new Random(7);
+    String alphabet = "abAB";
+    for (int run = 0; run < 500; run++) {
+      Map<String, List<String>> terms = new LinkedHashMap<>();
+      for (int c = random.nextInt(5); c >= 0; c--) {
+        List<String> categoryTerms = new ArrayList<>();
+        for (int t = random.nextInt(3); t >= 0; t--) {
+          categoryTerms.add(randomString(random, alphabet, 1 + random.nextInt(4)));
+        }
+        terms.put("category" + c, categoryTerms);
+      }
+      List<String> notes = List.of(
+        randomString(random, alphabet, random.nextInt(20)),
+        randomString(random, alphabet, random.nextInt(20))
+      );
+
+      assertEquals(
+        legacyCategories(terms, notes),
+        matcherCategories(AhoCorasickMatcher.compile(terms), notes)
+      );
+    }
+  }
+
+  private static String randomString(Random random, String alphabet, int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+    }
+    return builder.toString();
+  }
+}
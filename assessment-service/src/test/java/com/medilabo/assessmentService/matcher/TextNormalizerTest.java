@@ -0,0 +1,116 @@
+package com.medilabo.assessmentService.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.medilabo.assessmentService.enums.MatchingMode;
+import com.medilabo.assessmentService.service.TriggerTermsLoader;
+import java.lang.management.ManagementFactory;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TextNormalizerTest {
+
+  private final TextNormalizer strict = new TextNormalizer(MatchingMode.STRICT);
+  private final TextNormalizer accentInsensitive = new TextNormalizer(
+    MatchingMode.ACCENT_INSENSITIVE
+  );
+
+  @Test
+  void normalize_shouldFoldCaseInBothModes() {
+    assertEquals("fumeur", strict.normalize("FUMEUR"));
+    assertEquals("fumeur", accentInsensitive.normalize("Fumeur"));
+    assertEquals("cholestérol", strict.normalize("CHOLESTÉROL"));
+  }
+
+  @Test
+  void normalize_shouldStripDiacriticsWhenAccentInsensitive() {
+    assertEquals("cholesterol", accentInsensitive.normalize("Cholestérol"));
+    assertEquals("irreguliere", accentInsensitive.normalize("IRRÉGULIÈRE"));
+    assertEquals("fumames", accentInsensitive.normalize("fumâmes"));
+  }
+
+  @Test
+  void normalize_shouldTreatNfdAndNfcAlike() {
+    String nfd = Normalizer.normalize("Cholestérol élevé", Normalizer.Form.NFD);
+
+    assertEquals("cholestérol élevé", strict.normalize(nfd));
+    assertEquals("cholesterol eleve", accentInsensitive.normalize(nfd));
+  }
+
+  @Test
+  void normalize_shouldReuseBufferAcrossNotes() {
+    NormalizedText buffer = new NormalizedText(4);
+
+    accentInsensitive.normalize("Un patient FUMEUR", buffer);
+    assertEquals("un patient fumeur", buffer.toString());
+
+    accentInsensitive.normalize("Vertige", buffer);
+    assertEquals("vertige", buffer.toString());
+    assertEquals(7, buffer.length());
+  }
+
+  @Test
+  void matcher_shouldHonourMatchingMode() {
+    Map<String, List<String>> terms = Map.of(
+      "cholesterol",
+      List.of("cholestérol")
+    );
+    AhoCorasickMatcher strictMatcher = AhoCorasickMatcher.compile(terms, strict);
+    AhoCorasickMatcher lenientMatcher = AhoCorasickMatcher.compile(
+      terms,
+      accentInsensitive
+    );
+
+    assertEquals(0L, strictMatcher.scan("CHOLESTEROL", 0L));
+    assertEquals(
+      Set.of("cholesterol"),
+      lenientMatcher.categoriesOf(lenientMatcher.scan("CHOLESTEROL", 0L))
+    );
+    assertEquals(
+      Set.of("cholesterol"),
+      strictMatcher.categoriesOf(
+        strictMatcher.scan(Normalizer.normalize("cholestérol", Normalizer.Form.NFD), 0L)
+      )
+    );
+  }
+
+  @Test
+  void scan_shouldNotAllocateOnHotPath() {
+    java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    loader.loadTerms();
+    TermMatcher matcher = loader.getMatcher();
+    String note =
+      "Le patient déclare qu'il se sent très bien. Poids égal ou inférieur au poids recommandé. ".repeat(20);
+    NormalizedText buffer = new NormalizedText();
+
+    long sink = 0L;
+    for (int i = 0; i < 5_000; i++) {
+      sink |= matcher.scan(note, buffer, 0L);
+    }
+
+    long threadId = Thread.currentThread().threadId();
+    int scans = 20_000;
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < scans; i++) {
+      sink |= matcher.scan(note, buffer, 0L);
+    }
+    long allocatedPerScan = (threadBean.getThreadAllocatedBytes(threadId) - before) / scans;
+
+    assertTrue(sink != 0L);
+    assertTrue(
+      allocatedPerScan < 16,
+      "Expected no allocation per scan but got " + allocatedPerScan + " bytes"
+    );
+  }
+}
@@ -0,0 +1,116 @@
+package com.medilabo.assessmentService.matcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.medilabo.assessmentService.enums.MatchingMode;
+import com.medilabo.assessmentService.service.TriggerTermsLoader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TokenMatcherTest {
+
+  private static Set<String> categories(TermMatcher matcher, String note) {
+    return matcher.categoriesOf(matcher.scan(note, 0L));
+  }
+
+  @Test
+  void scan_shouldOnlyMatchWholeWords() {
+    TokenMatcher matcher = TokenMatcher.compile(
+      Map.of("fumeur", List.of("fume"))
+    );
+
+    assertEquals(Set.of(), categories(matcher, "Un parfume agréable"));
+    assertEquals(Set.of(), categories(matcher, "fumeur"));
+    assertEquals(Set.of("fumeur"), categories(matcher, "Le patient FUME."));
+    assertEquals(Set.of("fumeur"), categories(matcher, "fume"));
+  }
+
+  @Test
+  void scan_shouldMatchMultiWordTermsAcrossSeparators() {
+    TokenMatcher matcher = TokenMatcher.compile(
+      Map.of("hémoglobine", List.of("hémoglobine a1c")),
+      new TextNormalizer(MatchingMode.ACCENT_INSENSITIVE)
+    );
+
+    assertEquals(Set.of("hémoglobine"), categories(matcher, "HÉMOGLOBINE A1C"));
+    assertEquals(
+      Set.of("hémoglobine"),
+      categories(matcher, "taux d'hemoglobine\n  a1c: 7%")
+    );
+    assertEquals(Set.of("hémoglobine"), categories(matcher, "hémoglobine-A1C"));
+    assertEquals(Set.of(), categories(matcher, "hémoglobine normale, a1c"));
+    assertEquals(Set.of(), categories(matcher, "hémoglobine a1cx"));
+  }
+
+  @Test
+  void scan_shouldMatchOverlappingPhrasesOfDifferentLengths() {
+    Map<String, List<String>> terms = new LinkedHashMap<>();
+    terms.put("long", List.of("a b c"));
+    terms.put("short", List.of("b"));
+    terms.put("pair", List.of("c d"));
+    TokenMatcher matcher = TokenMatcher.compile(terms);
+
+    long matched = matcher.scan("x a b c d", 0L);
+
+    assertEquals(Set.of("long", "short", "pair"), matcher.categoriesOf(matched));
+    assertTrue(matcher.isComplete(matched));
+    assertEquals(Set.of("short", "pair"), categories(matcher, "a b x c d"));
+  }
+
+  @Test
+  void scan_shouldIgnoreNullTextAndTermsWithoutWords() {
+    TokenMatcher matcher = TokenMatcher.compile(
+      Map.of("ponctuation", List.of(" - ", ""))
+    );
+
+    assertEquals(0L, matcher.scan(null, 0L));
+    assertEquals(0L, matcher.scan("- -", 0L));
+  }
+
+  @Test
+  void compile_shouldRejectTooManyCategories() {
+    Map<String, List<String>> terms = new LinkedHashMap<>();
+    for (int i = 0; i <= TermMatcher.MAX_CATEGORIES; i++) {
+      terms.put("category" + i, List.of("term" + i));
+    }
+
+    assertThrows(IllegalArgumentException.class, () -> TokenMatcher.compile(terms));
+  }
+
+  @Test
+  void scan_shouldAgreeWithSubstringMatcherOnWholeWords() {
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    loader.loadTerms();
+    Map<String, List<String>> terms = loader.getCategorizedTerms();
+    List<String> vocabulary = new ArrayList<>();
+    terms.values().forEach(vocabulary::addAll);
+    vocabulary.addAll(List.of("le", "patient", "déclare", "a1c", "poids"));
+
+    TextNormalizer normalizer = new TextNormalizer(MatchingMode.ACCENT_INSENSITIVE);
+    TermMatcher tokens = TokenMatcher.compile(terms, normalizer);
+    TermMatcher substrings = AhoCorasickMatcher.compile(terms, normalizer);
+    Random random = new Random(42);
+    for (int run = 0; run < 500; run++) {
+      StringBuilder note = new StringBuilder();
+      for (int w = random.nextInt(12); w >= 0; w--) {
+        String word = vocabulary.get(random.nextInt(vocabulary.size()));
+        note.append(random.nextBoolean() ? word.toUpperCase() : word);
+        note.append(' ');
+      }
+
+      // Every word of the dictionary that contains a term is itself a term of the same
+      // category, so both strategies agree when the words are separated by single spaces.
+      assertEquals(
+        categories(substrings, note.toString()),
+        categories(tokens, note.toString())
+      );
+    }
+  }
+}
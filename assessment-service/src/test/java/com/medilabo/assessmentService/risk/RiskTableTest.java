@@ -0,0 +1,110 @@
+package com.medilabo.assessmentService.risk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.medilabo.assessmentService.config.RiskRulesProperties;
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RiskTableTest {
+
+  /**
+   * The decision tree of the assessment before the rules became configurable.
+   */
+  private static RiskLevel legacyRiskLevel(int age, String gender, int triggerCount) {
+    if (triggerCount == 0) return RiskLevel.NONE;
+
+    boolean isMale = "M".equalsIgnoreCase(gender);
+    boolean isUnder30 = age < 30;
+
+    if (isUnder30) {
+      if (isMale) {
+        if (triggerCount >= 5) return RiskLevel.EARLY_ONSET;
+        else if (triggerCount >= 3) return RiskLevel.IN_DANGER;
+        else return RiskLevel.NONE;
+      } else {
+        if (triggerCount >= 7) return RiskLevel.EARLY_ONSET;
+        else if (triggerCount >= 4) return RiskLevel.IN_DANGER;
+        else return RiskLevel.NONE;
+      }
+    } else {
+      if (triggerCount >= 8) return RiskLevel.EARLY_ONSET;
+      else if (triggerCount >= 6) return RiskLevel.IN_DANGER;
+      else if (triggerCount >= 2) return RiskLevel.BORDERLINE;
+      else return RiskLevel.NONE;
+    }
+  }
+
+  @Test
+  void compile_defaultRulesShouldMatchLegacyLogicOnWholeDomain() {
+    RiskTable table = RiskTable.compile(new RiskRulesProperties());
+
+    // The domain is small enough to check every input, including the clamped ones.
+    for (Gender gender : Gender.values()) {
+      for (int age = -5; age <= RiskTable.MAX_AGE + 50; age++) {
+        for (int count = -2; count <= RiskTable.MAX_TRIGGERS + 10; count++) {
+          assertEquals(
+            legacyRiskLevel(age, gender.name(), Math.max(count, 0)),
+            table.evaluate(gender, age, count),
+            gender + ", age " + age + ", " + count + " triggers"
+          );
+        }
+      }
+    }
+  }
+
+  @Test
+  void compile_shouldApplyConfiguredBandsAndThresholds() {
+    RiskRulesProperties properties = new RiskRulesProperties();
+    properties.setAgeBands(List.of(18, 65));
+    properties.setRules(new ArrayList<>(List.of(
+      new RiskRulesProperties.Rule(null, 0, Map.of(RiskLevel.EARLY_ONSET, 1)),
+      new RiskRulesProperties.Rule(null, 1, Map.of(RiskLevel.BORDERLINE, 2)),
+      new RiskRulesProperties.Rule(Gender.M, 2, Map.of(RiskLevel.IN_DANGER, 3)),
+      new RiskRulesProperties.Rule(Gender.F, 2, Map.of(RiskLevel.IN_DANGER, 4))
+    )));
+
+    RiskTable table = RiskTable.compile(properties);
+
+    assertEquals(3, table.getBands());
+    assertEquals(RiskLevel.EARLY_ONSET, table.evaluate(Gender.F, 17, 1));
+    assertEquals(RiskLevel.NONE, table.evaluate(Gender.F, 18, 1));
+    assertEquals(RiskLevel.BORDERLINE, table.evaluate(Gender.F, 64, 9));
+    assertEquals(RiskLevel.IN_DANGER, table.evaluate(Gender.M, 65, 3));
+    assertEquals(RiskLevel.NONE, table.evaluate(Gender.F, 65, 3));
+  }
+
+  @Test
+  void compile_shouldRejectInvalidRules() {
+    RiskRulesProperties.Rule any0 = new RiskRulesProperties.Rule(null, 0, Map.of(RiskLevel.BORDERLINE, 1));
+    RiskRulesProperties.Rule any1 = new RiskRulesProperties.Rule(null, 1, Map.of(RiskLevel.BORDERLINE, 1));
+    Map<RiskLevel, Integer> noneThreshold = new HashMap<>(Map.of(RiskLevel.NONE, 1));
+
+    List<RiskRulesProperties> invalid = List.of(
+      properties(List.of(30, 20), List.of(any0, any1)),
+      properties(List.of(200), List.of(any0, any1)),
+      properties(List.of(30), List.of(any0)),
+      properties(List.of(30), List.of(any0, any1, any1)),
+      properties(List.of(30), List.of(any0, new RiskRulesProperties.Rule(null, 2, Map.of()))),
+      properties(List.of(30), List.of(any0, new RiskRulesProperties.Rule(null, 1, Map.of(RiskLevel.IN_DANGER, 0)))),
+      properties(List.of(30), List.of(any0, new RiskRulesProperties.Rule(null, 1, noneThreshold)))
+    );
+
+    for (RiskRulesProperties properties : invalid) {
+      assertThrows(IllegalArgumentException.class, () -> RiskTable.compile(properties));
+    }
+  }
+
+  private static RiskRulesProperties properties(List<Integer> ageBands, List<RiskRulesProperties.Rule> rules) {
+    RiskRulesProperties properties = new RiskRulesProperties();
+    properties.setAgeBands(ageBands);
+    properties.setRules(rules);
+    return properties;
+  }
+}
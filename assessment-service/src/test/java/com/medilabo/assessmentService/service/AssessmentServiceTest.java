@@ -1,23 +1,42 @@
 package com.medilabo.assessmentService.service;
 
+import com.medilabo.assessmentService.cache.PatientCategoryCache;
+import com.medilabo.assessmentService.config.RiskRulesProperties;
 import com.medilabo.assessmentService.dto.AssessmentDto;
 import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.PatientCategoriesDto;
 import com.medilabo.assessmentService.dto.PatientDto;
 import com.medilabo.assessmentService.enums.Gender;
 import com.medilabo.assessmentService.enums.RiskLevel;
 import com.medilabo.assessmentService.feign.NoteFeignClient;
 import com.medilabo.assessmentService.feign.PatientFeignClient;
+import com.medilabo.assessmentService.matcher.AhoCorasickMatcher;
+import com.medilabo.assessmentService.matcher.TriggerDictionary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 class AssessmentServiceTest {
@@ -31,7 +50,8 @@ class AssessmentServiceTest {
     @Mock
     private TriggerTermsLoader termsLoader;
 
-    @InjectMocks
+    private PatientCategoryCache disabledCache;
+
     private AssessmentService assessmentService;
 
     private UUID patientId;
@@ -39,9 +59,31 @@ class AssessmentServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        disabledCache = new PatientCategoryCache(termsLoader, noteFeignClient);
+        ReflectionTestUtils.setField(disabledCache, "enabled", false);
+        assessmentService = assessmentService(disabledCache, new SimpleMeterRegistry());
         patientId = UUID.randomUUID();
     }
 
+    private AssessmentService assessmentService(PatientCategoryCache categoryCache, MeterRegistry meterRegistry) {
+        return new AssessmentService(noteFeignClient, termsLoader, patientFeignClient, meterRegistry, categoryCache,
+            new RiskRuleEngine(new RiskRulesProperties()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private PatientDto patient() {
+        PatientDto patientDto = new PatientDto();
+        patientDto.setFirstName("John");
+        patientDto.setLastName("Doe");
+        patientDto.setBirthDate(LocalDate.of(1980, 1, 1));
+        patientDto.setGender(Gender.M);
+        return patientDto;
+    }
+
     @Test
     void testAssessDiabetesRisk_Success() {
         PatientDto patientDto = new PatientDto();
@@ -62,7 +104,7 @@ class AssessmentServiceTest {
 
         Map<String, List<String>> categorizedTerms = new HashMap<>();
         categorizedTerms.put("Category1", List.of("trigger"));
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         AssessmentDto assessmentDto = assessmentService.assessDiabetesRisk(patientId);
         assertEquals(RiskLevel.NONE, assessmentDto.getRiskLevel());
@@ -115,6 +157,198 @@ class AssessmentServiceTest {
         assertEquals("Error assessing diabetes risk: Null value encountered", exception.getMessage());
     }
 
+    @Test
+    void testAssessDiabetesRisk_FetchesPatientAndNotesConcurrently() {
+        CountDownLatch bothCallsStarted = new CountDownLatch(2);
+        when(patientFeignClient.getPatientById(patientId)).thenAnswer(invocation -> {
+            bothCallsStarted.countDown();
+            assertTrue(bothCallsStarted.await(5, TimeUnit.SECONDS), "notes call did not overlap");
+            return patient();
+        });
+        when(noteFeignClient.getAllNotesByPatient(patientId)).thenAnswer(invocation -> {
+            bothCallsStarted.countDown();
+            assertTrue(bothCallsStarted.await(5, TimeUnit.SECONDS), "patient call did not overlap");
+            return Collections.emptyList();
+        });
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(new HashMap<>()));
+        ReflectionTestUtils.setField(assessmentService, "patientTimeoutMillis", 10_000L);
+        ReflectionTestUtils.setField(assessmentService, "notesTimeoutMillis", 10_000L);
+
+        AssessmentDto assessmentDto = assessmentService.assessDiabetesRisk(patientId);
+
+        assertEquals(RiskLevel.NONE, assessmentDto.getRiskLevel());
+    }
+
+    @Test
+    void testAssessDiabetesRisk_PropagatesRequestAttributesToCalls() {
+        RequestAttributes attributes = mock(ServletRequestAttributes.class);
+        RequestContextHolder.setRequestAttributes(attributes);
+        AtomicReference<RequestAttributes> patientCallAttributes = new AtomicReference<>();
+        AtomicReference<RequestAttributes> notesCallAttributes = new AtomicReference<>();
+        when(patientFeignClient.getPatientById(patientId)).thenAnswer(invocation -> {
+            patientCallAttributes.set(RequestContextHolder.getRequestAttributes());
+            return patient();
+        });
+        when(noteFeignClient.getAllNotesByPatient(patientId)).thenAnswer(invocation -> {
+            notesCallAttributes.set(RequestContextHolder.getRequestAttributes());
+            return Collections.emptyList();
+        });
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(new HashMap<>()));
+
+        assessmentService.assessDiabetesRisk(patientId);
+
+        assertSame(attributes, patientCallAttributes.get());
+        assertSame(attributes, notesCallAttributes.get());
+        assertSame(attributes, RequestContextHolder.getRequestAttributes());
+    }
+
+    @Test
+    void testAssessDiabetesRisk_Timeout() {
+        ReflectionTestUtils.setField(assessmentService, "notesTimeoutMillis", 50L);
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+        when(noteFeignClient.getAllNotesByPatient(patientId)).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return Collections.emptyList();
+        });
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> assessmentService.assessDiabetesRisk(patientId));
+
+        assertEquals("Error assessing diabetes risk: Timeout", exception.getMessage());
+    }
+
+    @Test
+    void testAssessDiabetesRisk_NotesShareTheTimeoutOfTheCategories() {
+        ReflectionTestUtils.setField(assessmentService, "notesTimeoutMillis", 300L);
+        PatientCategoriesDto precomputed = precomputedCategories("fp", 1, "Fumeur");
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+        when(noteFeignClient.getCategoriesByPatient(patientId)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return precomputed;
+        });
+        when(noteFeignClient.getAllNotesByPatient(patientId)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Collections.emptyList();
+        });
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> assessmentService.assessDiabetesRisk(patientId));
+
+        assertEquals("Error assessing diabetes risk: Timeout", exception.getMessage());
+    }
+
+    @Test
+    void testAssessDiabetesRisk_UsesCachedCategoriesWithoutFetchingNotes() {
+        PatientCategoryCache categoryCache = mock(PatientCategoryCache.class);
+        assessmentService = assessmentService(categoryCache, new SimpleMeterRegistry());
+        when(categoryCache.get(patientId)).thenReturn(OptionalLong.of(0b111L));
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+
+        AssessmentDto assessmentDto = assessmentService.assessDiabetesRisk(patientId);
+
+        assertEquals(3, assessmentDto.getTriggerTermsCount());
+        assertEquals(RiskLevel.BORDERLINE, assessmentDto.getRiskLevel());
+        verifyNoInteractions(noteFeignClient);
+    }
+
+    @Test
+    void testAssessDiabetesRisk_RecordsFanOutOfCachedCategories() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PatientCategoryCache categoryCache = mock(PatientCategoryCache.class);
+        assessmentService = assessmentService(categoryCache, registry);
+        when(categoryCache.get(patientId)).thenReturn(OptionalLong.of(0b1L));
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+
+        assessmentService.assessDiabetesRisk(patientId);
+
+        assertEquals(1L, registry.get(AssessmentService.FETCH_METRIC).tag("call", "fan-out").timer().count());
+    }
+
+    @Test
+    void testAssessDiabetesRisk_LoadsCategoryCacheOnMiss() {
+        PatientCategoryCache categoryCache = mock(PatientCategoryCache.class);
+        assessmentService = assessmentService(categoryCache, new SimpleMeterRegistry());
+        List<NoteDto> notes = Collections.singletonList(new NoteDto());
+        when(categoryCache.stamp(patientId)).thenReturn(42L);
+        when(categoryCache.get(patientId)).thenReturn(OptionalLong.empty());
+        when(categoryCache.load(patientId, notes, 42L)).thenReturn(0b11L);
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+        when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(notes);
+
+        AssessmentDto assessmentDto = assessmentService.assessDiabetesRisk(patientId);
+
+        assertEquals(2, assessmentDto.getTriggerTermsCount());
+        verify(categoryCache).load(patientId, notes, 42L);
+    }
+
+    private PatientCategoriesDto precomputedCategories(String dictionaryVersion, long untaggedNotes, String... categories) {
+        Map<String, List<String>> terms = Map.of("Fumeur", List.of("fumeur"));
+        when(termsLoader.getDictionary()).thenReturn(
+            new TriggerDictionary(1L, "fp", Instant.now(), terms, terms, AhoCorasickMatcher.compile(terms)));
+        PatientCategoriesDto precomputed = new PatientCategoriesDto();
+        precomputed.setPatient(patientId.toString());
+        precomputed.setCategories(List.of(categories));
+        precomputed.setNotes(3);
+        precomputed.setUntaggedNotes(untaggedNotes);
+        precomputed.setDictionaryVersion(dictionaryVersion);
+        return precomputed;
+    }
+
+    @Test
+    void testAssessDiabetesRisk_UsesPrecomputedCategoriesWithoutFetchingNotes() {
+        PatientCategoriesDto precomputed = precomputedCategories("fp", 0, "Fumeur", "Poids", "Vertiges");
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+        when(noteFeignClient.getCategoriesByPatient(patientId)).thenReturn(precomputed);
+
+        AssessmentDto assessmentDto = assessmentService.assessDiabetesRisk(patientId);
+
+        assertEquals(3, assessmentDto.getTriggerTermsCount());
+        assertEquals(RiskLevel.BORDERLINE, assessmentDto.getRiskLevel());
+        verify(noteFeignClient, never()).getAllNotesByPatient(patientId);
+    }
+
+    @Test
+    void testAssessDiabetesRisk_ScansNotesWhenPrecomputedCategoriesAreStale() {
+        for (PatientCategoriesDto precomputed : List.of(
+            precomputedCategories("other", 0, "Fumeur"),
+            precomputedCategories("fp", 1, "Fumeur"))) {
+            NoteDto note = new NoteDto();
+            note.setNote("Fumeur et fumeuse");
+            when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+            when(noteFeignClient.getCategoriesByPatient(patientId)).thenReturn(precomputed);
+            when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(List.of(note));
+            when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(Map.of("Fumeur", List.of("fumeur"), "Poids", List.of("poids"))));
+
+            AssessmentDto assessmentDto = assessmentService.assessDiabetesRisk(patientId);
+
+            assertEquals(1, assessmentDto.getTriggerTermsCount());
+        }
+    }
+
+    @Test
+    void testCountPrecomputedCategories_DisabledOrUnavailable() {
+        assertTrue(assessmentService.countPrecomputedCategories(null).isEmpty());
+
+        PatientCategoriesDto precomputed = precomputedCategories("fp", 0, "Fumeur");
+        assertEquals(OptionalInt.of(1), assessmentService.countPrecomputedCategories(precomputed));
+
+        ReflectionTestUtils.setField(assessmentService, "precomputedCategoriesEnabled", false);
+        assertTrue(assessmentService.countPrecomputedCategories(precomputed).isEmpty());
+    }
+
+    @Test
+    void testAssessDiabetesRisk_RecordsFetchLatency() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        assessmentService = assessmentService(disabledCache, registry);
+        when(patientFeignClient.getPatientById(patientId)).thenReturn(patient());
+        when(noteFeignClient.getAllNotesByPatient(patientId)).thenReturn(Collections.emptyList());
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(new HashMap<>()));
+
+        assessmentService.assessDiabetesRisk(patientId);
+
+        for (String call : List.of("patient", "notes", "fan-out")) {
+            assertEquals(1L, registry.get(AssessmentService.FETCH_METRIC).tag("call", call).timer().count(), call);
+        }
+    }
+
     @Test
     void testCountTriggerTerms_NoTriggers() throws Exception {
         NoteDto noteDto = new NoteDto();
@@ -124,7 +358,7 @@ class AssessmentServiceTest {
         List<NoteDto> notes = Collections.singletonList(noteDto);
 
         Map<String, List<String>> categorizedTerms = new HashMap<>();
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
 
@@ -146,7 +380,7 @@ class AssessmentServiceTest {
         categorizedTerms.put("Category1", Arrays.asList("trigger1", "trigger3"));
         categorizedTerms.put("Category2", List.of("trigger2"));
 
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -160,7 +394,7 @@ class AssessmentServiceTest {
         List<NoteDto> notes = Collections.emptyList();
         Map<String, List<String>> categorizedTerms = new HashMap<>();
         categorizedTerms.put("Category1", Arrays.asList("trigger1", "trigger2"));
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -184,7 +418,7 @@ class AssessmentServiceTest {
         Map<String, List<String>> categorizedTerms = new HashMap<>();
 
         categorizedTerms.put("Category1", List.of("trigger1"));
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -208,7 +442,7 @@ class AssessmentServiceTest {
 
         Map<String, List<String>> categorizedTerms = new HashMap<>();
         categorizedTerms.put("Category1", List.of("trigger1"));
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -230,7 +464,7 @@ class AssessmentServiceTest {
         categorizedTerms.put("Category1", List.of("trigger1"));
         categorizedTerms.put("Category2", List.of("trigger2"));
 
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -252,7 +486,7 @@ class AssessmentServiceTest {
         categorizedTerms.put("Category1", Arrays.asList("trigger1", "trigger3"));
         categorizedTerms.put("Category2", List.of("trigger2"));
 
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -282,7 +516,7 @@ class AssessmentServiceTest {
         categorizedTerms.put("Category1", List.of("trigger1"));
         categorizedTerms.put("Category2", List.of("trigger2"));
 
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -303,7 +537,7 @@ class AssessmentServiceTest {
         Map<String, List<String>> categorizedTerms = new HashMap<>();
         categorizedTerms.put("Category1", List.of("diabet"));
 
-        when(termsLoader.getCategorizedTerms()).thenReturn(categorizedTerms);
+        when(termsLoader.getMatcher()).thenReturn(AhoCorasickMatcher.compile(categorizedTerms));
 
         Method method = AssessmentService.class.getDeclaredMethod("countTriggerTerms", List.class);
         method.setAccessible(true);
@@ -0,0 +1,190 @@
+package com.medilabo.assessmentService.service;
+
+import com.medilabo.assessmentService.dto.AssessmentDto;
+import com.medilabo.assessmentService.dto.CohortAssessmentDto;
+import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.PatientCategoriesDto;
+import com.medilabo.assessmentService.dto.PatientDto;
+import com.medilabo.assessmentService.dto.PatientsCursorDto;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import com.medilabo.assessmentService.feign.NoteFeignClient;
+import com.medilabo.assessmentService.feign.PatientFeignClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CohortAssessmentServiceTest {
+
+    @Mock
+    private PatientFeignClient patientFeignClient;
+
+    @Mock
+    private NoteFeignClient noteFeignClient;
+
+    @Mock
+    private AssessmentService assessmentService;
+
+    @InjectMocks
+    private CohortAssessmentService cohortAssessmentService;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(cohortAssessmentService, "chunkSize", 2);
+        ReflectionTestUtils.setField(cohortAssessmentService, "parallelism", 2);
+        ReflectionTestUtils.setField(cohortAssessmentService, "meterRegistry", registry);
+        cohortAssessmentService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cohortAssessmentService.stop();
+    }
+
+    private static PatientDto patient(UUID id) {
+        PatientDto patient = new PatientDto();
+        patient.setId(id);
+        return patient;
+    }
+
+    private static NoteDto note(UUID patientId, String content) {
+        NoteDto note = new NoteDto();
+        note.setPatient(patientId.toString());
+        note.setNote(content);
+        return note;
+    }
+
+    private static AssessmentDto assessment(RiskLevel riskLevel, int triggerTermsCount) {
+        AssessmentDto assessment = new AssessmentDto();
+        assessment.setRiskLevel(riskLevel);
+        assessment.setTriggerTermsCount(triggerTermsCount);
+        return assessment;
+    }
+
+    @Test
+    void assessPatients_shouldFetchEachChunkInBulkAndKeepOrder() {
+        UUID first = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        PatientDto firstPatient = patient(first);
+        PatientDto thirdPatient = patient(third);
+        NoteDto firstNote = note(first, "fumeur");
+        when(patientFeignClient.getPatientsByIds(List.of(first, unknown))).thenReturn(List.of(firstPatient));
+        when(patientFeignClient.getPatientsByIds(List.of(third))).thenReturn(List.of(thirdPatient));
+        when(noteFeignClient.getAllNotesByPatients(List.of(first.toString()))).thenReturn(List.of(firstNote));
+        when(assessmentService.assess(firstPatient, List.of(firstNote))).thenReturn(assessment(RiskLevel.BORDERLINE, 2));
+        when(assessmentService.assess(thirdPatient, List.of())).thenReturn(assessment(RiskLevel.NONE, 0));
+
+        List<CohortAssessmentDto> results = new ArrayList<>();
+        long count = cohortAssessmentService.assessPatients(List.of(first, unknown, third), results::add);
+
+        assertEquals(3, count);
+        assertEquals(List.of(unknown, first, third), results.stream().map(CohortAssessmentDto::getPatientId).toList());
+        assertEquals("Patient not found", results.get(0).getError());
+        assertEquals(RiskLevel.BORDERLINE, results.get(1).getRiskLevel());
+        assertEquals(2, results.get(1).getTriggerTermsCount());
+        assertNull(results.get(1).getError());
+        assertEquals(RiskLevel.NONE, results.get(2).getRiskLevel());
+        verify(patientFeignClient, times(2)).getPatientsByIds(anyList());
+        verify(noteFeignClient, times(2)).getAllNotesByPatients(anyList());
+        assertEquals(2.0, registry.get(CohortAssessmentService.ASSESSMENTS_METRIC).tag("outcome", "success").counter().count());
+        assertEquals(1.0, registry.get(CohortAssessmentService.ASSESSMENTS_METRIC).tag("outcome", "error").counter().count());
+        assertTrue(registry.get(CohortAssessmentService.THROUGHPUT_METRIC).gauge().value() > 0);
+    }
+
+    @Test
+    void assessPatients_shouldOnlyFetchNotesOfPatientsWithoutPrecomputedCategories() {
+        UUID tagged = UUID.randomUUID();
+        UUID untagged = UUID.randomUUID();
+        PatientDto taggedPatient = patient(tagged);
+        PatientDto untaggedPatient = patient(untagged);
+        PatientCategoriesDto taggedCategories = new PatientCategoriesDto();
+        taggedCategories.setPatient(tagged.toString());
+        PatientCategoriesDto untaggedCategories = new PatientCategoriesDto();
+        untaggedCategories.setPatient(untagged.toString());
+        NoteDto untaggedNote = note(untagged, "fumeur");
+        when(assessmentService.isPrecomputedCategoriesEnabled()).thenReturn(true);
+        when(patientFeignClient.getPatientsByIds(List.of(tagged, untagged))).thenReturn(List.of(taggedPatient, untaggedPatient));
+        when(noteFeignClient.getCategoriesByPatients(List.of(tagged.toString(), untagged.toString())))
+            .thenReturn(List.of(taggedCategories, untaggedCategories));
+        when(assessmentService.countPrecomputedCategories(taggedCategories)).thenReturn(OptionalInt.of(2));
+        when(assessmentService.countPrecomputedCategories(untaggedCategories)).thenReturn(OptionalInt.empty());
+        when(noteFeignClient.getAllNotesByPatients(List.of(untagged.toString()))).thenReturn(List.of(untaggedNote));
+        when(assessmentService.assess(taggedPatient, 2)).thenReturn(assessment(RiskLevel.BORDERLINE, 2));
+        when(assessmentService.assess(untaggedPatient, List.of(untaggedNote))).thenReturn(assessment(RiskLevel.NONE, 1));
+
+        List<CohortAssessmentDto> results = new ArrayList<>();
+        cohortAssessmentService.assessPatients(List.of(tagged, untagged), results::add);
+
+        assertEquals(List.of(2, 1), results.stream().map(CohortAssessmentDto::getTriggerTermsCount).toList());
+        verify(noteFeignClient).getAllNotesByPatients(List.of(untagged.toString()));
+    }
+
+    @Test
+    void assessPatients_shouldReportPatientThatCannotBeAssessed() {
+        UUID patientId = UUID.randomUUID();
+        when(patientFeignClient.getPatientsByIds(List.of(patientId))).thenReturn(List.of(patient(patientId)));
+        when(noteFeignClient.getAllNotesByPatients(anyList())).thenReturn(List.of());
+        when(assessmentService.assess(any(), any())).thenThrow(new NullPointerException("birthDate"));
+
+        List<CohortAssessmentDto> results = new ArrayList<>();
+        cohortAssessmentService.assessPatients(List.of(patientId), results::add);
+
+        assertEquals(1, results.size());
+        assertEquals(patientId, results.getFirst().getPatientId());
+        assertEquals("Error assessing diabetes risk", results.getFirst().getError());
+        assertNull(results.getFirst().getRiskLevel());
+    }
+
+    @Test
+    void assessAllPatients_shouldPageThroughPatients() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        PatientsCursorDto firstPage = new PatientsCursorDto();
+        firstPage.setData(List.of(patient(first)));
+        firstPage.setNextCursor("next");
+        PatientsCursorDto secondPage = new PatientsCursorDto();
+        secondPage.setData(List.of(patient(second)));
+        when(patientFeignClient.getPatientsByCursor(null, 2)).thenReturn(firstPage);
+        when(patientFeignClient.getPatientsByCursor("next", 2)).thenReturn(secondPage);
+        when(noteFeignClient.getAllNotesByPatients(anyList())).thenReturn(List.of());
+        when(assessmentService.assess(any(), eq(List.of()))).thenReturn(assessment(RiskLevel.NONE, 0));
+
+        List<CohortAssessmentDto> results = new ArrayList<>();
+        long count = cohortAssessmentService.assessAllPatients(results::add);
+
+        assertEquals(2, count);
+        assertEquals(List.of(first, second), results.stream().map(CohortAssessmentDto::getPatientId).toList());
+    }
+
+    @Test
+    void assessPatients_shouldNotCallServicesForEmptyCohort() {
+        List<CohortAssessmentDto> results = new ArrayList<>();
+
+        assertEquals(0, cohortAssessmentService.assessPatients(List.of(), results::add));
+
+        assertTrue(results.isEmpty());
+        verify(patientFeignClient, times(0)).getPatientsByIds(anyList());
+    }
+}
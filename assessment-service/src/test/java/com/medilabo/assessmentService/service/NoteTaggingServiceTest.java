@@ -0,0 +1,62 @@
+package com.medilabo.assessmentService.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.assessmentService.dto.NoteTagsDto;
+import com.medilabo.assessmentService.matcher.TokenMatcher;
+import com.medilabo.assessmentService.matcher.TriggerDictionary;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class NoteTaggingServiceTest {
+
+  @Mock
+  private TriggerTermsLoader termsLoader;
+
+  @InjectMocks
+  private NoteTaggingService noteTaggingService;
+
+  @Test
+  void tag_shouldReturnCategoriesOfEachNoteWithFingerprint() {
+    Map<String, List<String>> terms = new LinkedHashMap<>();
+    terms.put("Fumeur", List.of("fumeur"));
+    terms.put("Poids", List.of("poids"));
+    when(termsLoader.getDictionary()).thenReturn(
+      new TriggerDictionary(3L, "fp", Instant.now(), terms, terms, TokenMatcher.compile(terms))
+    );
+
+    NoteTagsDto tags = noteTaggingService.tag(
+      Arrays.asList("Poids en hausse, fumeur", "RAS", null)
+    );
+
+    assertEquals("fp", tags.getDictionaryVersion());
+    assertEquals(
+      List.of(List.of("Fumeur", "Poids"), List.of(), List.of()),
+      tags.getCategories()
+    );
+  }
+
+  @Test
+  void tag_shouldRejectTooManyNotes() {
+    List<String> notes = Collections.nCopies(NoteTaggingService.MAX_BATCH_SIZE + 1, "note");
+
+    RuntimeException exception = assertThrows(
+      RuntimeException.class,
+      () -> noteTaggingService.tag(notes)
+    );
+
+    assertEquals("Too many notes: 1001 (max 1000)", exception.getMessage());
+  }
+}
@@ -0,0 +1,70 @@
+package com.medilabo.assessmentService.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.medilabo.assessmentService.config.RiskRulesProperties;
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+class RiskRuleEngineTest {
+
+  @Test
+  void constructor_shouldBindRulesFromConfiguration() {
+    MapConfigurationPropertySource source = new MapConfigurationPropertySource(Map.of(
+      "assessment.risk-rules.age-bands[0]", "40",
+      "assessment.risk-rules.rules[0].age-band", "0",
+      "assessment.risk-rules.rules[0].thresholds.in-danger", "2",
+      "assessment.risk-rules.rules[1].age-band", "1",
+      "assessment.risk-rules.rules[1].thresholds.early-onset", "3"
+    ));
+    RiskRulesProperties properties = new Binder(source)
+      .bind("assessment.risk-rules", Bindable.ofInstance(new RiskRulesProperties()))
+      .get();
+
+    RiskRuleEngine engine = new RiskRuleEngine(properties);
+
+    assertEquals(RiskLevel.IN_DANGER, engine.evaluate(Gender.M, 39, 2));
+    assertEquals(RiskLevel.NONE, engine.evaluate(Gender.M, 40, 2));
+    assertEquals(RiskLevel.EARLY_ONSET, engine.evaluate(Gender.F, 40, 3));
+  }
+
+  @Test
+  void constructor_shouldRejectInvalidRules() {
+    RiskRulesProperties properties = new RiskRulesProperties();
+    properties.setRules(List.of());
+
+    RuntimeException exception = assertThrows(
+      RuntimeException.class,
+      () -> new RiskRuleEngine(properties)
+    );
+
+    assertEquals("Error compiling risk rules", exception.getMessage());
+  }
+
+  @Test
+  void reload_shouldSwapRulesAndKeepCurrentOnesWhenInvalid() {
+    RiskRulesProperties properties = new RiskRulesProperties();
+    RiskRuleEngine engine = new RiskRuleEngine(properties);
+    assertEquals(RiskLevel.BORDERLINE, engine.evaluate(Gender.M, 30, 2));
+
+    properties.setRules(List.of(
+      new RiskRulesProperties.Rule(null, 0, Map.of(RiskLevel.IN_DANGER, 1)),
+      new RiskRulesProperties.Rule(null, 1, Map.of(RiskLevel.IN_DANGER, 1))
+    ));
+    assertTrue(engine.reload());
+    assertEquals(RiskLevel.IN_DANGER, engine.evaluate(Gender.M, 30, 2));
+
+    properties.setAgeBands(List.of(50, 40));
+    assertFalse(engine.reload());
+    assertEquals(RiskLevel.IN_DANGER, engine.evaluate(Gender.M, 30, 2));
+  }
+}
@@ -1,8 +1,13 @@
 package com.medilabo.assessmentService.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doReturn;
@@ -11,14 +16,26 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.medilabo.assessmentService.enums.MatchingMode;
+import com.medilabo.assessmentService.enums.MatchingStrategy;
+import com.medilabo.assessmentService.matcher.AhoCorasickMatcher;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import com.medilabo.assessmentService.matcher.TokenMatcher;
+import com.medilabo.assessmentService.matcher.TriggerDictionary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class TriggerTermsLoaderTest {
@@ -42,6 +59,49 @@ class TriggerTermsLoaderTest {
     assertEquals(2, result.size());
     assertIterableEquals(List.of("toux", "fièvre"), result.get("symptoms"));
     assertIterableEquals(List.of("tabac"), result.get("lifestyle"));
+    assertIterableEquals(
+      List.of("symptoms", "lifestyle"),
+      loader.getMatcher().getCategories()
+    );
+  }
+
+  @Test
+  void loadTerms_shouldCompileMatcherOfConfiguredStrategy() {
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    loader.loadTerms();
+    assertInstanceOf(AhoCorasickMatcher.class, loader.getMatcher());
+    assertEquals(
+      List.of("fumeur"),
+      List.copyOf(loader.getMatcher().categoriesOf(loader.getMatcher().scan("parfume", 0L)))
+    );
+
+    ReflectionTestUtils.setField(
+      loader,
+      "matchingStrategy",
+      MatchingStrategy.TOKEN
+    );
+    loader.loadTerms();
+    assertInstanceOf(TokenMatcher.class, loader.getMatcher());
+    assertEquals(0L, loader.getMatcher().scan("parfume", 0L));
+  }
+
+  @Test
+  void loadTerms_shouldMatchLikeCaseInsensitiveSubstringsByDefault() {
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    loader.loadTerms();
+    TermMatcher matcher = loader.getMatcher();
+
+    // The notes and terms below give the same categories with StringUtils.containsIgnoreCase
+    assertEquals(MatchingMode.STRICT, loader.getMatchingMode());
+    assertEquals(
+      Set.of("fumeur", "poids"),
+      matcher.categoriesOf(matcher.scan("Il FUME, perte de POIDS", 0L))
+    );
+    assertEquals(
+      Set.of("fumeur"),
+      matcher.categoriesOf(matcher.scan("parfumeur", 0L))
+    );
+    assertEquals(0L, matcher.scan("hemoglobine A1C", 0L));
   }
 
   @Test
@@ -78,4 +138,92 @@ class TriggerTermsLoaderTest {
     assertEquals("Error loading trigger terms", exception.getMessage());
     verify(loader).getResourceAsStream("/trigger-terms.json");
   }
+
+  @Test
+  void loadTerms_fromFileSystemPath(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("terms.json");
+    Files.writeString(file, "{\"poids\":[\"poids\"]}");
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    ReflectionTestUtils.setField(loader, "path", file.toString());
+
+    loader.loadTerms();
+
+    assertEquals(Map.of("poids", List.of("poids")), loader.getCategorizedTerms());
+    assertEquals(1L, loader.getVersion());
+  }
+
+  @Test
+  void reload_shouldSwapDictionaryAndRecordMetrics(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("terms.json");
+    Files.writeString(file, "{\"poids\":[\"poids\"]}");
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    ReflectionTestUtils.setField(loader, "path", file.toString());
+    ReflectionTestUtils.setField(loader, "meterRegistry", registry);
+    loader.loadTerms();
+    TriggerDictionary first = loader.getDictionary();
+
+    Files.writeString(file, "{\"poids\":[\"poids\"],\"taille\":[\"taille\"]}");
+
+    assertTrue(loader.reload());
+    TriggerDictionary second = loader.getDictionary();
+    assertEquals(2L, second.getVersion());
+    assertIterableEquals(List.of("poids", "taille"), second.getMatcher().getCategories());
+    assertIterableEquals(List.of("poids"), first.getMatcher().getCategories());
+    assertEquals(
+      2.0,
+      registry.get(TriggerTermsLoader.VERSION_METRIC).gauge().value()
+    );
+    assertEquals(
+      2L,
+      registry.get(TriggerTermsLoader.RELOAD_METRIC).tag("outcome", "success").timer().count()
+    );
+  }
+
+  @Test
+  void reload_shouldKeepCurrentDictionaryWhenInvalid(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("terms.json");
+    Files.writeString(file, "{\"poids\":[\"poids\"]}");
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    ReflectionTestUtils.setField(loader, "path", file.toString());
+    ReflectionTestUtils.setField(loader, "meterRegistry", registry);
+    loader.loadTerms();
+    TriggerDictionary current = loader.getDictionary();
+
+    for (String invalid : List.of("{\"poids\":[", "{}", "{\"poids\":[]}", "{\"poids\":[\" \"]}")) {
+      Files.writeString(file, invalid);
+      assertFalse(loader.reload(), invalid);
+      assertSame(current, loader.getDictionary());
+    }
+    assertEquals(1L, loader.getVersion());
+    assertEquals(
+      4L,
+      registry.get(TriggerTermsLoader.RELOAD_METRIC).tag("outcome", "failure").timer().count()
+    );
+  }
+
+  @Test
+  void fingerprint_shouldOnlyDependOnContentOfDictionary(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("terms.json");
+    Files.writeString(file, "{\"poids\":[\"Poids\"],\"taille\":[\"taille\"]}");
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    ReflectionTestUtils.setField(loader, "path", file.toString());
+    loader.loadTerms();
+    String fingerprint = loader.getFingerprint();
+
+    Files.writeString(file, "{\"taille\":[\"taille\"],\"poids\":[\"poids\"]}");
+    assertTrue(loader.reload());
+    assertEquals(fingerprint, loader.getFingerprint());
+    assertEquals(2L, loader.getVersion());
+
+    Files.writeString(file, "{\"poids\":[\"poids\"],\"taille\":[\"tailles\"]}");
+    assertTrue(loader.reload());
+    assertNotEquals(fingerprint, loader.getFingerprint());
+
+    TriggerTermsLoader other = new TriggerTermsLoader();
+    ReflectionTestUtils.setField(other, "path", file.toString());
+    other.loadTerms();
+    assertEquals(loader.getFingerprint(), other.getFingerprint());
+  }
 }
@@ -0,0 +1,58 @@
+package com.medilabo.assessmentService.service;
+
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TriggerTermsWatcherTest {
+
+  private TriggerTermsWatcher watcher;
+
+  @AfterEach
+  void tearDown() {
+    if (watcher != null) watcher.stop();
+  }
+
+  @Test
+  void start_shouldNotWatchClasspathDictionary() {
+    TriggerTermsLoader loader = mock(TriggerTermsLoader.class);
+    watcher = new TriggerTermsWatcher(loader);
+
+    watcher.start();
+
+    verify(loader).getPath();
+    verifyNoMoreInteractions(loader);
+  }
+
+  @Test
+  void start_shouldReloadDictionaryWhenFileChanges(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("terms.json");
+    Files.writeString(file, "{\"poids\":[\"poids\"]}");
+    TriggerTermsLoader loader = new TriggerTermsLoader();
+    ReflectionTestUtils.setField(loader, "path", file.toString());
+    loader.loadTerms();
+    watcher = new TriggerTermsWatcher(loader);
+    ReflectionTestUtils.setField(watcher, "debounceMillis", 50L);
+    watcher.start();
+
+    Files.writeString(dir.resolve("other.json"), "{}");
+    Files.writeString(file, "{\"poids\":[\"poids\"],\"taille\":[\"taille\"]}");
+
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (loader.getMatcher().getCategories().size() < 2 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    assertTrue(loader.getVersion() >= 2);
+    assertIterableEquals(List.of("poids", "taille"), loader.getMatcher().getCategories());
+  }
+}
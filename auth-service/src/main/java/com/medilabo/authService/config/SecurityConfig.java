@@ -1,9 +1,12 @@
 package com.medilabo.authService.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 /**
@@ -18,4 +21,22 @@ public class SecurityConfig {
              .authorizeHttpRequests((auth) -> auth.anyRequest().permitAll()); // Allow all requests to the auth service
         return http.build(); // Build the security
     }
-}
\ No newline at end of file
+
+    /**
+     * Argon2 encoder of the passwords, configured with the properties defined in application properties.
+     * The encoder is thread-safe, so a single instance is shared by every login.
+     *
+     * @return a configured Argon2PasswordEncoder instance
+     * @see com.medilabo.authService.service.PasswordHasher
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(
+            @Value("${argon2.saltLength}") int saltLength,
+            @Value("${argon2.hashLength}") int hashLength,
+            @Value("${argon2.iterations}") int iterations,
+            @Value("${argon2.memory}") int memory,
+            @Value("${argon2.parallelism}") int parallelism
+    ) {
+        return new Argon2PasswordEncoder(saltLength, hashLength, iterations, memory, parallelism);
+    }
+}
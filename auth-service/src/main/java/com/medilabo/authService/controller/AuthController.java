@@ -1,11 +1,20 @@
 package com.medilabo.authService.controller;
 
+import java.time.Duration;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.medilabo.authService.dto.JwksDto;
 import com.medilabo.authService.service.AuthService;
+import com.medilabo.authService.service.LoginThrottle;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -23,10 +32,13 @@ import lombok.extern.log4j.Log4j2;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginThrottle loginThrottle;
 
     /**
      * Endpoint for user login.
      * Accepts a username and password, authenticates the user, and sets a session cookie.
+     * A username locked out by its previous failures is refused with
+     * {@code 429 Too Many Requests} before the password is hashed.
      *
      * @param request      the login request containing username and password
      * @param httpRequest  the HTTP request
@@ -39,14 +51,24 @@ public class AuthController {
             HttpServletRequest httpRequest,
             HttpServletResponse httpResponse
     ) {
+        Duration retryAfter = loginThrottle.retryAfter(request.username());
+        if (!retryAfter.isZero()) {
+            httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            httpResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(retryAfter.toSeconds(), 1)));
+            return "Too many login attempts";
+        }
+
         try {
-            return authService.authenticate(
+            String token = authService.authenticate(
                     request.username(),
                     request.password(),
                     httpRequest,
                     httpResponse
             );
+            loginThrottle.recordSuccess(request.username());
+            return token;
         } catch (IllegalArgumentException e) {
+            loginThrottle.recordFailure(request.username());
             return "User not found";
         } catch (Exception e) {
             log.error(
@@ -58,6 +80,20 @@ public class AuthController {
         }
     }
 
+    /**
+     * Endpoint publishing the public keys verifying the tokens, as a JSON Web Key Set.
+     * The gateway fetches it to verify the tokens by their key ID, so that a rotated key
+     * is picked up without a restart.
+     *
+     * @return the JSON Web Key Set, cacheable for a few minutes
+     */
+    @GetMapping("/auth/jwks")
+    public ResponseEntity<JwksDto> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)))
+                .body(authService.getJsonWebKeySet());
+    }
+
     public record LoginRequest(String username, String password) {
     }
 }
\ No newline at end of file
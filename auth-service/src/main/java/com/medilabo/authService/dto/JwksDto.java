@@ -0,0 +1,23 @@
+package com.medilabo.authService.dto;
+
+import java.util.List;
+
+/**
+ * JSON Web Key Set (RFC 7517) of the public keys verifying the tokens of the Auth Service.
+ *
+ * @param keys the public keys, the current signing key first
+ */
+public record JwksDto(List<Jwk> keys) {
+
+  /**
+   * An RSA public key and the ID set as the {@code kid} header of the tokens it verifies.
+   *
+   * @param kty the key type, {@code RSA}
+   * @param use the use of the key, {@code sig}
+   * @param alg the algorithm of the tokens, {@code RS512}
+   * @param kid the ID of the key
+   * @param n   the modulus, in base64url
+   * @param e   the public exponent, in base64url
+   */
+  public record Jwk(String kty, String use, String alg, String kid, String n, String e) {}
+}
@@ -1,9 +1,8 @@
 package com.medilabo.authService.service;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import com.medilabo.authService.dto.JwksDto;
 import com.medilabo.authService.model.User;
 import com.medilabo.authService.repository.UserRepository;
 import com.medilabo.authService.util.JwtUtil;
@@ -22,28 +21,15 @@ public class AuthService {
 
   private final UserRepository userRepository;
   private final JwtUtil jwtUtil;
-
-  @Value("${argon2.iterations}")
-  private int iterations;
-
-  @Value("${argon2.memory}")
-  private int memory;
-
-  @Value("${argon2.parallelism}")
-  private int parallelism;
-
-  @Value("${argon2.saltLength}")
-  private int saltLength;
-
-  @Value("${argon2.hashLength}")
-  private int hashLength;
+  private final PasswordHasher passwordHasher;
 
   /**
    * Authenticates a user by username and password.
    * If the user is found and the password matches, it generates a JWT token.
    *
    * <p>
-   *  This method retrieves the user by username, checks the password using Argon2 encoding,
+   *  This method retrieves the user by username, checks the password using Argon2 encoding
+   *  on the bounded pool of the PasswordHasher,
    *  and generates a JWT token using the JwtUtil class.
    *  The token is set in the HTTP response header.
    * </p>
@@ -53,8 +39,10 @@ public class AuthService {
    * @param httpResponse the HTTP response to set the token in
    * @return a JWT token as a string
    * @throws IllegalArgumentException if the user is not found or password does not match
+   * @throws RuntimeException if too many logins are in progress to check the password in time
    * @see UserRepository
    * @see JwtUtil
+   * @see PasswordHasher
    * @see HttpServletRequest
    * @see HttpServletResponse
    */
@@ -69,7 +57,7 @@ public class AuthService {
       .orElseThrow(() -> new IllegalArgumentException("User not found")
       );
 
-    if (!passwordEncoder().matches(password, user.getPassword())) {
+    if (!passwordHasher.matches(password, user.getPassword())) {
       throw new IllegalArgumentException("User not found");
     }
 
@@ -81,18 +69,12 @@ public class AuthService {
   }
 
   /**
-   * Returns a new Argon2PasswordEncoder instance configured with the properties defined in application properties.
+   * Returns the public keys verifying the tokens, as a JSON Web Key Set.
    *
-   * @return a configured Argon2PasswordEncoder instance
-   * @see Argon2PasswordEncoder
+   * @return the JSON Web Key Set of the current and of the recently replaced signing keys
+   * @see JwtUtil#getJsonWebKeySet()
    */
-  private Argon2PasswordEncoder passwordEncoder() {
-    return new Argon2PasswordEncoder(
-      saltLength,
-      hashLength,
-      iterations,
-      memory,
-      parallelism
-    );
+  public JwksDto getJsonWebKeySet() {
+    return jwtUtil.getJsonWebKeySet();
   }
 }
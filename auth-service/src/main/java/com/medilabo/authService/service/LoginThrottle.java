@@ -0,0 +1,225 @@
+package com.medilabo.authService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks the failed logins per username, and refuses the logins of a username that keeps failing
+ * before any password is hashed.
+ *
+ * <p>
+ *  The first failures are free; after them, each failure locks the username out for a delay that
+ *  doubles with every further failure, up to the maximum delay. A login refused during a lockout costs
+ *  a map lookup, and is not counted as a failure. A successful login clears the failures of its username.
+ * </p>
+ * <p>
+ *  Logins are not tracked per client address: they reach the service through the frontend, whose
+ *  address is shared by every user, so one client could lock everybody out. The gateway limits the
+ *  rate of the logins per client address instead.
+ * </p>
+ * <p>
+ *  Each tracked username is a single {@code long} packing its failure count with the time
+ *  of its last failure. Entries are forgotten once their last failure is older than the expiry, and
+ *  their number is capped, so that a flood of random usernames cannot exhaust the memory of the service.
+ * </p>
+ */
+@Service
+public class LoginThrottle {
+
+  static final String THROTTLED_METRIC = "auth.login.throttled";
+  static final String KEYS_METRIC = "auth.login.throttle.keys";
+  static final String OVERFLOW_METRIC = "auth.login.throttle.overflow";
+
+  private static final int TIME_BITS = 48;
+  private static final long TIME_MASK = (1L << TIME_BITS) - 1;
+  private static final long MAX_FAILURES = 0xFFFF;
+
+  @Value("${login.throttle.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${login.throttle.free-attempts-per-username:5}")
+  private int freeAttemptsPerUsername = 5;
+
+  @Value("${login.throttle.base-delay:PT1S}")
+  private Duration baseDelay = Duration.ofSeconds(1);
+
+  @Value("${login.throttle.max-delay:PT15M}")
+  private Duration maxDelay = Duration.ofMinutes(15);
+
+  @Value("${login.throttle.expiry:PT1H}")
+  private Duration expiry = Duration.ofHours(1);
+
+  @Value("${login.throttle.max-keys:100000}")
+  private int maxKeys = 100000;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  private final ConcurrentHashMap<String, AtomicLong> failures = new ConcurrentHashMap<>();
+  private final AtomicInteger keys = new AtomicInteger();
+  private final long origin = System.nanoTime();
+  private ScheduledExecutorService sweeper;
+  private Counter overflow;
+
+  /**
+   * Registers the metrics and starts forgetting the expired failures.
+   */
+  @PostConstruct
+  public void start() {
+    Gauge.builder(KEYS_METRIC, keys, AtomicInteger::get)
+      .description("Usernames with failed logins")
+      .register(meterRegistry);
+    overflow = Counter.builder(OVERFLOW_METRIC)
+      .description("Failed logins not tracked because the maximum number of entries was reached")
+      .register(meterRegistry);
+
+    long interval = Math.max(expiry.toMillis() / 2, 1);
+    sweeper = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().name("login-throttle-sweeper").daemon().factory()
+    );
+    sweeper.scheduleWithFixedDelay(() -> sweep(now()), interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stops forgetting the expired failures.
+   */
+  @PreDestroy
+  public void stop() {
+    if (sweeper != null) sweeper.shutdownNow();
+  }
+
+  /**
+   * Checks whether a login may be attempted.
+   *
+   * @param username the username of the login
+   * @return {@link Duration#ZERO} if the login may be attempted, otherwise the time until it may be
+   */
+  public Duration retryAfter(String username) {
+    return retryAfter(username, now());
+  }
+
+  /**
+   * Records a login refused because of a wrong username or password.
+   *
+   * @param username the username of the login
+   */
+  public void recordFailure(String username) {
+    recordFailure(username, now());
+  }
+
+  /**
+   * Records a successful login, clearing the failures of its username.
+   *
+   * @param username the username of the login
+   */
+  public void recordSuccess(String username) {
+    if (!enabled) return;
+    if (failures.remove(key(username)) != null) keys.decrementAndGet();
+  }
+
+  /**
+   * @return the number of usernames with failed logins
+   */
+  public int size() {
+    return keys.get();
+  }
+
+  Duration retryAfter(String username, long now) {
+    if (!enabled) return Duration.ZERO;
+    long wait = lockout(failures.get(key(username)), freeAttemptsPerUsername, now);
+    if (wait <= 0) return Duration.ZERO;
+    throttled("username").increment();
+    return Duration.ofMillis(wait);
+  }
+
+  void recordFailure(String username, long now) {
+    if (!enabled) return;
+    increment(key(username), now);
+  }
+
+  /**
+   * Forgets the usernames whose last failure is older than the expiry.
+   *
+   * @param now the current time, in milliseconds since the start of the throttle
+   */
+  void sweep(long now) {
+    failures.forEach((key, state) -> {
+      if (isExpired(state.get(), now) && failures.remove(key, state)) keys.decrementAndGet();
+    });
+  }
+
+  /**
+   * @return the time in milliseconds until the lockout of an entry ends, 0 or less if it is not locked out
+   */
+  private long lockout(AtomicLong state, int freeAttempts, long now) {
+    if (state == null) return 0;
+    long value = state.get();
+    long count = value >>> TIME_BITS;
+    if (count <= freeAttempts || isExpired(value, now)) return 0;
+    return (value & TIME_MASK) + delay(count - freeAttempts) - now;
+  }
+
+  /**
+   * @return the base delay doubled for each failure past the first locked out one, up to the maximum delay
+   */
+  private long delay(long lockedOutFailures) {
+    long shift = Math.min(lockedOutFailures - 1, 62);
+    long base = baseDelay.toMillis();
+    if (base > maxDelay.toMillis() >> shift) return maxDelay.toMillis();
+    return Math.min(base << shift, maxDelay.toMillis());
+  }
+
+  private void increment(String key, long now) {
+    AtomicLong state = failures.get(key);
+    if (state == null) {
+      if (keys.get() >= maxKeys) {
+        overflow.increment();
+        return;
+      }
+      AtomicLong created = new AtomicLong();
+      state = failures.putIfAbsent(key, created);
+      if (state == null) {
+        keys.incrementAndGet();
+        state = created;
+      }
+    }
+    state.updateAndGet(value -> {
+      long count = isExpired(value, now) ? 0 : value >>> TIME_BITS;
+      return Math.min(count + 1, MAX_FAILURES) << TIME_BITS | (now & TIME_MASK);
+    });
+  }
+
+  private boolean isExpired(long value, long now) {
+    return now - (value & TIME_MASK) > expiry.toMillis();
+  }
+
+  private long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - origin);
+  }
+
+  private static String key(String username) {
+    return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private Counter throttled(String reason) {
+    return Counter.builder(THROTTLED_METRIC)
+      .description("Logins refused before hashing the password because of previous failures")
+      .tag("reason", reason)
+      .register(meterRegistry);
+  }
+}
@@ -0,0 +1,173 @@
+package com.medilabo.authService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checks passwords against their Argon2 hashes on a bounded pool of threads.
+ *
+ * <p>
+ *  Each Argon2 hash takes the configured memory ({@code argon2.memory}, 64 MB by default) for as long as
+ *  it runs, so the number of hashes running at once bounds the heap taken by the logins. The pool has one
+ *  thread per core, but no more than fit in a quarter of the maximum heap, unless configured otherwise.
+ *  Logins above that wait in a bounded queue; a login that finds the queue full is refused without being
+ *  hashed, and a login that is not checked within the queue timeout is refused without waiting any longer.
+ *  A check still queued by then is skipped when it reaches a hashing thread.
+ * </p>
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+  static final String HASH_METRIC = "auth.password.hash";
+  static final String WAIT_METRIC = "auth.password.hash.wait";
+  static final String QUEUE_METRIC = "auth.password.hash.queue";
+  static final String REJECTED_METRIC = "auth.password.hash.rejected";
+
+  private final PasswordEncoder passwordEncoder;
+
+  @Value("${argon2.memory}")
+  private int memory;
+
+  @Value("${argon2.hashing.threads:0}")
+  private int threads = 0;
+
+  @Value("${argon2.hashing.queue-capacity:100}")
+  private int queueCapacity = 100;
+
+  @Value("${argon2.hashing.queue-timeout:PT5S}")
+  private Duration queueTimeout = Duration.ofSeconds(5);
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  private ThreadPoolExecutor executor;
+
+  @Getter
+  private int poolSize;
+
+  private Timer hashTimer;
+  private Timer waitTimer;
+
+  /**
+   * Starts the pool of hashing threads and registers the metrics.
+   */
+  @PostConstruct
+  public void start() {
+    poolSize = threads > 0 ? threads : defaultPoolSize(Runtime.getRuntime().maxMemory(), memory);
+    executor = new ThreadPoolExecutor(
+      poolSize,
+      poolSize,
+      0,
+      TimeUnit.MILLISECONDS,
+      new ArrayBlockingQueue<>(queueCapacity),
+      Thread.ofPlatform().name("password-hashing-", 0).daemon().factory()
+    );
+    hashTimer = Timer.builder(HASH_METRIC)
+      .description("Time to check a password against its Argon2 hash")
+      .publishPercentiles(0.5, 0.99)
+      .register(meterRegistry);
+    waitTimer = Timer.builder(WAIT_METRIC)
+      .description("Time a password check waits for a hashing thread")
+      .publishPercentiles(0.5, 0.99)
+      .register(meterRegistry);
+    Gauge.builder(QUEUE_METRIC, executor, pool -> pool.getQueue().size())
+      .description("Password checks waiting for a hashing thread")
+      .register(meterRegistry);
+    log.info("Hashing passwords on {} threads", poolSize);
+  }
+
+  /**
+   * Stops the pool of hashing threads.
+   */
+  @PreDestroy
+  public void stop() {
+    if (executor != null) executor.shutdownNow();
+  }
+
+  /**
+   * Checks a password against its hash, waiting for a hashing thread if they are all busy.
+   *
+   * @param rawPassword     the password to check
+   * @param encodedPassword the Argon2 hash of the expected password
+   * @return whether the password matches the hash
+   * @throws RuntimeException if too many passwords are being checked to check this one in time
+   */
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    long submitted = System.nanoTime();
+    Future<Boolean> result;
+    try {
+      result = executor.submit(() -> {
+        long waited = System.nanoTime() - submitted;
+        waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        if (waited > queueTimeout.toNanos()) return null;
+        return hashTimer.recordCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+      });
+    } catch (RejectedExecutionException e) {
+      rejected("full").increment();
+      throw new RuntimeException("Error checking password: Too many logins in progress");
+    }
+    Boolean matches = await(result, queueTimeout);
+    if (matches == null) {
+      rejected("timeout").increment();
+      throw new RuntimeException("Error checking password: Timed out waiting for a hashing thread");
+    }
+    return matches;
+  }
+
+  /**
+   * @param maxHeap the maximum heap in bytes
+   * @param memory  the memory of one hash in KiB
+   * @return the number of cores, or the number of hashes that fit in a quarter of the heap if lower
+   */
+  static int defaultPoolSize(long maxHeap, int memory) {
+    long hashesInBudget = maxHeap / 4 / (memory * 1024L);
+    return (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), hashesInBudget));
+  }
+
+  /**
+   * @return the result of the check, or null if it was not checked within the timeout
+   */
+  private static Boolean await(Future<Boolean> result, Duration timeout) {
+    try {
+      return result.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      result.cancel(true);
+      return null;
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Error checking password", e.getCause());
+    } catch (InterruptedException e) {
+      result.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Error checking password: Interrupted");
+    }
+  }
+
+  private Counter rejected(String reason) {
+    return Counter.builder(REJECTED_METRIC)
+      .description("Password checks refused because the hashing threads were overloaded")
+      .tag("reason", reason)
+      .register(meterRegistry);
+  }
+}
@@ -2,10 +2,13 @@ package com.medilabo.authService.util;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.medilabo.authService.dto.JwksDto;
 import com.medilabo.authService.dto.UserDto;
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Component;
 /**
  * Utility class for generating JWT tokens.
  * It uses RSA512 algorithm and includes user information in the token.
+ * The signing key is loaded and rotated by the {@link KeyUtil}.
  */
 @Log4j2
 @Component
@@ -31,14 +35,15 @@ public class JwtUtil {
    * <p>
    *  This method creates a JWT token using the RSA512 algorithm,
    *  including the user's username, ID, role, and IP address.
-   *  The token is signed with the private key loaded from the KeyUtil.
+   *  The token is signed with the current signing key of the KeyUtil, loaded once rather than
+   *  for every token, and carries the ID of that key in its {@code kid} header.
    *  The token is set to expire after a specified duration.
    * </p>
    * @param userId the ID of the user
    * @param username the username of the user
    * @param httpRequest the HTTP request to extract the user's IP address
    * @return a signed JWT token as a string
-   * @throws RuntimeException if there is an error during token generation
+   * @throws RuntimeException if there is an error during token generation, or no valid key is loaded
    * @see Algorithm
    * @see JWT
    * @see KeyUtil
@@ -49,18 +54,44 @@ public class JwtUtil {
     HttpServletRequest httpRequest
   ) {
     try {
-      Algorithm algorithm = Algorithm.RSA512(null, keyUtil.getPrivateKey());
+      SigningKey signingKey = keyUtil.getSigningKey();
+      if (signingKey == null) throw new IllegalStateException("No private key loaded");
       return JWT.create()
+        .withKeyId(signingKey.keyId())
         .withSubject(username)
         .withClaim("id", userId)
         .withClaim("role", "USER")
         .withClaim("ip", httpRequest.getRemoteAddr())
         .withIssuer("auth-service")
         .withExpiresAt(Instant.now().plus(expiration, ChronoUnit.HOURS))
-        .sign(algorithm);
+        .sign(signingKey.algorithm());
     } catch (Exception e) {
       log.error("Error generating JWT token", e);
       throw new RuntimeException("Error generating JWT token");
     }
   }
+
+  /**
+   * Builds the JSON Web Key Set of the published keys, with which the other services verify the
+   * tokens by their {@code kid} header.
+   *
+   * @return the public keys of the current and of the recently replaced signing keys
+   * @see KeyUtil#getPublishedKeys()
+   */
+  public JwksDto getJsonWebKeySet() {
+    List<JwksDto.Jwk> keys = new ArrayList<>();
+    for (SigningKey signingKey : keyUtil.getPublishedKeys()) {
+      keys.add(
+        new JwksDto.Jwk(
+          "RSA",
+          "sig",
+          "RS512",
+          signingKey.keyId(),
+          KeyUtil.toBase64Url(signingKey.publicKey().getModulus()),
+          KeyUtil.toBase64Url(signingKey.publicKey().getPublicExponent())
+        )
+      );
+    }
+    return new JwksDto(keys);
+  }
 }
@@ -1,26 +1,170 @@
 package com.medilabo.authService.util;
 
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
- * Utility class for generating RSA keys.
- * It initializes a public and private key pair on application startup.
+ * Utility class for loading the RSA private key signing the tokens.
+ *
+ * <p>
+ *  The key is read and parsed once, and the signing algorithm built from it is shared by every token,
+ *  so that no file is read on the login path. The key can be rotated at runtime: {@link #reload()}
+ *  builds the new algorithm off the login path and publishes it with a single atomic swap
+ *  (see {@link PrivateKeyWatcher}). Each key is identified by the thumbprint of its public key,
+ *  which is set as the {@code kid} header of the tokens it signs. A replaced key is still published
+ *  (see {@link #getPublishedKeys()}) until the last tokens it signed have expired.
+ * </p>
  */
 @Log4j2
 @Component
 public class KeyUtil {
 
+  static final String VERSION_METRIC = "auth.jwt.signing-key.version";
+  static final String RELOAD_METRIC = "auth.jwt.signing-key.reload";
+
+  @Getter
   @Value("${jwt.private-key-path}")
   private String privateKeyPath;
 
+  @Value("${jwt.expiration:24}")
+  private long expiration = 24;
+
+  @Autowired(required = false)
+  private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+  /**
+   * The current key first, then the replaced keys whose tokens may not have expired, most recent first.
+   */
+  private final AtomicReference<List<SigningKey>> keys = new AtomicReference<>(List.of());
+
+  /**
+   * Loads the private key at startup.
+   * A missing or invalid key does not prevent the service from starting: the error is logged,
+   * logins fail until a valid key is loaded, and the key keeps being reloaded.
+   */
+  @PostConstruct
+  public void loadKey() {
+    reload();
+    if (meterRegistry.find(VERSION_METRIC).gauge() == null) {
+      Gauge.builder(VERSION_METRIC, this, KeyUtil::getVersion)
+        .description("Version of the JWT signing key in use")
+        .register(meterRegistry);
+    }
+  }
+
+  /**
+   * Reads the private key and swaps the signing key in use if the key has changed.
+   * If the file cannot be read or the key is invalid, the error is logged and the current
+   * signing key is kept.
+   *
+   * @return true if a new signing key has been published
+   */
+  public boolean reload() {
+    long start = System.nanoTime();
+    String outcome = "failure";
+    try {
+      RSAPrivateKey privateKey = getPrivateKey();
+      List<SigningKey> loaded = keys.get();
+      SigningKey previous = loaded.isEmpty() ? null : loaded.get(0);
+      if (previous != null && Arrays.equals(previous.encoded(), privateKey.getEncoded())) {
+        outcome = "unchanged";
+        return false;
+      }
+      RSAPublicKey publicKey = derivePublicKey(privateKey);
+      long version = previous == null ? 1 : previous.version() + 1;
+      SigningKey signingKey = new SigningKey(
+        thumbprint(publicKey),
+        privateKey.getEncoded(),
+        publicKey,
+        Algorithm.RSA512(publicKey, privateKey),
+        version,
+        Instant.now()
+      );
+      List<SigningKey> published = new ArrayList<>();
+      published.add(signingKey);
+      published.addAll(loaded);
+      keys.set(List.copyOf(unexpired(published, Instant.now())));
+      outcome = "success";
+      log.info("JWT private key loaded from {}: version {}, kid {}", privateKeyPath, version, signingKey.keyId());
+      return true;
+    } catch (RuntimeException e) {
+      log.error("Error loading JWT private key, keeping version {}", getVersion());
+      return false;
+    } finally {
+      Timer.builder(RELOAD_METRIC)
+        .description("Time to read and parse the JWT private key")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * @return the current signing key, or null if no valid key has been loaded
+   */
+  public SigningKey getSigningKey() {
+    List<SigningKey> loaded = keys.get();
+    return loaded.isEmpty() ? null : loaded.get(0);
+  }
+
+  /**
+   * @return the current key, then the replaced keys that signed tokens which may not have expired yet,
+   * so that these tokens can still be verified after a rotation
+   */
+  public List<SigningKey> getPublishedKeys() {
+    return unexpired(keys.get(), Instant.now());
+  }
+
+  /**
+   * @return the version of the current key, starting at 1, or 0 if no valid key has been loaded
+   */
+  public long getVersion() {
+    SigningKey key = getSigningKey();
+    return key == null ? 0L : key.version();
+  }
+
+  /**
+   * @param keys the keys, the current one first
+   * @param now  the current time
+   * @return the current key and the keys replaced less than the lifetime of a token ago
+   */
+  private List<SigningKey> unexpired(List<SigningKey> keys, Instant now) {
+    List<SigningKey> unexpired = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      if (i > 0 && keys.get(i - 1).loadedAt().plus(expiration, ChronoUnit.HOURS).isBefore(now)) break;
+      unexpired.add(keys.get(i));
+    }
+    return unexpired;
+  }
+
   /**
    * Loads and returns the RSA private key from the configured file path.
    *
@@ -28,6 +172,7 @@ public class KeyUtil {
    *  This method reads the private key file in PEM format, removes the PEM headers
    *  and footers, decodes the Base64 content, and constructs an RSAPrivateKey object
    *  using the PKCS#8 encoding specification.
+   *  It reads the file on every call: the tokens are signed with {@link #getSigningKey()}.
    * </p>
    *
    * @return the RSA private key loaded from the file
@@ -58,4 +203,55 @@ public class KeyUtil {
       throw new RuntimeException("Error loading private key");
     }
   }
+
+  /**
+   * Computes the public key matching a private key, from the modulus and public exponent
+   * that PKCS#8 RSA keys carry.
+   *
+   * @param privateKey the private key
+   * @return the public key
+   * @throws RuntimeException if the private key does not carry its public exponent
+   */
+  static RSAPublicKey derivePublicKey(RSAPrivateKey privateKey) {
+    if (!(privateKey instanceof RSAPrivateCrtKey crtKey)) {
+      throw new RuntimeException("Error loading private key: Public exponent missing");
+    }
+    try {
+      RSAPublicKeySpec spec = new RSAPublicKeySpec(crtKey.getModulus(), crtKey.getPublicExponent());
+      return (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(spec);
+    } catch (Exception e) {
+      throw new RuntimeException("Error loading private key: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Computes the RFC 7638 thumbprint of a public key: the SHA-256 hash of its required JWK members,
+   * encoded in base64url. The thumbprint only depends on the key, so the Auth Service and the
+   * services verifying its tokens agree on the ID of a key without sharing any configuration.
+   *
+   * @param publicKey the public key
+   * @return the thumbprint of the key
+   */
+  static String thumbprint(RSAPublicKey publicKey) {
+    String jwk = "{\"e\":\"" + toBase64Url(publicKey.getPublicExponent()) +
+      "\",\"kty\":\"RSA\",\"n\":\"" + toBase64Url(publicKey.getModulus()) + "\"}";
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256").digest(jwk.getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    } catch (Exception e) {
+      throw new RuntimeException("Error computing key ID: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Encodes a positive integer as the unsigned big-endian base64url string of JSON Web Keys.
+   *
+   * @param value the integer
+   * @return the encoded integer
+   */
+  public static String toBase64Url(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    if (bytes.length > 1 && bytes[0] == 0) bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
 }
@@ -0,0 +1,143 @@
+package com.medilabo.authService.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rotates the signing key of the tokens when the private key file changes, and at the reload
+ * interval for the mounts that do not report their changes. A new key takes effect at once: the
+ * next tokens carry its {@code kid}, while the previous public key stays published until the
+ * tokens it signed have expired (see {@link KeyUtil#getPublishedKeys()}).
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class PrivateKeyWatcher {
+
+  private final KeyUtil keyUtil;
+
+  @Value("${jwt.private-key-reload-interval:PT5M}")
+  private Duration reloadInterval = Duration.ofMinutes(5);
+
+  @Value("${jwt.private-key-reload-debounce-ms:250}")
+  private long debounceMillis = 250;
+
+  @Value("${jwt.expiration:24}")
+  private long expiration = 24;
+
+  private WatchService watchService;
+  private Thread thread;
+
+  /**
+   * Starts the rotation thread. If the directory of the key cannot be watched,
+   * the key is only reloaded at the reload interval.
+   */
+  @PostConstruct
+  public void start() {
+    Path file = Path.of(keyUtil.getPrivateKeyPath()).toAbsolutePath();
+    watchService = register(file.getParent());
+    if (watchService == null) {
+      log.warn("Cannot watch JWT private key {}, reloading it every {}", file, reloadInterval);
+    }
+    WatchService service = watchService;
+    thread = Thread.ofPlatform()
+      .name("jwt-private-key-watcher")
+      .daemon()
+      .start(() -> {
+        try {
+          while (true) {
+            if (awaitChange(service, file.getFileName())) rotate();
+          }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+          log.debug("JWT private key watcher stopped");
+        }
+      });
+  }
+
+  /**
+   * Stops the rotation thread.
+   */
+  @PreDestroy
+  public void stop() {
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        log.warn("Error closing JWT private key watcher", e);
+      }
+    }
+    if (thread != null) thread.interrupt();
+  }
+
+  /**
+   * Reloads the private key and, if it has changed, reports the key it replaces.
+   */
+  private void rotate() {
+    SigningKey previous = keyUtil.getSigningKey();
+    if (!keyUtil.reload() || previous == null) return;
+    SigningKey current = keyUtil.getSigningKey();
+    log.info(
+      "JWT signing key rotated from kid {} to kid {}, the previous key stays published until {}",
+      previous.keyId(),
+      current.keyId(),
+      current.loadedAt().plus(expiration, ChronoUnit.HOURS)
+    );
+  }
+
+  /**
+   * Waits for the key file to change, or for the reload interval to elapse.
+   * Changes that follow quickly, e.g. truncate then write, are merged into one.
+   *
+   * @return true if the key should be reloaded
+   */
+  private boolean awaitChange(WatchService service, Path fileName) throws InterruptedException {
+    if (service == null) {
+      Thread.sleep(reloadInterval.toMillis());
+      return true;
+    }
+    WatchKey key = service.poll(reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+    if (key == null) return true;
+    boolean changed = false;
+    for (; key != null; key = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) {
+      for (WatchEvent<?> event : key.pollEvents()) {
+        changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context());
+      }
+      key.reset();
+    }
+    return changed;
+  }
+
+  private static WatchService register(Path directory) {
+    WatchService service = null;
+    try {
+      service = FileSystems.getDefault().newWatchService();
+      directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+      log.info("Watching JWT private key directory {}", directory);
+      return service;
+    } catch (IOException e) {
+      if (service != null) {
+        try {
+          service.close();
+        } catch (IOException ignored) {
+          // the service was never used
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.medilabo.authService.util;
+
+import com.auth0.jwt.algorithms.Algorithm;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+
+/**
+ * A private key of the Auth Service and the signing algorithm built from it.
+ *
+ * @param keyId     the ID of the key, set as the {@code kid} header of the tokens it signs: the
+ *                  RFC 7638 thumbprint of its public key
+ * @param encoded   the PKCS#8 encoding of the private key, to detect a change of key
+ * @param publicKey the public key matching the private key
+ * @param algorithm the RSA512 algorithm signing with the private key
+ * @param version   the version of the key, starting at 1
+ * @param loadedAt  the time the key was loaded
+ */
+public record SigningKey(
+  String keyId,
+  byte[] encoded,
+  RSAPublicKey publicKey,
+  Algorithm algorithm,
+  long version,
+  Instant loadedAt
+) {}
@@ -5,18 +5,25 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.medilabo.authService.dto.JwksDto;
 import com.medilabo.authService.service.AuthService;
+import com.medilabo.authService.service.LoginThrottle;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
 
 class AuthControllerTest {
 
   private AuthService authService;
+  private LoginThrottle loginThrottle;
   private AuthController authController;
   private HttpServletRequest httpServletRequest;
   private HttpServletResponse httpServletResponse;
@@ -24,7 +31,9 @@ class AuthControllerTest {
   @BeforeEach
   void setUp() {
     authService = mock(AuthService.class);
-    authController = new AuthController(authService);
+    loginThrottle = mock(LoginThrottle.class);
+    when(loginThrottle.retryAfter(anyString())).thenReturn(Duration.ZERO);
+    authController = new AuthController(authService, loginThrottle);
     httpServletRequest = mock(HttpServletRequest.class);
     httpServletResponse = mock(HttpServletResponse.class);
   }
@@ -57,6 +66,7 @@ class AuthControllerTest {
       httpServletRequest,
       httpServletResponse
     );
+    verify(loginThrottle).recordSuccess("user");
   }
 
   @Test
@@ -81,6 +91,27 @@ class AuthControllerTest {
     );
 
     assertEquals("User not found", result);
+    verify(loginThrottle).recordFailure("user");
+  }
+
+  @Test
+  void login_shouldRefuseWithoutAuthenticating_whenThrottled() {
+    AuthController.LoginRequest loginRequest = new AuthController.LoginRequest(
+      "user",
+      "pass"
+    );
+    when(loginThrottle.retryAfter("user")).thenReturn(Duration.ofMillis(1500));
+
+    String result = authController.login(
+      loginRequest,
+      httpServletRequest,
+      httpServletResponse
+    );
+
+    assertEquals("Too many login attempts", result);
+    verify(httpServletResponse).setStatus(429);
+    verify(httpServletResponse).setHeader("Retry-After", "1");
+    verify(authService, never()).authenticate(any(), any(), any(), any());
   }
 
   @Test
@@ -105,5 +136,19 @@ class AuthControllerTest {
     );
 
     assertEquals("Error during login", result);
+    verify(loginThrottle, never()).recordFailure(any());
+  }
+
+  @Test
+  void jwks_shouldReturnCacheableKeySet() {
+    JwksDto jwks = new JwksDto(
+      List.of(new JwksDto.Jwk("RSA", "sig", "RS512", "kid-1", "n", "AQAB"))
+    );
+    when(authService.getJsonWebKeySet()).thenReturn(jwks);
+
+    ResponseEntity<JwksDto> result = authController.jwks();
+
+    assertEquals(jwks, result.getBody());
+    assertEquals("max-age=300", result.getHeaders().getCacheControl());
   }
 }
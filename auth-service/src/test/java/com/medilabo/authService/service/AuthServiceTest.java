@@ -40,13 +40,19 @@ class AuthServiceTest {
     userRepository = mock(UserRepository.class);
     jwtUtil = mock(JwtUtil.class);
 
-    authService = new AuthService(userRepository, jwtUtil);
+    PasswordHasher passwordHasher = new PasswordHasher(
+      new Argon2PasswordEncoder(
+        saltLength,
+        hashLength,
+        iterations,
+        memory,
+        parallelism
+      )
+    );
+    setField(passwordHasher, "memory", memory);
+    passwordHasher.start();
 
-    setField(authService, "iterations", iterations);
-    setField(authService, "memory", memory);
-    setField(authService, "parallelism", parallelism);
-    setField(authService, "saltLength", saltLength);
-    setField(authService, "hashLength", hashLength);
+    authService = new AuthService(userRepository, jwtUtil, passwordHasher);
   }
 
   private void setField(Object target, String fieldName, Object value)
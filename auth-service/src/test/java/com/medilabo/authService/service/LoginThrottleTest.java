@@ -0,0 +1,81 @@
+package com.medilabo.authService.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class LoginThrottleTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private LoginThrottle loginThrottle;
+
+  @BeforeEach
+  void setUp() {
+    loginThrottle = new LoginThrottle();
+    ReflectionTestUtils.setField(loginThrottle, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(loginThrottle, "freeAttemptsPerUsername", 2);
+    ReflectionTestUtils.setField(loginThrottle, "maxDelay", Duration.ofSeconds(5));
+    ReflectionTestUtils.setField(loginThrottle, "expiry", Duration.ofMinutes(1));
+    ReflectionTestUtils.setField(loginThrottle, "maxKeys", 3);
+    loginThrottle.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    loginThrottle.stop();
+  }
+
+  @Test
+  void retryAfter_shouldDoubleDelayAfterFreeAttempts() {
+    loginThrottle.recordFailure("user", 0);
+    loginThrottle.recordFailure("User ", 0);
+    assertEquals(Duration.ZERO, loginThrottle.retryAfter("user", 0));
+
+    loginThrottle.recordFailure("user", 1000);
+    assertEquals(Duration.ofSeconds(1), loginThrottle.retryAfter("user", 1000));
+    assertEquals(Duration.ZERO, loginThrottle.retryAfter("user", 2000));
+
+    loginThrottle.recordFailure("user", 2000);
+    assertEquals(Duration.ofSeconds(2), loginThrottle.retryAfter("user", 2000));
+
+    for (int i = 0; i < 10; i++) loginThrottle.recordFailure("user", 10000);
+    assertEquals(Duration.ofSeconds(5), loginThrottle.retryAfter("user", 10000));
+    assertEquals(Duration.ZERO, loginThrottle.retryAfter("other", 10000));
+    assertEquals(3, meterRegistry.get(LoginThrottle.THROTTLED_METRIC).tag("reason", "username").counter().count());
+  }
+
+  @Test
+  void retryAfter_shouldNotThrottleOtherUsernames() {
+    for (int i = 0; i < 50; i++) loginThrottle.recordFailure("user" + (i % 3), 0);
+
+    assertEquals(Duration.ZERO, loginThrottle.retryAfter("admin", 0));
+  }
+
+  @Test
+  void recordSuccess_shouldClearUsernameFailures() {
+    for (int i = 0; i < 3; i++) loginThrottle.recordFailure("user", 0);
+    loginThrottle.recordSuccess("user");
+
+    assertEquals(Duration.ZERO, loginThrottle.retryAfter("user", 0));
+  }
+
+  @Test
+  void sweep_shouldForgetExpiredFailuresAndCapEntries() {
+    loginThrottle.recordFailure("user", 0);
+    loginThrottle.recordFailure("other", 0);
+    loginThrottle.recordFailure("third", 0);
+    loginThrottle.recordFailure("fourth", 0);
+    assertEquals(3, loginThrottle.size());
+    assertEquals(1, meterRegistry.get(LoginThrottle.OVERFLOW_METRIC).counter().count());
+
+    loginThrottle.recordFailure("user", 30000);
+    loginThrottle.sweep(70000);
+
+    assertEquals(1, loginThrottle.size());
+  }
+}
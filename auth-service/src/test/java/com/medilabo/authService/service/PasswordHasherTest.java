@@ -0,0 +1,132 @@
+package com.medilabo.authService.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PasswordHasherTest {
+
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch started = new CountDownLatch(1);
+
+  private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+    @Override
+    public String encode(CharSequence rawPassword) {
+      return rawPassword.toString();
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return rawPassword.toString().equals(encodedPassword);
+    }
+  };
+
+  private PasswordHasher passwordHasher;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    passwordHasher = new PasswordHasher(blockingEncoder);
+    ReflectionTestUtils.setField(passwordHasher, "memory", 65536);
+    ReflectionTestUtils.setField(passwordHasher, "threads", 1);
+    ReflectionTestUtils.setField(passwordHasher, "queueCapacity", 1);
+    ReflectionTestUtils.setField(passwordHasher, "meterRegistry", meterRegistry);
+    passwordHasher.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    release.countDown();
+    passwordHasher.stop();
+  }
+
+  @Test
+  void matches_shouldCheckPasswordOnHashingThread() {
+    release.countDown();
+
+    assertTrue(passwordHasher.matches("secret", "secret"));
+    assertFalse(passwordHasher.matches("wrong", "secret"));
+    assertEquals(2, meterRegistry.get(PasswordHasher.HASH_METRIC).timer().count());
+  }
+
+  @Test
+  void matches_shouldRefuseWhenQueueIsFull() throws Exception {
+    CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHasher.matches("a", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHasher.matches("b", "b"));
+    waitForQueue(1);
+
+    assertThrows(RuntimeException.class, () -> passwordHasher.matches("c", "c"));
+    assertEquals(1, meterRegistry.get(PasswordHasher.REJECTED_METRIC).tag("reason", "full").counter().count());
+
+    release.countDown();
+    assertTrue(running.get(5, TimeUnit.SECONDS));
+    assertTrue(queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void matches_shouldRefuseAfterQueueTimeoutWithoutHashing() throws Exception {
+    CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHasher.matches("a", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    ReflectionTestUtils.setField(passwordHasher, "queueTimeout", Duration.ofMillis(50));
+    CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHasher.matches("b", "b"));
+    waitForQueue(1);
+    Thread.sleep(100);
+
+    release.countDown();
+    assertTrue(running.get(5, TimeUnit.SECONDS));
+    assertThrows(Exception.class, () -> queued.get(5, TimeUnit.SECONDS));
+    assertEquals(1, meterRegistry.get(PasswordHasher.REJECTED_METRIC).tag("reason", "timeout").counter().count());
+    assertEquals(1, meterRegistry.get(PasswordHasher.HASH_METRIC).timer().count());
+  }
+
+  @Test
+  void matches_shouldReturnWithinQueueTimeoutWhenPoolIsSaturated() throws Exception {
+    CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHasher.matches("a", "a"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    ReflectionTestUtils.setField(passwordHasher, "queueTimeout", Duration.ofMillis(200));
+
+    long start = System.nanoTime();
+    RuntimeException exception = assertThrows(RuntimeException.class, () -> passwordHasher.matches("b", "b"));
+
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+    assertEquals("Error checking password: Timed out waiting for a hashing thread", exception.getMessage());
+    assertEquals(1, meterRegistry.get(PasswordHasher.REJECTED_METRIC).tag("reason", "timeout").counter().count());
+    release.countDown();
+    assertTrue(running.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void defaultPoolSize_shouldFitHashesInQuarterOfHeap() {
+    long heap = 512L * 1024 * 1024;
+
+    assertEquals(Math.min(Runtime.getRuntime().availableProcessors(), 2), PasswordHasher.defaultPoolSize(heap, 65536));
+    assertEquals(1, PasswordHasher.defaultPoolSize(64L * 1024 * 1024, 65536));
+  }
+
+  private void waitForQueue(int size) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get(PasswordHasher.QUEUE_METRIC).gauge().value() < size && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+}
@@ -8,12 +8,18 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.medilabo.authService.dto.JwksDto;
 import jakarta.servlet.http.HttpServletRequest;
+import java.math.BigInteger;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
 import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -31,8 +37,19 @@ class JwtUtilTest {
     KeyPair keyPair = keyGen.generateKeyPair();
     privateKey = (RSAPrivateKey) keyPair.getPrivate();
 
+    RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+
     keyUtil = mock(KeyUtil.class);
-    when(keyUtil.getPrivateKey()).thenReturn(privateKey);
+    when(keyUtil.getSigningKey()).thenReturn(
+      new SigningKey(
+        "kid-1",
+        privateKey.getEncoded(),
+        publicKey,
+        Algorithm.RSA512(publicKey, privateKey),
+        1,
+        Instant.now()
+      )
+    );
 
     jwtUtil = new JwtUtil(keyUtil);
     ReflectionTestUtils.setField(jwtUtil, "expiration", 2L);
@@ -56,6 +73,7 @@ class JwtUtilTest {
     assertEquals("USER", decoded.getClaim("role").asString());
     assertEquals(ip, decoded.getClaim("ip").asString());
     assertEquals("auth-service", decoded.getIssuer());
+    assertEquals("kid-1", decoded.getKeyId());
 
     Instant expiresAt = decoded.getExpiresAt().toInstant();
     long diffSeconds = Math.abs(
@@ -67,12 +85,28 @@ class JwtUtilTest {
     );
   }
 
+  @Test
+  void getJsonWebKeySet_shouldPublishPublicKeysOfPublishedKeys() {
+    SigningKey signingKey = keyUtil.getSigningKey();
+    when(keyUtil.getPublishedKeys()).thenReturn(List.of(signingKey));
+
+    JwksDto jwks = jwtUtil.getJsonWebKeySet();
+
+    assertEquals(1, jwks.keys().size());
+    JwksDto.Jwk jwk = jwks.keys().get(0);
+    assertEquals("kid-1", jwk.kid());
+    assertEquals("RS512", jwk.alg());
+    assertEquals("AQAB", jwk.e());
+    assertEquals(
+      signingKey.publicKey().getModulus(),
+      new BigInteger(1, Base64.getUrlDecoder().decode(jwk.n()))
+    );
+  }
+
   @Test
   void generateToken_shouldThrowRuntimeException() {
     KeyUtil badKeyUtil = mock(KeyUtil.class);
-    when(badKeyUtil.getPrivateKey()).thenThrow(
-      new RuntimeException("Key error")
-    );
+    when(badKeyUtil.getSigningKey()).thenReturn(null);
     JwtUtil brokenJwtUtil = new JwtUtil(badKeyUtil);
     ReflectionTestUtils.setField(brokenJwtUtil, "expiration", 2L);
 
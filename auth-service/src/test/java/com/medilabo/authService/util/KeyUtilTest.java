@@ -1,17 +1,29 @@
 package com.medilabo.authService.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
 import java.util.Base64;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -35,11 +47,13 @@ class KeyUtilTest {
     return pem.toString();
   }
 
+  private KeyPair pair;
+
   @BeforeEach
   void setUp() throws Exception {
     KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
     keyGen.initialize(2048);
-    KeyPair pair = keyGen.generateKeyPair();
+    pair = keyGen.generateKeyPair();
     byte[] pkcs8 = pair.getPrivate().getEncoded();
     String pem = convertToPem(pkcs8);
 
@@ -98,4 +112,98 @@ class KeyUtilTest {
     );
     assertTrue(ex.getMessage().contains("Error loading private key"));
   }
+
+  @Test
+  void loadKey_shouldBuildSigningKeyIdentifiedByThumbprint() {
+    KeyUtil keyUtil = keyUtil(privateKeyFile);
+
+    keyUtil.loadKey();
+
+    SigningKey signingKey = keyUtil.getSigningKey();
+    assertNotNull(signingKey);
+    assertEquals(1, signingKey.version());
+    assertEquals(pair.getPublic(), signingKey.publicKey());
+    assertEquals(KeyUtil.thumbprint((RSAPublicKey) pair.getPublic()), signingKey.keyId());
+    String token = JWT.create().withKeyId(signingKey.keyId()).sign(signingKey.algorithm());
+    assertEquals(
+      signingKey.keyId(),
+      JWT.require(Algorithm.RSA512((RSAPublicKey) pair.getPublic(), null)).build().verify(token).getKeyId()
+    );
+  }
+
+  @Test
+  void reload_shouldSwapSigningKeyOnlyWhenKeyChanges() throws Exception {
+    KeyUtil keyUtil = keyUtil(privateKeyFile);
+    keyUtil.loadKey();
+    SigningKey first = keyUtil.getSigningKey();
+
+    assertFalse(keyUtil.reload());
+    assertSame(first, keyUtil.getSigningKey());
+
+    KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+    keyGen.initialize(2048);
+    Files.writeString(privateKeyFile, convertToPem(keyGen.generateKeyPair().getPrivate().getEncoded()));
+
+    assertTrue(keyUtil.reload());
+    assertEquals(2, keyUtil.getVersion());
+    assertNotEquals(first.keyId(), keyUtil.getSigningKey().keyId());
+  }
+
+  @Test
+  void getPublishedKeys_shouldKeepReplacedKeyWhileItsTokensMayBeValid() throws Exception {
+    KeyUtil keyUtil = keyUtil(privateKeyFile);
+    keyUtil.loadKey();
+    SigningKey first = keyUtil.getSigningKey();
+    KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+    keyGen.initialize(2048);
+    Files.writeString(privateKeyFile, convertToPem(keyGen.generateKeyPair().getPrivate().getEncoded()));
+    keyUtil.reload();
+
+    assertEquals(List.of(keyUtil.getSigningKey(), first), keyUtil.getPublishedKeys());
+
+    ReflectionTestUtils.setField(keyUtil, "expiration", -1L);
+    assertEquals(List.of(keyUtil.getSigningKey()), keyUtil.getPublishedKeys());
+  }
+
+  @Test
+  void reload_shouldKeepSigningKeyWhenFileBecomesInvalid() throws Exception {
+    KeyUtil keyUtil = keyUtil(privateKeyFile);
+    keyUtil.loadKey();
+    SigningKey first = keyUtil.getSigningKey();
+
+    Files.writeString(privateKeyFile, "not a valid key");
+
+    assertFalse(keyUtil.reload());
+    assertSame(first, keyUtil.getSigningKey());
+  }
+
+  @Test
+  void loadKey_shouldNotFail_whenFileDoesNotExist() {
+    KeyUtil keyUtil = keyUtil(tempDir.resolve("nonexistent.pem"));
+
+    keyUtil.loadKey();
+
+    assertNull(keyUtil.getSigningKey());
+    assertEquals(0, keyUtil.getVersion());
+  }
+
+  @Test
+  void thumbprint_shouldMatchRfc7638Example() throws Exception {
+    String n = "0vx7agoebGcQSuuPiLJXZptN9nndrQmbXEps2aiAFbWhM78LhWx4cbbfAAtVT86zwu1RK7aPFFxuhDR1L6tSoc_BJECPebWKRXjB" +
+      "ZCiFV4n3oknjhMstn64tZ_2W-5JsGY4Hc5n9yBXArwl93lqt7_RN5w6Cf0h4QyQ5v-65YGjQR0_FDW2QvzqY368QQMicAtaSqzs8KJZgn" +
+      "Yb9c7d0zgdAZHzu6qMQvRL5hajrn1n91CbOpbISD08qNLyrdkt-bFTWhAI4vMQFh6WeZu0fM4lFd2NcRwr3XPksINHaQ-G_xBniIqbw0Ls1" +
+      "jF44-csFCur-kEgU8awapJzKnqDKgw";
+    RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(
+      new RSAPublicKeySpec(new BigInteger(1, Base64.getUrlDecoder().decode(n)), BigInteger.valueOf(65537))
+    );
+
+    assertEquals("NzbLsXh8uDCcd-6MNwXF4W_7noWXFZAfHkxZsRGC9Xs", KeyUtil.thumbprint(publicKey));
+  }
+
+  private static KeyUtil keyUtil(Path privateKeyFile) {
+    KeyUtil keyUtil = new KeyUtil();
+    ReflectionTestUtils.setField(keyUtil, "privateKeyPath", privateKeyFile.toString());
+    ReflectionTestUtils.setField(keyUtil, "meterRegistry", new SimpleMeterRegistry());
+    return keyUtil;
+  }
 }
@@ -0,0 +1,54 @@
+package com.medilabo.benchmarks;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options, plus the defaults used to compare
+ * runs over time: the GC profiler, which reports the allocation rate ({@code gc.alloc.rate.norm}
+ * in bytes per operation), and a JSON result file under {@code target/jmh}.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {}
+
+  /**
+   * @param args the JMH command line options, e.g. a benchmark pattern or {@code -p noteLength=5000}
+   * @throws Exception if the options are invalid or a benchmark fails
+   */
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions options = new CommandLineOptions(args);
+    if (
+      options.shouldHelp() ||
+      options.shouldList() ||
+      options.shouldListWithParams() ||
+      options.shouldListProfilers() ||
+      options.shouldListResultFormats()
+    ) {
+      Main.main(args);
+      return;
+    }
+
+    ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+    boolean gcProfiler = options
+      .getProfilers()
+      .stream()
+      .anyMatch(profiler -> profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName()));
+    if (!gcProfiler) {
+      builder.addProfiler(GCProfiler.class);
+    }
+    if (!options.getResult().hasValue()) {
+      Path result = Path.of("target", "jmh", "result-" + System.currentTimeMillis() + ".json");
+      Files.createDirectories(result.getParent());
+      builder.resultFormat(ResultFormatType.JSON).result(result.toString());
+    }
+    new Runner(builder.build()).run();
+  }
+}
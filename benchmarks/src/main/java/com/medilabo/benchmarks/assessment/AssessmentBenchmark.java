@@ -0,0 +1,97 @@
+package com.medilabo.benchmarks.assessment;
+
+import com.medilabo.assessmentService.config.RiskRulesProperties;
+import com.medilabo.assessmentService.dto.AssessmentDto;
+import com.medilabo.assessmentService.dto.NoteDto;
+import com.medilabo.assessmentService.dto.PatientDto;
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.service.AssessmentService;
+import com.medilabo.assessmentService.service.RiskRuleEngine;
+import com.medilabo.assessmentService.service.TriggerTermsLoader;
+import io.micrometer.core.instrument.Metrics;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the CPU-bound part of an assessment, on the notes of one patient:
+ * the count of the trigger categories of the notes, alone and followed by the risk level.
+ * The dictionary is the one shipped with the Assessment Service, with the default matching options.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssessmentBenchmark {
+
+  /**
+   * {@code countTriggerTerms} is private: it is reached through a method handle, which the JIT
+   * compiles like a direct call when the handle is a constant.
+   */
+  private static final MethodHandle COUNT_TRIGGER_TERMS;
+
+  static {
+    try {
+      COUNT_TRIGGER_TERMS = MethodHandles
+        .privateLookupIn(AssessmentService.class, MethodHandles.lookup())
+        .findVirtual(AssessmentService.class, "countTriggerTerms", MethodType.methodType(int.class, List.class));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  @Param({ "1", "20", "200" })
+  private int notesPerPatient;
+
+  @Param({ "200", "1000", "5000" })
+  private int noteLength;
+
+  private AssessmentService assessmentService;
+  private PatientDto patient;
+  private List<NoteDto> notes;
+
+  @Setup
+  public void setUp() {
+    TriggerTermsLoader termsLoader = new TriggerTermsLoader();
+    termsLoader.loadTerms();
+    assessmentService = new AssessmentService(
+      null,
+      termsLoader,
+      null,
+      Metrics.globalRegistry,
+      null,
+      new RiskRuleEngine(new RiskRulesProperties())
+    );
+
+    patient = new PatientDto();
+    patient.setGender(Gender.F);
+    patient.setBirthDate(LocalDate.now().minusYears(45));
+    notes = NoteCorpus.patientNotes(42L, notesPerPatient, noteLength);
+  }
+
+  @Benchmark
+  public int countTriggerTerms() throws Throwable {
+    return (int) COUNT_TRIGGER_TERMS.invokeExact(assessmentService, notes);
+  }
+
+  @Benchmark
+  public AssessmentDto assess() {
+    return assessmentService.assess(patient, notes);
+  }
+}
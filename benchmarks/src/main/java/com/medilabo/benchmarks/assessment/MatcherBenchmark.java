@@ -0,0 +1,79 @@
+package com.medilabo.benchmarks.assessment;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.assessmentService.enums.MatchingMode;
+import com.medilabo.assessmentService.enums.MatchingStrategy;
+import com.medilabo.assessmentService.matcher.AhoCorasickMatcher;
+import com.medilabo.assessmentService.matcher.NormalizedText;
+import com.medilabo.assessmentService.matcher.TermMatcher;
+import com.medilabo.assessmentService.matcher.TextNormalizer;
+import com.medilabo.assessmentService.matcher.TokenMatcher;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the scan of a single note by each matcher and normalization mode,
+ * with the dictionary shipped with the Assessment Service. Each operation scans the next note
+ * of a corpus of {@value #NOTES} notes, so that the branches are not trained on a single text.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatcherBenchmark {
+
+  private static final int NOTES = 64;
+
+  @Param({ "TOKEN", "SUBSTRING" })
+  private MatchingStrategy strategy;
+
+  @Param({ "ACCENT_INSENSITIVE", "STRICT" })
+  private MatchingMode mode;
+
+  @Param({ "200", "1000", "5000" })
+  private int noteLength;
+
+  private TermMatcher matcher;
+  private NormalizedText buffer;
+  private String[] texts;
+  private int next;
+
+  @Setup
+  public void setUp() throws IOException {
+    Map<String, List<String>> terms;
+    try (InputStream is = TermMatcher.class.getResourceAsStream("/trigger-terms.json")) {
+      terms = new ObjectMapper().readValue(is, new TypeReference<>() {});
+    }
+    TextNormalizer normalizer = new TextNormalizer(mode);
+    Map<String, List<String>> normalizedTerms = normalizer.normalize(terms);
+    matcher = strategy == MatchingStrategy.TOKEN
+      ? TokenMatcher.compile(normalizedTerms, normalizer)
+      : AhoCorasickMatcher.compile(normalizedTerms, normalizer);
+    buffer = new NormalizedText(noteLength);
+    texts = NoteCorpus.texts(7L, NOTES, noteLength);
+  }
+
+  @Benchmark
+  public long scan() {
+    String text = texts[next];
+    next = (next + 1) & (NOTES - 1);
+    return matcher.scan(text, buffer, 0L);
+  }
+}
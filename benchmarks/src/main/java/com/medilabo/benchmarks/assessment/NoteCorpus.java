@@ -0,0 +1,94 @@
+package com.medilabo.benchmarks.assessment;
+
+import com.medilabo.assessmentService.dto.NoteDto;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generator of synthetic French practitioner notes.
+ * The notes are made of clinical vocabulary, with accents, capitals and punctuation, and contain
+ * a trigger term about every fifty words. The triggers are taken from a few categories only, so that
+ * a patient never has every category and the matchers always scan all of its notes, which is the
+ * worst case of an assessment. A given seed always generates the same corpus.
+ */
+final class NoteCorpus {
+
+  private static final String[] WORDS = {
+    "patient", "patiente", "consultation", "examen", "clinique", "tension", "artérielle",
+    "normale", "stable", "légère", "douleur", "abdominale", "fatigue", "persistante", "depuis",
+    "plusieurs", "semaines", "traitement", "prescrit", "suivi", "contrôle", "résultats",
+    "bilan", "sanguin", "glycémie", "à", "jeun", "élevée", "régime", "alimentaire", "activité",
+    "physique", "recommandée", "antécédents", "familiaux", "médecin", "généraliste", "rendez-vous",
+    "prévu", "dans", "trois", "mois", "déclare", "se", "sentir", "mieux", "qu'au", "précédent",
+    "le", "la", "les", "des", "du", "et", "avec", "sans", "pour", "une", "un", "de", "est", "a",
+    "sommeil", "perturbé", "appétit", "conservé", "pas", "d'œdème", "auscultation", "cardiaque",
+    "pulmonaire", "réflexes", "présents", "vision", "trouble", "soif", "fréquente", "urines",
+  };
+
+  private static final String[] TRIGGERS = {
+    "fumeur", "fume", "tabac", "cigarette", "Cholestérol", "cholestérol", "vertiges",
+    "étourdissements", "anticorps", "réaction", "Réactions",
+  };
+
+  private NoteCorpus() {}
+
+  /**
+   * Generates the notes of a patient.
+   *
+   * @param seed the seed of the corpus
+   * @param notes the number of notes
+   * @param length the approximate length of each note, in characters
+   * @return the notes
+   */
+  static List<NoteDto> patientNotes(long seed, int notes, int length) {
+    SplittableRandom random = new SplittableRandom(seed);
+    List<NoteDto> result = new ArrayList<>(notes);
+    for (int i = 0; i < notes; i++) {
+      NoteDto note = new NoteDto();
+      note.setId("note-" + i);
+      note.setPatient("patient-" + seed);
+      note.setNote(note(random, length));
+      result.add(note);
+    }
+    return result;
+  }
+
+  /**
+   * Generates the text of notes, for the benchmarks of the matchers alone.
+   */
+  static String[] texts(long seed, int count, int length) {
+    SplittableRandom random = new SplittableRandom(seed);
+    String[] texts = new String[count];
+    for (int i = 0; i < count; i++) {
+      texts[i] = note(random, length);
+    }
+    return texts;
+  }
+
+  private static String note(SplittableRandom random, int length) {
+    StringBuilder text = new StringBuilder(length + 32);
+    boolean sentenceStart = true;
+    while (text.length() < length) {
+      String word = random.nextInt(50) == 0
+        ? TRIGGERS[random.nextInt(TRIGGERS.length)]
+        : WORDS[random.nextInt(WORDS.length)];
+      if (sentenceStart) {
+        word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+        sentenceStart = false;
+      }
+      text.append(word);
+      int punctuation = random.nextInt(12);
+      if (punctuation == 0) {
+        text.append(". ");
+        sentenceStart = true;
+      } else if (punctuation == 1) {
+        text.append(", ");
+      } else {
+        text.append(' ');
+      }
+    }
+    text.setLength(length);
+    return text.toString();
+  }
+}
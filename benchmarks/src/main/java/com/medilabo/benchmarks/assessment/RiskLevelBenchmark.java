@@ -0,0 +1,128 @@
+package com.medilabo.benchmarks.assessment;
+
+import com.medilabo.assessmentService.config.RiskRulesProperties;
+import com.medilabo.assessmentService.enums.Gender;
+import com.medilabo.assessmentService.enums.RiskLevel;
+import com.medilabo.assessmentService.service.AssessmentService;
+import com.medilabo.assessmentService.service.RiskRuleEngine;
+import io.micrometer.core.instrument.Metrics;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the evaluation of the risk level, on {@value #PATIENTS} random patients per operation
+ * so that the branches of the decision tree cannot be predicted: {@code calculateRiskLevel} as called
+ * by the assessments, the compiled rule table alone, and the decision tree it replaced as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskLevelBenchmark {
+
+  private static final int PATIENTS = 1024;
+
+  private static final MethodHandle CALCULATE_RISK_LEVEL;
+
+  static {
+    try {
+      CALCULATE_RISK_LEVEL = MethodHandles
+        .privateLookupIn(AssessmentService.class, MethodHandles.lookup())
+        .findVirtual(
+          AssessmentService.class,
+          "calculateRiskLevel",
+          MethodType.methodType(RiskLevel.class, int.class, String.class, int.class)
+        );
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private AssessmentService assessmentService;
+  private RiskRuleEngine riskRuleEngine;
+  private final int[] ages = new int[PATIENTS];
+  private final Gender[] genders = new Gender[PATIENTS];
+  private final String[] genderNames = new String[PATIENTS];
+  private final int[] triggerCounts = new int[PATIENTS];
+
+  @Setup
+  public void setUp() {
+    riskRuleEngine = new RiskRuleEngine(new RiskRulesProperties());
+    assessmentService = new AssessmentService(null, null, null, Metrics.globalRegistry, null, riskRuleEngine);
+    SplittableRandom random = new SplittableRandom(3L);
+    for (int i = 0; i < PATIENTS; i++) {
+      ages[i] = random.nextInt(18, 95);
+      genders[i] = random.nextBoolean() ? Gender.M : Gender.F;
+      genderNames[i] = genders[i].name();
+      triggerCounts[i] = random.nextInt(0, 12);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATIENTS)
+  public void calculateRiskLevel(Blackhole blackhole) throws Throwable {
+    for (int i = 0; i < PATIENTS; i++) {
+      blackhole.consume((RiskLevel) CALCULATE_RISK_LEVEL.invokeExact(assessmentService, ages[i], genderNames[i], triggerCounts[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATIENTS)
+  public void riskTable(Blackhole blackhole) {
+    for (int i = 0; i < PATIENTS; i++) {
+      blackhole.consume(riskRuleEngine.evaluate(genders[i], ages[i], triggerCounts[i]));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATIENTS)
+  public void decisionTree(Blackhole blackhole) {
+    for (int i = 0; i < PATIENTS; i++) {
+      blackhole.consume(decisionTree(ages[i], genderNames[i], triggerCounts[i]));
+    }
+  }
+
+  /**
+   * The decision tree of the assessment before the rules became configurable.
+   */
+  private static RiskLevel decisionTree(int age, String gender, int triggerCount) {
+    if (triggerCount == 0) return RiskLevel.NONE;
+
+    boolean isMale = "M".equalsIgnoreCase(gender);
+    boolean isUnder30 = age < 30;
+
+    if (isUnder30) {
+      if (isMale) {
+        if (triggerCount >= 5) return RiskLevel.EARLY_ONSET;
+        else if (triggerCount >= 3) return RiskLevel.IN_DANGER;
+        else return RiskLevel.NONE;
+      } else {
+        if (triggerCount >= 7) return RiskLevel.EARLY_ONSET;
+        else if (triggerCount >= 4) return RiskLevel.IN_DANGER;
+        else return RiskLevel.NONE;
+      }
+    } else {
+      if (triggerCount >= 8) return RiskLevel.EARLY_ONSET;
+      else if (triggerCount >= 6) return RiskLevel.IN_DANGER;
+      else if (triggerCount >= 2) return RiskLevel.BORDERLINE;
+      else return RiskLevel.NONE;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.medilabo.benchmarks.auth;
+
+import com.medilabo.authService.service.PasswordHasher;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Load test of the password checks of the Auth Service during a login storm: a number of logins arrive
+ * at once, and the peak heap used while they are checked is reported, once with the former code, which
+ * built an encoder and hashed every login on its own request thread, and once with the {@link PasswordHasher}.
+ * The encoder uses the deployed memory cost (64 MB per hash) with 2 iterations instead of 10, which only
+ * shortens the run: the memory of a hash does not depend on its iterations.
+ * The peak includes the garbage not yet collected, so the bound shows best with a small heap, with which the
+ * former code, needing 64 MB per login at once, runs out of memory:
+ * {@code java -Xmx384m -cp benchmarks/target/benchmarks.jar com.medilabo.benchmarks.auth.LoginStormLoadTest [logins]}.
+ */
+public final class LoginStormLoadTest {
+
+  private static final int SALT_LENGTH = 16;
+  private static final int HASH_LENGTH = 32;
+  private static final int ITERATIONS = 2;
+  private static final int MEMORY = 65536;
+  private static final int PARALLELISM = 1;
+
+  private LoginStormLoadTest() {}
+
+  /**
+   * @param args the number of simultaneous logins, 16 by default
+   * @throws Exception if a login fails
+   */
+  public static void main(String[] args) throws Exception {
+    int logins = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+    String hash = encoder().encode("password123");
+
+    PasswordHasher passwordHasher = new PasswordHasher(encoder());
+    ReflectionTestUtils.setField(passwordHasher, "memory", MEMORY);
+    ReflectionTestUtils.setField(passwordHasher, "queueCapacity", logins);
+    ReflectionTestUtils.setField(passwordHasher, "queueTimeout", Duration.ofMinutes(10));
+    passwordHasher.start();
+
+    System.out.printf(
+      "%d simultaneous logins, %d MB per hash, max heap %d MB, %d hashing threads%n%n",
+      logins,
+      MEMORY / 1024,
+      Runtime.getRuntime().maxMemory() >> 20,
+      passwordHasher.getPoolSize()
+    );
+    System.out.printf("%-22s %14s %12s %10s%n", "", "peak heap MB", "total s", "OOM");
+    storm("encoder per login", logins, hash, (raw, encoded) -> encoder().matches(raw, encoded));
+    storm("password hasher", logins, hash, passwordHasher::matches);
+    passwordHasher.stop();
+  }
+
+  private static void storm(String name, int logins, String hash, BiPredicate<String, String> check) throws Exception {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    System.gc();
+    AtomicLong peak = new AtomicLong(memory.getHeapMemoryUsage().getUsed());
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread sampler = Thread.ofPlatform().name("heap-sampler").daemon().start(() -> {
+      while (running.get()) {
+        peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        try {
+          Thread.sleep(2);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    });
+
+    long start = System.nanoTime();
+    CountDownLatch go = new CountDownLatch(1);
+    int failed = 0;
+    List<Future<Boolean>> results = new ArrayList<>(logins);
+    try (ExecutorService requests = Executors.newFixedThreadPool(logins)) {
+      for (int i = 0; i < logins; i++) {
+        results.add(requests.submit(() -> {
+          go.await();
+          return check.test("password123", hash);
+        }));
+      }
+      go.countDown();
+      for (Future<Boolean> result : results) {
+        try {
+          if (!result.get()) throw new IllegalStateException("Password not matched");
+        } catch (ExecutionException e) {
+          if (!(e.getCause() instanceof OutOfMemoryError)) throw e;
+          failed++;
+        }
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+    running.set(false);
+    sampler.join();
+
+    System.out.printf(
+      "%-22s %14d %12.1f %10d%n",
+      name,
+      peak.get() >> 20,
+      elapsed / (double) TimeUnit.SECONDS.toNanos(1),
+      failed
+    );
+  }
+
+  private static Argon2PasswordEncoder encoder() {
+    return new Argon2PasswordEncoder(SALT_LENGTH, HASH_LENGTH, ITERATIONS, MEMORY, PARALLELISM);
+  }
+}
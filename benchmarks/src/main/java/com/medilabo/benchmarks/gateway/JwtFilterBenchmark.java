@@ -0,0 +1,149 @@
+package com.medilabo.benchmarks.gateway;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.medilabo.gatewayService.config.PublicEndpointsProperties;
+import com.medilabo.gatewayService.filter.JwtFilter;
+import com.medilabo.gatewayService.security.JwksClient;
+import com.medilabo.gatewayService.security.PublicEndpointMatcher;
+import com.medilabo.gatewayService.security.PublicKeyLoader;
+import com.medilabo.gatewayService.security.VerificationScheduler;
+import com.medilabo.gatewayService.security.VerifiedTokenCache;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Benchmarks the authentication of a request by the gateway, with a 2048-bit key as deployed.
+ * {@code legacyVerify} is the former per-request path, which read and parsed the public key and built
+ * a new verifier for every token; {@code verify} uses the verifier built once by the {@link PublicKeyLoader};
+ * {@code filter} runs the whole {@link JwtFilter} on a mock exchange, with the same token on every request
+ * as during a page load, and {@code filterWithoutCache} does the same with the {@link VerifiedTokenCache}
+ * disabled, so that every token is verified on a thread of the {@link VerificationScheduler}. Run with {@code -t} to measure the throughput of several event-loop threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+  private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+  private Path publicKeyFile;
+  private PublicKeyLoader keyLoader;
+  private VerificationScheduler verificationScheduler;
+  private JwtFilter jwtFilter;
+  private JwtFilter uncachedJwtFilter;
+  private String token;
+  private MockServerWebExchange exchange;
+
+  @Setup
+  public void setUp() throws Exception {
+    KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+    keyGen.initialize(2048);
+    KeyPair keyPair = keyGen.generateKeyPair();
+    publicKeyFile = Files.createTempFile("jwt-benchmark", ".pem");
+    Files.writeString(
+      publicKeyFile,
+      "-----BEGIN PUBLIC KEY-----\n" +
+      Base64.getMimeEncoder().encodeToString(keyPair.getPublic().getEncoded()) +
+      "\n-----END PUBLIC KEY-----\n"
+    );
+    token = JWT.create()
+      .withIssuer("auth-service")
+      .withSubject("user")
+      .withClaim("role", "USER")
+      .sign(Algorithm.RSA512((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+
+    keyLoader = new PublicKeyLoader();
+    ReflectionTestUtils.setField(keyLoader, "publicKeyPath", publicKeyFile.toString());
+    keyLoader.loadKey();
+    verificationScheduler = new VerificationScheduler();
+    verificationScheduler.start();
+    // Building a mock exchange costs far more than the filter, and the filter only reads it
+    // when the token is valid, so the same exchange is used for every request.
+    exchange = MockServerWebExchange.from(
+      MockServerHttpRequest.get("/api/patients").header("Authorization", "Bearer " + token)
+    );
+    jwtFilter = jwtFilter(true);
+    uncachedJwtFilter = jwtFilter(false);
+  }
+
+  private JwtFilter jwtFilter(boolean cached) {
+    VerifiedTokenCache tokenCache = new VerifiedTokenCache();
+    ReflectionTestUtils.setField(tokenCache, "enabled", cached);
+    tokenCache.start();
+    JwtFilter filter = new JwtFilter(
+      keyLoader,
+      tokenCache,
+      new PublicEndpointMatcher(new PublicEndpointsProperties()),
+      verificationScheduler,
+      new JwksClient(WebClient.create())
+    );
+    ReflectionTestUtils.setField(filter, "authCookieName", "authToken");
+    return filter;
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    verificationScheduler.stop();
+    Files.deleteIfExists(publicKeyFile);
+  }
+
+  @Benchmark
+  public DecodedJWT legacyVerify() throws IOException, GeneralSecurityException {
+    String publicKeyPEM = Files.readString(publicKeyFile)
+      .replace("-----BEGIN PUBLIC KEY-----", "")
+      .replace("-----END PUBLIC KEY-----", "")
+      .replaceAll("\\s", "");
+    RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA")
+      .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKeyPEM)));
+    JWTVerifier verifier = JWT.require(Algorithm.RSA512(publicKey, null)).withIssuer("auth-service").build();
+    return verifier.verify(token);
+  }
+
+  @Benchmark
+  public DecodedJWT verify() {
+    return keyLoader.getVerifier().verify(token);
+  }
+
+  @Benchmark
+  public Void filter() {
+    return jwtFilter.filter(exchange, CHAIN).block();
+  }
+
+  @Benchmark
+  public Void filterWithoutCache() {
+    return uncachedJwtFilter.filter(exchange, CHAIN).block();
+  }
+}
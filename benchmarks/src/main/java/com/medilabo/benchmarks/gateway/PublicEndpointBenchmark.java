@@ -0,0 +1,92 @@
+package com.medilabo.benchmarks.gateway;
+
+import com.medilabo.gatewayService.constant.SecurityConstants;
+import com.medilabo.gatewayService.security.PublicEndpointMatcher;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the check of the public endpoints by the gateway, on {@value #PATHS} request paths
+ * per operation shaped like a page load: mostly static assets, then the login page and the API calls,
+ * which go through every pattern before being authenticated. {@code legacy} is the former loop,
+ * which compiled a regular expression per pattern and path, and {@code compiled} the
+ * {@link PublicEndpointMatcher}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicEndpointBenchmark {
+
+  private static final int PATHS = 1024;
+
+  private static final String[] STATIC_ASSETS = {
+    "/main.3f9a2c.js", "/vendor.81bd0e.js", "/runtime.js", "/styles.9ac1.css", "/assets/theme.css",
+    "/manifest.json", "/i18n/fr.json", "/img/logo.png", "/img/icons/patient.svg", "/ico/favicon.ico",
+  };
+
+  private static final String[] OTHER_PATHS = {
+    "/", "/login", "/api/auth", "/patients", "/api/patients", "/api/patients/6f1c2b7e-1d2a-4c55-9a0e-2b8f1a3c4d5e",
+    "/api/notes/patient/6f1c2b7e-1d2a-4c55-9a0e-2b8f1a3c4d5e", "/api/assessment/6f1c2b7e-1d2a-4c55-9a0e-2b8f1a3c4d5e",
+  };
+
+  private final String[] paths = new String[PATHS];
+  private PublicEndpointMatcher matcher;
+
+  @Setup
+  public void setUp() {
+    matcher = new PublicEndpointMatcher(List.of(SecurityConstants.PUBLIC_ENDPOINTS));
+    SplittableRandom random = new SplittableRandom(11L);
+    for (int i = 0; i < PATHS; i++) {
+      paths[i] = random.nextInt(10) < 7
+        ? STATIC_ASSETS[random.nextInt(STATIC_ASSETS.length)]
+        : OTHER_PATHS[random.nextInt(OTHER_PATHS.length)];
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATHS)
+  public void legacy(Blackhole blackhole) {
+    for (String path : paths) {
+      blackhole.consume(legacyMatches(path));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(PATHS)
+  public void compiled(Blackhole blackhole) {
+    for (String path : paths) {
+      blackhole.consume(matcher.matches(path));
+    }
+  }
+
+  /**
+   * The check of the public endpoints before they were compiled.
+   */
+  private static boolean legacyMatches(String requestPath) {
+    for (String publicEndpoint : SecurityConstants.PUBLIC_ENDPOINTS) {
+      if (
+        requestPath.equals(publicEndpoint) ||
+        (publicEndpoint.contains("*") && requestPath.matches(publicEndpoint.replace("*", ".*")))
+      ) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
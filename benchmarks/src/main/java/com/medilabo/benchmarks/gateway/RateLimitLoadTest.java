@@ -0,0 +1,181 @@
+package com.medilabo.benchmarks.gateway;
+
+import com.medilabo.gatewayService.config.RateLimitProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties.Limit;
+import com.medilabo.gatewayService.filter.PrincipalRateLimitFilter;
+import com.medilabo.gatewayService.filter.RateLimitFilter;
+import com.medilabo.gatewayService.ratelimit.RateLimiter;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Load test of the {@link RateLimitFilter} and {@link PrincipalRateLimitFilter} in front of a backend of limited capacity: legitimate users,
+ * each from their own address, send requests at a steady rate while one client floods the gateway above
+ * the capacity of the backend. The same load runs once without and once with the default rate limits
+ * of the gateway, and the latency of the legitimate requests is reported for both.
+ * The load is open: requests are sent at their scheduled time whether or not the previous ones have
+ * completed, and their latency is measured from that time, so that a saturated backend is not hidden
+ * by clients slowing down. The rates are kept low enough for the mock requests not to saturate the CPU
+ * of a small machine, and a first run warms the JIT up without being reported.
+ * Run with {@code java -cp benchmarks/target/benchmarks.jar com.medilabo.benchmarks.gateway.RateLimitLoadTest [PT10S]}.
+ */
+public final class RateLimitLoadTest {
+
+  private static final int BACKEND_CONCURRENCY = 2;
+  private static final long BACKEND_SERVICE_TIME = TimeUnit.MILLISECONDS.toNanos(5);
+  private static final int USERS = 20;
+  private static final int USER_RATE = 5;
+  private static final int FLOOD_RATE = 1_000;
+
+  private RateLimitLoadTest() {}
+
+  /**
+   * @param args the duration of each run, 10 seconds by default
+   * @throws InterruptedException if interrupted while waiting for the requests
+   */
+  public static void main(String[] args) throws InterruptedException {
+    Duration duration = args.length > 0 ? Duration.parse(args[0]) : Duration.ofSeconds(10);
+    System.out.printf(
+      "Backend: %d req/s; %d users at %d req/s each; flood at %d req/s; %s per run%n%n",
+      BACKEND_CONCURRENCY * TimeUnit.SECONDS.toNanos(1) / BACKEND_SERVICE_TIME,
+      USERS,
+      USER_RATE,
+      FLOOD_RATE,
+      duration
+    );
+    System.out.printf("%-18s %10s %10s %10s %10s %10s %10s%n", "", "p50 ms", "p99 ms", "max ms", "users 429", "flood ok", "flood 429");
+    run(null, true, Duration.ofSeconds(2));
+    run("no rate limit", false, duration);
+    run("rate limit", true, duration);
+  }
+
+  private static void run(String name, boolean enabled, Duration duration) throws InterruptedException {
+    RateLimitProperties properties = new RateLimitProperties();
+    properties.setEnabled(enabled);
+    properties.getDefaults().setIp(limit(100, 200));
+    properties.getDefaults().setPrincipal(limit(50, 100));
+    RateLimiter rateLimiter = new RateLimiter(properties);
+    rateLimiter.start();
+    RateLimitFilter filter = new RateLimitFilter(properties, rateLimiter);
+    PrincipalRateLimitFilter principalFilter = new PrincipalRateLimitFilter(properties, rateLimiter);
+
+    Semaphore backend = new Semaphore(BACKEND_CONCURRENCY, true);
+    GatewayFilterChain backendChain = exchange ->
+      Mono.fromRunnable(() -> {
+        backend.acquireUninterruptibly();
+        try {
+          LockSupport.parkNanos(BACKEND_SERVICE_TIME);
+        } finally {
+          backend.release();
+        }
+      });
+    GatewayFilterChain chain = exchange -> principalFilter.filter(exchange, backendChain);
+
+    int userRequests = (int) (duration.toSeconds() * USERS * USER_RATE);
+    long[] latencies = new long[userRequests];
+    AtomicInteger userRejected = new AtomicInteger();
+    AtomicLong floodForwarded = new AtomicLong();
+    AtomicLong floodRejected = new AtomicLong();
+
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      long start = System.nanoTime();
+      Thread users = Thread.ofPlatform().name("load-users").start(() ->
+        send(start, userRequests, USERS * USER_RATE, (i, scheduled) ->
+          clients.execute(() -> {
+            int user = i % USERS;
+            boolean rejected = request(filter, chain, "10.0.0." + user, "user-" + user);
+            latencies[i] = System.nanoTime() - scheduled;
+            if (rejected) userRejected.incrementAndGet();
+          })
+        )
+      );
+      Thread flood = Thread.ofPlatform().name("load-flood").start(() ->
+        send(start, (int) (duration.toSeconds() * FLOOD_RATE), FLOOD_RATE, (i, scheduled) ->
+          clients.execute(() -> {
+            boolean rejected = request(filter, chain, "203.0.113.7", "mallory");
+            (rejected ? floodRejected : floodForwarded).incrementAndGet();
+          })
+        )
+      );
+      users.join();
+      flood.join();
+    }
+    rateLimiter.stop();
+
+    if (name == null) return;
+    Arrays.sort(latencies);
+    System.out.printf(
+      "%-18s %10.1f %10.1f %10.1f %10d %10d %10d%n",
+      name,
+      millis(latencies[latencies.length / 2]),
+      millis(latencies[(int) (latencies.length * 0.99)]),
+      millis(latencies[latencies.length - 1]),
+      userRejected.get(),
+      floodForwarded.get(),
+      floodRejected.get()
+    );
+  }
+
+  /**
+   * Schedules requests at a fixed rate, without waiting for them to complete.
+   */
+  private static void send(long start, int count, int rate, Request request) {
+    long period = TimeUnit.SECONDS.toNanos(1) / rate;
+    for (int i = 0; i < count; i++) {
+      long scheduled = start + i * period;
+      long delay = scheduled - System.nanoTime();
+      if (delay > 0) LockSupport.parkNanos(delay);
+      request.send(i, scheduled);
+    }
+  }
+
+  /**
+   * Sends one request through the filters.
+   *
+   * @return whether the request was rejected by a rate limit
+   */
+  private static boolean request(RateLimitFilter filter, GatewayFilterChain chain, String ip, String principal) {
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+      MockServerHttpRequest.get("/api/patients").remoteAddress(new InetSocketAddress(ip, 40000))
+    );
+    filter
+      .filter(exchange, chain)
+      .contextWrite(
+        ReactiveSecurityContextHolder.withAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()))
+      )
+      .block();
+    return exchange.getResponse().getStatusCode() == HttpStatus.TOO_MANY_REQUESTS;
+  }
+
+  private static Limit limit(double replenishRate, int burstCapacity) {
+    Limit limit = new Limit();
+    limit.setReplenishRate(replenishRate);
+    limit.setBurstCapacity(burstCapacity);
+    return limit;
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  @FunctionalInterface
+  private interface Request {
+    void send(int index, long scheduled);
+  }
+}
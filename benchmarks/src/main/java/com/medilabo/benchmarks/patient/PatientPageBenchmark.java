@@ -0,0 +1,163 @@
+package com.medilabo.benchmarks.patient;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.medilabo.patientService.cache.PatientCache;
+import com.medilabo.patientService.dto.PatientsDto;
+import com.medilabo.patientService.model.Gender;
+import com.medilabo.patientService.model.Patient;
+import com.medilabo.patientService.repository.PatientRepository;
+import com.medilabo.patientService.search.PatientSearchIndex;
+import com.medilabo.patientService.service.PatientService;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Benchmarks a page of the patient list, read through JPA from an in-memory H2 database and serialized
+ * to JSON as the endpoint returns it; run with {@code -prof gc}, {@code gc.alloc.rate.norm} is the allocation
+ * per page. {@code entityPage} replays the former list, {@code findAll} of the entities wrapped as they were,
+ * and {@code projectedPage} is {@link PatientService#getAllPatients}, which reads projections. Both run in
+ * a read-only transaction, kept open while serializing as with the open session in view of the service,
+ * so that the difference is the cost of building the entities and tracking them in the persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatientPageBenchmark {
+
+  private static final int PATIENTS = 10_000;
+  private static final String[] NAMES = {
+    "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+  };
+
+  @Param({ "5", "50" })
+  private int pageSize;
+
+  private HikariDataSource dataSource;
+  private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+  private TransactionTemplate readOnly;
+  private PatientRepository patientRepository;
+  private PatientService patientService;
+  private ObjectMapper objectMapper;
+  private PageRequest pageRequest;
+
+  @Setup
+  public void setUp() {
+    entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+    dataSource = new HikariDataSource();
+    dataSource.setJdbcUrl("jdbc:h2:mem:patients;DB_CLOSE_DELAY=-1");
+    dataSource.setUsername("sa");
+    entityManagerFactory.setDataSource(dataSource);
+    entityManagerFactory.setPackagesToScan(Patient.class.getPackageName());
+    entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+    entityManagerFactory.setJpaPropertyMap(Map.of(
+      "hibernate.hbm2ddl.auto", "create-drop",
+      // The naming of Spring Boot, so that the indexes of the entity find their columns
+      "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()
+    ));
+    entityManagerFactory.afterPropertiesSet();
+
+    JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory.getObject());
+    patientRepository = new JpaRepositoryFactory(
+      SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject())
+    ).getRepository(PatientRepository.class);
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> patientRepository.saveAll(seed()));
+
+    readOnly = new TransactionTemplate(transactionManager);
+    readOnly.setReadOnly(true);
+    patientService = new PatientService(
+      patientRepository,
+      null,
+      new PatientSearchIndex(patientRepository),
+      new PatientCache(id -> {})
+    );
+    objectMapper = JsonMapper.builder()
+      .addModule(new JavaTimeModule())
+      .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+      .build();
+    pageRequest = PageRequest.of(0, pageSize, Sort.by("lastName", "id"));
+  }
+
+  @TearDown
+  public void tearDown() {
+    entityManagerFactory.destroy();
+    dataSource.close();
+  }
+
+  @Benchmark
+  public byte[] entityPage() {
+    return readOnly.execute(status -> {
+      Page<Patient> patientPage = patientRepository.findAll(pageRequest);
+      PatientsDto<Patient> patientsDto = new PatientsDto<>();
+      patientsDto.setTotalElements(patientPage.getTotalElements());
+      patientsDto.setTotalPages(patientPage.getTotalPages());
+      patientsDto.setCurrentPage(patientPage.getNumber());
+      patientsDto.setPageSize(patientPage.getSize());
+      patientsDto.setData(patientPage.getContent());
+      return serialize(patientsDto);
+    });
+  }
+
+  @Benchmark
+  public byte[] projectedPage() {
+    return readOnly.execute(status -> serialize(patientService.getAllPatients(pageRequest)));
+  }
+
+  private byte[] serialize(Object value) {
+    try {
+      return objectMapper.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static List<Patient> seed() {
+    SplittableRandom random = new SplittableRandom(42);
+    List<Patient> patients = new ArrayList<>(PATIENTS);
+    for (int i = 0; i < PATIENTS; i++) {
+      Patient patient = new Patient();
+      patient.setFirstName("Patient" + i);
+      patient.setLastName(NAMES[random.nextInt(NAMES.length)]);
+      patient.setBirthDate(LocalDate.of(1940, 1, 1).plusDays(random.nextInt(25_000)));
+      patient.setGender(random.nextBoolean() ? Gender.F : Gender.M);
+      patient.setPostalAddress(random.nextInt(200) + " rue de la Paix");
+      patient.setPhoneNumber(String.format("06 %02d %02d %02d %02d", random.nextInt(100), random.nextInt(100), random.nextInt(100), random.nextInt(100)));
+      patients.add(patient);
+    }
+    return patients;
+  }
+}
@@ -0,0 +1,155 @@
+package com.medilabo.benchmarks.patient;
+
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import com.medilabo.patientService.model.Patient;
+import com.medilabo.patientService.repository.PatientRepository;
+import com.medilabo.patientService.search.PatientSearchIndex;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+/**
+ * Benchmarks a page of the typeahead name search, on patients with names generated from a fixed seed.
+ * {@code legacySearch} replays in memory what {@code searchByName} asks of the database: the four
+ * lower-cased {@code LIKE '%query%'} of every patient, for the page and for its count. {@code indexedSearch}
+ * is {@link PatientSearchIndex#search}, built from the same patients, and {@code typeahead} is
+ * {@link PatientSearchIndex#suggest}, the names starting with the query. The legacy scan grows with the number
+ * of patients; the substring index with the number of candidates of the query; the typeahead with the page only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PatientSearchBenchmark {
+
+  private static final String[] SYLLABLES = {
+    "ma", "ri", "du", "pon", "ber", "nard", "le", "roy", "mar", "tin", "pe", "tit", "lau", "rent", "si", "mon",
+    "mi", "chel", "fa", "bre", "ga", "ron", "che", "val", "lier", "mo", "reau", "ge", "rard", "ro", "bin", "dou",
+  };
+  private static final int PAGE_SIZE = 5;
+
+  @Param({ "100000", "1000000" })
+  private int patients;
+
+  @Param({ "du", "dupon", "ma ber" })
+  private String query;
+
+  private UUID[] ids;
+  private String[] firstNames;
+  private String[] lastNames;
+  private PatientSearchIndex patientSearchIndex;
+
+  @Setup
+  public void setUp() throws InterruptedException {
+    SplittableRandom random = new SplittableRandom(42);
+    ids = new UUID[patients];
+    firstNames = new String[patients];
+    lastNames = new String[patients];
+    List<Patient> seeded = new ArrayList<>(patients);
+    for (int i = 0; i < patients; i++) {
+      ids[i] = new UUID(random.nextLong(), random.nextLong());
+      firstNames[i] = name(random, 2);
+      lastNames[i] = name(random, 2 + random.nextInt(2));
+      Patient patient = new Patient();
+      patient.setId(ids[i]);
+      patient.setFirstName(firstNames[i]);
+      patient.setLastName(lastNames[i]);
+      seeded.add(patient);
+    }
+
+    patientSearchIndex = new PatientSearchIndex(repository(seeded));
+    patientSearchIndex.start();
+    while (!patientSearchIndex.isReady()) {
+      Thread.sleep(10);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    patientSearchIndex.stop();
+  }
+
+  @Benchmark
+  public PatientSearchIndex.Result legacySearch() {
+    String pattern = query.toLowerCase(Locale.ROOT);
+    List<UUID> page = new ArrayList<>(PAGE_SIZE);
+    long total = 0;
+    for (int i = 0; i < patients; i++) {
+      String first = firstNames[i].toLowerCase(Locale.ROOT);
+      String last = lastNames[i].toLowerCase(Locale.ROOT);
+      if (
+        first.contains(pattern) ||
+        last.contains(pattern) ||
+        (first + " " + last).contains(pattern) ||
+        (last + " " + first).contains(pattern)
+      ) {
+        if (total++ < PAGE_SIZE) page.add(ids[i]);
+      }
+    }
+    return new PatientSearchIndex.Result(page, total);
+  }
+
+  @Benchmark
+  public PatientSearchIndex.Result indexedSearch() {
+    return patientSearchIndex.search(query, 0, PAGE_SIZE);
+  }
+
+  @Benchmark
+  public List<PatientSuggestionDto> typeahead() {
+    return patientSearchIndex.suggest(query, PAGE_SIZE);
+  }
+
+  private static String name(SplittableRandom random, int syllables) {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < syllables; i++) {
+      name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+    }
+    name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+    return name.toString();
+  }
+
+  /**
+   * @return a repository serving the seeded patients to the keyset scroll of the index, in windows
+   */
+  private static PatientRepository repository(List<Patient> seeded) {
+    return (PatientRepository) Proxy.newProxyInstance(
+      PatientRepository.class.getClassLoader(),
+      new Class<?>[] { PatientRepository.class },
+      (proxy, method, args) -> {
+        if (!method.getName().equals("findAllBy")) throw new UnsupportedOperationException(method.getName());
+        KeysetScrollPosition position = (KeysetScrollPosition) args[0];
+        int limit = ((Limit) args[2]).max();
+        int from = position.isInitial() ? 0 : (int) position.getKeys().get("index") + 1;
+        int to = Math.min(from + limit, seeded.size());
+        return Window.from(
+          seeded.subList(from, to),
+          index -> ScrollPosition.forward(Map.of("index", from + index)),
+          to < seeded.size()
+        );
+      }
+    );
+  }
+}
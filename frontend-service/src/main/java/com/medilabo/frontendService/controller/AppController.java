@@ -7,6 +7,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import com.medilabo.frontendService.dto.PatientsCursorDto;
 import com.medilabo.frontendService.dto.PatientsDto;
 import com.medilabo.frontendService.feign.PatientFeignClient;
 
@@ -26,6 +27,12 @@ public class AppController {
     @Value("${baseUrl}")
     private String baseUrl;
 
+    @Value("${patients.cursor-pagination:false}")
+    private boolean cursorPagination = false;
+
+    /**
+     * Shows the patients page by page number, or the first page by cursor if cursor pagination is enabled.
+     */
     @GetMapping
     public String showApp(
             @RequestParam(defaultValue = "1") int page,
@@ -34,6 +41,7 @@ public class AppController {
             @RequestParam(defaultValue = "lastName") String sortBy,
             Model model
     ) {
+        if (cursorPagination) return showAppByCursor(null, size, sort, sortBy, model);
         try {
             if (page < 1 || size < 1 || size > 50) return ("redirect:" + baseUrl + "/login");
             PatientsDto patients = patientFeignClient.getAllPatients(page - 1, size, sort, sortBy);
@@ -49,4 +57,33 @@ public class AppController {
             return "app";
         }
     }
+
+    /**
+     * Shows the patients page by cursor, which stays fast however deep the page.
+     * The cursor is the one of the previous or next page, and empty for the first page;
+     * a cursor of another sort shows the first page.
+     */
+    @GetMapping(params = "cursor")
+    public String showAppByCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "asc") String sort,
+            @RequestParam(defaultValue = "lastName") String sortBy,
+            Model model
+    ) {
+        try {
+            if (size < 1 || size > 50) return ("redirect:" + baseUrl + "/login");
+            PatientsCursorDto patients = patientFeignClient.getPatientsByCursor(cursor, size, sort, sortBy, true);
+            model.addAttribute("patients", patients);
+            model.addAttribute("cursorMode", true);
+            return "app";
+        } catch (Exception e) {
+            System.err.println("Error fetching data: " + e.getMessage());
+            model.addAttribute(
+                    "errorMessage",
+                    "Une erreur s'est produite lors de la récupération des données. Veuillez réessayer plus tard."
+            );
+            return "app";
+        }
+    }
 }
@@ -0,0 +1,16 @@
+package com.medilabo.frontendService.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for a page of patients listed by cursor.
+ * The cursors are opaque, and null when there is no page in their direction;
+ * the page number and the number of pages are not known in this mode.
+ */
+@Getter
+@Setter
+public class PatientsCursorDto extends PatientsDto {
+    private String nextCursor;
+    private String previousCursor;
+}
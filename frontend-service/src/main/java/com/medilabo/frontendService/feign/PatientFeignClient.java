@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 
 import com.medilabo.frontendService.config.FeignConfig;
 import com.medilabo.frontendService.dto.PatientDto;
+import com.medilabo.frontendService.dto.PatientsCursorDto;
 import com.medilabo.frontendService.dto.PatientsDto;
 
 /**
@@ -24,6 +25,9 @@ public interface PatientFeignClient {
     @GetMapping
     PatientsDto getAllPatients(@RequestParam int page, @RequestParam int size, @RequestParam String sort, @RequestParam String sortBy);
 
+    @GetMapping("/cursor")
+    PatientsCursorDto getPatientsByCursor(@RequestParam(required = false) String cursor, @RequestParam int size, @RequestParam String sort, @RequestParam String sortBy, @RequestParam boolean count);
+
     @GetMapping("/{id}")
     PatientDto getPatientById(@PathVariable UUID id);
 
@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.medilabo.frontendService.dto.PatientsCursorDto;
 import com.medilabo.frontendService.dto.PatientsDto;
 import com.medilabo.frontendService.feign.PatientFeignClient;
 import org.junit.jupiter.api.BeforeEach;
@@ -100,4 +101,40 @@ class AppControllerTest {
     assertNotNull(errorMessage);
     assertTrue(errorMessage.toString().contains("Une erreur s'est produite"));
   }
+
+  @Test
+  void whenCursorGiven_thenAddCountedCursorPageToModel() {
+    PatientsCursorDto patients = new PatientsCursorDto();
+    patients.setNextCursor("next");
+    when(
+      patientFeignClient.getPatientsByCursor("cursor", 10, "desc", "gender", true)
+    ).thenReturn(patients);
+
+    Model model = new ExtendedModelMap();
+    String view = appController.showAppByCursor("cursor", 10, "desc", "gender", model);
+    assertEquals("app", view);
+    assertSame(patients, ((ExtendedModelMap) model).get("patients"));
+    assertEquals(true, ((ExtendedModelMap) model).get("cursorMode"));
+  }
+
+  @Test
+  void whenCursorSizeInvalid_thenRedirectToLogin() {
+    Model model = new ExtendedModelMap();
+    String view = appController.showAppByCursor("", 51, "asc", "lastName", model);
+    assertEquals("redirect:http://localhost:8080/login", view);
+  }
+
+  @Test
+  void whenCursorPaginationEnabled_thenShowFirstPageByCursor() {
+    ReflectionTestUtils.setField(appController, "cursorPagination", true);
+    PatientsCursorDto patients = new PatientsCursorDto();
+    when(
+      patientFeignClient.getPatientsByCursor(null, 5, "asc", "lastName", true)
+    ).thenReturn(patients);
+
+    Model model = new ExtendedModelMap();
+    String view = appController.showApp(3, 5, "asc", "lastName", model);
+    assertEquals("app", view);
+    assertSame(patients, ((ExtendedModelMap) model).get("patients"));
+  }
 }
@@ -0,0 +1,41 @@
+package com.medilabo.gatewayService.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * A response kept by the {@link ResponseCache}.
+ *
+ * @param status      the status of the response
+ * @param headers     the headers of the response, read-only
+ * @param body        the body of the response
+ * @param prefixes    the path prefixes whose writes invalidate the response
+ * @param generations the generation of each prefix when the request was forwarded
+ * @param expiresAt   the time after which the response is stale, in nanoseconds of {@link System#nanoTime()}
+ */
+public record CachedResponse(
+        HttpStatusCode status,
+        HttpHeaders headers,
+        byte[] body,
+        String[] prefixes,
+        long[] generations,
+        long expiresAt
+) {
+
+    /**
+     * Approximate overhead of an entry besides its body and headers, counted against the memory ceiling.
+     */
+    private static final int OVERHEAD = 256;
+
+    /**
+     * @return the approximate memory used by the response, in bytes
+     */
+    public long weight() {
+        long weight = OVERHEAD + body.length;
+        for (var header : headers.headerSet()) {
+            weight += header.getKey().length();
+            for (String value : header.getValue()) weight += value.length();
+        }
+        return weight;
+    }
+}
@@ -0,0 +1,201 @@
+package com.medilabo.gatewayService.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the GET responses of the routes with the {@code ResponseCache} filter
+ * (see {@link com.medilabo.gatewayService.filter.ResponseCacheGatewayFilterFactory}).
+ * <p>
+ * Responses are invalidated by path prefix: each prefix has a generation, bumped by every write under it
+ * (see {@link com.medilabo.gatewayService.filter.ResponseCacheInvalidationFilter}), and a response is only
+ * served if none of its prefixes has been bumped since its request was forwarded. A write thus
+ * invalidates all the responses under its prefix, for every user, at the cost of a counter increment,
+ * and the stale entries are dropped when they are next looked up or evicted.
+ * <p>
+ * The cache is bounded by the approximate memory of its responses ({@code gateway.response-cache.max-size}):
+ * the least recently used responses are evicted first.
+ */
+@Component
+public class ResponseCache {
+
+    static final String REQUESTS_METRIC = "gateway.response-cache.requests";
+    static final String HIT_RATIO_METRIC = "gateway.response-cache.hit-ratio";
+    static final String EVICTIONS_METRIC = "gateway.response-cache.evictions";
+    static final String SIZE_METRIC = "gateway.response-cache.size";
+    static final String ENTRIES_METRIC = "gateway.response-cache.entries";
+
+    @Value("${gateway.response-cache.max-size:64MB}")
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    @Getter
+    @Value("${gateway.response-cache.max-entry-size:1MB}")
+    private DataSize maxEntrySize = DataSize.ofMegabytes(1);
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private long size;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    /**
+     * Registers the metrics of the cache.
+     */
+    @PostConstruct
+    public void start() {
+        hits = requests("hit");
+        misses = requests("miss");
+        evictions = Counter.builder(EVICTIONS_METRIC)
+                .description("Responses evicted from the cache to respect its maximum size")
+                .register(meterRegistry);
+        Gauge.builder(HIT_RATIO_METRIC, this, ResponseCache::hitRatio)
+                .description("Share of the cacheable requests served from the response cache")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_METRIC, this, ResponseCache::size)
+                .description("Approximate memory used by the cached responses")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(ENTRIES_METRIC, this, ResponseCache::entries)
+                .description("Responses in the response cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current generations of the given prefixes, to be read before forwarding a request
+     * and handed back to {@link #put(String, CachedResponse)} with its response.
+     *
+     * @param prefixes the path prefixes
+     * @return the generation of each prefix
+     */
+    public long[] generations(List<String> prefixes) {
+        long[] current = new long[prefixes.size()];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = generations.computeIfAbsent(prefixes.get(i), prefix -> new AtomicLong()).get();
+        }
+        return current;
+    }
+
+    /**
+     * Returns a cached response that is neither expired nor invalidated.
+     *
+     * @param key the key of the request
+     * @return the response, or null if it must be forwarded
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response;
+        synchronized (this) {
+            response = entries.get(key);
+            if (response != null && !isValid(response)) {
+                remove(key);
+                response = null;
+            }
+        }
+        (response == null ? misses : hits).increment();
+        return response;
+    }
+
+    /**
+     * Caches a response, unless one of its prefixes has been invalidated since its request was forwarded,
+     * or it is larger than the maximum size of an entry.
+     *
+     * @param key      the key of the request
+     * @param response the response
+     * @return true if the response has been cached
+     */
+    public boolean put(String key, CachedResponse response) {
+        long weight = response.weight();
+        if (weight > maxEntrySize.toBytes() || !isValid(response)) return false;
+        synchronized (this) {
+            remove(key);
+            entries.put(key, response);
+            size += weight;
+            Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+            while (size > maxSize.toBytes() && eldest.hasNext()) {
+                size -= eldest.next().getValue().weight();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Invalidates the responses under every known prefix of a written path.
+     *
+     * @param path the path of a write
+     */
+    public void invalidate(String path) {
+        generations.forEach((prefix, generation) -> {
+            if (isUnder(path, prefix)) generation.incrementAndGet();
+        });
+    }
+
+    /**
+     * @return the approximate memory used by the cached responses, in bytes
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * @return the number of cached responses
+     */
+    public synchronized int entries() {
+        return entries.size();
+    }
+
+    /**
+     * Tells whether a path is a prefix itself or lies under it, segment-wise.
+     */
+    static boolean isUnder(String path, String prefix) {
+        return path.startsWith(prefix)
+                && (path.length() == prefix.length() || prefix.endsWith("/") || path.charAt(prefix.length()) == '/');
+    }
+
+    private boolean isValid(CachedResponse response) {
+        if (System.nanoTime() - response.expiresAt() >= 0) return false;
+        String[] prefixes = response.prefixes();
+        for (int i = 0; i < prefixes.length; i++) {
+            AtomicLong generation = generations.get(prefixes[i]);
+            if (generation == null || generation.get() != response.generations()[i]) return false;
+        }
+        return true;
+    }
+
+    private void remove(String key) {
+        CachedResponse removed = entries.remove(key);
+        if (removed != null) size -= removed.weight();
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Lookups in the response cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,28 @@
+package com.medilabo.gatewayService.config;
+
+import com.medilabo.gatewayService.constant.SecurityConstants;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the endpoints reachable without a token ({@code security.public-endpoints}).
+ * An endpoint is either an exact path, or a pattern in which {@code *} matches any sequence of
+ * characters, including {@code /}: {@code /img/**} matches everything under {@code /img/} and
+ * {@code /**.js} every path ending with {@code .js}.
+ * The defaults are {@link SecurityConstants#PUBLIC_ENDPOINTS}.
+ *
+ * @see com.medilabo.gatewayService.security.PublicEndpointMatcher
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security")
+public class PublicEndpointsProperties {
+
+    private List<String> publicEndpoints = new ArrayList<>(List.of(SecurityConstants.PUBLIC_ENDPOINTS));
+}
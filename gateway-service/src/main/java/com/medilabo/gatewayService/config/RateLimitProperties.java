@@ -0,0 +1,80 @@
+package com.medilabo.gatewayService.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of the rate limits of the gateway ({@code gateway.rate-limit}).
+ * Each route may limit the requests of each client IP address and of each authenticated user,
+ * and the routes that are not listed use the default limits. A missing limit means no limit.
+ *
+ * @see com.medilabo.gatewayService.filter.RateLimitFilter
+ * @see com.medilabo.gatewayService.filter.PrincipalRateLimitFilter
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Time after which the bucket of a client that has stopped sending requests is forgotten.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+
+    /**
+     * Maximum number of clients tracked at once; the requests of new clients are not limited above it.
+     */
+    private int maxKeys = 100_000;
+
+    private RouteLimits defaults = new RouteLimits();
+
+    private Map<String, RouteLimits> routes = new HashMap<>();
+
+    /**
+     * @param routeId the ID of a route
+     * @return the limits of the route, or the default limits if it has none
+     */
+    public RouteLimits limitsFor(String routeId) {
+        return routes.getOrDefault(routeId, defaults);
+    }
+
+    /**
+     * Limits of the requests to one route.
+     */
+    @Getter
+    @Setter
+    public static class RouteLimits {
+
+        /**
+         * Limit of each client IP address.
+         */
+        private Limit ip;
+
+        /**
+         * Limit of each authenticated user, whatever their address.
+         */
+        private Limit principal;
+    }
+
+    /**
+     * Token bucket: a client may send {@code burstCapacity} requests at once, then
+     * {@code replenishRate} requests per second.
+     */
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private double replenishRate;
+
+        private int burstCapacity;
+    }
+}
@@ -2,6 +2,7 @@ package com.medilabo.gatewayService.constant;
 
 /**
  * Security constants for the gateway service.
+ * The public endpoints are the defaults of {@code security.public-endpoints}.
  */
 public final class SecurityConstants {
 
@@ -1,11 +1,15 @@
 package com.medilabo.gatewayService.filter;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
-import com.medilabo.gatewayService.constant.SecurityConstants;
+import com.medilabo.gatewayService.security.JwksClient;
+import com.medilabo.gatewayService.security.PublicEndpointMatcher;
+import com.medilabo.gatewayService.security.PublicKeyLoader;
+import com.medilabo.gatewayService.security.VerificationScheduler;
+import com.medilabo.gatewayService.security.VerifiedToken;
+import com.medilabo.gatewayService.security.VerifiedTokenCache;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -24,28 +28,32 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
-import java.security.interfaces.RSAPublicKey;
-import java.security.spec.InvalidKeySpecException;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * JWT Filter for the gateway service.
  * This filter checks for JWT tokens in requests and validates them.
  * If the token is valid, it sets the authentication context; otherwise, it redirects to the login page.
+ * Tokens are checked with the verifier built once by the {@link PublicKeyLoader}, so that no key is read
+ * or parsed on the event loop, and their signature is only checked once until they expire
+ * (see {@link VerifiedTokenCache}), on a verification thread rather than on the event loop
+ * (see {@link VerificationScheduler}).
+ * A token carrying a key ID ({@code kid}) is verified with that key from the key set of the Auth Service
+ * (see {@link JwksClient}), and any other token with the public key file.
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class JwtFilter implements GlobalFilter, Ordered {
 
-    @Value("${jwt.public-key-path}")
-    private String publicKeyPath;
+    private final PublicKeyLoader keyLoader;
+    private final VerifiedTokenCache tokenCache;
+    private final PublicEndpointMatcher publicEndpoints;
+    private final VerificationScheduler verificationScheduler;
+    private final JwksClient jwksClient;
+
+    static final int ORDER = -1;
 
     @Value("${cookie.auth-name}")
     private String authCookieName;
@@ -66,64 +74,101 @@ public class JwtFilter implements GlobalFilter, Ordered {
         ServerHttpRequest request = exchange.getRequest();
         ServerHttpResponse response = exchange.getResponse();
 
-        String requestPath = request.getURI().getPath();
-
-        for (String publicEndpoint : SecurityConstants.PUBLIC_ENDPOINTS) {
-            if (
-                    requestPath.equals(publicEndpoint) ||
-                            (publicEndpoint.contains("*") &&
-                                    requestPath.matches(publicEndpoint.replace("*", ".*")))
-            ) {
-                return chain.filter(exchange);
-            }
-        }
+        if (publicEndpoints.matches(request.getURI().getPath())) return chain.filter(exchange);
 
         String token = extractToken(request);
         if (token == null) return clearAuthTokenAndRedirect(response, "/login#error=missing_token");
 
+        // Read the versions before the verifiers, so that a concurrent rotation can only make
+        // the cached token look older than it is, and never the other way round.
+        long keyVersion = keyLoader.getVersion() << 32 | jwksClient.getVersion();
+        JWTVerifier fileVerifier = keyLoader.getVerifier();
+        if (fileVerifier == null && !jwksClient.hasKeys()) {
+            return Mono.error(new RuntimeException("Error loading public key"));
+        }
 
-        try {
-            Algorithm algorithm = Algorithm.RSA512(parsePemPublicKey(), null);
-            JWTVerifier verifier = JWT.require(algorithm).withIssuer("auth-service").build();
-
-            DecodedJWT jwt = verifier.verify(token);
-
-            UsernamePasswordAuthenticationToken authentication =
-                    new UsernamePasswordAuthenticationToken(
-                            jwt.getSubject(),
-                            null,
-                            List.of(new SimpleGrantedAuthority("ROLE_" + jwt.getClaim("role").asString())
-                            )
-                    );
-
-            return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
-        } catch (JWTVerificationException e) {
+        VerifiedToken verified = tokenCache.get(token, keyVersion);
+        if (verified == null) {
+            return resolveVerifier(token, fileVerifier)
+                    .flatMap(verifier -> verificationScheduler.run(
+                            () -> tokenCache.put(token, verifier.verify(token), keyVersion)
+                    ))
+                    .flatMapMany(
+                            verifiedToken -> authenticate(exchange, chain, verifiedToken),
+                            e -> rejectVerification(response, e),
+                            Mono::empty
+                    )
+                    .then();
+        }
+        if (verified.isExpired(System.currentTimeMillis())) {
             return clearAuthTokenAndRedirect(response, "/login#error=invalid_token");
         }
+        return authenticate(exchange, chain, verified);
     }
 
     /**
-     * Parses the public key from the specified PEM file path.
+     * Finds the verifier of a token: the key named by its key ID, fetching the key set of the Auth Service
+     * if the key is not known yet, or the public key file for a token without key ID or with an unknown one.
      *
-     * @return the parsed RSAPublicKey
+     * @param token        the token
+     * @param fileVerifier the verifier of the public key file, or null if it has not been loaded
+     * @return the verifier, or an error if the token cannot be decoded or no key can verify it
      */
-    private RSAPublicKey parsePemPublicKey() {
+    private Mono<JWTVerifier> resolveVerifier(String token, JWTVerifier fileVerifier) {
+        String keyId;
         try {
-            String keyContent = Files.readString(Path.of(publicKeyPath));
-            String publicKeyPEM = keyContent
-                    .replace("-----BEGIN PUBLIC KEY-----", "")
-                    .replace("-----END PUBLIC KEY-----", "")
-                    .replaceAll("\\s", "");
-            byte[] encoded = Base64.getDecoder().decode(publicKeyPEM);
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(encoded);
-            return (RSAPublicKey) keyFactory.generatePublic(keySpec);
-        } catch (
-                IOException | NoSuchAlgorithmException | InvalidKeySpecException e
-        ) {
-            log.error("Error loading public key from path: {}", publicKeyPath, e);
-            throw new RuntimeException("Error loading public key");
+            keyId = JWT.decode(token).getKeyId();
+        } catch (JWTVerificationException e) {
+            // A malformed token is rejected by the verifier, as any other invalid token
+            keyId = null;
+        }
+        Mono<JWTVerifier> fallback = fileVerifier != null
+                ? Mono.just(fileVerifier)
+                : Mono.error(new JWTVerificationException("Unknown key ID: " + keyId));
+        if (keyId == null || !jwksClient.isEnabled()) return fallback;
+
+        JWTVerifier verifier = jwksClient.getVerifier(keyId);
+        if (verifier != null) return Mono.just(verifier);
+        return jwksClient.fetchVerifier(keyId).switchIfEmpty(fallback);
+    }
+
+    /**
+     * Continues the filter chain as the user of a verified token.
+     *
+     * @param exchange the server web exchange
+     * @param chain    the gateway filter chain
+     * @param verified the claims of the token
+     * @return a Mono that completes when the rest of the chain is done
+     */
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain, VerifiedToken verified) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        verified.subject(),
+                        null,
+                        List.of(new SimpleGrantedAuthority("ROLE_" + verified.role())
+                        )
+                );
+
+        return chain.filter(exchange).contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+
+    /**
+     * Answers a request whose token could not be verified: an invalid token is redirected to the login page,
+     * and a request that found the verification queue full is told to retry later.
+     *
+     * @param response the server HTTP response
+     * @param error    the error of the verification
+     * @return a Mono that completes when the response is set
+     */
+    private Mono<Void> rejectVerification(ServerHttpResponse response, Throwable error) {
+        if (error instanceof JWTVerificationException) {
+            return clearAuthTokenAndRedirect(response, "/login#error=invalid_token");
+        }
+        if (error instanceof RejectedExecutionException) {
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return response.setComplete();
         }
+        return Mono.error(error);
     }
 
     /**
@@ -166,12 +211,12 @@ public class JwtFilter implements GlobalFilter, Ordered {
 
     /**
      * Returns the order of this filter in the filter chain.
-     * This filter should run before other filters to ensure JWT validation.
+     * This filter runs after the per-IP rate limits and before the other filters, which may need the user.
      *
      * @return the order value
      */
     @Override
     public int getOrder() {
-        return -1;
+        return ORDER;
     }
 }
@@ -0,0 +1,58 @@
+package com.medilabo.gatewayService.filter;
+
+import com.medilabo.gatewayService.config.RateLimitProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties.RouteLimits;
+import com.medilabo.gatewayService.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Limits the rate of the requests of each authenticated user, whatever their address, with the limits
+ * configured for their route (see {@link RateLimitProperties}). Requests without a user are not limited here.
+ * This filter runs after the {@link JwtFilter}, which authenticates the user; the limits of the client
+ * IP addresses are applied before it by the {@link RateLimitFilter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalRateLimitFilter implements GlobalFilter, Ordered {
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) return chain.filter(exchange);
+
+        String routeId = RateLimitFilter.routeId(exchange);
+        RouteLimits limits = properties.limitsFor(routeId);
+        if (limits.getPrincipal() == null) return chain.filter(exchange);
+
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .map(Authentication::getName)
+                .map(principal -> rateLimiter.tryAcquire(routeId + "|principal|" + principal, limits.getPrincipal()))
+                .defaultIfEmpty(0L)
+                .flatMap(wait -> wait > 0
+                        ? RateLimitFilter.reject(exchange.getResponse(), meterRegistry, routeId, "principal", wait)
+                        : chain.filter(exchange));
+    }
+
+    @Override
+    public int getOrder() {
+        return JwtFilter.ORDER + 1;
+    }
+}
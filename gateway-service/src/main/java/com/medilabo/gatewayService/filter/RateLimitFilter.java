@@ -0,0 +1,98 @@
+package com.medilabo.gatewayService.filter;
+
+import com.medilabo.gatewayService.config.RateLimitProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties.RouteLimits;
+import com.medilabo.gatewayService.ratelimit.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of the requests of each client IP address, with the limits configured for their route
+ * (see {@link RateLimitProperties}), so that a burst of one client does not slow down the others.
+ * A request above a limit is answered with {@code 429 Too Many Requests} and a {@code Retry-After} header,
+ * before reaching the backend.
+ * This filter runs before the {@link JwtFilter}, so that a client above its limit cannot make the gateway
+ * verify its tokens; the limits of the authenticated users are applied after it by the
+ * {@link PrincipalRateLimitFilter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    static final String REJECTED_METRIC = "gateway.rate-limit.rejected";
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) return chain.filter(exchange);
+
+        String routeId = routeId(exchange);
+        RouteLimits limits = properties.limitsFor(routeId);
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (limits.getIp() != null && remoteAddress != null) {
+            String ip = remoteAddress.getAddress() == null ? remoteAddress.getHostString() : remoteAddress.getAddress().getHostAddress();
+            long wait = rateLimiter.tryAcquire(routeId + "|ip|" + ip, limits.getIp());
+            if (wait > 0) return reject(exchange.getResponse(), meterRegistry, routeId, "ip", wait);
+        }
+        return chain.filter(exchange);
+    }
+
+    /**
+     * @param exchange the server web exchange
+     * @return the ID of the route of the request, or an empty string if it has none
+     */
+    static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route == null ? "" : route.getId();
+    }
+
+    /**
+     * Answers a request above a limit.
+     *
+     * @param response      the server HTTP response
+     * @param meterRegistry the registry of the rejection counter
+     * @param routeId       the ID of the route of the request
+     * @param limit         the kind of limit reached
+     * @param wait          the time in nanoseconds until the request would be allowed
+     * @return a Mono that completes when the response is set
+     */
+    static Mono<Void> reject(ServerHttpResponse response, MeterRegistry meterRegistry, String routeId, String limit, long wait) {
+        Counter.builder(REJECTED_METRIC)
+                .description("Requests rejected by the rate limits")
+                .tag("route", routeId)
+                .tag("limit", limit)
+                .register(meterRegistry)
+                .increment();
+        long seconds = Math.max(1, (wait + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        return JwtFilter.ORDER - 1;
+    }
+}
@@ -0,0 +1,212 @@
+package com.medilabo.gatewayService.filter;
+
+import com.medilabo.gatewayService.cache.CachedResponse;
+import com.medilabo.gatewayService.cache.ResponseCache;
+import lombok.Getter;
+import lombok.Setter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in cache of the GET responses of a route, keyed by path, query and user:
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 30s
+ *       invalidated-by: /api/notes
+ * </pre>
+ * Only the 200 responses without cookies are cached, whatever their {@code Cache-Control}, since the route
+ * opted in; a request with {@code Cache-Control: no-cache} is always forwarded. A cached response is served
+ * until its time to live ({@code ttl}, 30 seconds by default), unless a write goes through the gateway under
+ * its resource prefix (its first {@code prefix-segments} path segments, 2 by default, e.g. {@code /api/patients})
+ * or under one of the {@code invalidated-by} prefixes (see {@link ResponseCacheInvalidationFilter}).
+ * Writes that do not go through the gateway are not seen, so the time to live bounds their staleness.
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    static final String CACHE_HEADER = "X-Cache";
+    private static final String ANONYMOUS = "anonymous";
+
+    private final ResponseCache responseCache;
+
+    /**
+     * Creates the filter factory.
+     *
+     * @param responseCache the cache shared by the routes
+     */
+    public ResponseCacheGatewayFilterFactory(ResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Configuration of the cache of a route.
+     */
+    @Getter
+    @Setter
+    public static class Config {
+
+        private Duration ttl = Duration.ofSeconds(30);
+        private int prefixSegments = 2;
+        private List<String> invalidatedBy = new ArrayList<>();
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) return chain.filter(exchange);
+
+            return ReactiveSecurityContextHolder.getContext()
+                    .map(SecurityContext::getAuthentication)
+                    .map(Authentication::getName)
+                    .defaultIfEmpty(ANONYMOUS)
+                    .flatMap(principal -> {
+                        String key = principal + '\0' + request.getURI().getRawPath() + '?' + request.getURI().getRawQuery();
+                        boolean noCache = request.getHeaders().getCacheControl() != null
+                                && request.getHeaders().getCacheControl().contains("no-cache");
+                        CachedResponse cached = noCache ? null : responseCache.get(key);
+                        if (cached != null) return write(exchange.getResponse(), cached);
+
+                        List<String> prefixes = prefixes(request.getURI().getRawPath(), config);
+                        long[] generations = responseCache.generations(prefixes);
+                        long expiresAt = System.nanoTime() + config.getTtl().toNanos();
+                        ServerHttpResponse response = exchange.getResponse();
+                        response.getHeaders().set(CACHE_HEADER, "MISS");
+                        ServerHttpResponseDecorator decorated = new ServerHttpResponseDecorator(response) {
+                            @Override
+                            public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                                if (!isCacheable(this)) return super.writeWith(body);
+                                BodyCopy copy = new BodyCopy(responseCache.getMaxEntrySize().toBytes());
+                                return super.writeWith(Flux.from(body)
+                                        .doOnNext(copy::append)
+                                        .doOnComplete(() -> {
+                                            byte[] bytes = copy.toByteArray();
+                                            if (bytes != null) {
+                                                store(key, getStatusCode(), getHeaders(), bytes, prefixes, generations, expiresAt);
+                                            }
+                                        }));
+                            }
+                        };
+                        return chain.filter(exchange.mutate().response(decorated).build());
+                    });
+        };
+    }
+
+    /**
+     * Tells whether a response may be cached. A response without a length, e.g. chunked, may be:
+     * its body is copied as it is written, and the copy dropped once it exceeds the maximum entry size.
+     */
+    private boolean isCacheable(ServerHttpResponse response) {
+        HttpHeaders headers = response.getHeaders();
+        return HttpStatus.OK.equals(response.getStatusCode())
+                && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                && headers.getContentLength() <= responseCache.getMaxEntrySize().toBytes();
+    }
+
+    private void store(
+            String key,
+            HttpStatusCode status,
+            HttpHeaders responseHeaders,
+            byte[] body,
+            List<String> prefixes,
+            long[] generations,
+            long expiresAt
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(responseHeaders);
+        headers.remove(CACHE_HEADER);
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        responseCache.put(key, new CachedResponse(
+                status,
+                HttpHeaders.readOnlyHttpHeaders(headers),
+                body,
+                prefixes.toArray(new String[0]),
+                generations,
+                expiresAt
+        ));
+    }
+
+    /**
+     * Copy of a response body, written through without being held back, up to a maximum size.
+     */
+    private static final class BodyCopy {
+
+        private final long maxSize;
+        private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private BodyCopy(long maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        private void append(DataBuffer buffer) {
+            if (bytes == null) return;
+            int count = buffer.readableByteCount();
+            if (bytes.size() + (long) count > maxSize) {
+                bytes = null;
+                return;
+            }
+            byte[] chunk = new byte[count];
+            buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(chunk), 0, count);
+            bytes.write(chunk, 0, count);
+        }
+
+        /**
+         * @return the copied body, or null if it exceeded the maximum size
+         */
+        private byte[] toByteArray() {
+            return bytes == null ? null : bytes.toByteArray();
+        }
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(cached.status());
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Returns the resource prefix of a path, made of its first segments, followed by the configured prefixes.
+     */
+    static List<String> prefixes(String path, Config config) {
+        int end = 0;
+        for (int segment = 0; segment < config.getPrefixSegments() && end >= 0; segment++) {
+            end = path.indexOf('/', end + 1);
+        }
+        List<String> prefixes = new ArrayList<>(1 + config.getInvalidatedBy().size());
+        prefixes.add(end < 0 ? path : path.substring(0, end));
+        prefixes.addAll(config.getInvalidatedBy());
+        return prefixes;
+    }
+}
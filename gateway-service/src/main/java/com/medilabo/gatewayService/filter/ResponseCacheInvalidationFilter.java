@@ -0,0 +1,44 @@
+package com.medilabo.gatewayService.filter;
+
+import com.medilabo.gatewayService.cache.ResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+/**
+ * Invalidates the cached responses under the path of every write going through the gateway
+ * (see {@link ResponseCacheGatewayFilterFactory}), whatever its route.
+ * The cache is invalidated when the write is forwarded, so that no response read before it is served
+ * afterwards, and again when it completes, so that no response read while it was running is either.
+ * This filter runs after the {@link JwtFilter} and the rate limits ({@link RateLimitFilter},
+ * {@link PrincipalRateLimitFilter}), so that rejected requests do not invalidate anything.
+ */
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheInvalidationFilter implements GlobalFilter, Ordered {
+
+    private static final Set<HttpMethod> WRITES = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final ResponseCache responseCache;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!WRITES.contains(exchange.getRequest().getMethod())) return chain.filter(exchange);
+
+        String path = exchange.getRequest().getURI().getRawPath();
+        responseCache.invalidate(path);
+        return chain.filter(exchange).doFinally(signal -> responseCache.invalidate(path));
+    }
+
+    @Override
+    public int getOrder() {
+        return 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.medilabo.gatewayService.ratelimit;
+
+import com.medilabo.gatewayService.config.RateLimitProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties.Limit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory store of the token buckets of the clients of the gateway (see {@link TokenBucket}).
+ * Buckets are spread over several maps, so that a sweep only walks one map at a time while requests
+ * keep taking tokens from the others; taking a token never locks. A bucket that has been full for the
+ * idle timeout is forgotten, since a new bucket would be in the same state, and the number of buckets is
+ * capped, so that a flood of spoofed clients cannot exhaust the memory of the gateway.
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimiter {
+
+    static final String KEYS_METRIC = "gateway.rate-limit.keys";
+    static final String EVICTIONS_METRIC = "gateway.rate-limit.evictions";
+    static final String OVERFLOW_METRIC = "gateway.rate-limit.overflow";
+
+    private static final int STRIPES = 16;
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties properties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentHashMap<String, TokenBucket>[] stripes = new ConcurrentHashMap[STRIPES];
+    private final AtomicInteger keys = new AtomicInteger();
+    private ScheduledExecutorService sweeper;
+    private Counter evictions;
+    private Counter overflow;
+
+    /**
+     * Creates the maps of buckets, registers the metrics and starts sweeping the idle buckets.
+     */
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+        evictions = Counter.builder(EVICTIONS_METRIC)
+                .description("Idle rate-limit buckets forgotten")
+                .register(meterRegistry);
+        overflow = Counter.builder(OVERFLOW_METRIC)
+                .description("Requests not limited because the maximum number of buckets was reached")
+                .register(meterRegistry);
+        Gauge.builder(KEYS_METRIC, keys, AtomicInteger::get)
+                .description("Clients with a rate-limit bucket")
+                .register(meterRegistry);
+
+        long interval = Math.max(properties.getIdleTimeout().toMillis() / 2, 1);
+        sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rate-limit-sweeper").daemon().factory()
+        );
+        sweeper.scheduleWithFixedDelay(() -> sweep(System.nanoTime()), interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops sweeping the idle buckets.
+     */
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) sweeper.shutdownNow();
+    }
+
+    /**
+     * Takes a token from the bucket of a client.
+     *
+     * @param key   the client, unique across routes and kinds of limits
+     * @param limit the limit of the client
+     * @return 0 if the request is allowed, otherwise the time in nanoseconds until it would be
+     */
+    public long tryAcquire(String key, Limit limit) {
+        long now = System.nanoTime();
+        ConcurrentHashMap<String, TokenBucket> stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        TokenBucket bucket = stripe.get(key);
+        if (bucket == null) {
+            if (keys.get() >= properties.getMaxKeys()) {
+                overflow.increment();
+                return 0;
+            }
+            TokenBucket created = new TokenBucket(now);
+            bucket = stripe.putIfAbsent(key, created);
+            if (bucket == null) {
+                keys.incrementAndGet();
+                bucket = created;
+            }
+        }
+        long emissionInterval = Math.max((long) (SECOND / limit.getReplenishRate()), 1);
+        return bucket.tryConsume(now, emissionInterval, emissionInterval * limit.getBurstCapacity());
+    }
+
+    /**
+     * Forgets the buckets that have been full for the idle timeout.
+     * A request racing with the removal of its bucket may take its token from the forgotten bucket,
+     * which at worst lets through one request more than the limit.
+     *
+     * @param now the current {@link System#nanoTime()}
+     */
+    void sweep(long now) {
+        long idle = properties.getIdleTimeout().toNanos();
+        for (ConcurrentHashMap<String, TokenBucket> stripe : stripes) {
+            stripe.forEach((key, bucket) -> {
+                if (bucket.isIdle(now, idle) && stripe.remove(key, bucket)) {
+                    keys.decrementAndGet();
+                    evictions.increment();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return the number of clients with a bucket
+     */
+    public int size() {
+        return keys.get();
+    }
+}
@@ -0,0 +1,47 @@
+package com.medilabo.gatewayService.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of one client, updated without locks.
+ * Instead of a number of tokens and the time of its last refill, the bucket only holds the time at which
+ * it will be full again (the "theoretical arrival time" of the generic cell rate algorithm): taking a token
+ * pushes that time one emission interval later, and a token is available as long as the bucket would still
+ * be full again within its capacity. A single compare-and-set is then enough to take a token.
+ */
+final class TokenBucket {
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(long now) {
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @param now              the current {@link System#nanoTime()}
+     * @param emissionInterval the time in nanoseconds to replenish one token
+     * @param capacity         the time in nanoseconds to replenish a full bucket
+     * @return 0 if a token was taken, otherwise the time in nanoseconds until one is available
+     */
+    long tryConsume(long now, long emissionInterval, long capacity) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now < 0 ? now : current) + emissionInterval;
+            long excess = next - now - capacity;
+            if (excess > 0) return excess;
+            if (fullAt.compareAndSet(current, next)) return 0;
+        }
+    }
+
+    /**
+     * @param now  the current {@link System#nanoTime()}
+     * @param idle the time in nanoseconds a bucket must have been full to be idle
+     * @return whether the bucket has been full for at least the idle time, in which case forgetting it
+     * does not change the limit of the client
+     */
+    boolean isIdle(long now, long idle) {
+        return now - fullAt.get() >= idle;
+    }
+}
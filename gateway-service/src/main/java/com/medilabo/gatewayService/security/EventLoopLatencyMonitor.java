@@ -0,0 +1,85 @@
+package com.medilabo.gatewayService.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the latency of the Netty event loops serving the gateway: at a fixed interval, a no-op
+ * task is submitted to each loop, and the time it waits before running is recorded
+ * ({@value #LATENCY_METRIC}). A loop busy with blocking or CPU-heavy work, such as an inline RSA
+ * signature check, shows up as a growing latency, which delays every connection it serves.
+ */
+@Slf4j
+@Component
+public class EventLoopLatencyMonitor {
+
+    static final String LATENCY_METRIC = "gateway.event-loop.latency";
+
+    @Value("${gateway.event-loop.latency-interval:PT1S}")
+    private Duration interval = Duration.ofSeconds(1);
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Starts probing the event loops of the server, which are the global loop resources of Reactor Netty
+     * unless the server has been configured with its own.
+     */
+    @PostConstruct
+    public void start() {
+        EventLoopGroup eventLoops = HttpResources.get().onServer(true);
+        executor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("event-loop-latency-monitor").daemon().factory()
+        );
+        executor.scheduleAtFixedRate(() -> probe(eventLoops), interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops probing the event loops.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    /**
+     * Submits a probe to each loop of the group, recording its wait when it runs.
+     *
+     * @param eventLoops the event loops to probe
+     */
+    void probe(EventLoopGroup eventLoops) {
+        for (EventExecutor eventLoop : eventLoops) {
+            long submitted = System.nanoTime();
+            try {
+                eventLoop.execute(() -> latency().record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS));
+            } catch (RejectedExecutionException e) {
+                log.debug("Event loop {} is shutting down", eventLoop);
+            }
+        }
+    }
+
+    private Timer latency() {
+        return Timer.builder(LATENCY_METRIC)
+                .description("Time a task waits before running on a Netty event loop of the server")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+}
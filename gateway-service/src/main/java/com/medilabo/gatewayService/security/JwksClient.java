@@ -0,0 +1,304 @@
+package com.medilabo.gatewayService.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.KeyFactory;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Client of the JSON Web Key Set of the Auth Service, which publishes the public keys verifying its tokens
+ * by their {@code kid} header, so that a rotated key is picked up without a restart.
+ * The verifiers are built once per key and published with a single atomic swap: requests only read them.
+ * The key set is refreshed in the background at a fixed interval. A token signed with a key that is not
+ * known yet, just after a rotation, triggers one refresh shared by all the requests waiting for it; a key
+ * is only fetched once, and such refreshes are spaced by a minimum interval, so that tokens with made-up
+ * key IDs cannot flood the Auth Service.
+ */
+@Slf4j
+@Component
+public class JwksClient {
+
+    static final String REFRESH_METRIC = "gateway.jwt.jwks.refresh";
+    static final String KEYS_METRIC = "gateway.jwt.jwks.keys";
+
+    private static final String LOAD_BALANCED_SCHEME = "lb";
+    private static final int MAX_REQUESTED_KEY_IDS = 1000;
+
+    @Value("${jwt.jwks.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jwt.jwks.uri:lb://auth-service/api/auth/jwks}")
+    private String uri = "lb://auth-service/api/auth/jwks";
+
+    @Value("${jwt.jwks.refresh-interval:PT5M}")
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    @Value("${jwt.jwks.min-refresh-interval:PT30S}")
+    private Duration minRefreshInterval = Duration.ofSeconds(30);
+
+    @Value("${jwt.jwks.timeout:PT5S}")
+    private Duration timeout = Duration.ofSeconds(5);
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final WebClient webClient;
+    private final WebClient loadBalancedWebClient;
+
+    private final AtomicReference<KeySet> current = new AtomicReference<>(new KeySet(Map.of(), 0));
+    private final AtomicReference<Mono<KeySet>> refreshing = new AtomicReference<>();
+    private final Set<String> requestedKeyIds = ConcurrentHashMap.newKeySet();
+    private volatile long lastUnknownKeyRefresh = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    private Disposable refresher;
+
+    /**
+     * The verifiers of the published keys.
+     *
+     * @param keys    the verifier of each key ID, with the encoding of its key to detect a change
+     * @param version the version of the key set, incremented whenever a key is added, changed or removed
+     */
+    record KeySet(Map<String, Key> keys, long version) {}
+
+    /**
+     * @param encoded  the modulus and exponent of the key, as published
+     * @param verifier the verifier of the tokens signed with the key
+     */
+    record Key(String encoded, JWTVerifier verifier) {}
+
+    /**
+     * The JSON Web Key Set, as published by the Auth Service.
+     */
+    record Jwks(List<Jwk> keys) {}
+
+    /**
+     * A JSON Web Key; only RSA keys are used.
+     */
+    record Jwk(String kty, String kid, String n, String e) {}
+
+    /**
+     * Creates a client fetching the key set with plain or load-balanced requests, depending on the
+     * scheme of its URI ({@code http(s)://} or {@code lb://service-id}).
+     *
+     * @param webClientBuilder the builder of the web clients
+     * @param loadBalancer     the load balancer resolving the services registered in Eureka
+     */
+    @Autowired
+    public JwksClient(
+            WebClient.Builder webClientBuilder,
+            ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancer
+    ) {
+        this.webClient = webClientBuilder.build();
+        ReactorLoadBalancerExchangeFilterFunction filter = loadBalancer.getIfAvailable();
+        this.loadBalancedWebClient = filter == null ? webClient : webClientBuilder.clone().filter(filter).build();
+    }
+
+    /**
+     * Creates a client fetching the key set with the given web client.
+     *
+     * @param webClient the web client
+     */
+    public JwksClient(WebClient webClient) {
+        this.webClient = webClient;
+        this.loadBalancedWebClient = webClient;
+    }
+
+    /**
+     * Starts refreshing the key set in the background, right away and then at a fixed interval.
+     * An unavailable Auth Service does not prevent the gateway from starting: the error is logged
+     * and the tokens are verified with the public key file until the key set is fetched.
+     */
+    @PostConstruct
+    public void start() {
+        Gauge.builder(KEYS_METRIC, this, client -> client.current.get().keys().size())
+                .description("Public keys fetched from the JSON Web Key Set of the Auth Service")
+                .register(meterRegistry);
+        if (!enabled) return;
+        refresher = Schedulers.parallel().schedulePeriodically(
+                () -> refresh().subscribe(keySet -> {}, e -> {}),
+                0,
+                refreshInterval.toMillis(),
+                TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stops refreshing the key set.
+     */
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) refresher.dispose();
+    }
+
+    /**
+     * @return whether the tokens are verified with the key set of the Auth Service
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return whether at least one key has been fetched
+     */
+    public boolean hasKeys() {
+        return !current.get().keys().isEmpty();
+    }
+
+    /**
+     * @return the version of the key set, starting at 1 once it has been fetched, or 0 before
+     */
+    public long getVersion() {
+        return current.get().version();
+    }
+
+    /**
+     * @param keyId the ID of a key
+     * @return the verifier of the key, or null if the key is not known
+     */
+    public JWTVerifier getVerifier(String keyId) {
+        Key key = current.get().keys().get(keyId);
+        return key == null ? null : key.verifier();
+    }
+
+    /**
+     * Returns the verifier of a key that is not known yet, refreshing the key set if the key
+     * has not been looked for already and the last such refresh is old enough.
+     *
+     * @param keyId the ID of the key
+     * @return the verifier of the key, or empty if the key is still unknown
+     */
+    public Mono<JWTVerifier> fetchVerifier(String keyId) {
+        JWTVerifier verifier = getVerifier(keyId);
+        if (verifier != null) return Mono.just(verifier);
+
+        Mono<KeySet> refresh = refreshing.get();
+        if (refresh == null) {
+            long now = System.nanoTime();
+            if (now - lastUnknownKeyRefresh < minRefreshInterval.toNanos()) return Mono.empty();
+            if (requestedKeyIds.size() >= MAX_REQUESTED_KEY_IDS) requestedKeyIds.clear();
+            if (!requestedKeyIds.add(keyId)) return Mono.empty();
+            lastUnknownKeyRefresh = now;
+            refresh = refresh();
+        }
+        return refresh
+                .onErrorResume(e -> Mono.empty())
+                .mapNotNull(keySet -> getVerifier(keyId));
+    }
+
+    /**
+     * Fetches the key set, unless a fetch is already in progress, in which case its result is shared,
+     * and publishes the new verifiers if the keys have changed.
+     *
+     * @return the key set in use once the fetch is done
+     */
+    Mono<KeySet> refresh() {
+        Mono<KeySet> refresh = refreshing.get();
+        if (refresh != null) return refresh;
+
+        long start = System.nanoTime();
+        URI target = URI.create(uri);
+        boolean loadBalanced = LOAD_BALANCED_SCHEME.equals(target.getScheme());
+        WebClient client = loadBalanced ? loadBalancedWebClient : webClient;
+        String requestUri = loadBalanced ? "http" + uri.substring(LOAD_BALANCED_SCHEME.length()) : uri;
+        Mono<KeySet> fetch = client.get()
+                .uri(requestUri)
+                .retrieve()
+                .bodyToMono(Jwks.class)
+                .timeout(timeout)
+                .map(this::update)
+                .doOnSuccess(keySet -> record(start, "success"))
+                .doOnError(e -> {
+                    record(start, "failure");
+                    log.warn("Error fetching the JSON Web Key Set from {}: {}", uri, e.getMessage());
+                })
+                .doFinally(signal -> refreshing.set(null))
+                .cache();
+        if (!refreshing.compareAndSet(null, fetch)) {
+            Mono<KeySet> other = refreshing.get();
+            return other != null ? other : fetch;
+        }
+        return fetch;
+    }
+
+    /**
+     * Publishes the verifiers of a fetched key set, reusing the verifiers of the unchanged keys.
+     *
+     * @param jwks the fetched key set
+     * @return the key set in use
+     */
+    KeySet update(Jwks jwks) {
+        KeySet previous = current.get();
+        Map<String, Key> keys = new HashMap<>();
+        for (Jwk jwk : jwks.keys() == null ? List.<Jwk>of() : jwks.keys()) {
+            if (!"RSA".equals(jwk.kty()) || jwk.kid() == null || jwk.n() == null || jwk.e() == null) continue;
+            String encoded = jwk.n() + "." + jwk.e();
+            Key key = previous.keys().get(jwk.kid());
+            if (key == null || !key.encoded().equals(encoded)) {
+                try {
+                    key = new Key(encoded, verifier(jwk));
+                } catch (RuntimeException e) {
+                    log.warn("Ignoring invalid key {} of the JSON Web Key Set", jwk.kid());
+                    continue;
+                }
+            }
+            keys.put(jwk.kid(), key);
+        }
+        if (keys.equals(previous.keys())) return previous;
+
+        KeySet keySet = new KeySet(Map.copyOf(keys), previous.version() + 1);
+        current.set(keySet);
+        log.info("JSON Web Key Set loaded from {}: version {}, keys {}", uri, keySet.version(), keys.keySet());
+        return keySet;
+    }
+
+    private static JWTVerifier verifier(Jwk jwk) {
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            RSAPublicKeySpec spec = new RSAPublicKeySpec(
+                    new BigInteger(1, decoder.decode(jwk.n())),
+                    new BigInteger(1, decoder.decode(jwk.e()))
+            );
+            RSAPublicKey publicKey = (RSAPublicKey) KeyFactory.getInstance("RSA").generatePublic(spec);
+            return JWT.require(Algorithm.RSA512(publicKey, null)).withIssuer(PublicKeyLoader.ISSUER).build();
+        } catch (Exception e) {
+            throw new RuntimeException("Error loading public key " + jwk.kid());
+        }
+    }
+
+    private void record(long start, String outcome) {
+        Timer.builder(REFRESH_METRIC)
+                .description("Time to fetch the JSON Web Key Set of the Auth Service")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,84 @@
+package com.medilabo.gatewayService.security;
+
+import com.medilabo.gatewayService.config.PublicEndpointsProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Tells whether a request path is a public endpoint, with the endpoints compiled once at startup.
+ * Exact paths are looked up in a hash set. Each pattern is split into the literals between its
+ * wildcards, and a path matches when it starts with the first literal, ends with the last one and
+ * contains the others in order between them; no regular expression is involved.
+ *
+ * @see PublicEndpointsProperties
+ */
+@Component
+public class PublicEndpointMatcher {
+
+    private final Set<String> exactPaths = new HashSet<>();
+    private final String[][] patterns;
+
+    /**
+     * Compiles the configured public endpoints.
+     *
+     * @param properties the public endpoints configuration
+     */
+    @Autowired
+    public PublicEndpointMatcher(PublicEndpointsProperties properties) {
+        this(properties.getPublicEndpoints());
+    }
+
+    /**
+     * Compiles the given public endpoints.
+     *
+     * @param endpoints the exact paths and patterns of the public endpoints
+     * @throws IllegalArgumentException if an endpoint is blank
+     */
+    public PublicEndpointMatcher(Collection<String> endpoints) {
+        List<String[]> compiled = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            if (endpoint == null || endpoint.isBlank()) {
+                throw new IllegalArgumentException("Blank public endpoint");
+            }
+            if (endpoint.indexOf('*') < 0) {
+                exactPaths.add(endpoint);
+            } else {
+                compiled.add(endpoint.split("\\*+", -1));
+            }
+        }
+        patterns = compiled.toArray(new String[0][]);
+    }
+
+    /**
+     * @param path the path of the request
+     * @return true if the path is a public endpoint
+     */
+    public boolean matches(String path) {
+        if (exactPaths.contains(path)) return true;
+        for (String[] literals : patterns) {
+            if (matches(literals, path)) return true;
+        }
+        return false;
+    }
+
+    private static boolean matches(String[] literals, String path) {
+        String first = literals[0];
+        String last = literals[literals.length - 1];
+        int end = path.length() - last.length();
+        if (end < first.length() || !path.startsWith(first) || !path.endsWith(last)) return false;
+
+        int from = first.length();
+        for (int i = 1; i < literals.length - 1; i++) {
+            int found = path.indexOf(literals[i], from);
+            if (found < 0 || found + literals[i].length() > end) return false;
+            from = found + literals[i].length();
+        }
+        return true;
+    }
+}
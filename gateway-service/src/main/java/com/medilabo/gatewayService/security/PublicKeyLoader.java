@@ -0,0 +1,155 @@
+package com.medilabo.gatewayService.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Loads the public key of the Auth Service and builds the JWT verifier once for all requests.
+ * The verifier is immutable and thread-safe, so the filter only reads the current one, without
+ * any I/O or key parsing on the event loop. The key can be rotated at runtime: {@link #reload()}
+ * builds the new verifier off the request path and publishes it with a single atomic swap
+ * (see {@link PublicKeyWatcher}).
+ */
+@Slf4j
+@Component
+public class PublicKeyLoader {
+
+    static final String ISSUER = "auth-service";
+    static final String VERSION_METRIC = "gateway.jwt.public-key.version";
+    static final String RELOAD_METRIC = "gateway.jwt.public-key.reload";
+
+    @Getter
+    @Value("${jwt.public-key-path}")
+    private String publicKeyPath;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final AtomicReference<VerificationKey> current = new AtomicReference<>();
+
+    /**
+     * A public key and the verifier built from it.
+     *
+     * @param encoded  the DER encoding of the key, to detect a change of key
+     * @param verifier the verifier of the tokens signed with the matching private key
+     * @param version  the version of the key, starting at 1
+     * @param loadedAt the time the key was loaded
+     */
+    record VerificationKey(byte[] encoded, JWTVerifier verifier, long version, Instant loadedAt) {}
+
+    /**
+     * Loads the public key at startup.
+     * A missing or invalid key does not prevent the gateway from starting: the error is logged,
+     * tokens are rejected until a valid key is loaded, and the key keeps being reloaded.
+     */
+    @PostConstruct
+    public void loadKey() {
+        reload();
+        if (meterRegistry.find(VERSION_METRIC).gauge() == null) {
+            Gauge.builder(VERSION_METRIC, this, PublicKeyLoader::getVersion)
+                    .description("Version of the JWT public key in use")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Reads the public key and swaps the verifier in use if the key has changed.
+     * If the file cannot be read or the key is invalid, the error is logged and the current
+     * verifier is kept. This method performs blocking I/O and must not be called on the event loop.
+     *
+     * @return true if a new verifier has been published
+     */
+    public boolean reload() {
+        long start = System.nanoTime();
+        String outcome = "failure";
+        try {
+            RSAPublicKey publicKey = parsePemPublicKey();
+            VerificationKey previous = current.get();
+            if (previous != null && Arrays.equals(previous.encoded(), publicKey.getEncoded())) {
+                outcome = "unchanged";
+                return false;
+            }
+            JWTVerifier verifier = JWT.require(Algorithm.RSA512(publicKey, null)).withIssuer(ISSUER).build();
+            long version = previous == null ? 1 : previous.version() + 1;
+            current.set(new VerificationKey(publicKey.getEncoded(), verifier, version, Instant.now()));
+            outcome = "success";
+            log.info("JWT public key loaded from {}: version {}", publicKeyPath, version);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Error loading JWT public key, keeping version {}", getVersion());
+            return false;
+        } finally {
+            Timer.builder(RELOAD_METRIC)
+                    .description("Time to read and parse the JWT public key")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Parses the public key from the specified PEM file path.
+     *
+     * @return the parsed RSAPublicKey
+     * @throws RuntimeException if the file cannot be read or does not contain an RSA public key
+     */
+    RSAPublicKey parsePemPublicKey() {
+        try {
+            String keyContent = Files.readString(Path.of(publicKeyPath));
+            String publicKeyPEM = keyContent
+                    .replace("-----BEGIN PUBLIC KEY-----", "")
+                    .replace("-----END PUBLIC KEY-----", "")
+                    .replaceAll("\\s", "");
+            byte[] encoded = Base64.getDecoder().decode(publicKeyPEM);
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            X509EncodedKeySpec keySpec = new X509EncodedKeySpec(encoded);
+            return (RSAPublicKey) keyFactory.generatePublic(keySpec);
+        } catch (
+                IOException | NoSuchAlgorithmException | InvalidKeySpecException | IllegalArgumentException e
+        ) {
+            log.error("Error loading public key from path: {}", publicKeyPath, e);
+            throw new RuntimeException("Error loading public key");
+        }
+    }
+
+    /**
+     * @return the verifier of the current key, or null if no valid key has been loaded
+     */
+    public JWTVerifier getVerifier() {
+        VerificationKey key = current.get();
+        return key == null ? null : key.verifier();
+    }
+
+    /**
+     * @return the version of the current key, starting at 1, or 0 if no valid key has been loaded
+     */
+    public long getVersion() {
+        VerificationKey key = current.get();
+        return key == null ? 0L : key.version();
+    }
+}
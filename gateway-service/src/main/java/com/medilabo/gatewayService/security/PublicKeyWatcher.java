@@ -0,0 +1,124 @@
+package com.medilabo.gatewayService.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the JWT public key when it is rotated, on a dedicated thread so that the event loop never
+ * reads the key. The directory of the key is watched, so that a file replaced rather than written in
+ * place is also detected, and changes are debounced into a single reload. The key is also reloaded at a
+ * fixed interval, for the mounts whose changes are not reported to the watch service (e.g. Docker or
+ * Kubernetes secrets updated through symbolic links); such a reload is a no-op when the key is unchanged.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PublicKeyWatcher {
+
+    private final PublicKeyLoader keyLoader;
+
+    @Value("${jwt.public-key-reload-interval:PT5M}")
+    private Duration reloadInterval = Duration.ofMinutes(5);
+
+    @Value("${jwt.public-key-reload-debounce-ms:250}")
+    private long debounceMillis = 250;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Starts watching the public key. If its directory cannot be watched, the key is only
+     * reloaded at the fixed interval.
+     */
+    @PostConstruct
+    public void start() {
+        Path file = Path.of(keyLoader.getPublicKeyPath()).toAbsolutePath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(
+                    watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY
+            );
+            log.info("Watching JWT public key {}", file);
+        } catch (IOException e) {
+            log.warn("Cannot watch JWT public key {}, reloading it every {}", file, reloadInterval);
+            close();
+        }
+
+        WatchService service = watchService;
+        thread = Thread.ofPlatform()
+                .name("jwt-public-key-watcher")
+                .daemon()
+                .start(() -> watch(service, file.getFileName()));
+    }
+
+    /**
+     * Stops watching the public key.
+     */
+    @PreDestroy
+    public void stop() {
+        close();
+        if (thread != null) thread.interrupt();
+    }
+
+    private void watch(WatchService service, Path fileName) {
+        try {
+            while (true) {
+                boolean changed = true;
+                if (service != null) {
+                    WatchKey key = service.poll(reloadInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (key != null) {
+                        changed = concerns(key, fileName);
+                        // Drain the events that follow quickly, e.g. truncate then write, into a single reload.
+                        WatchKey next;
+                        while ((next = service.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                            changed |= concerns(next, fileName);
+                        }
+                    }
+                } else {
+                    Thread.sleep(reloadInterval.toMillis());
+                }
+                if (changed) keyLoader.reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            log.debug("JWT public key watcher stopped");
+        }
+    }
+
+    private void close() {
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("Error closing JWT public key watcher", e);
+        }
+        watchService = null;
+    }
+
+    private static boolean concerns(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -0,0 +1,96 @@
+package com.medilabo.gatewayService.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the cryptographic work of the gateway, such as the RSA signature check of a token that is not
+ * cached yet, on a dedicated pool of threads rather than on the Netty event loop, where it would delay
+ * every other connection served by the same loop.
+ * The pool has one thread per core unless configured otherwise, and a bounded queue: when it is full,
+ * the work is rejected with a {@link RejectedExecutionException} instead of piling up.
+ * The offload can be disabled ({@code jwt.verification.offload}) to compare the latency of the event loops
+ * (see {@link EventLoopLatencyMonitor}) with and without it.
+ */
+@Slf4j
+@Component
+public class VerificationScheduler {
+
+    static final String WAIT_METRIC = "gateway.jwt.verification.wait";
+    static final String REJECTED_METRIC = "gateway.jwt.verification.rejected";
+
+    @Value("${jwt.verification.offload:true}")
+    private boolean offload = true;
+
+    @Value("${jwt.verification.threads:0}")
+    private int threads = 0;
+
+    @Value("${jwt.verification.queue-capacity:10000}")
+    private int queueCapacity = 10_000;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Scheduler scheduler;
+    private Timer wait;
+    private Counter rejected;
+
+    /**
+     * Starts the pool of verification threads.
+     */
+    @PostConstruct
+    public void start() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        scheduler = Schedulers.newBoundedElastic(poolSize, queueCapacity, "jwt-verification", 60, true);
+        wait = Timer.builder(WAIT_METRIC)
+                .description("Time spent by the cryptographic work waiting for a verification thread")
+                .register(meterRegistry);
+        rejected = Counter.builder(REJECTED_METRIC)
+                .description("Cryptographic work rejected because the verification queue was full")
+                .register(meterRegistry);
+        log.info("Token verification {} ({} threads)", offload ? "offloaded" : "inline", poolSize);
+    }
+
+    /**
+     * Stops the pool of verification threads.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduler.dispose();
+    }
+
+    /**
+     * Runs a task on a verification thread, or on the subscribing thread if the offload is disabled.
+     * The rest of the pipeline then continues on that thread.
+     *
+     * @param task the cryptographic work
+     * @param <T>  the type of the result
+     * @return a Mono of the result of the task, failing with a {@link RejectedExecutionException}
+     * if the verification queue is full
+     */
+    public <T> Mono<T> run(Callable<T> task) {
+        if (!offload) return Mono.fromCallable(task);
+        return Mono.defer(() -> {
+            long submitted = System.nanoTime();
+            return Mono.fromCallable(() -> {
+                wait.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+                return task.call();
+            }).subscribeOn(scheduler);
+        }).doOnError(RejectedExecutionException.class, e -> rejected.increment());
+    }
+}
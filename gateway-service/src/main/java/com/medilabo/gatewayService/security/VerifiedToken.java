@@ -0,0 +1,21 @@
+package com.medilabo.gatewayService.security;
+
+/**
+ * The claims of a token whose signature has been verified, as kept by the {@link VerifiedTokenCache}.
+ *
+ * @param subject     the subject of the token
+ * @param role        the role claim of the token
+ * @param expiresAt   the expiry of the token, in epoch milliseconds, or {@link Long#MAX_VALUE} if it has none
+ * @param keyVersion  the version of the public key the token was verified with
+ * @param cachedUntil the time after which the token must be verified again, in epoch milliseconds
+ */
+public record VerifiedToken(String subject, String role, long expiresAt, long keyVersion, long cachedUntil) {
+
+    /**
+     * @param now the current time, in epoch milliseconds
+     * @return true if the token itself has expired
+     */
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+}
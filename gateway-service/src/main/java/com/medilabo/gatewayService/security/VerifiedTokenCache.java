@@ -0,0 +1,190 @@
+package com.medilabo.gatewayService.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the tokens whose signature has been verified, so that the many requests of a page load
+ * with the same cookie only pay for one RSA signature check.
+ * Tokens are keyed by their SHA-256 hash, so the cache never holds a usable credential, and are kept
+ * until their expiry, or at most for a maximum time to live. An entry is only valid for the version
+ * of the public key it was verified with, so that a rotated key is enforced at once.
+ * The cache is bounded: it is split into segments, each evicting its least recently used tokens,
+ * so that concurrent event-loop threads rarely contend for the same lock.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    static final String REQUESTS_METRIC = "gateway.token-cache.requests";
+    static final String EVICTIONS_METRIC = "gateway.token-cache.evictions";
+    static final String SIZE_METRIC = "gateway.token-cache.size";
+
+    private static final int SEGMENTS = 16;
+
+    @Value("${jwt.token-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${jwt.token-cache.max-size:10000}")
+    private int maxSize = 10_000;
+
+    @Value("${jwt.token-cache.max-ttl:PT1H}")
+    private Duration maxTtl = Duration.ofHours(1);
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Segment[] segments;
+    private Counter hits;
+    private Counter misses;
+    private Counter expired;
+    private Counter evictions;
+
+    /**
+     * Least recently used tokens of one segment of the cache.
+     */
+    private final class Segment extends LinkedHashMap<String, VerifiedToken> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            if (size() <= capacity) return false;
+            evictions.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Creates the segments of the cache and registers its metrics.
+     */
+    @PostConstruct
+    public void start() {
+        segments = new Segment[SEGMENTS];
+        int capacity = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(capacity);
+        }
+        hits = requests("hit");
+        misses = requests("miss");
+        expired = requests("expired");
+        evictions = Counter.builder(EVICTIONS_METRIC)
+                .description("Verified tokens evicted from the cache to respect its maximum size")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_METRIC, this, VerifiedTokenCache::size)
+                .description("Tokens in the verified-token cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached claims of a token. A token whose expiry has passed is returned once more,
+     * so that the caller rejects it without checking its signature, and is then removed.
+     *
+     * @param token      the token
+     * @param keyVersion the version of the public key in use
+     * @return the claims of the token, or null if it must be verified
+     */
+    public VerifiedToken get(String token, long keyVersion) {
+        if (!enabled) return null;
+        String key = hash(token);
+        Segment segment = segment(key);
+        long now = System.currentTimeMillis();
+        VerifiedToken verified;
+        synchronized (segment) {
+            verified = segment.get(key);
+            if (verified != null && (verified.keyVersion() != keyVersion || now >= verified.cachedUntil())) {
+                segment.remove(key);
+            }
+        }
+        if (verified != null && verified.keyVersion() == keyVersion && verified.isExpired(now)) {
+            expired.increment();
+            return verified;
+        }
+        if (verified == null || verified.keyVersion() != keyVersion || now >= verified.cachedUntil()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return verified;
+    }
+
+    /**
+     * Caches the claims of a token that has just been verified.
+     *
+     * @param token      the token
+     * @param jwt        the token, decoded by the verifier
+     * @param keyVersion the version of the public key the token was verified with
+     * @return the cached claims
+     */
+    public VerifiedToken put(String token, DecodedJWT jwt, long keyVersion) {
+        long expiresAt = jwt.getExpiresAt() == null ? Long.MAX_VALUE : jwt.getExpiresAtAsInstant().toEpochMilli();
+        long cachedUntil = Math.min(expiresAt, System.currentTimeMillis() + maxTtl.toMillis());
+        VerifiedToken verified = new VerifiedToken(
+                jwt.getSubject(),
+                jwt.getClaim("role").asString(),
+                expiresAt,
+                keyVersion,
+                cachedUntil
+        );
+        if (!enabled) return verified;
+
+        String key = hash(token);
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, verified);
+        }
+        return verified;
+    }
+
+    /**
+     * @return the number of cached tokens
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment segment(String key) {
+        return segments[key.hashCode() & (SEGMENTS - 1)];
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Lookups in the verified-token cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
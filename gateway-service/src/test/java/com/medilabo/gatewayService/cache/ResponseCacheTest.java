@@ -0,0 +1,119 @@
+package com.medilabo.gatewayService.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+class ResponseCacheTest {
+
+  private static final List<String> PREFIXES = List.of("/api/patients", "/api/notes");
+
+  private ResponseCache responseCache;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    responseCache = new ResponseCache();
+    ReflectionTestUtils.setField(responseCache, "meterRegistry", meterRegistry);
+    responseCache.start();
+  }
+
+  @Test
+  void get_shouldReturnCachedResponse() {
+    CachedResponse response = response(100, Duration.ofMinutes(1));
+
+    assertNull(responseCache.get("key"));
+    assertTrue(responseCache.put("key", response));
+
+    assertSame(response, responseCache.get("key"));
+    assertEquals(0.5, meterRegistry.get(ResponseCache.HIT_RATIO_METRIC).gauge().value());
+    assertEquals(response.weight(), responseCache.size());
+  }
+
+  @Test
+  void get_shouldMissAfterTtl() {
+    responseCache.put("key", response(100, Duration.ZERO));
+
+    assertNull(responseCache.get("key"));
+    assertEquals(0, responseCache.entries());
+  }
+
+  @Test
+  void invalidate_shouldDropResponsesUnderWrittenPrefix() {
+    responseCache.put("patients", response(100, Duration.ofMinutes(1)));
+
+    responseCache.invalidate("/api/patientsearch");
+    assertNotNull(responseCache.get("patients"));
+
+    responseCache.invalidate("/api/notes/42");
+    assertNull(responseCache.get("patients"));
+  }
+
+  @Test
+  void put_shouldRejectResponseInvalidatedWhileForwarded() {
+    long[] generations = responseCache.generations(PREFIXES);
+    responseCache.invalidate("/api/patients/42");
+
+    assertFalse(responseCache.put("key", response(100, Duration.ofMinutes(1), generations)));
+  }
+
+  @Test
+  void put_shouldEvictLeastRecentlyUsedResponsesAboveMaxSize() {
+    ReflectionTestUtils.setField(responseCache, "maxSize", DataSize.ofKilobytes(10));
+    for (int i = 0; i < 10; i++) {
+      responseCache.put("key" + i, response(2_000, Duration.ofMinutes(1)));
+      responseCache.get("key0");
+    }
+
+    assertTrue(responseCache.size() <= 10 * 1024);
+    assertNotNull(responseCache.get("key0"));
+    assertNull(responseCache.get("key1"));
+    assertEquals(10 - responseCache.entries(), meterRegistry.get(ResponseCache.EVICTIONS_METRIC).counter().count());
+  }
+
+  @Test
+  void put_shouldRejectResponseAboveMaxEntrySize() {
+    ReflectionTestUtils.setField(responseCache, "maxEntrySize", DataSize.ofKilobytes(1));
+
+    assertFalse(responseCache.put("key", response(2_000, Duration.ofMinutes(1))));
+    assertEquals(0, responseCache.entries());
+  }
+
+  @Test
+  void isUnder_shouldCompareWholeSegments() {
+    assertTrue(ResponseCache.isUnder("/api/patients", "/api/patients"));
+    assertTrue(ResponseCache.isUnder("/api/patients/42", "/api/patients"));
+    assertTrue(ResponseCache.isUnder("/api/patients/42", "/api/patients/"));
+    assertFalse(ResponseCache.isUnder("/api/patientsearch", "/api/patients"));
+    assertFalse(ResponseCache.isUnder("/api", "/api/patients"));
+  }
+
+  private CachedResponse response(int length, Duration ttl) {
+    return response(length, ttl, responseCache.generations(PREFIXES));
+  }
+
+  private static CachedResponse response(int length, Duration ttl, long[] generations) {
+    return new CachedResponse(
+      HttpStatus.OK,
+      HttpHeaders.readOnlyHttpHeaders(new HttpHeaders()),
+      new byte[length],
+      PREFIXES.toArray(new String[0]),
+      generations,
+      System.nanoTime() + ttl.toNanos()
+    );
+  }
+}
@@ -2,7 +2,6 @@ package com.medilabo.gatewayService.filter;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
@@ -12,16 +11,30 @@ import static org.mockito.Mockito.when;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.medilabo.gatewayService.config.PublicEndpointsProperties;
 import com.medilabo.gatewayService.constant.SecurityConstants;
+import com.medilabo.gatewayService.security.JwksClient;
+import com.medilabo.gatewayService.security.PublicEndpointMatcher;
+import com.medilabo.gatewayService.security.PublicKeyLoader;
+import com.medilabo.gatewayService.security.VerificationScheduler;
+import com.medilabo.gatewayService.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -32,7 +45,13 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
 import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 class JwtFilterTest {
@@ -42,6 +61,21 @@ class JwtFilterTest {
   private RSAPublicKey publicKey;
   private RSAPrivateKey privateKey;
   private final String authCookieName = "auth-token";
+  private PublicKeyLoader keyLoader;
+  private VerifiedTokenCache tokenCache;
+  private VerificationScheduler verificationScheduler;
+  private JwksClient jwksClient;
+  private final PublicEndpointMatcher publicEndpoints = new PublicEndpointMatcher(new PublicEndpointsProperties());
+
+  @BeforeAll
+  static void installBlockHound() {
+    BlockHound.install();
+  }
+
+  @AfterEach
+  void tearDown() {
+    verificationScheduler.stop();
+  }
 
   @BeforeEach
   void setUp() throws Exception {
@@ -59,10 +93,22 @@ class JwtFilterTest {
     Files.writeString(tempPubKey, pubKeyPEM);
     publicKeyPath = tempPubKey.toString();
 
-    jwtFilter = new JwtFilter();
-    Field pubKeyField = JwtFilter.class.getDeclaredField("publicKeyPath");
-    pubKeyField.setAccessible(true);
-    pubKeyField.set(jwtFilter, publicKeyPath);
+    keyLoader = new PublicKeyLoader();
+    ReflectionTestUtils.setField(keyLoader, "publicKeyPath", publicKeyPath);
+    keyLoader.loadKey();
+
+    tokenCache = new VerifiedTokenCache();
+    ReflectionTestUtils.setField(tokenCache, "meterRegistry", new SimpleMeterRegistry());
+    tokenCache.start();
+
+    verificationScheduler = new VerificationScheduler();
+    ReflectionTestUtils.setField(verificationScheduler, "meterRegistry", new SimpleMeterRegistry());
+    verificationScheduler.start();
+
+    jwksClient = new JwksClient(WebClient.create());
+    ReflectionTestUtils.setField(jwksClient, "meterRegistry", new SimpleMeterRegistry());
+
+    jwtFilter = new JwtFilter(keyLoader, tokenCache, publicEndpoints, verificationScheduler, jwksClient);
 
     Field cookieField = JwtFilter.class.getDeclaredField("authCookieName");
     cookieField.setAccessible(true);
@@ -191,6 +237,158 @@ class JwtFilterTest {
     verify(chain, times(1)).filter(any());
   }
 
+  @Test
+  void filter_shouldVerifyTokenWithKeyOfItsKeyId() throws Exception {
+    KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+    keyGen.initialize(1024);
+    KeyPair rotated = keyGen.generateKeyPair();
+    RSAPublicKey rotatedPublicKey = (RSAPublicKey) rotated.getPublic();
+    String jwks = "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"rotated\",\"n\":\"" +
+      Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned(rotatedPublicKey.getModulus())) +
+      "\",\"e\":\"" +
+      Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned(rotatedPublicKey.getPublicExponent())) +
+      "\"}]}";
+    AtomicInteger fetches = new AtomicInteger();
+    jwksClient = new JwksClient(
+      WebClient.builder()
+        .exchangeFunction(request -> {
+          fetches.incrementAndGet();
+          return Mono.just(
+            ClientResponse.create(HttpStatus.OK)
+              .header(HttpHeaders.CONTENT_TYPE, "application/json")
+              .body(jwks)
+              .build()
+          );
+        })
+        .build()
+    );
+    ReflectionTestUtils.setField(jwksClient, "meterRegistry", new SimpleMeterRegistry());
+    jwtFilter = new JwtFilter(keyLoader, tokenCache, publicEndpoints, verificationScheduler, jwksClient);
+    ReflectionTestUtils.setField(jwtFilter, "authCookieName", authCookieName);
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+    when(chain.filter(any())).thenReturn(Mono.empty());
+
+    String rotatedToken = JWT.create()
+      .withKeyId("rotated")
+      .withIssuer("auth-service")
+      .withSubject("testuser")
+      .withClaim("role", "USER")
+      .sign(Algorithm.RSA512(rotatedPublicKey, (RSAPrivateKey) rotated.getPrivate()));
+    String fileKeyToken = JWT.create()
+      .withKeyId("previous")
+      .withIssuer("auth-service")
+      .withSubject("otheruser")
+      .withClaim("role", "USER")
+      .sign(Algorithm.RSA512(publicKey, privateKey));
+    for (String token : new String[] { rotatedToken, rotatedToken, fileKeyToken }) {
+      MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/private").header("Authorization", "Bearer " + token)
+      );
+      StepVerifier.create(jwtFilter.filter(exchange, chain)).verifyComplete();
+      assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    verify(chain, times(3)).filter(any());
+    assertEquals(1, fetches.get());
+  }
+
+  @Test
+  void filter_shouldVerifySignatureOncePerToken() {
+    String token = JWT.create()
+      .withIssuer("auth-service")
+      .withSubject("testuser")
+      .withClaim("role", "USER")
+      .withExpiresAt(Instant.now().plusSeconds(3600))
+      .sign(Algorithm.RSA512(publicKey, privateKey));
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+    when(chain.filter(any())).thenReturn(Mono.empty());
+
+    for (int i = 0; i < 3; i++) {
+      MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/private").header("Authorization", "Bearer " + token)
+      );
+      StepVerifier.create(jwtFilter.filter(exchange, chain)).verifyComplete();
+    }
+
+    verify(chain, times(3)).filter(any());
+    assertEquals(1, tokenCache.size());
+  }
+
+  @Test
+  void filter_shouldRedirectIfCachedTokenExpired() {
+    String token = JWT.create()
+      .withIssuer("auth-service")
+      .withSubject("testuser")
+      .withClaim("role", "USER")
+      .withExpiresAt(Instant.now().minusSeconds(1))
+      .sign(Algorithm.RSA512(publicKey, privateKey));
+    tokenCache.put(token, JWT.decode(token), 1);
+
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+      MockServerHttpRequest.get("/private").header("Authorization", "Bearer " + token)
+    );
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+
+    StepVerifier.create(jwtFilter.filter(exchange, chain)).verifyComplete();
+
+    verify(chain, times(0)).filter(any());
+    assertEquals(
+      "/login#error=invalid_token",
+      exchange.getResponse().getHeaders().getFirst(HttpHeaders.LOCATION)
+    );
+  }
+
+  @Test
+  void filter_shouldNotBlockEventLoop() {
+    String token = JWT.create()
+      .withIssuer("auth-service")
+      .withSubject("testuser")
+      .withClaim("role", "USER")
+      .sign(Algorithm.RSA512(publicKey, privateKey));
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+    when(chain.filter(any())).thenReturn(Mono.empty());
+
+    // The first request verifies the token, the second one finds it in the cache.
+    for (int i = 0; i < 2; i++) {
+      MockServerWebExchange exchange = MockServerWebExchange.from(
+        MockServerHttpRequest.get("/private").header("Authorization", "Bearer " + token)
+      );
+      StepVerifier.create(jwtFilter.filter(exchange, chain).subscribeOn(Schedulers.parallel()))
+        .verifyComplete();
+    }
+
+    verify(chain, times(2)).filter(any());
+  }
+
+  @Test
+  void blockHound_shouldDetectBlockingCallOnEventLoop() {
+    StepVerifier.create(
+      Mono.fromCallable(() -> {
+        Thread.sleep(1);
+        return "";
+      }).subscribeOn(Schedulers.parallel())
+    )
+      .expectError(BlockingOperationError.class)
+      .verify();
+  }
+
+  @Test
+  void filter_shouldAnswerServiceUnavailableIfVerificationQueueFull() {
+    VerificationScheduler fullScheduler = mock(VerificationScheduler.class);
+    when(fullScheduler.run(any())).thenReturn(Mono.error(new RejectedExecutionException("full")));
+    jwtFilter = new JwtFilter(keyLoader, tokenCache, publicEndpoints, fullScheduler, jwksClient);
+
+    MockServerWebExchange exchange = MockServerWebExchange.from(
+      MockServerHttpRequest.get("/private").header("Authorization", "Bearer some.token.value")
+    );
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+
+    StepVerifier.create(jwtFilter.filter(exchange, chain)).verifyComplete();
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+    verify(chain, times(0)).filter(any());
+  }
+
   @Test
   void extractToken_shouldReturnTokenFromHeader() throws Exception {
     String token = "headerToken";
@@ -242,40 +440,31 @@ class JwtFilterTest {
   }
 
   @Test
-  void parsePemPublicKey_shouldThrowIfFileMissing() throws Exception {
-    Field pubKeyField = JwtFilter.class.getDeclaredField("publicKeyPath");
-    pubKeyField.setAccessible(true);
-    pubKeyField.set(jwtFilter, "/non/existent/file.pem");
-
-    Method parsePemPublicKey =
-      JwtFilter.class.getDeclaredMethod("parsePemPublicKey");
-    parsePemPublicKey.setAccessible(true);
-
-    InvocationTargetException ex = assertThrows(
-      InvocationTargetException.class,
-      () -> parsePemPublicKey.invoke(jwtFilter)
-    );
-    assertTrue(ex.getCause().getMessage().contains("Error loading public key"));
-  }
+  void filter_shouldFailIfNoPublicKeyLoaded() {
+    PublicKeyLoader keyLoader = new PublicKeyLoader();
+    ReflectionTestUtils.setField(keyLoader, "publicKeyPath", "/non/existent/file.pem");
+    keyLoader.loadKey();
+    tokenCache = new VerifiedTokenCache();
+    ReflectionTestUtils.setField(tokenCache, "meterRegistry", new SimpleMeterRegistry());
+    tokenCache.start();
 
-  @Test
-  void parsePemPublicKey_shouldThrowIfKeyInvalid() throws Exception {
-    Path invalidKey = Files.createTempFile("jwt-test-invalid", ".pem");
-    Files.writeString(invalidKey, "not a valid key");
-    Field pubKeyField = JwtFilter.class.getDeclaredField("publicKeyPath");
-    pubKeyField.setAccessible(true);
-    pubKeyField.set(jwtFilter, invalidKey.toString());
-
-    Method parsePemPublicKey =
-      JwtFilter.class.getDeclaredMethod("parsePemPublicKey");
-    parsePemPublicKey.setAccessible(true);
-
-    InvocationTargetException ex = assertThrows(
-      InvocationTargetException.class,
-      () -> parsePemPublicKey.invoke(jwtFilter)
-    );
-    assertTrue(ex.getCause().getMessage().contains("Error loading public key"));
+    jwtFilter = new JwtFilter(keyLoader, tokenCache, publicEndpoints, verificationScheduler, jwksClient);
+    ReflectionTestUtils.setField(jwtFilter, "authCookieName", authCookieName);
+
+    MockServerHttpRequest request = MockServerHttpRequest.get("/private")
+      .header("Authorization", "Bearer some.token.value")
+      .build();
+    MockServerWebExchange exchange = MockServerWebExchange.from(request);
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+
+    StepVerifier.create(jwtFilter.filter(exchange, chain))
+      .expectErrorMessage("Error loading public key")
+      .verify();
+    verify(chain, times(0)).filter(any());
+  }
 
-    Files.deleteIfExists(invalidKey);
+  private static byte[] unsigned(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    return bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
   }
 }
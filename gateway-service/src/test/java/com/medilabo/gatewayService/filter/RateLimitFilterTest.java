@@ -0,0 +1,186 @@
+package com.medilabo.gatewayService.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import com.medilabo.gatewayService.config.PublicEndpointsProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties.Limit;
+import com.medilabo.gatewayService.config.RateLimitProperties.RouteLimits;
+import com.medilabo.gatewayService.ratelimit.RateLimiter;
+import com.medilabo.gatewayService.security.JwksClient;
+import com.medilabo.gatewayService.security.PublicEndpointMatcher;
+import com.medilabo.gatewayService.security.PublicKeyLoader;
+import com.medilabo.gatewayService.security.VerificationScheduler;
+import com.medilabo.gatewayService.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+class RateLimitFilterTest {
+
+  private RateLimitProperties properties;
+  private RateLimiter rateLimiter;
+  private RateLimitFilter filter;
+  private PrincipalRateLimitFilter principalFilter;
+  private SimpleMeterRegistry meterRegistry;
+  private final AtomicInteger forwarded = new AtomicInteger();
+  private final GatewayFilterChain chain = exchange -> Mono.fromRunnable(forwarded::incrementAndGet);
+
+  @BeforeEach
+  void setUp() {
+    properties = new RateLimitProperties();
+    properties.getDefaults().setIp(limit(1000, 1000));
+    RouteLimits login = new RouteLimits();
+    login.setIp(limit(1, 2));
+    properties.getRoutes().put("login", login);
+    RouteLimits patients = new RouteLimits();
+    patients.setPrincipal(limit(1, 1));
+    properties.getRoutes().put("patient-service", patients);
+
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimiter = new RateLimiter(properties);
+    ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+    rateLimiter.start();
+    filter = new RateLimitFilter(properties, rateLimiter);
+    ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+    principalFilter = new PrincipalRateLimitFilter(properties, rateLimiter);
+    ReflectionTestUtils.setField(principalFilter, "meterRegistry", meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    rateLimiter.stop();
+  }
+
+  @Test
+  void filter_shouldRejectAboveIpLimitOfRoute() {
+    assertNull(send("login", "10.0.0.1", null).getResponse().getStatusCode());
+    assertNull(send("login", "10.0.0.1", null).getResponse().getStatusCode());
+    MockServerWebExchange rejected = send("login", "10.0.0.1", null);
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    assertNull(send("login", "10.0.0.2", null).getResponse().getStatusCode());
+    assertNull(send("frontend-service", "10.0.0.1", null).getResponse().getStatusCode());
+    assertEquals(4, forwarded.get());
+    assertEquals(1, meterRegistry.get(RateLimitFilter.REJECTED_METRIC).tag("limit", "ip").counter().count());
+  }
+
+  @Test
+  void filter_shouldRejectAbovePrincipalLimitWhateverTheAddress() {
+    assertNull(send("patient-service", "10.0.0.1", "alice").getResponse().getStatusCode());
+    MockServerWebExchange rejected = send("patient-service", "10.0.0.2", "alice");
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    assertNull(send("patient-service", "10.0.0.1", "bob").getResponse().getStatusCode());
+    assertNull(send("patient-service", "10.0.0.1", null).getResponse().getStatusCode());
+    assertEquals(3, forwarded.get());
+  }
+
+  @Test
+  void filter_shouldForwardEverythingWhenDisabled() {
+    properties.setEnabled(false);
+
+    for (int i = 0; i < 5; i++) {
+      assertNull(send("login", "10.0.0.1", null).getResponse().getStatusCode());
+    }
+    assertEquals(5, forwarded.get());
+  }
+
+  @Test
+  void filter_shouldRejectAboveIpLimitBeforeVerifyingToken() {
+    JWTVerifier verifier = JWT.require(Algorithm.HMAC256("secret")).build();
+    PublicKeyLoader keyLoader = mock(PublicKeyLoader.class);
+    when(keyLoader.getVerifier()).thenReturn(verifier);
+    VerificationScheduler verificationScheduler = mock(VerificationScheduler.class);
+    when(verificationScheduler.run(any())).thenAnswer(invocation -> Mono.fromCallable(invocation.getArgument(0)));
+    JwtFilter jwtFilter = new JwtFilter(
+      keyLoader,
+      mock(VerifiedTokenCache.class),
+      new PublicEndpointMatcher(new PublicEndpointsProperties()),
+      verificationScheduler,
+      mock(JwksClient.class)
+    );
+    ReflectionTestUtils.setField(jwtFilter, "authCookieName", "auth-token");
+    List<GlobalFilter> filters = new ArrayList<>(List.of(principalFilter, jwtFilter, filter));
+    filters.sort(Comparator.comparingInt(globalFilter -> ((Ordered) globalFilter).getOrder()));
+
+    for (int i = 0; i < 2; i++) {
+      MockServerWebExchange invalid = exchange("login", "10.0.0.1", "invalid-token");
+      apply(filters, invalid).block();
+      assertEquals(HttpStatus.FOUND, invalid.getResponse().getStatusCode());
+    }
+    MockServerWebExchange rejected = exchange("login", "10.0.0.1", "invalid-token");
+    apply(filters, rejected).block();
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+    verify(verificationScheduler, times(2)).run(any());
+    assertEquals(0, forwarded.get());
+  }
+
+  private Mono<Void> apply(List<GlobalFilter> filters, ServerWebExchange exchange) {
+    if (filters.isEmpty()) return chain.filter(exchange);
+    return filters.get(0).filter(exchange, next -> apply(filters.subList(1, filters.size()), next));
+  }
+
+  private MockServerWebExchange exchange(String routeId, String ip, String token) {
+    MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/patients")
+      .remoteAddress(new InetSocketAddress(ip, 40000));
+    if (token != null) request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    MockServerWebExchange exchange = MockServerWebExchange.from(request);
+    exchange.getAttributes().put(
+      ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+      Route.async().id(routeId).uri(URI.create("http://localhost")).predicate(e -> true).build()
+    );
+    return exchange;
+  }
+
+  private MockServerWebExchange send(String routeId, String ip, String principal) {
+    MockServerWebExchange exchange = exchange(routeId, ip, null);
+    Mono<Void> result = apply(List.of(filter, principalFilter), exchange);
+    if (principal != null) {
+      result = result.contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+        new UsernamePasswordAuthenticationToken(principal, null, List.of())
+      ));
+    }
+    result.block();
+    return exchange;
+  }
+
+  private static Limit limit(double replenishRate, int burstCapacity) {
+    Limit limit = new Limit();
+    limit.setReplenishRate(replenishRate);
+    limit.setBurstCapacity(burstCapacity);
+    return limit;
+  }
+}
@@ -0,0 +1,154 @@
+package com.medilabo.gatewayService.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.medilabo.gatewayService.cache.ResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+  private ResponseCache responseCache;
+  private GatewayFilter filter;
+  private final AtomicInteger forwarded = new AtomicInteger();
+  private HttpStatus backendStatus = HttpStatus.OK;
+
+  private final GatewayFilterChain backend = exchange -> {
+    int call = forwarded.incrementAndGet();
+    ServerHttpResponse response = exchange.getResponse();
+    response.setStatusCode(backendStatus);
+    response.getHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+    byte[] body = ("{\"call\":" + call + "}").getBytes(StandardCharsets.UTF_8);
+    return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+  };
+
+  @BeforeEach
+  void setUp() {
+    responseCache = new ResponseCache();
+    ReflectionTestUtils.setField(responseCache, "meterRegistry", new SimpleMeterRegistry());
+    responseCache.start();
+    ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+    config.setInvalidatedBy(List.of("/api/notes"));
+    filter = new ResponseCacheGatewayFilterFactory(responseCache).apply(config);
+  }
+
+  @Test
+  void filter_shouldServeRepeatedGetFromCache() {
+    MockServerWebExchange first = get("/api/patients/42?full=true", "alice");
+    MockServerWebExchange second = get("/api/patients/42?full=true", "alice");
+
+    assertEquals("{\"call\":1}", first.getResponse().getBodyAsString().block());
+    assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+    assertEquals("{\"call\":1}", second.getResponse().getBodyAsString().block());
+    assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+    assertEquals("application/json", second.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+    assertEquals(1, forwarded.get());
+  }
+
+  @Test
+  void filter_shouldKeyByPrincipalAndQuery() {
+    get("/api/patients/42", "alice");
+    get("/api/patients/42", "bob");
+    get("/api/patients/42?page=1", "alice");
+
+    assertEquals(3, forwarded.get());
+  }
+
+  @Test
+  void filter_shouldForwardAfterWriteUnderPrefix() {
+    get("/api/patients/42", "alice");
+    responseCache.invalidate("/api/notes/7");
+    MockServerWebExchange after = get("/api/patients/42", "alice");
+
+    assertEquals("{\"call\":2}", after.getResponse().getBodyAsString().block());
+  }
+
+  @Test
+  void filter_shouldNotCacheErrors() {
+    backendStatus = HttpStatus.NOT_FOUND;
+    get("/api/patients/42", "alice");
+    get("/api/patients/42", "alice");
+
+    assertEquals(2, forwarded.get());
+  }
+
+  @Test
+  void filter_shouldPassThroughChunkedResponseLargerThanMaxEntrySize() {
+    ReflectionTestUtils.setField(responseCache, "maxEntrySize", DataSize.ofBytes(16));
+    GatewayFilterChain chunkedBackend = exchange -> {
+      forwarded.incrementAndGet();
+      ServerHttpResponse response = exchange.getResponse();
+      response.setStatusCode(HttpStatus.OK);
+      response.getHeaders().set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+      return response.writeWith(Flux.range(0, 10).map(i ->
+        response.bufferFactory().wrap(("chunk" + i + ";").getBytes(StandardCharsets.UTF_8))
+      ));
+    };
+
+    MockServerWebExchange first = get("/api/patients", "alice", chunkedBackend);
+    MockServerWebExchange second = get("/api/patients", "alice", chunkedBackend);
+
+    assertEquals(-1, first.getResponse().getHeaders().getContentLength());
+    assertTrue(first.getResponse().getBodyAsString().block().endsWith("chunk9;"));
+    assertEquals("MISS", second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_HEADER));
+    assertEquals(2, forwarded.get());
+  }
+
+  @Test
+  void filter_shouldCacheChunkedResponseWithinMaxEntrySize() {
+    GatewayFilterChain chunkedBackend = exchange -> {
+      forwarded.incrementAndGet();
+      ServerHttpResponse response = exchange.getResponse();
+      response.setStatusCode(HttpStatus.OK);
+      return response.writeWith(Flux.just("[1,", "2]").map(chunk ->
+        response.bufferFactory().wrap(chunk.getBytes(StandardCharsets.UTF_8))
+      ));
+    };
+
+    get("/api/patients", "alice", chunkedBackend);
+    MockServerWebExchange second = get("/api/patients", "alice", chunkedBackend);
+
+    assertEquals("[1,2]", second.getResponse().getBodyAsString().block());
+    assertEquals(1, forwarded.get());
+  }
+
+  @Test
+  void prefixes_shouldTakeFirstSegmentsOfPath() {
+    ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+
+    assertEquals(List.of("/api/patients"), ResponseCacheGatewayFilterFactory.prefixes("/api/patients/42/notes", config));
+    assertEquals(List.of("/api/patients"), ResponseCacheGatewayFilterFactory.prefixes("/api/patients", config));
+  }
+
+  private MockServerWebExchange get(String uri, String principal) {
+    return get(uri, principal, backend);
+  }
+
+  private MockServerWebExchange get(String uri, String principal, GatewayFilterChain chain) {
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    filter.filter(exchange, chain)
+      .contextWrite(ReactiveSecurityContextHolder.withAuthentication(
+        new UsernamePasswordAuthenticationToken(principal, null, List.of())
+      ))
+      .block();
+    return exchange;
+  }
+}
@@ -0,0 +1,44 @@
+package com.medilabo.gatewayService.filter;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.gatewayService.cache.ResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ResponseCacheInvalidationFilterTest {
+
+  private final ResponseCache responseCache = mock(ResponseCache.class);
+  private final ResponseCacheInvalidationFilter filter = new ResponseCacheInvalidationFilter(responseCache);
+
+  @Test
+  void filter_shouldInvalidateBeforeAndAfterWrite() {
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+    when(chain.filter(any())).thenReturn(Mono.empty());
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.put("/api/patients/42"));
+
+    StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+    verify(responseCache, times(2)).invalidate("/api/patients/42");
+  }
+
+  @Test
+  void filter_shouldNotInvalidateOnRead() {
+    GatewayFilterChain chain = mock(GatewayFilterChain.class);
+    when(chain.filter(any())).thenReturn(Mono.empty());
+    MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/patients/42"));
+
+    StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+    verifyNoInteractions(responseCache);
+  }
+}
@@ -0,0 +1,76 @@
+package com.medilabo.gatewayService.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.medilabo.gatewayService.config.RateLimitProperties;
+import com.medilabo.gatewayService.config.RateLimitProperties.Limit;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class RateLimiterTest {
+
+  private RateLimitProperties properties;
+  private SimpleMeterRegistry meterRegistry;
+  private RateLimiter rateLimiter;
+  private Limit limit;
+
+  @BeforeEach
+  void setUp() {
+    properties = new RateLimitProperties();
+    properties.setIdleTimeout(Duration.ofMinutes(10));
+    meterRegistry = new SimpleMeterRegistry();
+    rateLimiter = new RateLimiter(properties);
+    ReflectionTestUtils.setField(rateLimiter, "meterRegistry", meterRegistry);
+    rateLimiter.start();
+    limit = new Limit();
+    limit.setReplenishRate(1);
+    limit.setBurstCapacity(2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    rateLimiter.stop();
+  }
+
+  @Test
+  void tryAcquire_shouldLimitEachKeySeparately() {
+    assertEquals(0, rateLimiter.tryAcquire("a", limit));
+    assertEquals(0, rateLimiter.tryAcquire("a", limit));
+    long wait = rateLimiter.tryAcquire("a", limit);
+
+    assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+    assertEquals(0, rateLimiter.tryAcquire("b", limit));
+    assertEquals(2, rateLimiter.size());
+  }
+
+  @Test
+  void tryAcquire_shouldNotTrackKeysAboveMaximum() {
+    properties.setMaxKeys(1);
+    rateLimiter.tryAcquire("a", limit);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, rateLimiter.tryAcquire("b", limit));
+    }
+    assertEquals(1, rateLimiter.size());
+    assertEquals(5, meterRegistry.get(RateLimiter.OVERFLOW_METRIC).counter().count());
+  }
+
+  @Test
+  void sweep_shouldForgetIdleBuckets() {
+    rateLimiter.tryAcquire("a", limit);
+
+    rateLimiter.sweep(System.nanoTime());
+    assertEquals(1, rateLimiter.size());
+
+    rateLimiter.sweep(System.nanoTime() + TimeUnit.MINUTES.toNanos(11));
+    assertEquals(0, rateLimiter.size());
+    assertEquals(1, meterRegistry.get(RateLimiter.EVICTIONS_METRIC).counter().count());
+    assertEquals(0, meterRegistry.get(RateLimiter.KEYS_METRIC).gauge().value());
+  }
+}
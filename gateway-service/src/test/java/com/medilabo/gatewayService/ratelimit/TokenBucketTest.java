@@ -0,0 +1,47 @@
+package com.medilabo.gatewayService.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  private static final long INTERVAL = 100;
+  private static final long CAPACITY = 3 * INTERVAL;
+
+  @Test
+  void tryConsume_shouldAllowBurstThenReplenishRate() {
+    TokenBucket bucket = new TokenBucket(0);
+
+    assertEquals(0, bucket.tryConsume(0, INTERVAL, CAPACITY));
+    assertEquals(0, bucket.tryConsume(0, INTERVAL, CAPACITY));
+    assertEquals(0, bucket.tryConsume(0, INTERVAL, CAPACITY));
+    assertEquals(INTERVAL, bucket.tryConsume(0, INTERVAL, CAPACITY));
+    assertEquals(40, bucket.tryConsume(60, INTERVAL, CAPACITY));
+    assertEquals(0, bucket.tryConsume(100, INTERVAL, CAPACITY));
+    assertEquals(INTERVAL, bucket.tryConsume(100, INTERVAL, CAPACITY));
+  }
+
+  @Test
+  void tryConsume_shouldNotAccumulateAboveCapacity() {
+    TokenBucket bucket = new TokenBucket(0);
+    long later = 1_000_000;
+
+    for (int i = 0; i < 3; i++) {
+      assertEquals(0, bucket.tryConsume(later, INTERVAL, CAPACITY));
+    }
+    assertTrue(bucket.tryConsume(later, INTERVAL, CAPACITY) > 0);
+  }
+
+  @Test
+  void isIdle_shouldWaitUntilBucketIsFullForIdleTime() {
+    TokenBucket bucket = new TokenBucket(0);
+    bucket.tryConsume(0, INTERVAL, CAPACITY);
+    bucket.tryConsume(0, INTERVAL, CAPACITY);
+
+    assertFalse(bucket.isIdle(250, 100));
+    assertTrue(bucket.isIdle(300, 100));
+  }
+}
@@ -0,0 +1,47 @@
+package com.medilabo.gatewayService.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.DefaultEventLoopGroup;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class EventLoopLatencyMonitorTest {
+
+  @Test
+  void probe_shouldRecordLatencyOfEachEventLoop() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    EventLoopLatencyMonitor monitor = new EventLoopLatencyMonitor();
+    ReflectionTestUtils.setField(monitor, "meterRegistry", meterRegistry);
+    DefaultEventLoopGroup eventLoops = new DefaultEventLoopGroup(2);
+    try {
+      // Keep one loop busy, so that its probe waits behind the blocking task.
+      eventLoops.next().execute(() -> sleep(100));
+
+      monitor.probe(eventLoops);
+
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (meterRegistry.find(EventLoopLatencyMonitor.LATENCY_METRIC).timer() == null ||
+        meterRegistry.get(EventLoopLatencyMonitor.LATENCY_METRIC).timer().count() < 2) {
+        if (System.currentTimeMillis() > deadline) break;
+        Thread.sleep(10);
+      }
+      Timer latency = meterRegistry.get(EventLoopLatencyMonitor.LATENCY_METRIC).timer();
+      assertEquals(2, latency.count());
+      assertEquals(true, latency.max(TimeUnit.MILLISECONDS) >= 50);
+    } finally {
+      eventLoops.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
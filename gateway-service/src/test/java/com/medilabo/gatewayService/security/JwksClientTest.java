@@ -0,0 +1,157 @@
+package com.medilabo.gatewayService.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigInteger;
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+class JwksClientTest {
+
+  private final List<URI> requests = new ArrayList<>();
+  private String body;
+  private HttpStatus status = HttpStatus.OK;
+  private JwksClient jwksClient;
+  private KeyPair first;
+  private KeyPair second;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+    keyGen.initialize(1024);
+    first = keyGen.generateKeyPair();
+    second = keyGen.generateKeyPair();
+
+    WebClient webClient = WebClient.builder()
+      .exchangeFunction(request -> {
+        requests.add(request.url());
+        return Mono.just(
+          ClientResponse.create(status)
+            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .body(body)
+            .build()
+        );
+      })
+      .build();
+    jwksClient = new JwksClient(webClient);
+    ReflectionTestUtils.setField(jwksClient, "meterRegistry", new SimpleMeterRegistry());
+  }
+
+  @Test
+  void refresh_shouldPublishVerifiersByKeyId() {
+    body = jwks(jwk("k1", first), jwk("k2", second));
+
+    jwksClient.refresh().block();
+
+    assertEquals(URI.create("http://auth-service/api/auth/jwks"), requests.get(0));
+    assertEquals(1, jwksClient.getVersion());
+    assertTrue(jwksClient.hasKeys());
+    assertNotNull(jwksClient.getVerifier("k2").verify(token("k2", second)));
+    assertNull(jwksClient.getVerifier("k3"));
+  }
+
+  @Test
+  void refresh_shouldKeepVersionAndVerifiersWhenKeysAreUnchanged() {
+    body = jwks(jwk("k1", first));
+    jwksClient.refresh().block();
+    JWTVerifier verifier = jwksClient.getVerifier("k1");
+
+    jwksClient.refresh().block();
+    assertEquals(1, jwksClient.getVersion());
+    assertSame(verifier, jwksClient.getVerifier("k1"));
+
+    body = jwks(jwk("k2", second));
+    jwksClient.refresh().block();
+    assertEquals(2, jwksClient.getVersion());
+    assertNull(jwksClient.getVerifier("k1"));
+  }
+
+  @Test
+  void refresh_shouldKeepKeysWhenFetchFails() {
+    body = jwks(jwk("k1", first));
+    jwksClient.refresh().block();
+
+    status = HttpStatus.SERVICE_UNAVAILABLE;
+    jwksClient.refresh().onErrorResume(e -> Mono.empty()).block();
+
+    assertNotNull(jwksClient.getVerifier("k1"));
+    assertEquals(1, jwksClient.getVersion());
+  }
+
+  @Test
+  void fetchVerifier_shouldFetchOnceForUnknownKeyId() {
+    body = jwks(jwk("k1", first));
+    jwksClient.refresh().block();
+    body = jwks(jwk("k1", first), jwk("k2", second));
+
+    assertNotNull(jwksClient.fetchVerifier("k2").block());
+    assertNotNull(jwksClient.fetchVerifier("k2").block());
+    assertNull(jwksClient.fetchVerifier("forged").block());
+    assertNull(jwksClient.fetchVerifier("forged").block());
+
+    assertEquals(2, requests.size());
+  }
+
+  @Test
+  void fetchVerifier_shouldNotFetchSameUnknownKeyIdTwice() {
+    body = jwks(jwk("k1", first));
+    ReflectionTestUtils.setField(jwksClient, "minRefreshInterval", Duration.ZERO);
+
+    assertNull(jwksClient.fetchVerifier("forged").block());
+    assertNull(jwksClient.fetchVerifier("forged").block());
+    body = jwks(jwk("k1", first), jwk("k2", second));
+    assertNotNull(jwksClient.fetchVerifier("k2").block());
+
+    assertEquals(2, requests.size());
+  }
+
+  private static String token(String keyId, KeyPair keyPair) {
+    return JWT.create()
+      .withKeyId(keyId)
+      .withIssuer("auth-service")
+      .withSubject("user")
+      .sign(Algorithm.RSA512((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+  }
+
+  private static String jwks(String... keys) {
+    return "{\"keys\":[" + String.join(",", Arrays.asList(keys)) + "]}";
+  }
+
+  private static String jwk(String keyId, KeyPair keyPair) {
+    RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+    return "{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS512\",\"kid\":\"" + keyId +
+      "\",\"n\":\"" + base64Url(publicKey.getModulus()) +
+      "\",\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\"}";
+  }
+
+  private static String base64Url(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    if (bytes[0] == 0) bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+  }
+}
@@ -0,0 +1,51 @@
+package com.medilabo.gatewayService.security;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.medilabo.gatewayService.config.PublicEndpointsProperties;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PublicEndpointMatcherTest {
+
+  private final PublicEndpointMatcher matcher = new PublicEndpointMatcher(new PublicEndpointsProperties());
+
+  @Test
+  void matches_shouldMatchExactPaths() {
+    assertTrue(matcher.matches("/"));
+    assertTrue(matcher.matches("/login"));
+    assertTrue(matcher.matches("/api/auth"));
+    assertFalse(matcher.matches("/login/admin"));
+    assertFalse(matcher.matches("/api/auth/x"));
+  }
+
+  @Test
+  void matches_shouldMatchStaticAssets() {
+    assertTrue(matcher.matches("/app.js"));
+    assertTrue(matcher.matches("/assets/css/style.css"));
+    assertTrue(matcher.matches("/manifest.json"));
+    assertTrue(matcher.matches("/img/logo.png"));
+    assertTrue(matcher.matches("/ico/favicon.ico"));
+    assertFalse(matcher.matches("/api/patients"));
+    assertFalse(matcher.matches("/appjs"));
+    assertFalse(matcher.matches("/img"));
+  }
+
+  @Test
+  void matches_shouldMatchLiteralsInOrder() {
+    PublicEndpointMatcher ordered = new PublicEndpointMatcher(List.of("/docs/*/v*/index.html", "/ab*ba"));
+
+    assertTrue(ordered.matches("/docs/api/v2/index.html"));
+    assertTrue(ordered.matches("/docs/a/b/v1/c/index.html"));
+    assertFalse(ordered.matches("/docs/v2/index.html/x"));
+    assertTrue(ordered.matches("/abba"));
+    assertFalse(ordered.matches("/aba"));
+  }
+
+  @Test
+  void constructor_shouldRejectBlankEndpoint() {
+    assertThrows(IllegalArgumentException.class, () -> new PublicEndpointMatcher(List.of("/login", " ")));
+  }
+}
@@ -0,0 +1,138 @@
+package com.medilabo.gatewayService.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PublicKeyLoaderTest {
+
+  @TempDir
+  Path dir;
+
+  private Path keyFile;
+  private PublicKeyLoader keyLoader;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    keyFile = dir.resolve("jwt_public.pem");
+    meterRegistry = new SimpleMeterRegistry();
+    keyLoader = new PublicKeyLoader();
+    ReflectionTestUtils.setField(keyLoader, "publicKeyPath", keyFile.toString());
+    ReflectionTestUtils.setField(keyLoader, "meterRegistry", meterRegistry);
+  }
+
+  @Test
+  void loadKey_shouldBuildVerifierOnce() throws Exception {
+    KeyPair keyPair = writeKey();
+
+    keyLoader.loadKey();
+    JWTVerifier verifier = keyLoader.getVerifier();
+
+    assertEquals(1, keyLoader.getVersion());
+    assertSame(verifier, keyLoader.getVerifier());
+    assertEquals("user", verifier.verify(sign(keyPair)).getSubject());
+    assertEquals(1.0, meterRegistry.get(PublicKeyLoader.VERSION_METRIC).gauge().value());
+  }
+
+  @Test
+  void loadKey_shouldNotFailIfKeyMissing() {
+    keyLoader.loadKey();
+
+    assertNull(keyLoader.getVerifier());
+    assertEquals(0, keyLoader.getVersion());
+    assertEquals(1, meterRegistry.get(PublicKeyLoader.RELOAD_METRIC).tag("outcome", "failure").timer().count());
+  }
+
+  @Test
+  void reload_shouldKeepVerifierIfKeyUnchanged() throws Exception {
+    writeKey();
+    keyLoader.loadKey();
+    JWTVerifier verifier = keyLoader.getVerifier();
+
+    assertFalse(keyLoader.reload());
+
+    assertSame(verifier, keyLoader.getVerifier());
+    assertEquals(1, keyLoader.getVersion());
+  }
+
+  @Test
+  void reload_shouldSwapVerifierIfKeyRotated() throws Exception {
+    KeyPair previous = writeKey();
+    keyLoader.loadKey();
+    KeyPair rotated = writeKey();
+
+    assertTrue(keyLoader.reload());
+
+    assertEquals(2, keyLoader.getVersion());
+    assertNotNull(keyLoader.getVerifier().verify(sign(rotated)));
+    assertThrows(JWTVerificationException.class, () -> keyLoader.getVerifier().verify(sign(previous)));
+  }
+
+  @Test
+  void reload_shouldKeepVerifierIfKeyInvalid() throws Exception {
+    writeKey();
+    keyLoader.loadKey();
+    JWTVerifier verifier = keyLoader.getVerifier();
+    Files.writeString(keyFile, "not a valid key");
+
+    assertFalse(keyLoader.reload());
+
+    assertSame(verifier, keyLoader.getVerifier());
+  }
+
+  @Test
+  void parsePemPublicKey_shouldThrowIfFileMissing() {
+    RuntimeException ex = assertThrows(RuntimeException.class, () -> keyLoader.parsePemPublicKey());
+    assertTrue(ex.getMessage().contains("Error loading public key"));
+  }
+
+  @Test
+  void parsePemPublicKey_shouldThrowIfKeyInvalid() throws Exception {
+    Files.writeString(keyFile, "not a valid key");
+
+    RuntimeException ex = assertThrows(RuntimeException.class, () -> keyLoader.parsePemPublicKey());
+    assertTrue(ex.getMessage().contains("Error loading public key"));
+  }
+
+  private KeyPair writeKey() throws Exception {
+    KeyPairGenerator keyGen = KeyPairGenerator.getInstance("RSA");
+    keyGen.initialize(1024);
+    KeyPair keyPair = keyGen.generateKeyPair();
+    Files.writeString(
+      keyFile,
+      "-----BEGIN PUBLIC KEY-----\n" +
+      Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()) +
+      "\n-----END PUBLIC KEY-----"
+    );
+    return keyPair;
+  }
+
+  private static String sign(KeyPair keyPair) {
+    return JWT.create()
+      .withIssuer("auth-service")
+      .withSubject("user")
+      .sign(Algorithm.RSA512((RSAPublicKey) keyPair.getPublic(), (RSAPrivateKey) keyPair.getPrivate()));
+  }
+}
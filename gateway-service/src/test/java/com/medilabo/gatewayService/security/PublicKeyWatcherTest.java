@@ -0,0 +1,54 @@
+package com.medilabo.gatewayService.security;
+
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PublicKeyWatcherTest {
+
+  private PublicKeyWatcher watcher;
+
+  @AfterEach
+  void tearDown() {
+    if (watcher != null) watcher.stop();
+  }
+
+  @Test
+  void start_shouldReloadKeyWhenFileChanges(@TempDir Path dir) throws Exception {
+    Path file = dir.resolve("jwt_public.pem");
+    Files.writeString(file, "key");
+    PublicKeyLoader loader = mock(PublicKeyLoader.class);
+    when(loader.getPublicKeyPath()).thenReturn(file.toString());
+    watcher = new PublicKeyWatcher(loader);
+    ReflectionTestUtils.setField(watcher, "debounceMillis", 50L);
+    watcher.start();
+
+    Files.writeString(dir.resolve("other.pem"), "other");
+    verify(loader, after(500).never()).reload();
+
+    Files.writeString(file, "rotated");
+    verify(loader, timeout(10_000)).reload();
+  }
+
+  @Test
+  void start_shouldReloadKeyPeriodicallyIfDirectoryMissing(@TempDir Path dir) {
+    PublicKeyLoader loader = mock(PublicKeyLoader.class);
+    when(loader.getPublicKeyPath()).thenReturn(dir.resolve("missing/jwt_public.pem").toString());
+    watcher = new PublicKeyWatcher(loader);
+    ReflectionTestUtils.setField(watcher, "reloadInterval", Duration.ofMillis(50));
+    watcher.start();
+
+    verify(loader, timeout(10_000).atLeast(2)).reload();
+  }
+}
@@ -0,0 +1,77 @@
+package com.medilabo.gatewayService.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class VerificationSchedulerTest {
+
+  private VerificationScheduler verificationScheduler;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    verificationScheduler = new VerificationScheduler();
+    ReflectionTestUtils.setField(verificationScheduler, "meterRegistry", meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    verificationScheduler.stop();
+  }
+
+  @Test
+  void run_shouldRunTaskOnVerificationThread() {
+    verificationScheduler.start();
+
+    StepVerifier.create(verificationScheduler.run(() -> Thread.currentThread().getName()))
+      .assertNext(thread -> assertTrue(thread.startsWith("jwt-verification"), thread))
+      .verifyComplete();
+    assertEquals(1, meterRegistry.get(VerificationScheduler.WAIT_METRIC).timer().count());
+  }
+
+  @Test
+  void run_shouldRunTaskInlineWhenOffloadDisabled() {
+    ReflectionTestUtils.setField(verificationScheduler, "offload", false);
+    verificationScheduler.start();
+    String caller = Thread.currentThread().getName();
+
+    StepVerifier.create(verificationScheduler.run(() -> Thread.currentThread().getName()))
+      .expectNext(caller)
+      .verifyComplete();
+  }
+
+  @Test
+  void run_shouldRejectTaskWhenQueueFull() throws Exception {
+    ReflectionTestUtils.setField(verificationScheduler, "threads", 1);
+    ReflectionTestUtils.setField(verificationScheduler, "queueCapacity", 1);
+    verificationScheduler.start();
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+
+    Mono<Boolean> busy = verificationScheduler.run(() -> {
+      started.countDown();
+      return release.await(10, TimeUnit.SECONDS);
+    });
+    busy.subscribe();
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    verificationScheduler.run(() -> true).subscribe();
+
+    StepVerifier.create(verificationScheduler.run(() -> true))
+      .expectError(RejectedExecutionException.class)
+      .verify();
+    assertEquals(1, meterRegistry.get(VerificationScheduler.REJECTED_METRIC).counter().count());
+    release.countDown();
+  }
+}
@@ -0,0 +1,114 @@
+package com.medilabo.gatewayService.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class VerifiedTokenCacheTest {
+
+  private VerifiedTokenCache tokenCache;
+  private SimpleMeterRegistry meterRegistry;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    tokenCache = new VerifiedTokenCache();
+    ReflectionTestUtils.setField(tokenCache, "meterRegistry", meterRegistry);
+  }
+
+  @Test
+  void get_shouldReturnCachedClaims() {
+    tokenCache.start();
+    String token = token("alice", Instant.now().plusSeconds(3600));
+
+    assertNull(tokenCache.get(token, 1));
+    VerifiedToken verified = tokenCache.put(token, JWT.decode(token), 1);
+
+    assertSame(verified, tokenCache.get(token, 1));
+    assertEquals("alice", verified.subject());
+    assertEquals("USER", verified.role());
+    assertEquals(1.0, requests("hit"));
+    assertEquals(1.0, requests("miss"));
+  }
+
+  @Test
+  void get_shouldMissIfKeyRotated() {
+    tokenCache.start();
+    String token = token("alice", Instant.now().plusSeconds(3600));
+    tokenCache.put(token, JWT.decode(token), 1);
+
+    assertNull(tokenCache.get(token, 2));
+    assertEquals(0, tokenCache.size());
+  }
+
+  @Test
+  void get_shouldReturnExpiredTokenOnceThenMiss() {
+    tokenCache.start();
+    String token = token("alice", Instant.now().minusSeconds(1));
+    tokenCache.put(token, JWT.decode(token), 1);
+
+    assertTrue(tokenCache.get(token, 1).isExpired(System.currentTimeMillis()));
+    assertNull(tokenCache.get(token, 1));
+    assertEquals(1.0, requests("expired"));
+  }
+
+  @Test
+  void get_shouldMissAfterMaxTtl() {
+    ReflectionTestUtils.setField(tokenCache, "maxTtl", Duration.ZERO);
+    tokenCache.start();
+    String token = token("alice", Instant.now().plusSeconds(3600));
+    VerifiedToken verified = tokenCache.put(token, JWT.decode(token), 1);
+
+    assertFalse(verified.isExpired(System.currentTimeMillis()));
+    assertNull(tokenCache.get(token, 1));
+  }
+
+  @Test
+  void put_shouldEvictLeastRecentlyUsedTokens() {
+    ReflectionTestUtils.setField(tokenCache, "maxSize", 32);
+    tokenCache.start();
+
+    for (int i = 0; i < 1000; i++) {
+      String token = token("user" + i, Instant.now().plusSeconds(3600));
+      tokenCache.put(token, JWT.decode(token), 1);
+    }
+
+    assertTrue(tokenCache.size() <= 32);
+    assertEquals(1000 - tokenCache.size(), meterRegistry.get(VerifiedTokenCache.EVICTIONS_METRIC).counter().count());
+  }
+
+  @Test
+  void get_shouldNotCacheWhenDisabled() {
+    ReflectionTestUtils.setField(tokenCache, "enabled", false);
+    tokenCache.start();
+    String token = token("alice", Instant.now().plusSeconds(3600));
+
+    assertEquals("alice", tokenCache.put(token, JWT.decode(token), 1).subject());
+    assertNull(tokenCache.get(token, 1));
+    assertEquals(0, tokenCache.size());
+  }
+
+  private double requests(String result) {
+    return meterRegistry.get(VerifiedTokenCache.REQUESTS_METRIC).tag("result", result).counter().count();
+  }
+
+  private static String token(String subject, Instant expiresAt) {
+    return JWT.create()
+      .withIssuer("auth-service")
+      .withSubject(subject)
+      .withClaim("role", "USER")
+      .withExpiresAt(expiresAt)
+      .sign(Algorithm.HMAC256("secret"));
+  }
+}
@@ -3,11 +3,13 @@ package com.medilabo.noteService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main application class for the Note Service.
  * This service is responsible for managing notes in the system.
  */
+@EnableScheduling
 @EnableDiscoveryClient
 @SpringBootApplication
 public class NoteServiceApplication {
@@ -2,6 +2,7 @@ package com.medilabo.noteService.controller;
 
 import com.medilabo.noteService.dto.NoteDto;
 import com.medilabo.noteService.dto.NotesDto;
+import com.medilabo.noteService.dto.PatientCategoriesDto;
 import com.medilabo.noteService.model.Note;
 import com.medilabo.noteService.service.NoteService;
 import lombok.RequiredArgsConstructor;
@@ -52,6 +53,39 @@ public class NoteController {
         return noteService.getAllNotesByPatient(patient);
     }
 
+    /**
+     * Retrieves all notes of several patients in a single request, for batch processing.
+     *
+     * @param patients the patient identifiers
+     * @return the notes of these patients
+     */
+    @PostMapping("/bulk/patients")
+    public List<Note> getAllNotesByPatients(@RequestBody List<String> patients) {
+        return noteService.getAllNotesByPatients(patients);
+    }
+
+    /**
+     * Retrieves the union of the trigger categories of the notes of a patient.
+     *
+     * @param patient the patient identifier
+     * @return the categories of the patient and the dictionary version they were computed with
+     */
+    @GetMapping("/categories/patient/{patient}")
+    public PatientCategoriesDto getCategoriesByPatient(@PathVariable String patient) {
+        return noteService.getCategoriesByPatient(patient);
+    }
+
+    /**
+     * Retrieves the union of the trigger categories of the notes of several patients, for batch processing.
+     *
+     * @param patients the patient identifiers
+     * @return the categories of each patient
+     */
+    @PostMapping("/categories/bulk/patients")
+    public List<PatientCategoriesDto> getCategoriesByPatients(@RequestBody List<String> patients) {
+        return noteService.getCategoriesByPatients(patients);
+    }
+
     /**
      * Retrieves a specific note by its ID.
      */
@@ -0,0 +1,34 @@
+package com.medilabo.noteService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for a change of a note, sent to the services that cache data
+ * derived from the notes. The content of the note is only set for created and updated notes.
+ * Events may arrive out of order: the version increases with each change published, so that
+ * a subscriber can ignore an event older than the one it already applied to the note.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteEventDto {
+
+  /**
+   * Kind of change made to a note.
+   */
+  public enum Type {
+    CREATED,
+    UPDATED,
+    DELETED
+  }
+
+  private Type type;
+  private String noteId;
+  private String patient;
+  private String note;
+  private long version;
+}
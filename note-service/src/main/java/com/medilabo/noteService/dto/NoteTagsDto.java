@@ -0,0 +1,17 @@
+package com.medilabo.noteService.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the trigger categories of a batch of notes, as computed by the
+ * Assessment Service, with the version of the dictionary used.
+ */
+@Getter
+@Setter
+public class NoteTagsDto {
+
+  private String dictionaryVersion;
+  private List<List<String>> categories;
+}
@@ -0,0 +1,21 @@
+package com.medilabo.noteService.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the union of the trigger categories of the notes of a patient.
+ * The dictionary version is only set when every tagged note was tagged with the same dictionary,
+ * and the untagged notes are counted, so that the caller can tell whether the categories are complete.
+ */
+@Getter
+@Setter
+public class PatientCategoriesDto {
+
+  private String patient;
+  private List<String> categories;
+  private long notes;
+  private long untaggedNotes;
+  private String dictionaryVersion;
+}
@@ -1,6 +1,7 @@
 package com.medilabo.noteService.model;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
@@ -9,6 +10,9 @@ import org.springframework.data.mongodb.core.mapping.Field;
 
 /**
  * Model representing a Note entity.
+ * The trigger categories found in the note are stored with it, along with the version of the
+ * dictionary they were computed with, so that the categories of a patient can be aggregated
+ * without reading the text of the notes.
  */
 @Getter
 @Setter
@@ -26,4 +30,9 @@ public class Note {
 
   @Field("updated_at")
   private LocalDateTime updatedAt;
+
+  private List<String> categories;
+
+  @Field("dictionary_version")
+  private String dictionaryVersion;
 }
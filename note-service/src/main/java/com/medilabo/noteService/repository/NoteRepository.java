@@ -1,9 +1,13 @@
 package com.medilabo.noteService.repository;
 
+import com.medilabo.noteService.dto.PatientCategoriesDto;
 import com.medilabo.noteService.model.Note;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -15,4 +19,31 @@ public interface NoteRepository extends MongoRepository<Note, String> {
   Page<Note> findByPatient(String patient, Pageable pageable);
 
   List<Note> findByPatient(String patient);
+
+  List<Note> findByPatientIn(Collection<String> patients);
+
+  /**
+   * Finds the notes that have not been tagged with the given dictionary version,
+   * including the notes that have never been tagged.
+   */
+  Slice<Note> findByDictionaryVersionNot(String dictionaryVersion, Pageable pageable);
+
+  /**
+   * Aggregates the trigger categories of the notes of each patient, without reading their text.
+   * Patients without notes are not returned.
+   */
+  @Aggregation(
+    pipeline = {
+      "{ $match: { patient: { $in: ?0 } } }",
+      "{ $group: { _id: '$patient', " +
+      "categories: { $push: { $ifNull: ['$categories', []] } }, " +
+      "versions: { $addToSet: '$dictionary_version' }, " +
+      "notes: { $sum: 1 }, " +
+      "untaggedNotes: { $sum: { $cond: [{ $gt: ['$dictionary_version', null] }, 0, 1] } } } }",
+      "{ $project: { _id: 0, patient: '$_id', notes: 1, untaggedNotes: 1, " +
+      "categories: { $reduce: { input: '$categories', initialValue: [], in: { $setUnion: ['$$value', '$$this'] } } }, " +
+      "dictionaryVersion: { $cond: [{ $eq: [{ $size: '$versions' }, 1] }, { $arrayElemAt: ['$versions', 0] }, null] } } }",
+    }
+  )
+  List<PatientCategoriesDto> aggregateCategoriesByPatients(Collection<String> patients);
 }
@@ -0,0 +1,88 @@
+package com.medilabo.noteService.service;
+
+import com.medilabo.noteService.dto.NoteEventDto;
+import com.medilabo.noteService.model.Note;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Publishes the note changes to every instance of the subscribing service, so that each
+ * replica can update the data it derives from the notes.
+ * Events are sent asynchronously and on a best-effort basis: a failure is logged and does not
+ * affect the change of the note. Subscribers are expected to bound the age of their data.
+ * Since each event is sent on its own thread, events carry a version, in microseconds since the
+ * epoch and increasing for each event published by this instance, to let subscribers order them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NoteEventPublisher {
+
+  private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final DiscoveryClient discoveryClient;
+  private final RestClient restClient = RestClient.create();
+  private final AtomicLong lastVersion = new AtomicLong();
+
+  @Value("${note.events.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${note.events.subscriber:assessment-service}")
+  private String subscriber = "assessment-service";
+
+  @Value("${note.events.path:/internal/assessment/events/notes}")
+  private String path = "/internal/assessment/events/notes";
+
+  /**
+   * Publishes a change of a note.
+   *
+   * @param type the kind of change
+   * @param note the note after the change, or before its deletion
+   */
+  public void publish(NoteEventDto.Type type, Note note) {
+    if (!enabled) return;
+    NoteEventDto event = new NoteEventDto(
+      type,
+      note.getId(),
+      note.getPatient(),
+      type == NoteEventDto.Type.DELETED ? null : note.getNote(),
+      nextVersion()
+    );
+    EXECUTOR.execute(() -> send(event));
+  }
+
+  private long nextVersion() {
+    long now = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    return lastVersion.updateAndGet(last -> Math.max(last + 1, now));
+  }
+
+  private void send(NoteEventDto event) {
+    for (ServiceInstance instance : discoveryClient.getInstances(subscriber)) {
+      try {
+        restClient
+          .post()
+          .uri(instance.getUri().resolve(path))
+          .body(event)
+          .retrieve()
+          .toBodilessEntity();
+      } catch (Exception e) {
+        log.warn(
+          "Error sending {} event of note {} to {}: {}",
+          event.getType(),
+          event.getNoteId(),
+          instance.getUri(),
+          e.getMessage()
+        );
+      }
+    }
+  }
+}
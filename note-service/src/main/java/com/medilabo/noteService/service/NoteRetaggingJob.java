@@ -0,0 +1,104 @@
+package com.medilabo.noteService.service;
+
+import com.medilabo.noteService.model.Note;
+import com.medilabo.noteService.repository.NoteRepository;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Background job tagging again the notes whose trigger categories were computed with another
+ * version of the dictionary, or never computed because the tagging service was unavailable.
+ * Notes are tagged by batches, and only their categories are written back, provided that their
+ * text has not changed in the meantime: a note edited during the job is tagged after its update.
+ * The notes just written are tagged the same way, in the background, so that their writes
+ * do not wait for the tagging service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NoteRetaggingJob {
+
+  private final NoteRepository noteRepository;
+  private final NoteTagger noteTagger;
+  private final MongoTemplate mongoTemplate;
+
+  @Value("${note.tagging.retag-batch-size:500}")
+  private int batchSize = 500;
+
+  private Executor executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  /**
+   * Tags a note that has just been written, on a virtual thread.
+   * If the tagging service is unavailable, the note is left untagged until the next run of the job.
+   *
+   * @param written the note as saved, which is not modified
+   */
+  public void tagLater(Note written) {
+    Note note = new Note();
+    note.setId(written.getId());
+    note.setNote(written.getNote());
+    executor.execute(() -> {
+      if (noteTagger.tag(List.of(note))) saveCategories(note);
+    });
+  }
+
+  /**
+   * Tags again every note that is not tagged with the current dictionary version.
+   * The job stops at the first batch that cannot be tagged, or when the dictionary changes
+   * while it runs; the next run resumes from there.
+   *
+   * @return the number of notes tagged again
+   */
+  @Scheduled(
+    initialDelayString = "${note.tagging.retag-interval:PT5M}",
+    fixedDelayString = "${note.tagging.retag-interval:PT5M}"
+  )
+  public long retag() {
+    String version = noteTagger.getDictionaryVersion();
+    if (version == null) return 0;
+
+    long retagged = 0;
+    while (true) {
+      // The tagged notes leave the query, so the first page always holds the next batch.
+      List<Note> notes = noteRepository
+        .findByDictionaryVersionNot(version, PageRequest.of(0, batchSize, Sort.by("id")))
+        .getContent();
+      if (notes.isEmpty() || !noteTagger.tag(notes)) break;
+
+      long updated = 0;
+      boolean dictionaryChanged = false;
+      for (Note note : notes) {
+        dictionaryChanged |= !version.equals(note.getDictionaryVersion());
+        updated += saveCategories(note);
+      }
+      retagged += updated;
+      if (updated == 0 || dictionaryChanged) break;
+    }
+    if (retagged > 0) {
+      log.info("Tagged {} notes with dictionary version {}", retagged, version);
+    }
+    return retagged;
+  }
+
+  private long saveCategories(Note note) {
+    Query unchanged = Query.query(
+      Criteria.where("id").is(note.getId()).and("note").is(note.getNote())
+    );
+    Update categories = new Update()
+      .set("categories", note.getCategories())
+      .set("dictionaryVersion", note.getDictionaryVersion());
+    return mongoTemplate.updateFirst(unchanged, categories, Note.class).getModifiedCount();
+  }
+}
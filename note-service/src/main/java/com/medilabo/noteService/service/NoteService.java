@@ -1,10 +1,15 @@
 package com.medilabo.noteService.service;
 
 import com.medilabo.noteService.dto.NoteDto;
+import com.medilabo.noteService.dto.NoteEventDto;
 import com.medilabo.noteService.dto.NotesDto;
+import com.medilabo.noteService.dto.PatientCategoriesDto;
 import com.medilabo.noteService.model.Note;
 import com.medilabo.noteService.repository.NoteRepository;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -13,12 +18,23 @@ import org.springframework.stereotype.Service;
 /**
  * Service for managing notes.
  * Provides methods to retrieve, add, update, and delete notes for patients.
+ * Every change is published through the {@link NoteEventPublisher}.
+ * Notes are tagged with their trigger categories in the background once they are written
+ * (see {@link NoteRetaggingJob#tagLater(Note)}), so that the categories of a patient can be
+ * retrieved without the text of the notes.
  */
 @Service
 @RequiredArgsConstructor
 public class NoteService {
 
+  /**
+   * Maximum number of patients whose notes are returned by a single bulk read.
+   */
+  public static final int MAX_BULK_SIZE = 1000;
+
   private final NoteRepository noteRepository;
+  private final NoteEventPublisher noteEventPublisher;
+  private final NoteRetaggingJob noteRetaggingJob;
 
   /**
    * Retrieves a note by its ID.
@@ -54,6 +70,59 @@ public class NoteService {
     return noteRepository.findByPatient(patient);
   }
 
+  /**
+   * Retrieves all the notes of several patients in a single query.
+   *
+   * @param patients the patient identifiers, at most {@link #MAX_BULK_SIZE}
+   * @return the notes of these patients, in no particular order
+   * @throws RuntimeException if too many patients are requested
+   */
+  public List<Note> getAllNotesByPatients(Collection<String> patients) {
+    if (patients.size() > MAX_BULK_SIZE) {
+      throw new RuntimeException(
+        "Too many patients: " + patients.size() + " (max " + MAX_BULK_SIZE + ")"
+      );
+    }
+    return noteRepository.findByPatientIn(patients);
+  }
+
+  /**
+   * Retrieves the union of the trigger categories of the notes of a patient.
+   *
+   * @param patient the patient identifier
+   * @return the categories of the patient, empty if the patient has no notes
+   */
+  public PatientCategoriesDto getCategoriesByPatient(String patient) {
+    return getCategoriesByPatients(List.of(patient)).get(0);
+  }
+
+  /**
+   * Retrieves the union of the trigger categories of the notes of several patients,
+   * aggregated by the database.
+   *
+   * @param patients the patient identifiers, at most {@link #MAX_BULK_SIZE}
+   * @return the categories of each patient, in the order of the identifiers
+   * @throws RuntimeException if too many patients are requested
+   */
+  public List<PatientCategoriesDto> getCategoriesByPatients(Collection<String> patients) {
+    if (patients.size() > MAX_BULK_SIZE) {
+      throw new RuntimeException(
+        "Too many patients: " + patients.size() + " (max " + MAX_BULK_SIZE + ")"
+      );
+    }
+    Map<String, PatientCategoriesDto> categoriesByPatient = new LinkedHashMap<>();
+    for (String patient : patients) {
+      PatientCategoriesDto empty = new PatientCategoriesDto();
+      empty.setPatient(patient);
+      empty.setCategories(List.of());
+      categoriesByPatient.put(patient, empty);
+    }
+    for (PatientCategoriesDto categories : noteRepository.aggregateCategoriesByPatients(patients)) {
+      categoriesByPatient.put(categories.getPatient(), categories);
+    }
+    return List.copyOf(categoriesByPatient.values());
+  }
+
   /**
    * Adds a new note.
    *
@@ -64,6 +133,8 @@ public class NoteService {
     newNote.setPatient(noteDto.getPatient());
     newNote.setNote(noteDto.getNote());
     noteRepository.save(newNote);
+    noteEventPublisher.publish(NoteEventDto.Type.CREATED, newNote);
+    noteRetaggingJob.tagLater(newNote);
   }
 
   /**
@@ -75,7 +146,12 @@ public class NoteService {
   public void updateNote(String id, NoteDto noteDto) {
     Note existingNote = getNoteById(id);
     existingNote.setNote(noteDto.getNote());
+    // Stale categories would be trusted until the note is tagged again, unlike missing ones.
+    existingNote.setCategories(null);
+    existingNote.setDictionaryVersion(null);
     noteRepository.save(existingNote);
+    noteEventPublisher.publish(NoteEventDto.Type.UPDATED, existingNote);
+    noteRetaggingJob.tagLater(existingNote);
   }
 
   /**
@@ -86,6 +162,7 @@ public class NoteService {
   public void deleteNote(String id) {
     Note existingNote = getNoteById(id);
     noteRepository.delete(existingNote);
+    noteEventPublisher.publish(NoteEventDto.Type.DELETED, existingNote);
   }
 
   /**
@@ -0,0 +1,113 @@
+package com.medilabo.noteService.service;
+
+import com.medilabo.noteService.dto.NoteTagsDto;
+import com.medilabo.noteService.model.Note;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Tags the notes with the trigger categories they contain, as computed by the service owning
+ * the trigger-term dictionary, and with the version of that dictionary.
+ * Tagging is best effort: when no instance of the tagging service answers, the notes are
+ * left untagged and the {@link NoteRetaggingJob} tags them later.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NoteTagger {
+
+  private final DiscoveryClient discoveryClient;
+
+  @Value("${note.tagging.enabled:true}")
+  private boolean enabled = true;
+
+  @Value("${note.tagging.service:assessment-service}")
+  private String service = "assessment-service";
+
+  @Value("${note.tagging.path:/internal/assessment/tags}")
+  private String path = "/internal/assessment/tags";
+
+  @Value("${note.tagging.timeout:PT1S}")
+  private Duration timeout = Duration.ofSeconds(1);
+
+  private RestClient restClient;
+
+  /**
+   * Creates the HTTP client, with the configured timeout so that a slow tagging service
+   * does not hold the tagging of the other notes.
+   */
+  @PostConstruct
+  public void start() {
+    SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+    requestFactory.setConnectTimeout(timeout);
+    requestFactory.setReadTimeout(timeout);
+    restClient = RestClient.builder().requestFactory(requestFactory).build();
+  }
+
+  /**
+   * Sets the trigger categories and the dictionary version of the given notes.
+   *
+   * @param notes the notes to tag, modified in place
+   * @return true if the notes have been tagged, false if they are left as they were
+   */
+  public boolean tag(List<Note> notes) {
+    if (!enabled || notes.isEmpty()) return false;
+    List<String> texts = new ArrayList<>(notes.size());
+    for (Note note : notes) {
+      texts.add(note.getNote());
+    }
+    NoteTagsDto tags = call(uri ->
+      restClient.post().uri(uri).body(texts).retrieve().body(NoteTagsDto.class)
+    );
+    if (
+      tags == null ||
+      tags.getCategories() == null ||
+      tags.getCategories().size() != notes.size()
+    ) {
+      return false;
+    }
+    for (int i = 0; i < notes.size(); i++) {
+      notes.get(i).setCategories(tags.getCategories().get(i));
+      notes.get(i).setDictionaryVersion(tags.getDictionaryVersion());
+    }
+    return true;
+  }
+
+  /**
+   * Retrieves the version of the dictionary the notes are currently tagged with.
+   *
+   * @return the dictionary version, or null if the tagging service is unavailable
+   */
+  public String getDictionaryVersion() {
+    if (!enabled) return null;
+    NoteTagsDto tags = call(uri ->
+      restClient.get().uri(uri + "/version").retrieve().body(NoteTagsDto.class)
+    );
+    return tags == null ? null : tags.getDictionaryVersion();
+  }
+
+  /**
+   * Sends a request to each instance of the tagging service in turn, until one answers.
+   */
+  private NoteTagsDto call(Function<String, NoteTagsDto> request) {
+    for (ServiceInstance instance : discoveryClient.getInstances(service)) {
+      try {
+        return request.apply(instance.getUri().resolve(path).toString());
+      } catch (Exception e) {
+        log.warn("Error tagging notes with {}: {}", instance.getUri(), e.getMessage());
+      }
+    }
+    return null;
+  }
+}
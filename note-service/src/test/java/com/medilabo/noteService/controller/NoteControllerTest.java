@@ -2,6 +2,7 @@ package com.medilabo.noteService.controller;
 
 import com.medilabo.noteService.dto.NoteDto;
 import com.medilabo.noteService.dto.NotesDto;
+import com.medilabo.noteService.dto.PatientCategoriesDto;
 import com.medilabo.noteService.model.Note;
 import com.medilabo.noteService.service.NoteService;
 import org.junit.jupiter.api.BeforeEach;
@@ -82,6 +83,28 @@ class NoteControllerTest {
         assertEquals("id1", result.getFirst().getId());
     }
 
+    @Test
+    void getAllNotesByPatients_shouldReturnListOfNotes() {
+        List<Note> notes = Collections.singletonList(note);
+        when(noteService.getAllNotesByPatients(List.of("patient1", "patient2"))).thenReturn(notes);
+
+        List<Note> result = noteController.getAllNotesByPatients(List.of("patient1", "patient2"));
+
+        assertEquals(notes, result);
+    }
+
+    @Test
+    void getCategoriesByPatient_shouldReturnCategoriesFromService() {
+        PatientCategoriesDto categories = new PatientCategoriesDto();
+        categories.setPatient("patient1");
+        categories.setCategories(List.of("Fumeur"));
+        when(noteService.getCategoriesByPatient("patient1")).thenReturn(categories);
+
+        PatientCategoriesDto result = noteController.getCategoriesByPatient("patient1");
+
+        assertEquals(categories, result);
+    }
+
     @Test
     void addNote_shouldCallService() {
         doNothing().when(noteService).addNote(any(NoteDto.class));
@@ -0,0 +1,145 @@
+package com.medilabo.noteService.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.noteService.dto.NoteEventDto;
+import com.medilabo.noteService.model.Note;
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NoteEventPublisherTest {
+
+  private static final Pattern VERSION = Pattern.compile("\"version\":(\\d+)");
+
+  private HttpServer server;
+  private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+  private DiscoveryClient discoveryClient;
+  private NoteEventPublisher publisher;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+      "/internal/assessment/events/notes",
+      exchange -> {
+        received.add(
+          exchange.getRequestMethod() +
+          " " +
+          new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+        );
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+      }
+    );
+    server.start();
+
+    discoveryClient = mock(DiscoveryClient.class);
+    publisher = new NoteEventPublisher(discoveryClient);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private ServiceInstance instance(URI uri) {
+    return new DefaultServiceInstance(
+      "assessment-" + uri.getPort(),
+      "assessment-service",
+      uri.getHost(),
+      uri.getPort(),
+      false
+    );
+  }
+
+  private static Note note() {
+    Note note = new Note();
+    note.setId("n1");
+    note.setPatient("p1");
+    note.setNote("Fumeur");
+    return note;
+  }
+
+  @Test
+  void publish_shouldSendEventToEveryInstance() throws Exception {
+    URI uri = URI.create("http://localhost:" + server.getAddress().getPort());
+    when(discoveryClient.getInstances("assessment-service")).thenReturn(
+      List.of(instance(uri), instance(uri))
+    );
+
+    publisher.publish(NoteEventDto.Type.UPDATED, note());
+
+    for (int i = 0; i < 2; i++) {
+      String request = received.poll(5, TimeUnit.SECONDS);
+      assertThat(request)
+        .startsWith("POST ")
+        .contains("\"type\":\"UPDATED\"")
+        .contains("\"noteId\":\"n1\"")
+        .contains("\"patient\":\"p1\"")
+        .contains("\"note\":\"Fumeur\"");
+    }
+  }
+
+  @Test
+  void publish_shouldNotSendContentOfDeletedNote() throws Exception {
+    URI uri = URI.create("http://localhost:" + server.getAddress().getPort());
+    when(discoveryClient.getInstances("assessment-service")).thenReturn(
+      List.of(instance(uri))
+    );
+
+    publisher.publish(NoteEventDto.Type.DELETED, note());
+
+    assertThat(received.poll(5, TimeUnit.SECONDS))
+      .contains("\"type\":\"DELETED\"")
+      .contains("\"note\":null");
+  }
+
+  @Test
+  void publish_shouldIncreaseVersionWithEachEvent() throws Exception {
+    URI uri = URI.create("http://localhost:" + server.getAddress().getPort());
+    when(discoveryClient.getInstances("assessment-service")).thenReturn(
+      List.of(instance(uri))
+    );
+
+    publisher.publish(NoteEventDto.Type.UPDATED, note());
+    publisher.publish(NoteEventDto.Type.DELETED, note());
+
+    List<Long> versions = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      String request = received.poll(5, TimeUnit.SECONDS);
+      Matcher matcher = VERSION.matcher(request);
+      assertThat(matcher.find()).isTrue();
+      versions.add(Long.parseLong(matcher.group(1)));
+    }
+    // the events may be received in any order, but never with the same version
+    assertThat(versions).doesNotHaveDuplicates().allMatch(version -> version > 0);
+  }
+
+  @Test
+  void publish_shouldDoNothingWhenDisabled() {
+    ReflectionTestUtils.setField(publisher, "enabled", false);
+
+    publisher.publish(NoteEventDto.Type.CREATED, note());
+
+    verifyNoInteractions(discoveryClient);
+  }
+}
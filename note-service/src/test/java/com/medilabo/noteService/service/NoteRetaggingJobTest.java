@@ -0,0 +1,138 @@
+package com.medilabo.noteService.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.noteService.model.Note;
+import com.medilabo.noteService.repository.NoteRepository;
+import com.mongodb.client.result.UpdateResult;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class NoteRetaggingJobTest {
+
+  @Mock
+  private NoteRepository noteRepository;
+
+  @Mock
+  private NoteTagger noteTagger;
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @InjectMocks
+  private NoteRetaggingJob job;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  private static Note note(String id) {
+    Note note = new Note();
+    note.setId(id);
+    note.setNote("Fumeur");
+    return note;
+  }
+
+  private void tagWith(String version) {
+    when(noteTagger.tag(any())).thenAnswer(invocation -> {
+      List<Note> notes = invocation.getArgument(0);
+      notes.forEach(note -> {
+        note.setCategories(List.of("Fumeur"));
+        note.setDictionaryVersion(version);
+      });
+      return true;
+    });
+  }
+
+  @Test
+  void retag_shouldTagStaleNotesBatchByBatch() {
+    when(noteTagger.getDictionaryVersion()).thenReturn("v2");
+    when(noteRepository.findByDictionaryVersionNot(eq("v2"), any(Pageable.class)))
+      .thenReturn(new SliceImpl<>(List.of(note("1"), note("2"))))
+      .thenReturn(new SliceImpl<>(List.of(note("3"))))
+      .thenReturn(new SliceImpl<>(List.of()));
+    tagWith("v2");
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Note.class)))
+      .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+    long retagged = job.retag();
+
+    assertThat(retagged).isEqualTo(3);
+    verify(noteTagger, times(2)).tag(any());
+  }
+
+  @Test
+  void retag_shouldStopWhenDictionaryChangesDuringTheJob() {
+    when(noteTagger.getDictionaryVersion()).thenReturn("v2");
+    when(noteRepository.findByDictionaryVersionNot(eq("v2"), any(Pageable.class)))
+      .thenReturn(new SliceImpl<>(List.of(note("1"))));
+    tagWith("v3");
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Note.class)))
+      .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+    assertThat(job.retag()).isEqualTo(1);
+    verify(noteTagger, times(1)).tag(any());
+  }
+
+  @Test
+  void retag_shouldStopWhenNotesCannotBeTagged() {
+    when(noteTagger.getDictionaryVersion()).thenReturn("v2");
+    when(noteRepository.findByDictionaryVersionNot(eq("v2"), any(Pageable.class)))
+      .thenReturn(new SliceImpl<>(List.of(note("1"))));
+    when(noteTagger.tag(any())).thenReturn(false);
+
+    assertThat(job.retag()).isZero();
+    verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(Note.class));
+  }
+
+  @Test
+  void retag_shouldDoNothingWhenTaggingServiceIsUnavailable() {
+    when(noteTagger.getDictionaryVersion()).thenReturn(null);
+
+    assertThat(job.retag()).isZero();
+    verifyNoInteractions(noteRepository, mongoTemplate);
+  }
+
+  @Test
+  void tagLater_shouldSaveOnlyTheCategoriesOfTheWrittenNote() {
+    ReflectionTestUtils.setField(job, "executor", (Executor) Runnable::run);
+    Note written = note("1");
+    tagWith("v2");
+    when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Note.class)))
+      .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+
+    job.tagLater(written);
+
+    verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(Note.class));
+    assertThat(written.getCategories()).isNull();
+  }
+
+  @Test
+  void tagLater_shouldLeaveNoteUntaggedWhenTaggingFails() {
+    ReflectionTestUtils.setField(job, "executor", (Executor) Runnable::run);
+    when(noteTagger.tag(any())).thenReturn(false);
+
+    job.tagLater(note("1"));
+
+    verifyNoInteractions(mongoTemplate);
+  }
+}
@@ -4,11 +4,14 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.medilabo.noteService.dto.NoteDto;
+import com.medilabo.noteService.dto.NoteEventDto;
 import com.medilabo.noteService.dto.NotesDto;
+import com.medilabo.noteService.dto.PatientCategoriesDto;
 import com.medilabo.noteService.model.Note;
 import com.medilabo.noteService.repository.NoteRepository;
 import java.util.Collections;
@@ -17,6 +20,7 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -30,6 +34,12 @@ class NoteServiceTest {
   @Mock
   private NoteRepository noteRepository;
 
+  @Mock
+  private NoteEventPublisher noteEventPublisher;
+
+  @Mock
+  private NoteRetaggingJob noteRetaggingJob;
+
   @InjectMocks
   private NoteService noteService;
 
@@ -91,6 +101,100 @@ class NoteServiceTest {
     assertThat(result).containsExactly(note);
   }
 
+  @Test
+  void getAllNotesByPatients_shouldReturnNotesOfAllPatientsInOneQuery() {
+    Note note = new Note();
+    note.setPatient("patient2");
+    List<String> patients = List.of("patient1", "patient2");
+    when(noteRepository.findByPatientIn(patients)).thenReturn(List.of(note));
+
+    List<Note> result = noteService.getAllNotesByPatients(patients);
+
+    assertThat(result).containsExactly(note);
+    verify(noteRepository).findByPatientIn(patients);
+  }
+
+  @Test
+  void getAllNotesByPatients_shouldRejectTooManyPatients() {
+    List<String> patients = Collections.nCopies(
+      NoteService.MAX_BULK_SIZE + 1,
+      "patient"
+    );
+
+    assertThatThrownBy(() -> noteService.getAllNotesByPatients(patients))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Too many patients");
+  }
+
+  @Test
+  void getCategoriesByPatients_shouldReturnAggregatedCategoriesInOrder() {
+    PatientCategoriesDto aggregated = new PatientCategoriesDto();
+    aggregated.setPatient("patient2");
+    aggregated.setCategories(List.of("Fumeur"));
+    aggregated.setNotes(2);
+    aggregated.setDictionaryVersion("v1");
+    List<String> patients = List.of("patient1", "patient2");
+    when(noteRepository.aggregateCategoriesByPatients(patients)).thenReturn(
+      List.of(aggregated)
+    );
+
+    List<PatientCategoriesDto> result = noteService.getCategoriesByPatients(
+      patients
+    );
+
+    assertThat(result).extracting(PatientCategoriesDto::getPatient)
+      .containsExactly("patient1", "patient2");
+    assertThat(result.get(0).getCategories()).isEmpty();
+    assertThat(result.get(0).getNotes()).isZero();
+    assertThat(result.get(1)).isSameAs(aggregated);
+  }
+
+  @Test
+  void getCategoriesByPatients_shouldRejectTooManyPatients() {
+    List<String> patients = Collections.nCopies(
+      NoteService.MAX_BULK_SIZE + 1,
+      "patient"
+    );
+
+    assertThatThrownBy(() -> noteService.getCategoriesByPatients(patients))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Too many patients");
+  }
+
+  @Test
+  void addNote_shouldTagNoteAfterSaving() {
+    NoteDto noteDto = new NoteDto();
+    noteDto.setPatient("patient1");
+    noteDto.setNote("Fumeur");
+
+    noteService.addNote(noteDto);
+
+    ArgumentCaptor<Note> captor = ArgumentCaptor.forClass(Note.class);
+    InOrder inOrder = inOrder(noteRepository, noteRetaggingJob);
+    inOrder.verify(noteRepository).save(captor.capture());
+    inOrder.verify(noteRetaggingJob).tagLater(captor.getValue());
+  }
+
+  @Test
+  void updateNote_shouldClearCategoriesAndTagNoteAfterSaving() {
+    Note existingNote = new Note();
+    existingNote.setId("1");
+    existingNote.setNote("Fumeur");
+    existingNote.setCategories(List.of("Fumeur"));
+    existingNote.setDictionaryVersion("v1");
+    NoteDto noteDto = new NoteDto();
+    noteDto.setNote("RAS");
+    when(noteRepository.findById("1")).thenReturn(Optional.of(existingNote));
+
+    noteService.updateNote("1", noteDto);
+
+    InOrder inOrder = inOrder(noteRepository, noteRetaggingJob);
+    inOrder.verify(noteRepository).save(existingNote);
+    inOrder.verify(noteRetaggingJob).tagLater(existingNote);
+    assertThat(existingNote.getCategories()).isNull();
+    assertThat(existingNote.getDictionaryVersion()).isNull();
+  }
+
   @Test
   void addNote_shouldSaveNote() {
     NoteDto noteDto = new NoteDto();
@@ -110,6 +214,7 @@ class NoteServiceTest {
     Note captured = captor.getValue();
     assertThat(captured.getPatient()).isEqualTo("patient1");
     assertThat(captured.getNote()).isEqualTo("test note");
+    verify(noteEventPublisher).publish(NoteEventDto.Type.CREATED, captured);
   }
 
   @Test
@@ -128,6 +233,7 @@ class NoteServiceTest {
 
     assertThat(existingNote.getNote()).isEqualTo("new note");
     verify(noteRepository).save(existingNote);
+    verify(noteEventPublisher).publish(NoteEventDto.Type.UPDATED, existingNote);
   }
 
   @Test
@@ -140,5 +246,6 @@ class NoteServiceTest {
     noteService.deleteNote("1");
 
     verify(noteRepository).delete(existingNote);
+    verify(noteEventPublisher).publish(NoteEventDto.Type.DELETED, existingNote);
   }
 }
@@ -0,0 +1,126 @@
+package com.medilabo.noteService.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.noteService.model.Note;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+class NoteTaggerTest {
+
+  private HttpServer server;
+  private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+  private DiscoveryClient discoveryClient;
+  private NoteTagger tagger;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+      "/internal/assessment/tags",
+      exchange -> {
+        received.add(
+          new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+        );
+        if (exchange.getRequestURI().getPath().endsWith("/version")) {
+          respond(exchange, "{\"dictionaryVersion\":\"v1\",\"categories\":[]}");
+        } else {
+          respond(
+            exchange,
+            "{\"dictionaryVersion\":\"v1\",\"categories\":[[\"Fumeur\"],[]]}"
+          );
+        }
+      }
+    );
+    server.start();
+
+    discoveryClient = mock(DiscoveryClient.class);
+    tagger = new NoteTagger(discoveryClient);
+    tagger.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private static void respond(HttpExchange exchange, String body)
+    throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+
+  private ServiceInstance instance(URI uri) {
+    return new DefaultServiceInstance(
+      "assessment-" + uri.getPort(),
+      "assessment-service",
+      uri.getHost(),
+      uri.getPort(),
+      false
+    );
+  }
+
+  private static Note note(String content) {
+    Note note = new Note();
+    note.setNote(content);
+    return note;
+  }
+
+  @Test
+  void tag_shouldSetCategoriesAndVersionOfEachNote() {
+    URI down = URI.create("http://localhost:1");
+    URI up = URI.create("http://localhost:" + server.getAddress().getPort());
+    when(discoveryClient.getInstances("assessment-service")).thenReturn(
+      List.of(instance(down), instance(up))
+    );
+    List<Note> notes = List.of(note("Fumeur"), note("RAS"));
+
+    boolean tagged = tagger.tag(notes);
+
+    assertThat(tagged).isTrue();
+    assertThat(received.poll()).isEqualTo("[\"Fumeur\",\"RAS\"]");
+    assertThat(notes.get(0).getCategories()).containsExactly("Fumeur");
+    assertThat(notes.get(1).getCategories()).isEmpty();
+    assertThat(notes).allMatch(note -> "v1".equals(note.getDictionaryVersion()));
+  }
+
+  @Test
+  void tag_shouldLeaveNotesUntaggedWhenNoInstanceAnswers() {
+    when(discoveryClient.getInstances("assessment-service")).thenReturn(
+      List.of(instance(URI.create("http://localhost:1")))
+    );
+    Note note = note("Fumeur");
+
+    assertThat(tagger.tag(List.of(note))).isFalse();
+    assertThat(note.getCategories()).isNull();
+    assertThat(note.getDictionaryVersion()).isNull();
+  }
+
+  @Test
+  void getDictionaryVersion_shouldReturnVersionOfTaggingService() {
+    URI uri = URI.create("http://localhost:" + server.getAddress().getPort());
+    when(discoveryClient.getInstances("assessment-service")).thenReturn(
+      List.of(instance(uri))
+    );
+
+    assertThat(tagger.getDictionaryVersion()).isEqualTo("v1");
+  }
+}
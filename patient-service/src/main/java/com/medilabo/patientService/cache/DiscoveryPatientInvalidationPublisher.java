@@ -0,0 +1,59 @@
+package com.medilabo.patientService.cache;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Publishes the patient invalidations to every instance of the service registered in the discovery server,
+ * this one included, where the invalidation is a no-op.
+ * Invalidations are sent asynchronously and on a best-effort basis: a failure is logged and does not
+ * affect the write of the patient, and the TTL of the cache bounds the staleness it leaves.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DiscoveryPatientInvalidationPublisher implements PatientInvalidationPublisher {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient = RestClient.create();
+
+    @Value("${patients.cache.invalidation.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${spring.application.name:patient-service}")
+    private String service = "patient-service";
+
+    @Value("${patients.cache.invalidation.path:/internal/patients/events/invalidations}")
+    private String path = "/internal/patients/events/invalidations";
+
+    @Override
+    public void publish(UUID id) {
+        if (!enabled) return;
+        EXECUTOR.execute(() -> send(id));
+    }
+
+    private void send(UUID id) {
+        for (ServiceInstance instance : discoveryClient.getInstances(service)) {
+            try {
+                restClient
+                        .post()
+                        .uri(instance.getUri().resolve(path))
+                        .body(id)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (Exception e) {
+                log.warn("Error sending invalidation of patient {} to {}: {}", id, instance.getUri(), e.getMessage());
+            }
+        }
+    }
+}
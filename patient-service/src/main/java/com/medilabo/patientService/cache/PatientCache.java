@@ -0,0 +1,216 @@
+package com.medilabo.patientService.cache;
+
+import com.medilabo.patientService.dto.PatientDetailsDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Read-through cache of the patients by ID, so that the patient pages and the assessments, which read
+ * the same patients over and over, do not each cost a query.
+ *
+ * <p>
+ *  The cache holds at most {@code patients.cache.max-entries} patients, each for at most
+ *  {@code patients.cache.ttl}. The patients are spread over segments, each with its own lock and its share
+ *  of the maximum entries, the least recently read patient of a segment being evicted first, so that the
+ *  reads of different patients seldom wait for each other. Unknown patients are not cached, so that
+ *  a patient created through another instance is found at once. The patients are cached as immutable
+ *  projections, so that they may be shared between the readers.
+ * </p>
+ * <p>
+ *  A patient written through this instance is evicted from it, then from the other instances through the
+ *  {@link PatientInvalidationPublisher}; the TTL bounds the staleness when an invalidation is lost. A
+ *  patient invalidated while it is being read from the database is not cached, using one stamp per stripe
+ *  of patients, so that a read racing with a write never caches the patient as it was before the write.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientCache {
+
+    static final String REQUESTS_METRIC = "patients.cache.requests";
+    static final String HIT_RATIO_METRIC = "patients.cache.hit-ratio";
+    static final String EVICTIONS_METRIC = "patients.cache.evictions";
+    static final String SIZE_METRIC = "patients.cache.size";
+
+    private static final int STRIPES = 1024;
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_ENTRIES = 64;
+
+    private final PatientInvalidationPublisher invalidationPublisher;
+
+    @Value("${patients.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${patients.cache.max-entries:10000}")
+    private int maxEntries = 10_000;
+
+    @Value("${patients.cache.ttl:PT5M}")
+    private Duration ttl = Duration.ofMinutes(5);
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private Segment[] segments;
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    /**
+     * A patient, and when it was read from the database.
+     */
+    private record Entry(PatientDetailsDto patient, long loadedAt) {
+    }
+
+    /**
+     * Patients in least recently read order, guarded by the segment itself.
+     */
+    private static final class Segment {
+        private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * Creates the segments and registers the metrics of the cache.
+     * A small cache has fewer segments, so that its eviction order stays close to a single LRU.
+     */
+    @PostConstruct
+    public void start() {
+        int segmentCount = Integer.highestOneBit(Math.clamp(maxEntries / MIN_SEGMENT_ENTRIES, 1, MAX_SEGMENTS));
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(Math.max(maxEntries / segmentCount, 1));
+        }
+        hits = requests("hit");
+        misses = requests("miss");
+        evictions = Counter.builder(EVICTIONS_METRIC)
+                .description("Patients evicted from the cache to respect its maximum number of entries")
+                .register(meterRegistry);
+        Gauge.builder(HIT_RATIO_METRIC, this, PatientCache::hitRatio)
+                .description("Share of the reads of a patient by ID served from the cache")
+                .register(meterRegistry);
+        Gauge.builder(SIZE_METRIC, this, PatientCache::size)
+                .description("Patients in the cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns a cached patient, or reads it and caches it.
+     *
+     * @param id     the ID of the patient
+     * @param loader reads the patient from the database
+     * @return the patient, or empty if it does not exist
+     */
+    public Optional<PatientDetailsDto> get(UUID id, Function<UUID, Optional<PatientDetailsDto>> loader) {
+        if (!enabled) return loader.apply(id);
+
+        Segment segment = segment(id);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(id);
+            if (entry != null && !isExpired(entry)) {
+                hits.increment();
+                return Optional.of(entry.patient());
+            }
+            if (entry != null) segment.entries.remove(id);
+        }
+        misses.increment();
+
+        int stripe = stripe(id);
+        long stamp = stamps.get(stripe);
+        Optional<PatientDetailsDto> loaded = loader.apply(id);
+        if (loaded.isEmpty()) return loaded;
+        synchronized (segment) {
+            if (stamps.get(stripe) == stamp) {
+                segment.entries.put(id, new Entry(loaded.get(), System.nanoTime()));
+                if (segment.entries.size() > segment.capacity) {
+                    segment.entries.remove(segment.entries.keySet().iterator().next());
+                    evictions.increment();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Evicts a patient written through this instance, from this instance and from the other ones.
+     *
+     * @param id the ID of the patient
+     */
+    public void evict(UUID id) {
+        invalidate(id);
+        invalidationPublisher.publish(id);
+    }
+
+    /**
+     * Evicts a patient from this instance only, as when another instance reports a write.
+     *
+     * @param id the ID of the patient
+     */
+    public void invalidate(UUID id) {
+        stamps.incrementAndGet(stripe(id));
+        Segment segment = segment(id);
+        synchronized (segment) {
+            segment.entries.remove(id);
+        }
+    }
+
+    /**
+     * @return the number of cached patients
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the share of the reads served from the cache since the start, or 0 before any read
+     */
+    public double hitRatio() {
+        double hitCount = hits.count();
+        double total = hitCount + misses.count();
+        return total == 0 ? 0 : hitCount / total;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.loadedAt() > ttl.toNanos();
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder(REQUESTS_METRIC)
+                .description("Reads of a patient by ID, by whether the cache served them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Segment segment(UUID id) {
+        int hash = id.hashCode();
+        return segments[(hash ^ hash >>> 16) & (segments.length - 1)];
+    }
+
+    private static int stripe(UUID id) {
+        return id.hashCode() & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,17 @@
+package com.medilabo.patientService.cache;
+
+import java.util.UUID;
+
+/**
+ * Tells the other instances of the service that a patient has been written, so that they evict it
+ * from their {@link PatientCache}.
+ */
+public interface PatientInvalidationPublisher {
+
+    /**
+     * Publishes the write of a patient.
+     *
+     * @param id the ID of the patient
+     */
+    void publish(UUID id);
+}
@@ -0,0 +1,32 @@
+package com.medilabo.patientService.controller;
+
+import com.medilabo.patientService.cache.PatientCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Controller for keeping the patient cache of this instance consistent with the writes of the other ones.
+ * It is called by the other instances only, so it is kept out of the paths routed by the gateway.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/patients")
+public class PatientCacheController {
+
+    private final PatientCache patientCache;
+
+    /**
+     * Endpoint notified by the instances of the service when a patient is updated or deleted.
+     *
+     * @param id the ID of the written patient
+     */
+    @PostMapping("/events/invalidations")
+    public void onInvalidation(@RequestBody UUID id) {
+        patientCache.invalidate(id);
+    }
+}
@@ -1,8 +1,11 @@
 package com.medilabo.patientService.controller;
 
+import com.medilabo.patientService.dto.PatientDetailsDto;
 import com.medilabo.patientService.dto.PatientDto;
+import com.medilabo.patientService.dto.PatientSuggestionsDto;
+import com.medilabo.patientService.dto.PatientSummaryDto;
+import com.medilabo.patientService.dto.PatientsCursorDto;
 import com.medilabo.patientService.dto.PatientsDto;
-import com.medilabo.patientService.model.Patient;
 import com.medilabo.patientService.service.PatientService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
@@ -10,6 +13,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -33,55 +37,77 @@ public class PatientController {
      * @return a PatientsDto containing the list of patients and pagination info
      */
     @GetMapping
-    public PatientsDto getAllPatients(
+    public PatientsDto<PatientDetailsDto> getAllPatients(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
             @RequestParam(defaultValue = "asc") String sort,
             @RequestParam(defaultValue = "lastName") String sortBy
     ) {
-        Direction direction = sort.equalsIgnoreCase("desc")
-                ? Direction.DESC
-                : Direction.ASC;
-
-        String sortFinal =
-                switch (sortBy) {
-                    case "birthDate" -> "birthDate";
-                    case "gender" -> "gender";
-                    default -> "lastName";
-                };
-
         PageRequest pageRequest = PageRequest.of(
                 page,
                 size,
-                Sort.by(direction, sortFinal)
+                Sort.by(direction(sort), sortField(sortBy))
         );
 
         return patientService.getAllPatients(pageRequest);
     }
 
+    /**
+     * Retrieves a page of patients from a cursor, with sorting.
+     * Deep pages are as fast as the first one, unlike with {@link #getAllPatients(int, int, String, String)}.
+     *
+     * @param cursor the cursor of the page, as returned with a previous page, absent for the first page
+     * @param size   the number of patients per page
+     * @param sort   the sort direction (asc or desc)
+     * @param sortBy the field to sort by (default is lastName)
+     * @param count  whether to count the patients
+     * @return a PatientsCursorDto containing the page of patients and the cursors of the pages around it
+     */
+    @GetMapping("/cursor")
+    public PatientsCursorDto getPatientsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int size,
+            @RequestParam(defaultValue = "asc") String sort,
+            @RequestParam(defaultValue = "lastName") String sortBy,
+            @RequestParam(defaultValue = "false") boolean count
+    ) {
+        return patientService.getPatientsByCursor(cursor, size, direction(sort), sortField(sortBy), count);
+    }
+
     /**
      * Retrieves a patient by ID.
      *
      * @param id the ID of the patient to retrieve
-     * @return the Patient object if found, or throws an exception if not found
+     * @return the patient if found, or throws an exception if not found
      */
     @GetMapping("/{id}")
-    public Patient getPatientById(@PathVariable UUID id) {
+    public PatientDetailsDto getPatientById(@PathVariable UUID id) {
         return patientService
                 .getPatientById(id)
                 .orElseThrow(() -> new RuntimeException("Patient not found"));
     }
 
+    /**
+     * Retrieves several patients by ID in a single request, for batch processing.
+     *
+     * @param ids the IDs of the patients to retrieve
+     * @return the patients found, unknown IDs being ignored
+     */
+    @PostMapping("/bulk")
+    public List<PatientDetailsDto> getPatientsByIds(@RequestBody List<UUID> ids) {
+        return patientService.getPatientsByIds(ids);
+    }
+
     /**
      * Searches for patients by name with pagination.
      *
      * @param q    the search query (name)
      * @param page the page number to retrieve
      * @param size the number of patients per page
-     * @return a PatientsDto containing the list of matching patients and pagination info
+     * @return a PatientsDto containing the list of matching patients, without their contact details, and pagination info
      */
     @GetMapping("/search")
-    public PatientsDto searchPatients(
+    public PatientsDto<PatientSummaryDto> searchPatients(
             @RequestParam String q,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size
@@ -89,6 +115,21 @@ public class PatientController {
         return patientService.searchPatients(q, PageRequest.of(page, size));
     }
 
+    /**
+     * Suggests patients whose name starts with a query, for the typeahead of the header search.
+     *
+     * @param q     the beginning of the name
+     * @param limit the maximum number of patients to suggest
+     * @return a PatientSuggestionsDto containing the IDs and names of the suggested patients
+     */
+    @GetMapping("/typeahead")
+    public PatientSuggestionsDto suggestPatients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "5") int limit
+    ) {
+        return patientService.suggestPatients(q, limit);
+    }
+
     /**
      * Adds a new patient.
      *
@@ -123,4 +164,16 @@ public class PatientController {
     public void deletePatient(@PathVariable UUID id) {
         patientService.deletePatient(id);
     }
+
+    private static Direction direction(String sort) {
+        return sort.equalsIgnoreCase("desc") ? Direction.DESC : Direction.ASC;
+    }
+
+    private static String sortField(String sortBy) {
+        return switch (sortBy) {
+            case "birthDate" -> "birthDate";
+            case "gender" -> "gender";
+            default -> "lastName";
+        };
+    }
 }
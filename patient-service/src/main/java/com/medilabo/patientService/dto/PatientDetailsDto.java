@@ -0,0 +1,20 @@
+package com.medilabo.patientService.dto;
+
+import com.medilabo.patientService.model.Gender;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for a patient as listed and shown: every column, with the same names as the entity.
+ * It is read as a projection, straight from the columns, so that listing patients neither builds entities
+ * nor tracks them in the persistence context; being immutable, it may be shared through the cache.
+ */
+public record PatientDetailsDto(
+  UUID id,
+  String firstName,
+  String lastName,
+  LocalDate birthDate,
+  Gender gender,
+  String postalAddress,
+  String phoneNumber
+) {}
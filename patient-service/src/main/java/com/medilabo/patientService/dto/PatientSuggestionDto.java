@@ -0,0 +1,21 @@
+package com.medilabo.patientService.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for a patient suggested by the typeahead search, with only what the suggestion shows.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSuggestionDto {
+
+  private UUID id;
+  private String firstName;
+  private String lastName;
+}
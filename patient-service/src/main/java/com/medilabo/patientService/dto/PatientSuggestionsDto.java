@@ -0,0 +1,19 @@
+package com.medilabo.patientService.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for the patients suggested by the typeahead search, in alphabetical order.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSuggestionsDto {
+
+  private List<PatientSuggestionDto> data;
+}
@@ -0,0 +1,11 @@
+package com.medilabo.patientService.dto;
+
+import com.medilabo.patientService.model.Gender;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Data Transfer Object for a patient found by a name search, with what tells the patients apart but
+ * without their contact details. It is read as a projection, straight from the columns.
+ */
+public record PatientSummaryDto(UUID id, String firstName, String lastName, LocalDate birthDate, Gender gender) {}
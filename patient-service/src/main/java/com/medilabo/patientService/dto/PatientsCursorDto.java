@@ -0,0 +1,23 @@
+package com.medilabo.patientService.dto;
+
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Data Transfer Object for a page of Patients listed by cursor.
+ * The cursors are opaque, and null when there is no page in their direction.
+ */
+@Getter
+@Setter
+public class PatientsCursorDto {
+
+  private List<PatientDetailsDto> data;
+  private String nextCursor;
+  private String previousCursor;
+  private int pageSize;
+  /**
+   * The number of patients, only set when requested; it may be a few seconds old.
+   */
+  private Long totalElements;
+}
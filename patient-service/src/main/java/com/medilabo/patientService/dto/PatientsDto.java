@@ -1,18 +1,19 @@
 package com.medilabo.patientService.dto;
 
-import com.medilabo.patientService.model.Patient;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
  * Data Transfer Object for a paginated list of Patients.
+ *
+ * @param <T> the view of the patients, {@link PatientDetailsDto} or {@link PatientSummaryDto}
  */
 @Getter
 @Setter
-public class PatientsDto {
+public class PatientsDto<T> {
 
-  private List<Patient> data;
+  private List<T> data;
   private long totalElements;
   private int totalPages;
   private int currentPage;
@@ -5,6 +5,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import java.time.LocalDate;
 import java.util.UUID;
 import lombok.Getter;
@@ -13,10 +15,19 @@ import org.hibernate.annotations.UuidGenerator;
 
 /**
  * Entity representing a Patient in the system.
+ * Each field the patients can be listed by is indexed together with the ID, so that a page
+ * listed by cursor is a seek in an index whatever its depth.
  */
 @Getter
 @Setter
 @Entity
+@Table(
+  indexes = {
+    @Index(name = "idx_patient_last_name_id", columnList = "last_name, id"),
+    @Index(name = "idx_patient_birth_date_id", columnList = "birth_date, id"),
+    @Index(name = "idx_patient_gender_id", columnList = "gender, id"),
+  }
+)
 public class Patient {
 
   @Id
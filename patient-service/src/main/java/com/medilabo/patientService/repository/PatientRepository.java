@@ -1,30 +1,121 @@
 package com.medilabo.patientService.repository;
 
+import com.medilabo.patientService.dto.PatientDetailsDto;
+import com.medilabo.patientService.dto.PatientSummaryDto;
 import com.medilabo.patientService.model.Patient;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import lombok.NonNull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository interface for Patient entity.
  * Extends JpaRepository to provide CRUD operations and custom queries.
+ * The patients only read are returned as projections, {@link PatientDetailsDto} or {@link PatientSummaryDto},
+ * selecting their columns into immutable objects rather than building managed entities;
+ * the entities are only read to be written. The projections are constructor expressions wherever the query
+ * allows it, so that Hibernate builds them from the rows rather than Spring Data converting tuples.
  */
 public interface PatientRepository extends JpaRepository<Patient, UUID> {
+  /**
+   * The selection of the patients as {@link PatientDetailsDto}.
+   */
+  String DETAILS =
+    "SELECT new com.medilabo.patientService.dto.PatientDetailsDto(" +
+    "p.id, p.firstName, p.lastName, p.birthDate, p.gender, p.postalAddress, p.phoneNumber) FROM Patient p ";
+
+  /**
+   * The selection of the patients as {@link PatientSummaryDto}.
+   */
+  String SUMMARIES =
+    "SELECT new com.medilabo.patientService.dto.PatientSummaryDto(" +
+    "p.id, p.firstName, p.lastName, p.birthDate, p.gender) FROM Patient p ";
+
+  /**
+   * The condition of {@link #searchByName}, shared by its query and its count.
+   */
+  String NAME_MATCHES =
+    "WHERE LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%')) " +
+    "OR LOWER(p.lastName) LIKE LOWER(CONCAT('%', :query, '%')) " +
+    "OR LOWER(CONCAT(p.firstName, ' ', p.lastName)) LIKE LOWER(CONCAT('%', :query, '%')) " +
+    "OR LOWER(CONCAT(p.lastName, ' ', p.firstName)) LIKE LOWER(CONCAT('%', :query, '%'))";
+
   @Override
   @NonNull
   Optional<Patient> findById(@NonNull UUID id);
 
+  /**
+   * Lists the patients from a keyset position, seeking to it through the index of the sort
+   * rather than skipping the rows before it.
+   *
+   * @param position the position of the page, whose keys are the properties of the sort
+   * @param sort     the sort, ending with the ID so that the position is unique
+   * @param limit    the size of the page
+   * @return the page, and whether there are patients past it
+   */
+  Window<Patient> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+  /**
+   * Lists a page of the patients, as projections.
+   *
+   * @param pageable the page and its sort
+   * @return the page, and the number of patients
+   */
+  @Transactional(readOnly = true)
+  @Query(value = DETAILS, countQuery = "SELECT COUNT(p) FROM Patient p")
+  Page<PatientDetailsDto> findDetailsBy(Pageable pageable);
+
+  /**
+   * Lists the patients from a keyset position, as projections, as {@link #findAllBy(ScrollPosition, Sort, Limit)}.
+   * Spring Data only scrolls derived queries, so the projection is built from the selected columns.
+   *
+   * @param position the position of the page, whose keys are the properties of the sort
+   * @param sort     the sort, ending with the ID so that the position is unique
+   * @param limit    the size of the page
+   * @return the page, and whether there are patients past it
+   */
+  @Transactional(readOnly = true)
+  Window<PatientDetailsDto> findDetailsBy(ScrollPosition position, Sort sort, Limit limit);
+
+  /**
+   * @param id the ID of the patient
+   * @return the patient as a projection, or empty if it does not exist
+   */
+  @Transactional(readOnly = true)
+  @Query(DETAILS + "WHERE p.id = :id")
+  Optional<PatientDetailsDto> findDetailsById(@Param("id") UUID id);
+
+  /**
+   * @param ids the IDs of the patients
+   * @return the patients found as projections, in no particular order
+   */
+  @Transactional(readOnly = true)
+  @Query(DETAILS + "WHERE p.id IN :ids")
+  List<PatientDetailsDto> findDetailsByIdIn(@Param("ids") Collection<UUID> ids);
+
+  /**
+   * @param ids the IDs of the patients
+   * @return the patients found as search results, in no particular order
+   */
+  @Transactional(readOnly = true)
+  @Query(SUMMARIES + "WHERE p.id IN :ids")
+  List<PatientSummaryDto> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+  @Transactional(readOnly = true)
   @Query(
-    "SELECT p FROM Patient p " +
-    "WHERE LOWER(p.firstName) LIKE LOWER(CONCAT('%', :query, '%')) " +
-    "OR LOWER(p.lastName) LIKE LOWER(CONCAT('%', :query, '%')) " +
-    "OR LOWER(CONCAT(p.firstName, ' ', p.lastName)) LIKE LOWER(CONCAT('%', :query, '%')) " +
-    "OR LOWER(CONCAT(p.lastName, ' ', p.firstName)) LIKE LOWER(CONCAT('%', :query, '%'))"
+    value = SUMMARIES + NAME_MATCHES,
+    countQuery = "SELECT COUNT(p) FROM Patient p " + NAME_MATCHES
   )
-  Page<Patient> searchByName(@Param("query") String query, Pageable pageable);
+  Page<PatientSummaryDto> searchByName(@Param("query") String query, Pageable pageable);
 }
@@ -0,0 +1,291 @@
+package com.medilabo.patientService.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory n-gram index of the names of the patients, answering the same substring queries as
+ * {@code LIKE '%query%'} on "first last" and "last first", without scanning every patient.
+ *
+ * <p>
+ *  Every substring of one to three characters of the normalized names is mapped to the sorted list of the
+ *  patients containing it. A query of up to three characters is a single list; a longer query intersects the
+ *  lists of its trigrams, smallest first, then checks the few candidates left against the names. Names are
+ *  normalized to lower case without accents, so that "Hélène" matches "helene".
+ * </p>
+ * <p>
+ *  Patients are numbered in the order they are added. A removed patient keeps its number and stays in the
+ *  lists, but is skipped by the queries; the lists are compacted by the next rebuild of the index.
+ *  Reads run concurrently, writes exclusively.
+ * </p>
+ */
+class NameIndex {
+
+    static final int MAX_GRAM = 3;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private UUID[] ids = new UUID[1024];
+    private String[] firstNames = new String[1024];
+    private String[] lastNames = new String[1024];
+    private int count;
+    private int removed;
+
+    /**
+     * Adds a patient, unless it is already indexed.
+     */
+    void add(UUID id, String firstName, String lastName) {
+        String first = normalize(firstName);
+        String last = normalize(lastName);
+        lock.writeLock().lock();
+        try {
+            if (find(id, first, last) < 0) append(id, first, last);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a patient known not to be indexed yet, as when building the index from the database,
+     * without the lookup of {@link #add}, which would make the build quadratic on common names.
+     */
+    void load(UUID id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            append(id, normalize(firstName), normalize(lastName));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(UUID id, String first, String last) {
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            firstNames = Arrays.copyOf(firstNames, count * 2);
+            lastNames = Arrays.copyOf(lastNames, count * 2);
+        }
+        int doc = count++;
+        ids[doc] = id;
+        firstNames[doc] = first;
+        lastNames[doc] = last;
+        for (String gram : grams(first + " " + last, last + " " + first)) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(doc);
+        }
+    }
+
+    /**
+     * Removes a patient, found through the grams of its names.
+     */
+    void remove(UUID id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            int doc = find(id, normalize(firstName), normalize(lastName));
+            if (doc < 0) return;
+            ids[doc] = null;
+            removed++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the patients whose "first last" or "last first" name contains a query.
+     *
+     * @param query  the query, matched regardless of case and accents
+     * @param offset the number of matching patients to skip
+     * @param limit  the maximum number of patients to return
+     * @return the page of matching patients, and their total number
+     */
+    PatientSearchIndex.Result search(String query, long offset, int limit) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<UUID> page = new ArrayList<>(Math.min(limit, 64));
+            long total = 0;
+            if (normalized.isEmpty()) {
+                for (int doc = 0; doc < count; doc++) {
+                    if (ids[doc] == null) continue;
+                    if (total++ >= offset && page.size() < limit) page.add(ids[doc]);
+                }
+                return new PatientSearchIndex.Result(page, total);
+            }
+
+            IntList candidates = candidates(normalized);
+            boolean exact = normalized.length() <= MAX_GRAM;
+            if (exact && removed == 0) {
+                // Every candidate matches: the page is a slice of the list, and the total its size
+                for (long i = offset; i < candidates.size && page.size() < limit; i++) {
+                    page.add(ids[candidates.values[(int) i]]);
+                }
+                return new PatientSearchIndex.Result(page, candidates.size);
+            }
+            for (int i = 0; i < candidates.size; i++) {
+                int doc = candidates.values[i];
+                if (ids[doc] == null) continue;
+                if (!exact && !matches(doc, normalized)) continue;
+                if (total++ >= offset && page.size() < limit) page.add(ids[doc]);
+            }
+            return new PatientSearchIndex.Result(page, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed patients
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return count - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normalizes a name or a query: lower case, without accents.
+     */
+    static String normalize(String value) {
+        if (value == null) return "";
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the index of a patient, or -1 if it is not indexed
+     */
+    private int find(UUID id, String first, String last) {
+        IntList candidates = candidates(first + " " + last);
+        for (int i = 0; i < candidates.size; i++) {
+            if (id.equals(ids[candidates.values[i]])) return candidates.values[i];
+        }
+        return -1;
+    }
+
+    /**
+     * @return the patients containing the query if it is short enough to be a gram, or all its trigrams otherwise
+     */
+    private IntList candidates(String normalized) {
+        if (normalized.length() <= MAX_GRAM) {
+            IntList posting = postings.get(normalized);
+            return posting != null ? posting : IntList.EMPTY;
+        }
+        List<IntList> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= normalized.length(); i++) {
+            IntList posting = postings.get(normalized.substring(i, i + MAX_GRAM));
+            if (posting == null) return IntList.EMPTY;
+            lists.add(posting);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+        IntList result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size > 0; i++) {
+            result = result.intersect(lists.get(i));
+        }
+        return result;
+    }
+
+    private boolean matches(int doc, String normalized) {
+        String first = firstNames[doc];
+        String last = lastNames[doc];
+        return containsJoined(first, last, normalized) || containsJoined(last, first, normalized);
+    }
+
+    /**
+     * @return whether {@code left + " " + right} contains the query, without building the joined name
+     */
+    private static boolean containsJoined(String left, String right, String query) {
+        int length = left.length() + 1 + right.length();
+        for (int start = 0; start + query.length() <= length; start++) {
+            int i = 0;
+            while (i < query.length() && charAt(left, right, start + i) == query.charAt(i)) i++;
+            if (i == query.length()) return true;
+        }
+        return false;
+    }
+
+    private static char charAt(String left, String right, int index) {
+        if (index < left.length()) return left.charAt(index);
+        if (index == left.length()) return ' ';
+        return right.charAt(index - left.length() - 1);
+    }
+
+    private static Set<String> grams(String... texts) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (int n = 1; n <= MAX_GRAM; n++) {
+                for (int i = 0; i + n <= text.length(); i++) {
+                    grams.add(text.substring(i, i + n));
+                }
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Growable sorted list of patient numbers.
+     */
+    static final class IntList {
+
+        static final IntList EMPTY = new IntList(new int[0], 0);
+
+        private int[] values;
+        private int size;
+
+        IntList() {
+            this(new int[4], 0);
+        }
+
+        private IntList(int[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Appends a patient number, greater than the ones already in the list.
+         */
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size + (size >> 1) + 1);
+            values[size++] = value;
+        }
+
+        /**
+         * Intersects this list with a list at least as long, binary searching the longer list when it is
+         * much longer, so that a rare gram intersected with a frequent one costs little.
+         */
+        IntList intersect(IntList other) {
+            int[] result = new int[Math.min(size, other.size)];
+            int n = 0;
+            int j = 0;
+            boolean search = other.size > size * 8L;
+            for (int i = 0; i < size && j < other.size; i++) {
+                int value = values[i];
+                if (search) {
+                    int found = Arrays.binarySearch(other.values, j, other.size, value);
+                    j = found >= 0 ? found : -found - 1;
+                } else {
+                    while (j < other.size && other.values[j] < value) j++;
+                }
+                if (j < other.size && other.values[j] == value) result[n++] = value;
+            }
+            return new IntList(result, n);
+        }
+    }
+}
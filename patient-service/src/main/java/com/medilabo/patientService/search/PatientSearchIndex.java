@@ -0,0 +1,256 @@
+package com.medilabo.patientService.search;
+
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import com.medilabo.patientService.model.Patient;
+import com.medilabo.patientService.repository.PatientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.stereotype.Component;
+
+/**
+ * Searches the patients by name through in-memory indexes, so that the searches do not scan the patient
+ * table on every keystroke: a {@link NameIndex} for the names containing a query, and a {@link PrefixIndex}
+ * for the typeahead, which suggests the names starting with a query without reading the database at all.
+ *
+ * <p>
+ *  The indexes are built in the background at startup, streaming the patients in batches, then rebuilt at
+ *  a fixed interval, which also picks up the patients written through other instances of the service.
+ *  Patients added, updated or deleted through this instance are applied to the indexes at once; the ones
+ *  written while a rebuild reads the table are replayed on the new indexes before they replace the old ones.
+ *  Until the first build completes, {@link #isReady()} is false and the callers fall back to querying
+ *  the database.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientSearchIndex {
+
+    static final String SIZE_METRIC = "patients.search-index.size";
+    static final String REBUILD_METRIC = "patients.search-index.rebuild";
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final PatientRepository patientRepository;
+
+    @Value("${patients.search-index.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${patients.search-index.rebuild-interval:PT10M}")
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final Object writeLock = new Object();
+    private volatile Indexes indexes;
+    private List<Consumer<Indexes>> pendingChanges;
+    private ScheduledExecutorService rebuilder;
+
+    /**
+     * A page of the patients matching a query.
+     *
+     * @param ids   the IDs of the patients of the page, in the order of the index
+     * @param total the number of patients matching the query
+     */
+    public record Result(List<UUID> ids, long total) {
+    }
+
+    /**
+     * Registers the metrics and schedules the builds of the indexes.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        Gauge.builder(SIZE_METRIC, this, searchIndex -> searchIndex.indexes != null ? searchIndex.indexes.names().size() : 0)
+                .description("Patients in the name search index")
+                .register(meterRegistry);
+        rebuilder = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("patient-search-index").daemon().factory()
+        );
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops rebuilding the indexes.
+     */
+    @PreDestroy
+    public void stop() {
+        if (rebuilder != null) rebuilder.shutdownNow();
+    }
+
+    /**
+     * @return whether the indexes are enabled and built
+     */
+    public boolean isReady() {
+        return enabled && indexes != null;
+    }
+
+    /**
+     * Finds the patients whose name contains a query, as {@code LIKE '%query%'} on "first last" and "last first",
+     * but regardless of accents.
+     *
+     * @param query  the query
+     * @param offset the number of matching patients to skip
+     * @param limit  the maximum number of patients to return
+     * @return the page of matching patients, and their total number
+     * @throws RuntimeException if the index is not ready
+     */
+    public Result search(String query, long offset, int limit) {
+        return current().names().search(query, offset, limit);
+    }
+
+    /**
+     * Suggests the first patients, in alphabetical order, whose "first last" or "last first" name starts
+     * with a query, regardless of case and accents.
+     *
+     * @param query the query
+     * @param limit the maximum number of patients to suggest
+     * @return the suggested patients
+     * @throws RuntimeException if the index is not ready
+     */
+    public List<PatientSuggestionDto> suggest(String query, int limit) {
+        return current().prefixes().suggest(query, limit);
+    }
+
+    /**
+     * Adds a patient saved through this instance.
+     *
+     * @param patient the patient
+     */
+    public void add(Patient patient) {
+        apply(indexes -> indexes.add(patient));
+    }
+
+    /**
+     * Renames a patient updated through this instance, if its names changed.
+     *
+     * @param patient the patient
+     */
+    public void update(Patient patient) {
+        apply(indexes -> indexes.update(patient));
+    }
+
+    /**
+     * Removes a patient deleted through this instance.
+     *
+     * @param patient the patient
+     */
+    public void remove(Patient patient) {
+        apply(indexes -> indexes.remove(patient));
+    }
+
+    /**
+     * Builds new indexes from the database, then replaces the current ones.
+     * A failed rebuild keeps the current indexes.
+     */
+    void rebuild() {
+        synchronized (writeLock) {
+            pendingChanges = new ArrayList<>();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Indexes rebuilt = new Indexes(new NameIndex(), new PrefixIndex());
+        try {
+            ScrollPosition position = ScrollPosition.keyset();
+            Window<Patient> window;
+            do {
+                window = patientRepository.findAllBy(position, Sort.by("id"), Limit.of(BATCH_SIZE));
+                for (Patient patient : window) {
+                    rebuilt.names().load(patient.getId(), patient.getFirstName(), patient.getLastName());
+                    rebuilt.prefixes().load(patient.getId(), patient.getFirstName(), patient.getLastName());
+                }
+                if (!window.isEmpty()) position = window.positionAt(window.size() - 1);
+            } while (window.hasNext());
+            rebuilt.prefixes().sort();
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                pendingChanges = null;
+            }
+            sample.stop(rebuildTimer("failure"));
+            log.warn("Error building the patient search index: {}", e.getMessage());
+            return;
+        }
+
+        synchronized (writeLock) {
+            for (Consumer<Indexes> change : pendingChanges) {
+                change.accept(rebuilt);
+            }
+            pendingChanges = null;
+            indexes = rebuilt;
+        }
+        long millis = TimeUnit.NANOSECONDS.toMillis(sample.stop(rebuildTimer("success")));
+        log.info("Indexed {} patient names in {} ms", rebuilt.names().size(), millis);
+    }
+
+    private Indexes current() {
+        Indexes current = indexes;
+        if (!enabled || current == null) throw new RuntimeException("Patient search index not ready");
+        return current;
+    }
+
+    private void apply(Consumer<Indexes> change) {
+        if (!enabled) return;
+        synchronized (writeLock) {
+            if (indexes != null) change.accept(indexes);
+            if (pendingChanges != null) pendingChanges.add(change);
+        }
+    }
+
+    private Timer rebuildTimer(String outcome) {
+        return Timer.builder(REBUILD_METRIC)
+                .description("Time to build the patient name search index")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Indexes(NameIndex names, PrefixIndex prefixes) {
+
+        void add(Patient patient) {
+            names.add(patient.getId(), patient.getFirstName(), patient.getLastName());
+            prefixes.add(patient.getId(), patient.getFirstName(), patient.getLastName());
+        }
+
+        void update(Patient patient) {
+            PatientSuggestionDto previous = prefixes.get(patient.getId());
+            if (previous != null) {
+                if (
+                    Objects.equals(previous.getFirstName(), patient.getFirstName()) &&
+                    Objects.equals(previous.getLastName(), patient.getLastName())
+                ) {
+                    return;
+                }
+                names.remove(patient.getId(), previous.getFirstName(), previous.getLastName());
+            }
+            add(patient);
+        }
+
+        void remove(Patient patient) {
+            // Remove the indexed names, which may differ from the ones of the patient
+            PatientSuggestionDto indexed = prefixes.get(patient.getId());
+            if (indexed == null) return;
+            names.remove(patient.getId(), indexed.getFirstName(), indexed.getLastName());
+            prefixes.remove(patient.getId());
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.medilabo.patientService.search;
+
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix index of the names of the patients, for the typeahead: the patients whose "first last"
+ * or "last first" name starts with a query, in alphabetical order, without reading the database.
+ *
+ * <p>
+ *  Each patient is two entries, one per order of its names, packed in an {@code int} as the number of the
+ *  patient and the order. The entries are kept sorted by name in an array, so that a query is two binary
+ *  searches for the range of the names starting with it, then a walk of the first entries of the range.
+ *  Entries added since the array was sorted wait in a small sorted array of their own, walked alongside,
+ *  and both are merged once it is full. The names are normalized as in {@link NameIndex}, and shared
+ *  between the patients having the same, since there are far fewer names than patients.
+ * </p>
+ * <p>
+ *  A removed or renamed patient keeps its number but is skipped, and its entries are dropped by the next
+ *  merge. Reads run concurrently, writes exclusively.
+ * </p>
+ */
+class PrefixIndex {
+
+    static final int MAX_PENDING = 4096;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> docs = new HashMap<>();
+    private final Map<String, String> names = new HashMap<>();
+    private UUID[] ids = new UUID[1024];
+    private String[] firstNames = new String[1024];
+    private String[] lastNames = new String[1024];
+    private String[] normalizedFirstNames = new String[1024];
+    private String[] normalizedLastNames = new String[1024];
+    private int count;
+    private int[] entries = new int[0];
+    private int entryCount;
+    private int[] pending = new int[16];
+    private int pendingCount;
+
+    /**
+     * Adds a patient, or renames it if it is indexed under other names.
+     */
+    void add(UUID id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            Integer previous = docs.get(id);
+            if (previous != null) {
+                if (firstNames[previous].equals(nonNull(firstName)) && lastNames[previous].equals(nonNull(lastName))) {
+                    return;
+                }
+                ids[previous] = null;
+            }
+            int doc = append(id, firstName, lastName);
+            insertPending(doc << 1);
+            insertPending(doc << 1 | 1);
+            if (pendingCount >= MAX_PENDING) merge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a patient known not to be indexed yet, as when building the index from the database.
+     * The entries are left unsorted until {@link #sort()}, which must be called before any other method.
+     */
+    void load(UUID id, String firstName, String lastName) {
+        lock.writeLock().lock();
+        try {
+            int doc = append(id, firstName, lastName);
+            if (entryCount + 2 > entries.length) {
+                entries = Arrays.copyOf(entries, Math.max(16, entryCount * 2));
+            }
+            entries[entryCount++] = doc << 1;
+            entries[entryCount++] = doc << 1 | 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sorts the entries of the patients loaded by {@link #load}.
+     * The joined names are built for the sort only, so that it compares strings rather than characters.
+     */
+    void sort() {
+        lock.writeLock().lock();
+        try {
+            String[] keys = new String[count * 2];
+            Integer[] boxed = new Integer[entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                int doc = entries[i] >>> 1;
+                keys[entries[i]] = (entries[i] & 1) == 0
+                        ? normalizedFirstNames[doc] + " " + normalizedLastNames[doc]
+                        : normalizedLastNames[doc] + " " + normalizedFirstNames[doc];
+                boxed[i] = entries[i];
+            }
+            Arrays.sort(boxed, (a, b) -> {
+                int difference = keys[a].compareTo(keys[b]);
+                return difference != 0 ? difference : Integer.compare(a, b);
+            });
+            entries = new int[entryCount];
+            for (int i = 0; i < entryCount; i++) entries[i] = boxed[i];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a patient.
+     */
+    void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docs.remove(id);
+            if (doc != null) ids[doc] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the names of an indexed patient, or null if it is not indexed
+     */
+    PatientSuggestionDto get(UUID id) {
+        lock.readLock().lock();
+        try {
+            Integer doc = docs.get(id);
+            return doc != null ? suggestion(doc) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the first patients, in alphabetical order, whose "first last" or "last first" name starts with a query.
+     *
+     * @param query the query, matched regardless of case and accents
+     * @param limit the maximum number of patients to return
+     * @return the matching patients
+     */
+    List<PatientSuggestionDto> suggest(String query, int limit) {
+        String prefix = NameIndex.normalize(query);
+        lock.readLock().lock();
+        try {
+            int i = lowerBound(entries, entryCount, prefix, 0);
+            int iEnd = lowerBound(entries, entryCount, prefix, 1);
+            int j = lowerBound(pending, pendingCount, prefix, 0);
+            int jEnd = lowerBound(pending, pendingCount, prefix, 1);
+            List<PatientSuggestionDto> suggestions = new ArrayList<>(Math.min(limit, 64));
+            int[] seen = new int[Math.min(limit, 64)];
+            int seenCount = 0;
+            while (suggestions.size() < limit && (i < iEnd || j < jEnd)) {
+                int entry = j >= jEnd || (i < iEnd && compare(entries[i], pending[j]) < 0) ? entries[i++] : pending[j++];
+                int doc = entry >>> 1;
+                // A patient is listed once, though both orders of its names may start with the query
+                if (ids[doc] == null || contains(seen, seenCount, doc)) continue;
+                if (seenCount == seen.length) seen = Arrays.copyOf(seen, seenCount * 2);
+                seen[seenCount++] = doc;
+                suggestions.add(suggestion(doc));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed patients
+     */
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int append(UUID id, String firstName, String lastName) {
+        if (count == ids.length) {
+            int length = count * 2;
+            ids = Arrays.copyOf(ids, length);
+            firstNames = Arrays.copyOf(firstNames, length);
+            lastNames = Arrays.copyOf(lastNames, length);
+            normalizedFirstNames = Arrays.copyOf(normalizedFirstNames, length);
+            normalizedLastNames = Arrays.copyOf(normalizedLastNames, length);
+        }
+        int doc = count++;
+        ids[doc] = id;
+        firstNames[doc] = share(nonNull(firstName));
+        lastNames[doc] = share(nonNull(lastName));
+        normalizedFirstNames[doc] = share(NameIndex.normalize(firstName));
+        normalizedLastNames[doc] = share(NameIndex.normalize(lastName));
+        docs.put(id, doc);
+        return doc;
+    }
+
+    private void insertPending(int entry) {
+        int low = 0;
+        int high = pendingCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(pending[middle], entry) < 0) low = middle + 1;
+            else high = middle;
+        }
+        if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+        System.arraycopy(pending, low, pending, low + 1, pendingCount - low);
+        pending[low] = entry;
+        pendingCount++;
+    }
+
+    /**
+     * Merges the pending entries into the sorted ones, dropping the entries of the removed patients.
+     */
+    private void merge() {
+        int[] merged = new int[entryCount + pendingCount];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < entryCount || j < pendingCount) {
+            int entry = j >= pendingCount || (i < entryCount && compare(entries[i], pending[j]) < 0)
+                    ? entries[i++]
+                    : pending[j++];
+            if (ids[entry >>> 1] != null) merged[n++] = entry;
+        }
+        entries = Arrays.copyOf(merged, n);
+        entryCount = n;
+        pendingCount = 0;
+    }
+
+    /**
+     * @return the position of the first entry whose name is not before the prefix if {@code end} is 0,
+     * or of the first one whose name is after all the names starting with the prefix if it is 1
+     */
+    private int lowerBound(int[] sorted, int size, String prefix, int end) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareToPrefix(sorted[middle], prefix) < end) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Compares the names of two entries, then their patients, so that no two entries are equal.
+     */
+    private int compare(int a, int b) {
+        int lengthA = length(a);
+        int lengthB = length(b);
+        for (int k = 0; k < Math.min(lengthA, lengthB); k++) {
+            int difference = charAt(a, k) - charAt(b, k);
+            if (difference != 0) return difference;
+        }
+        if (lengthA != lengthB) return lengthA - lengthB;
+        return Integer.compare(a, b);
+    }
+
+    /**
+     * @return a negative number if the name of the entry is before the prefix, 0 if it starts with it,
+     * a positive number if it is after it
+     */
+    private int compareToPrefix(int entry, String prefix) {
+        int length = length(entry);
+        for (int k = 0; k < Math.min(length, prefix.length()); k++) {
+            int difference = charAt(entry, k) - prefix.charAt(k);
+            if (difference != 0) return difference;
+        }
+        return length < prefix.length() ? -1 : 0;
+    }
+
+    /**
+     * @return the character of the normalized "first last" name of an entry, or "last first" for odd entries,
+     * without building the joined name
+     */
+    private char charAt(int entry, int index) {
+        int doc = entry >>> 1;
+        String left = (entry & 1) == 0 ? normalizedFirstNames[doc] : normalizedLastNames[doc];
+        if (index < left.length()) return left.charAt(index);
+        if (index == left.length()) return ' ';
+        String right = (entry & 1) == 0 ? normalizedLastNames[doc] : normalizedFirstNames[doc];
+        return right.charAt(index - left.length() - 1);
+    }
+
+    private int length(int entry) {
+        int doc = entry >>> 1;
+        return normalizedFirstNames[doc].length() + 1 + normalizedLastNames[doc].length();
+    }
+
+    private PatientSuggestionDto suggestion(int doc) {
+        return new PatientSuggestionDto(ids[doc], firstNames[doc], lastNames[doc]);
+    }
+
+    private String share(String name) {
+        String shared = names.putIfAbsent(name, name);
+        return shared != null ? shared : name;
+    }
+
+    private static String nonNull(String name) {
+        return name != null ? name : "";
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,113 @@
+package com.medilabo.patientService.service;
+
+import com.medilabo.patientService.model.Gender;
+import com.medilabo.patientService.dto.PatientDetailsDto;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort.Direction;
+
+/**
+ * Position of a page of patients in a listing sorted by one field, then by ID.
+ * It is handed to the clients as an opaque string holding the sort of the listing, the value of the
+ * sort field and the ID of the patient next to the page, and whether the page comes after or before it.
+ *
+ * @param backward  whether the page comes before the patient
+ * @param sortBy    the field the listing is sorted by
+ * @param direction the direction of the sort
+ * @param value     the value of the sort field of the patient
+ * @param id        the ID of the patient
+ */
+record PatientCursor(boolean backward, String sortBy, Direction direction, Object value, UUID id) {
+
+  private static final String SEPARATOR = "|";
+
+  /**
+   * @return the position of the page following the patient
+   */
+  static PatientCursor after(PatientDetailsDto patient, String sortBy, Direction direction) {
+    return new PatientCursor(false, sortBy, direction, valueOf(patient, sortBy), patient.id());
+  }
+
+  /**
+   * @return the position of the page preceding the patient
+   */
+  static PatientCursor before(PatientDetailsDto patient, String sortBy, Direction direction) {
+    return new PatientCursor(true, sortBy, direction, valueOf(patient, sortBy), patient.id());
+  }
+
+  /**
+   * Decodes a cursor handed to a client.
+   *
+   * @param cursor the cursor, blank for the first page
+   * @return the position, or null for the first page
+   * @throws RuntimeException if the cursor is malformed
+   */
+  static PatientCursor decode(String cursor) {
+    if (cursor == null || cursor.isBlank()) return null;
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = decoded.split("\\" + SEPARATOR, 5);
+      String sortBy = parts[1];
+      return new PatientCursor(
+        "b".equals(parts[0]),
+        sortBy,
+        Direction.valueOf(parts[2]),
+        parseValue(sortBy, parts[4]),
+        UUID.fromString(parts[3])
+      );
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      throw new RuntimeException("Invalid cursor: " + cursor);
+    }
+  }
+
+  /**
+   * @return the cursor to hand to a client
+   */
+  String encode() {
+    String raw = String.join(
+      SEPARATOR,
+      backward ? "b" : "a",
+      sortBy,
+      direction.name(),
+      id.toString(),
+      String.valueOf(value)
+    );
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return whether the cursor belongs to a listing sorted this way
+   */
+  boolean isSortedBy(String sortBy, Direction direction) {
+    return this.sortBy.equals(sortBy) && this.direction == direction;
+  }
+
+  /**
+   * @return the keyset position of the cursor
+   */
+  ScrollPosition toScrollPosition() {
+    Map<String, Object> keys = Map.of(sortBy, value, "id", id);
+    return backward ? ScrollPosition.backward(keys) : ScrollPosition.forward(keys);
+  }
+
+  private static Object valueOf(PatientDetailsDto patient, String sortBy) {
+    return switch (sortBy) {
+      case "birthDate" -> patient.birthDate();
+      case "gender" -> patient.gender();
+      default -> patient.lastName();
+    };
+  }
+
+  private static Object parseValue(String sortBy, String value) {
+    return switch (sortBy) {
+      case "birthDate" -> LocalDate.parse(value);
+      case "gender" -> Gender.valueOf(value);
+      case "lastName" -> value;
+      default -> throw new IllegalArgumentException("Unknown sort field: " + sortBy);
+    };
+  }
+}
@@ -1,28 +1,70 @@
 package com.medilabo.patientService.service;
 
+import com.medilabo.patientService.cache.PatientCache;
+import com.medilabo.patientService.dto.PatientDetailsDto;
 import com.medilabo.patientService.dto.PatientDto;
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import com.medilabo.patientService.dto.PatientSuggestionsDto;
+import com.medilabo.patientService.dto.PatientSummaryDto;
+import com.medilabo.patientService.dto.PatientsCursorDto;
 import com.medilabo.patientService.dto.PatientsDto;
 import com.medilabo.patientService.mapper.PatientMapper;
 import com.medilabo.patientService.model.Patient;
 import com.medilabo.patientService.repository.PatientRepository;
+import com.medilabo.patientService.search.PatientSearchIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for managing patients.
  * Provides methods to retrieve, add, update, and delete patient records.
+ * The patients are read as projections, in read-only transactions, so that the reads neither build
+ * managed entities nor check them for changes; only the patients written are read as entities.
  */
 @Service
 @RequiredArgsConstructor
 public class PatientService {
 
+    /**
+     * Maximum number of patients returned by a single bulk read.
+     */
+    public static final int MAX_BULK_SIZE = 1000;
+
+    /**
+     * Maximum number of patients suggested by the typeahead search.
+     */
+    public static final int MAX_SUGGESTIONS = 20;
+
     private final PatientRepository patientRepository;
     private final PatientMapper patientMapper;
+    private final PatientSearchIndex patientSearchIndex;
+    private final PatientCache patientCache;
+
+    @Value("${patients.count-cache.ttl:PT30S}")
+    private Duration countCacheTtl = Duration.ofSeconds(30);
+
+    private final AtomicReference<CachedCount> cachedCount = new AtomicReference<>();
 
     /**
      * Retrieves all patients with pagination.
@@ -30,31 +72,150 @@ public class PatientService {
      * @param pageable the pagination information
      * @return a PatientsDto containing the paginated list of patients
      */
-    public PatientsDto getAllPatients(Pageable pageable) {
-        Page<Patient> patientPage = patientRepository.findAll(pageable);
-        return toPatientsDto(patientPage);
+    @Transactional(readOnly = true)
+    public PatientsDto<PatientDetailsDto> getAllPatients(Pageable pageable) {
+        return toPatientsDto(patientRepository.findDetailsBy(pageable));
+    }
+
+    /**
+     * Retrieves a page of patients from a cursor.
+     * Unlike {@link #getAllPatients(Pageable)}, the page is read by seeking to the cursor in the index of the
+     * sort, so that deep pages are as fast as the first one, and the patients are only counted on demand.
+     * A cursor of a listing sorted another way is ignored, so that changing the sort starts over.
+     *
+     * @param cursor    the cursor of the page, as returned with a previous page, or blank for the first page
+     * @param size      the number of patients per page
+     * @param direction the direction of the sort
+     * @param sortBy    the field to sort by, then by ID
+     * @param count     whether to count the patients
+     * @return a PatientsCursorDto containing the page of patients and the cursors of the pages around it
+     * @throws RuntimeException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public PatientsCursorDto getPatientsByCursor(
+            String cursor,
+            int size,
+            Direction direction,
+            String sortBy,
+            boolean count
+    ) {
+        PatientCursor position = PatientCursor.decode(cursor);
+        if (position != null && !position.isSortedBy(sortBy, direction)) position = null;
+
+        Window<PatientDetailsDto> window = patientRepository.findDetailsBy(
+                position == null ? ScrollPosition.keyset() : position.toScrollPosition(),
+                Sort.by(direction, sortBy, "id"),
+                Limit.of(size)
+        );
+
+        PatientsCursorDto patientsDto = new PatientsCursorDto();
+        List<PatientDetailsDto> patients = window.getContent();
+        patientsDto.setData(patients);
+        patientsDto.setPageSize(size);
+        if (!patients.isEmpty()) {
+            // A backward window has more patients before it, and was reached from the page after it
+            boolean backward = position != null && position.backward();
+            boolean hasPrevious = backward ? window.hasNext() : position != null;
+            boolean hasNext = backward || window.hasNext();
+            if (hasPrevious) {
+                patientsDto.setPreviousCursor(PatientCursor.before(patients.get(0), sortBy, direction).encode());
+            }
+            if (hasNext) {
+                patientsDto.setNextCursor(PatientCursor.after(patients.get(patients.size() - 1), sortBy, direction).encode());
+            }
+        }
+        if (count) patientsDto.setTotalElements(countPatients());
+        return patientsDto;
+    }
+
+    /**
+     * Counts the patients, reusing the last count for a short while, since counting scans the whole table.
+     * The count is forgotten when a patient is added or deleted.
+     *
+     * @return the number of patients
+     */
+    public long countPatients() {
+        long now = System.nanoTime();
+        CachedCount cached = cachedCount.get();
+        if (cached != null && now - cached.expiresAt() < 0) return cached.value();
+        long value = patientRepository.count();
+        cachedCount.set(new CachedCount(value, now + countCacheTtl.toNanos()));
+        return value;
     }
 
     /**
-     * Retrieves a patient by their ID.
+     * Retrieves a patient by their ID, through the {@link PatientCache}.
+     * The patient returned may be shared with other callers.
      *
      * @param id the ID of the patient
      * @return an Optional containing the patient if found, or empty if not found
      */
-    public Optional<Patient> getPatientById(UUID id) {
-        return patientRepository.findById(id);
+    public Optional<PatientDetailsDto> getPatientById(UUID id) {
+        return patientCache.get(id, patientRepository::findDetailsById);
+    }
+
+    /**
+     * Retrieves several patients by their IDs in a single query.
+     * Unknown IDs are ignored, and the patients are returned in no particular order.
+     *
+     * @param ids the IDs of the patients, at most {@link #MAX_BULK_SIZE}
+     * @return the patients found
+     * @throws RuntimeException if too many IDs are requested
+     */
+    public List<PatientDetailsDto> getPatientsByIds(Collection<UUID> ids) {
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("Too many patient ids: " + ids.size() + " (max " + MAX_BULK_SIZE + ")");
+        }
+        return patientRepository.findDetailsByIdIn(ids);
     }
 
     /**
      * Searches for patients by their name.
+     * The matching patients are found through the {@link PatientSearchIndex} once it is built,
+     * then only the patients of the page are read from the database; until then, the patient table is scanned.
      *
      * @param query    the name query to search for
      * @param pageable the pagination information
      * @return a PatientsDto containing the paginated list of patients matching the query
      */
-    public PatientsDto searchPatients(String query, Pageable pageable) {
-        Page<Patient> patientPage = patientRepository.searchByName(query, pageable);
-        return toPatientsDto(patientPage);
+    @Transactional(readOnly = true)
+    public PatientsDto<PatientSummaryDto> searchPatients(String query, Pageable pageable) {
+        if (!patientSearchIndex.isReady()) {
+            return toPatientsDto(patientRepository.searchByName(query, pageable));
+        }
+        PatientSearchIndex.Result result = patientSearchIndex.search(query, pageable.getOffset(), pageable.getPageSize());
+        Map<UUID, PatientSummaryDto> patients = new HashMap<>();
+        for (PatientSummaryDto patient : patientRepository.findSummariesByIdIn(result.ids())) {
+            patients.put(patient.id(), patient);
+        }
+        List<PatientSummaryDto> ordered = new ArrayList<>(result.ids().size());
+        for (UUID id : result.ids()) {
+            PatientSummaryDto patient = patients.get(id);
+            if (patient != null) ordered.add(patient);
+        }
+        return toPatientsDto(new PageImpl<>(ordered, pageable, result.total()));
+    }
+
+    /**
+     * Suggests patients for the typeahead search: the first ones, in alphabetical order, whose "first last"
+     * or "last first" name starts with the query.
+     * The suggestions come from the {@link PatientSearchIndex} without reading the database once it is built;
+     * until then, they are the first patients whose name contains the query.
+     *
+     * @param query the beginning of the name
+     * @param limit the maximum number of patients to suggest, at most {@link #MAX_SUGGESTIONS}
+     * @return a PatientSuggestionsDto containing the suggested patients
+     */
+    public PatientSuggestionsDto suggestPatients(String query, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        if (patientSearchIndex.isReady()) {
+            return new PatientSuggestionsDto(patientSearchIndex.suggest(query, size));
+        }
+        List<PatientSuggestionDto> suggestions = new ArrayList<>(size);
+        for (PatientSummaryDto patient : patientRepository.searchByName(query, PageRequest.of(0, size))) {
+            suggestions.add(new PatientSuggestionDto(patient.id(), patient.firstName(), patient.lastName()));
+        }
+        return new PatientSuggestionsDto(suggestions);
     }
 
     /**
@@ -66,6 +227,8 @@ public class PatientService {
     public String addPatient(PatientDto patientDto) {
         Patient patient = patientMapper.toPatient(patientDto);
         patientRepository.save(patient);
+        patientSearchIndex.add(patient);
+        cachedCount.set(null);
         return patient.getId().toString();
     }
 
@@ -76,12 +239,14 @@ public class PatientService {
      * @param patientDto the DTO containing updated patient information
      */
     public void updatePatient(UUID id, PatientDto patientDto) {
-        Patient patient = getPatientById(id).orElseThrow(() ->
+        Patient patient = patientRepository.findById(id).orElseThrow(() ->
                 new RuntimeException("Patient not found with id: " + id)
         );
         patient.setPhoneNumber(patientDto.getPhoneNumber());
         patient.setPostalAddress(patientDto.getPostalAddress());
         patientRepository.save(patient);
+        patientCache.evict(id);
+        patientSearchIndex.update(patient);
     }
 
     /**
@@ -90,20 +255,23 @@ public class PatientService {
      * @param id the ID of the patient to delete
      */
     public void deletePatient(UUID id) {
-        Patient existingPatient = getPatientById(id).orElseThrow(() ->
+        Patient existingPatient = patientRepository.findById(id).orElseThrow(() ->
                 new RuntimeException("Patient not found with id: " + id)
         );
         patientRepository.delete(existingPatient);
+        patientCache.evict(id);
+        patientSearchIndex.remove(existingPatient);
+        cachedCount.set(null);
     }
 
     /**
-     * Converts a Page of Patient entities to a PatientsDto.
+     * Converts a Page of patients to a PatientsDto.
      *
-     * @param patientPage the Page of Patient entities
+     * @param patientPage the Page of patients
      * @return a PatientsDto containing the paginated list of patients
      */
-    private PatientsDto toPatientsDto(Page<Patient> patientPage) {
-        PatientsDto patientsDto = new PatientsDto();
+    private <T> PatientsDto<T> toPatientsDto(Page<T> patientPage) {
+        PatientsDto<T> patientsDto = new PatientsDto<>();
         patientsDto.setTotalElements(patientPage.getTotalElements());
         patientsDto.setTotalPages(patientPage.getTotalPages());
         patientsDto.setCurrentPage(patientPage.getNumber());
@@ -111,4 +279,7 @@ public class PatientService {
         patientsDto.setData(patientPage.getContent());
         return patientsDto;
     }
+
+    private record CachedCount(long value, long expiresAt) {
+    }
 }
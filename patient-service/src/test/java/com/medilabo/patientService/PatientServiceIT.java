@@ -2,6 +2,7 @@ package com.medilabo.patientService;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medilabo.patientService.dto.PatientDto;
+import com.medilabo.patientService.dto.PatientsCursorDto;
 import com.medilabo.patientService.model.Gender;
 import com.medilabo.patientService.model.Patient;
 import com.medilabo.patientService.repository.PatientRepository;
@@ -15,6 +16,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,7 +95,9 @@ class PatientServiceIT {
         mockMvc.perform(get("/api/patients/" + patient.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.firstName").value("John"))
-                .andExpect(jsonPath("$.lastName").value("Doe"));
+                .andExpect(jsonPath("$.lastName").value("Doe"))
+                .andExpect(jsonPath("$.birthDate").value("1980-01-01"))
+                .andExpect(jsonPath("$.gender").value("M"));
     }
 
     @Test
@@ -122,7 +127,26 @@ class PatientServiceIT {
                         .param("page", "0")
                         .param("size", "5"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.data[0].firstName").value("John"));
+                .andExpect(jsonPath("$.data[0].firstName").value("John"))
+                .andExpect(jsonPath("$.data[0].birthDate").value("1980-01-01"))
+                .andExpect(jsonPath("$.data[0].phoneNumber").doesNotExist());
+    }
+
+    @Test
+    void suggestPatients_shouldReturnNamesOfMatchingPatients() throws Exception {
+        Patient patient = new Patient();
+        patient.setFirstName("Typeahead");
+        patient.setLastName("Suggested");
+        patient.setBirthDate(LocalDate.of(1980, 1, 1));
+        patient.setGender(Gender.M);
+        patientRepository.save(patient);
+
+        mockMvc.perform(get("/api/patients/typeahead")
+                        .param("q", "Typeahead"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(patient.getId().toString()))
+                .andExpect(jsonPath("$.data[0].lastName").value("Suggested"))
+                .andExpect(jsonPath("$.data[0].birthDate").doesNotExist());
     }
 
     @Test
@@ -176,4 +200,59 @@ class PatientServiceIT {
                         .param("sortBy", "lastName"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void getPatientsByCursor_shouldWalkAllPatientsForwardAndBackward() throws Exception {
+        patientRepository.deleteAll();
+        try {
+            String[] lastNames = { "Martin", "Bernard", "Martin", "Dubois", "Martin", "Thomas", "Robert" };
+            for (int i = 0; i < lastNames.length; i++) {
+                Patient patient = new Patient();
+                patient.setFirstName("Patient" + i);
+                patient.setLastName(lastNames[i]);
+                patient.setBirthDate(LocalDate.of(1980, 1, 1 + i));
+                patient.setGender(i % 2 == 0 ? Gender.F : Gender.M);
+                patientRepository.save(patient);
+            }
+
+            List<String> forward = new ArrayList<>();
+            List<String> nextCursors = new ArrayList<>();
+            PatientsCursorDto page = getPatientsByCursor("", true);
+            assertEquals(7, page.getTotalElements());
+            assertNull(page.getPreviousCursor());
+            while (true) {
+                page.getData().forEach(patient -> forward.add(patient.lastName() + patient.id()));
+                if (page.getNextCursor() == null) break;
+                nextCursors.add(page.getNextCursor());
+                page = getPatientsByCursor(page.getNextCursor(), false);
+                assertNull(page.getTotalElements());
+            }
+            assertEquals(2, nextCursors.size());
+            List<String> expected = new ArrayList<>(forward);
+            expected.sort(null);
+            assertEquals(expected, forward);
+
+            List<String> backward = new ArrayList<>();
+            while (page.getPreviousCursor() != null) {
+                page = getPatientsByCursor(page.getPreviousCursor(), false);
+                backward.addAll(0, page.getData().stream().map(patient -> patient.lastName() + patient.id()).toList());
+            }
+            assertEquals(forward.subList(0, 6), backward);
+            assertNotNull(page.getNextCursor());
+        } finally {
+            patientRepository.deleteAll();
+        }
+    }
+
+    private PatientsCursorDto getPatientsByCursor(String cursor, boolean count) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/patients/cursor")
+                        .param("cursor", cursor)
+                        .param("size", "3")
+                        .param("sort", "asc")
+                        .param("sortBy", "lastName")
+                        .param("count", String.valueOf(count)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), PatientsCursorDto.class);
+    }
 }
@@ -0,0 +1,83 @@
+package com.medilabo.patientService.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.sun.net.httpserver.HttpServer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class DiscoveryPatientInvalidationPublisherTest {
+
+  private HttpServer server;
+  private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+  private DiscoveryClient discoveryClient;
+  private DiscoveryPatientInvalidationPublisher publisher;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+      "/internal/patients/events/invalidations",
+      exchange -> {
+        received.add(
+          exchange.getRequestMethod() +
+          " " +
+          new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)
+        );
+        exchange.sendResponseHeaders(200, -1);
+        exchange.close();
+      }
+    );
+    server.start();
+
+    discoveryClient = mock(DiscoveryClient.class);
+    publisher = new DiscoveryPatientInvalidationPublisher(discoveryClient);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  private ServiceInstance instance(URI uri) {
+    return new DefaultServiceInstance("patient-" + uri.getPort(), "patient-service", uri.getHost(), uri.getPort(), false);
+  }
+
+  @Test
+  void publish_shouldSendInvalidationToEveryInstance() throws Exception {
+    URI uri = URI.create("http://localhost:" + server.getAddress().getPort());
+    when(discoveryClient.getInstances("patient-service")).thenReturn(List.of(instance(uri), instance(uri)));
+    UUID id = UUID.randomUUID();
+
+    publisher.publish(id);
+
+    for (int i = 0; i < 2; i++) {
+      assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo("POST \"" + id + "\"");
+    }
+  }
+
+  @Test
+  void publish_shouldDoNothingWhenDisabled() {
+    ReflectionTestUtils.setField(publisher, "enabled", false);
+
+    publisher.publish(UUID.randomUUID());
+
+    verifyNoInteractions(discoveryClient);
+  }
+}
@@ -0,0 +1,31 @@
+package com.medilabo.patientService.cache;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stand-in for the {@link DiscoveryPatientInvalidationPublisher} in tests: delivers the invalidations
+ * at once to the caches of the simulated instances, in the same process.
+ */
+class LocalPatientInvalidationPublisher implements PatientInvalidationPublisher {
+
+  private final List<PatientCache> instances = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates the cache of a new simulated instance, publishing through this stand-in.
+   */
+  PatientCache newInstance() {
+    PatientCache cache = new PatientCache(this);
+    cache.start();
+    instances.add(cache);
+    return cache;
+  }
+
+  @Override
+  public void publish(UUID id) {
+    for (PatientCache instance : instances) {
+      instance.invalidate(id);
+    }
+  }
+}
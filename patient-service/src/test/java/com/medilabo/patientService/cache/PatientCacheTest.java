@@ -0,0 +1,142 @@
+package com.medilabo.patientService.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.medilabo.patientService.dto.PatientDetailsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PatientCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final LocalPatientInvalidationPublisher publisher = new LocalPatientInvalidationPublisher();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final PatientDetailsDto patient = patient();
+  private PatientCache cache;
+
+  @BeforeEach
+  void setUp() {
+    cache = new PatientCache(publisher);
+    ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+    cache.start();
+  }
+
+  private Function<UUID, Optional<PatientDetailsDto>> loader(PatientDetailsDto loaded) {
+    return id -> {
+      loads.incrementAndGet();
+      return Optional.ofNullable(loaded);
+    };
+  }
+
+  @Test
+  void get_shouldReadPatientOnceAndCountHits() {
+    assertThat(cache.get(patient.id(), loader(patient))).containsSame(patient);
+    assertThat(cache.get(patient.id(), loader(patient))).containsSame(patient);
+    assertThat(cache.get(patient.id(), loader(patient))).containsSame(patient);
+
+    assertThat(loads).hasValue(1);
+    assertThat(meterRegistry.get(PatientCache.REQUESTS_METRIC).tag("result", "hit").counter().count()).isEqualTo(2);
+    assertThat(meterRegistry.get(PatientCache.HIT_RATIO_METRIC).gauge().value()).isEqualTo(2.0 / 3);
+    assertThat(meterRegistry.get(PatientCache.SIZE_METRIC).gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void get_shouldNotCacheUnknownPatient() {
+    UUID id = UUID.randomUUID();
+
+    assertThat(cache.get(id, loader(null))).isEmpty();
+    assertThat(cache.get(id, loader(null))).isEmpty();
+
+    assertThat(loads).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void get_shouldReadPatientAgainOnceExpired() {
+    ReflectionTestUtils.setField(cache, "ttl", Duration.ZERO);
+
+    cache.get(patient.id(), loader(patient));
+    cache.get(patient.id(), loader(patient));
+
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  void get_shouldEvictLeastRecentlyReadPatient() {
+    cache = new PatientCache(publisher);
+    ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    cache.start();
+    PatientDetailsDto other = patient();
+    PatientDetailsDto third = patient();
+    cache.get(patient.id(), loader(patient));
+    cache.get(other.id(), loader(other));
+    cache.get(patient.id(), loader(patient));
+
+    cache.get(third.id(), loader(third));
+    cache.get(patient.id(), loader(patient));
+    cache.get(other.id(), loader(other));
+
+    assertThat(loads).hasValue(4);
+    assertThat(meterRegistry.get(PatientCache.EVICTIONS_METRIC).counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void get_shouldShareMaxEntriesBetweenSegments() {
+    for (int i = 0; i < 20_000; i++) {
+      PatientDetailsDto read = patient();
+      cache.get(read.id(), loader(read));
+    }
+
+    assertThat(cache.size()).isEqualTo(10_000);
+  }
+
+  @Test
+  void get_shouldNotCachePatientInvalidatedWhileRead() {
+    PatientDetailsDto before = new PatientDetailsDto(patient.id(), null, "Durand", null, null, null, null);
+
+    cache.get(patient.id(), id -> {
+      cache.invalidate(id);
+      return Optional.of(before);
+    });
+
+    assertThat(cache.get(patient.id(), loader(patient))).containsSame(patient);
+  }
+
+  @Test
+  void evict_shouldInvalidatePatientInEveryInstance() {
+    PatientCache writer = publisher.newInstance();
+    PatientCache reader = publisher.newInstance();
+    reader.get(patient.id(), loader(patient));
+    writer.get(patient.id(), loader(patient));
+
+    writer.evict(patient.id());
+
+    assertThat(reader.size()).isZero();
+    assertThat(writer.size()).isZero();
+    reader.get(patient.id(), loader(patient));
+    assertThat(loads).hasValue(3);
+  }
+
+  @Test
+  void get_shouldReadThroughWhenDisabled() {
+    ReflectionTestUtils.setField(cache, "enabled", false);
+
+    cache.get(patient.id(), loader(patient));
+    cache.get(patient.id(), loader(patient));
+
+    assertThat(loads).hasValue(2);
+    assertThat(cache.size()).isZero();
+  }
+
+  private static PatientDetailsDto patient() {
+    return new PatientDetailsDto(UUID.randomUUID(), null, "Dupont", null, null, null, null);
+  }
+}
@@ -0,0 +1,34 @@
+package com.medilabo.patientService.controller;
+
+import static org.mockito.Mockito.verify;
+
+import com.medilabo.patientService.cache.PatientCache;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class PatientCacheControllerTest {
+
+  @Mock
+  private PatientCache patientCache;
+
+  @InjectMocks
+  private PatientCacheController patientCacheController;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+  }
+
+  @Test
+  void onInvalidation_shouldInvalidatePatientInThisInstanceOnly() {
+    UUID id = UUID.randomUUID();
+
+    patientCacheController.onInvalidation(id);
+
+    verify(patientCache).invalidate(id);
+  }
+}
@@ -8,10 +8,14 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.medilabo.patientService.dto.PatientDetailsDto;
 import com.medilabo.patientService.dto.PatientDto;
+import com.medilabo.patientService.dto.PatientSuggestionsDto;
+import com.medilabo.patientService.dto.PatientSummaryDto;
+import com.medilabo.patientService.dto.PatientsCursorDto;
 import com.medilabo.patientService.dto.PatientsDto;
-import com.medilabo.patientService.model.Patient;
 import com.medilabo.patientService.service.PatientService;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,6 +24,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.ArgumentCaptor;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
 
 class PatientControllerTest {
 
@@ -35,12 +40,12 @@ class PatientControllerTest {
   @ParameterizedTest
   @ValueSource(strings = { "lastName", "birthDate", "gender", "unknown" })
   void getAllPatients_shouldCallServiceWithCorrectPageRequest(String sortBy) {
-    PatientsDto patientsDto = new PatientsDto();
+    PatientsDto<PatientDetailsDto> patientsDto = new PatientsDto<>();
     when(patientService.getAllPatients(any(PageRequest.class))).thenReturn(
       patientsDto
     );
 
-    PatientsDto result = patientController.getAllPatients(1, 10, "asc", sortBy);
+    PatientsDto<PatientDetailsDto> result = patientController.getAllPatients(1, 10, "asc", sortBy);
 
     ArgumentCaptor<PageRequest> captor = ArgumentCaptor.forClass(
       PageRequest.class
@@ -55,12 +60,12 @@ class PatientControllerTest {
 
   @Test
   void getAllPatients_shouldCallServiceWithCorrectPageRequestDesc() {
-    PatientsDto patientsDto = new PatientsDto();
+    PatientsDto<PatientDetailsDto> patientsDto = new PatientsDto<>();
     when(patientService.getAllPatients(any(PageRequest.class))).thenReturn(
       patientsDto
     );
 
-    PatientsDto result = patientController.getAllPatients(
+    PatientsDto<PatientDetailsDto> result = patientController.getAllPatients(
       1,
       10,
       "DESC",
@@ -78,13 +83,31 @@ class PatientControllerTest {
     assertThat(result).isSameAs(patientsDto);
   }
 
+  @Test
+  void getPatientsByCursor_shouldCallServiceWithSanitizedSort() {
+    PatientsCursorDto patientsDto = new PatientsCursorDto();
+    when(
+      patientService.getPatientsByCursor("cursor", 10, Direction.DESC, "lastName", true)
+    ).thenReturn(patientsDto);
+
+    PatientsCursorDto result = patientController.getPatientsByCursor(
+      "cursor",
+      10,
+      "DESC",
+      "unknown",
+      true
+    );
+
+    assertThat(result).isSameAs(patientsDto);
+  }
+
   @Test
   void getPatientById_shouldReturnPatientIfFound() {
     UUID id = UUID.randomUUID();
-    Patient patient = new Patient();
+    PatientDetailsDto patient = new PatientDetailsDto(id, "Jean", "Dupont", null, null, null, null);
     when(patientService.getPatientById(id)).thenReturn(Optional.of(patient));
 
-    Patient result = patientController.getPatientById(id);
+    PatientDetailsDto result = patientController.getPatientById(id);
 
     assertThat(result).isSameAs(patient);
   }
@@ -99,14 +122,25 @@ class PatientControllerTest {
       .hasMessageContaining("Patient not found");
   }
 
+  @Test
+  void getPatientsByIds_shouldDelegateToService() {
+    List<UUID> ids = List.of(UUID.randomUUID());
+    List<PatientDetailsDto> patients = List.of(new PatientDetailsDto(ids.get(0), "Jean", "Dupont", null, null, null, null));
+    when(patientService.getPatientsByIds(ids)).thenReturn(patients);
+
+    List<PatientDetailsDto> result = patientController.getPatientsByIds(ids);
+
+    assertThat(result).isSameAs(patients);
+  }
+
   @Test
   void searchPatients_shouldCallServiceWithCorrectParams() {
-    PatientsDto patientsDto = new PatientsDto();
+    PatientsDto<PatientSummaryDto> patientsDto = new PatientsDto<>();
     when(
       patientService.searchPatients(eq("john"), any(PageRequest.class))
     ).thenReturn(patientsDto);
 
-    PatientsDto result = patientController.searchPatients("john", 2, 7);
+    PatientsDto<PatientSummaryDto> result = patientController.searchPatients("john", 2, 7);
 
     ArgumentCaptor<PageRequest> captor = ArgumentCaptor.forClass(
       PageRequest.class
@@ -119,6 +153,16 @@ class PatientControllerTest {
     assertThat(result).isSameAs(patientsDto);
   }
 
+  @Test
+  void suggestPatients_shouldCallServiceWithLimit() {
+    PatientSuggestionsDto suggestions = new PatientSuggestionsDto();
+    when(patientService.suggestPatients("dup", 8)).thenReturn(suggestions);
+
+    PatientSuggestionsDto result = patientController.suggestPatients("dup", 8);
+
+    assertThat(result).isSameAs(suggestions);
+  }
+
   @Test
   void addPatient_shouldCallServiceAndReturnId() {
     PatientDto dto = new PatientDto();
@@ -0,0 +1,85 @@
+package com.medilabo.patientService.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NameIndexTest {
+
+  private final UUID helene = UUID.randomUUID();
+  private final UUID jean = UUID.randomUUID();
+  private final UUID marie = UUID.randomUUID();
+  private NameIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new NameIndex();
+    index.add(helene, "Hélène", "Dupont");
+    index.add(jean, "Jean", "Dupond");
+    index.add(marie, "Marie", "Martin");
+  }
+
+  @Test
+  void search_shouldMatchSubstringsRegardlessOfCaseAndAccents() {
+    assertThat(index.search("d", 0, 10).ids()).containsExactly(helene, jean);
+    assertThat(index.search("DUP", 0, 10).ids()).containsExactly(helene, jean);
+    assertThat(index.search("pont", 0, 10).ids()).containsExactly(helene);
+    assertThat(index.search("helene", 0, 10).ids()).containsExactly(helene);
+    assertThat(index.search("Hélène Dup", 0, 10).ids()).containsExactly(helene);
+    assertThat(index.search("martin mar", 0, 10).ids()).containsExactly(marie);
+    assertThat(index.search("dupontx", 0, 10).total()).isZero();
+    assertThat(index.search("zz", 0, 10).total()).isZero();
+  }
+
+  @Test
+  void search_shouldCheckCandidatesOfLongQueries() {
+    // Contains the trigrams "dup", "upo", "pon" and "ont", but not "dupont"
+    UUID other = UUID.randomUUID();
+    index.add(other, "Upo", "Pont Dup");
+
+    assertThat(index.search("dupont", 0, 10).ids()).containsExactly(helene);
+  }
+
+  @Test
+  void search_shouldPageMatchesAndCountThemAll() {
+    PatientSearchIndex.Result result = index.search("", 1, 1);
+
+    assertThat(result.ids()).containsExactly(jean);
+    assertThat(result.total()).isEqualTo(3);
+  }
+
+  @Test
+  void remove_shouldSkipRemovedPatient() {
+    index.remove(helene, "Hélène", "Dupont");
+    index.remove(UUID.randomUUID(), "Jean", "Dupond");
+
+    assertThat(index.search("dup", 0, 10).ids()).containsExactly(jean);
+    assertThat(index.size()).isEqualTo(2);
+  }
+
+  @Test
+  void add_shouldIgnorePatientAlreadyIndexed() {
+    index.add(jean, "Jean", "Dupond");
+
+    assertThat(index.search("jean", 0, 10).ids()).isEqualTo(List.of(jean));
+    assertThat(index.size()).isEqualTo(3);
+  }
+
+  @Test
+  void intersect_shouldMatchLinearAndBinarySearch() {
+    NameIndex.IntList small = new NameIndex.IntList();
+    NameIndex.IntList large = new NameIndex.IntList();
+    for (int i = 0; i < 1000; i++) large.add(i * 2);
+    small.add(3);
+    small.add(500);
+    small.add(1998);
+    NameIndex.IntList similar = new NameIndex.IntList();
+    for (int i = 0; i < 10; i++) similar.add(i * 3);
+
+    assertThat(small.intersect(large).size()).isEqualTo(2);
+    assertThat(similar.intersect(large).size()).isEqualTo(5);
+  }
+}
@@ -0,0 +1,140 @@
+package com.medilabo.patientService.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import com.medilabo.patientService.model.Patient;
+import com.medilabo.patientService.repository.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PatientSearchIndexTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private PatientRepository patientRepository;
+  private PatientSearchIndex patientSearchIndex;
+
+  @BeforeEach
+  void setUp() {
+    patientRepository = mock(PatientRepository.class);
+    patientSearchIndex = new PatientSearchIndex(patientRepository);
+    ReflectionTestUtils.setField(patientSearchIndex, "meterRegistry", meterRegistry);
+  }
+
+  @Test
+  void rebuild_shouldIndexAllWindowsOfPatients() {
+    Patient dupont = patient("Jean", "Dupont");
+    Patient martin = patient("Marie", "Martin");
+    when(patientRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+      .thenAnswer(invocation -> invocation.<ScrollPosition>getArgument(0).isInitial()
+        ? Window.from(List.of(dupont), ScrollPosition::offset, true)
+        : Window.from(List.of(martin), ScrollPosition::offset, false));
+    assertThat(patientSearchIndex.isReady()).isFalse();
+    assertThatThrownBy(() -> patientSearchIndex.search("dup", 0, 5))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("not ready");
+    assertThatThrownBy(() -> patientSearchIndex.suggest("dup", 5))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("not ready");
+
+    patientSearchIndex.rebuild();
+
+    assertThat(patientSearchIndex.isReady()).isTrue();
+    assertThat(patientSearchIndex.search("mar", 0, 5).ids()).containsExactly(martin.getId());
+    assertThat(patientSearchIndex.search("", 0, 5).total()).isEqualTo(2);
+    assertThat(
+      meterRegistry.get(PatientSearchIndex.REBUILD_METRIC).tag("outcome", "success").timer().count()
+    ).isEqualTo(1);
+  }
+
+  @Test
+  void rebuild_shouldReplayChangesMadeWhileReadingPatients() {
+    Patient dupont = patient("Jean", "Dupont");
+    Patient martin = patient("Marie", "Martin");
+    Patient added = patient("Paul", "Durand");
+    when(patientRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+      .thenAnswer(invocation -> {
+        patientSearchIndex.add(added);
+        patientSearchIndex.remove(martin);
+        return Window.from(List.of(dupont, martin), ScrollPosition::offset, false);
+      });
+
+    patientSearchIndex.rebuild();
+
+    assertThat(patientSearchIndex.search("", 0, 5).ids()).containsExactly(dupont.getId(), added.getId());
+    assertThat(patientSearchIndex.suggest("", 5)).extracting(PatientSuggestionDto::getId)
+      .containsExactly(dupont.getId(), added.getId());
+
+    patientSearchIndex.remove(dupont);
+    assertThat(patientSearchIndex.search("du", 0, 5).ids()).containsExactly(added.getId());
+  }
+
+  @Test
+  void update_shouldRenamePatientInBothIndexes() {
+    Patient dupont = patient("Jean", "Dupont");
+    when(patientRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+      .thenReturn(Window.from(List.of(dupont), ScrollPosition::offset, false));
+    patientSearchIndex.rebuild();
+    assertThat(patientSearchIndex.suggest("dup", 5)).extracting(PatientSuggestionDto::getId).containsExactly(dupont.getId());
+
+    dupont.setLastName("Martin");
+    patientSearchIndex.update(dupont);
+
+    assertThat(patientSearchIndex.suggest("dup", 5)).isEmpty();
+    assertThat(patientSearchIndex.search("dup", 0, 5).total()).isZero();
+    assertThat(patientSearchIndex.suggest("jean m", 5)).extracting(PatientSuggestionDto::getLastName).containsExactly("Martin");
+    assertThat(patientSearchIndex.search("tin", 0, 5).ids()).containsExactly(dupont.getId());
+  }
+
+  @Test
+  void remove_shouldRemoveIndexedNamesWhenPatientWasRenamed() {
+    Patient dupont = patient("Jean", "Dupont");
+    when(patientRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+      .thenReturn(Window.from(List.of(dupont), ScrollPosition::offset, false));
+    patientSearchIndex.rebuild();
+
+    Patient renamed = patient("Jean", "Martin");
+    renamed.setId(dupont.getId());
+    patientSearchIndex.remove(renamed);
+
+    assertThat(patientSearchIndex.search("dup", 0, 5).total()).isZero();
+    assertThat(patientSearchIndex.search("", 0, 5).total()).isZero();
+    assertThat(patientSearchIndex.suggest("", 5)).isEmpty();
+  }
+
+  @Test
+  void rebuild_shouldKeepIndexWhenReadingFails() {
+    Patient dupont = patient("Jean", "Dupont");
+    when(patientRepository.findAllBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+      .thenReturn(Window.from(List.of(dupont), ScrollPosition::offset, false))
+      .thenThrow(new RuntimeException("database down"));
+    patientSearchIndex.rebuild();
+
+    patientSearchIndex.rebuild();
+
+    assertThat(patientSearchIndex.search("dupont", 0, 5).ids()).containsExactly(dupont.getId());
+    assertThat(
+      meterRegistry.get(PatientSearchIndex.REBUILD_METRIC).tag("outcome", "failure").timer().count()
+    ).isEqualTo(1);
+  }
+
+  private static Patient patient(String firstName, String lastName) {
+    Patient patient = new Patient();
+    patient.setId(UUID.randomUUID());
+    patient.setFirstName(firstName);
+    patient.setLastName(lastName);
+    return patient;
+  }
+}
@@ -0,0 +1,89 @@
+package com.medilabo.patientService.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PrefixIndexTest {
+
+  private final UUID helene = UUID.randomUUID();
+  private final UUID jean = UUID.randomUUID();
+  private final UUID marie = UUID.randomUUID();
+  private PrefixIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new PrefixIndex();
+    index.load(marie, "Marie", "Martin");
+    index.load(jean, "Jean", "Dupond");
+    index.load(helene, "Hélène", "Dupont");
+    index.sort();
+  }
+
+  @Test
+  void suggest_shouldListNamesStartingWithQueryInEitherOrder() {
+    assertThat(ids(index.suggest("DUP", 10))).containsExactly(jean, helene);
+    assertThat(ids(index.suggest("helene d", 10))).containsExactly(helene);
+    assertThat(ids(index.suggest("martin m", 10))).containsExactly(marie);
+    assertThat(ids(index.suggest("upon", 10))).isEmpty();
+    assertThat(ids(index.suggest("dupontx", 10))).isEmpty();
+  }
+
+  @Test
+  void suggest_shouldListPatientOnceAndKeepDisplayedNames() {
+    // Both "marie martin" and "martin marie" start with "mar"
+    List<PatientSuggestionDto> suggestions = index.suggest("mar", 10);
+
+    assertThat(ids(suggestions)).containsExactly(marie);
+    assertThat(suggestions.get(0).getFirstName()).isEqualTo("Marie");
+    assertThat(suggestions.get(0).getLastName()).isEqualTo("Martin");
+  }
+
+  @Test
+  void suggest_shouldStopAtLimitInAlphabeticalOrder() {
+    assertThat(ids(index.suggest("", 2))).containsExactly(jean, helene);
+  }
+
+  @Test
+  void add_shouldMergeAddedPatientsWithLoadedOnes() {
+    UUID durand = UUID.randomUUID();
+    index.add(durand, "Paul", "Dupin");
+
+    assertThat(ids(index.suggest("dup", 10))).containsExactly(durand, jean, helene);
+    assertThat(index.size()).isEqualTo(4);
+  }
+
+  @Test
+  void add_shouldRenamePatientAndRemoveShouldSkipIt() {
+    index.add(jean, "Jean", "Martin");
+    index.remove(helene);
+
+    assertThat(ids(index.suggest("dup", 10))).isEmpty();
+    assertThat(ids(index.suggest("martin", 10))).containsExactly(jean, marie);
+    assertThat(index.get(jean).getLastName()).isEqualTo("Martin");
+    assertThat(index.get(helene)).isNull();
+    assertThat(index.size()).isEqualTo(2);
+  }
+
+  @Test
+  void add_shouldKeepOrderAcrossMerges() {
+    for (int i = 0; i < PrefixIndex.MAX_PENDING; i++) {
+      index.add(UUID.randomUUID(), "Zoé", String.format("Z%05d", PrefixIndex.MAX_PENDING - i));
+    }
+    index.remove(marie);
+
+    List<PatientSuggestionDto> suggestions = index.suggest("z", 3);
+
+    assertThat(suggestions).extracting(PatientSuggestionDto::getLastName).containsExactly("Z00001", "Z00002", "Z00003");
+    assertThat(ids(index.suggest("ma", 10))).isEmpty();
+    assertThat(ids(index.suggest("d", 10))).containsExactly(jean, helene);
+  }
+
+  private static List<UUID> ids(List<PatientSuggestionDto> suggestions) {
+    return suggestions.stream().map(PatientSuggestionDto::getId).toList();
+  }
+}
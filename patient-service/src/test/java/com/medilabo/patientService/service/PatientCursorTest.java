@@ -0,0 +1,57 @@
+package com.medilabo.patientService.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.medilabo.patientService.dto.PatientDetailsDto;
+import com.medilabo.patientService.model.Gender;
+import java.time.LocalDate;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort.Direction;
+
+class PatientCursorTest {
+
+  @Test
+  void encode_shouldRoundTripEachSortField() {
+    PatientDetailsDto patient = patient("Dupont|Durand", LocalDate.of(1980, 1, 31), Gender.F);
+
+    for (String sortBy : new String[] { "lastName", "birthDate", "gender" }) {
+      PatientCursor cursor = PatientCursor.before(patient, sortBy, Direction.DESC);
+
+      PatientCursor decoded = PatientCursor.decode(cursor.encode());
+
+      assertThat(decoded).isEqualTo(cursor);
+      assertThat(decoded.isSortedBy(sortBy, Direction.DESC)).isTrue();
+      assertThat(decoded.isSortedBy(sortBy, Direction.ASC)).isFalse();
+    }
+  }
+
+  @Test
+  void toScrollPosition_shouldSeekFromSortValueAndId() {
+    PatientDetailsDto patient = patient("Dupont", null, null);
+
+    KeysetScrollPosition position = (KeysetScrollPosition) PatientCursor.after(
+      patient,
+      "lastName",
+      Direction.ASC
+    ).toScrollPosition();
+
+    assertThat(position.scrollsForward()).isTrue();
+    assertThat(position.getKeys()).containsEntry("lastName", "Dupont").containsEntry("id", patient.id());
+  }
+
+  @Test
+  void decode_shouldRejectMalformedCursor() {
+    assertThat(PatientCursor.decode("")).isNull();
+    assertThat(PatientCursor.decode(null)).isNull();
+    assertThatThrownBy(() -> PatientCursor.decode("not a cursor"))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Invalid cursor");
+  }
+
+  private static PatientDetailsDto patient(String lastName, LocalDate birthDate, Gender gender) {
+    return new PatientDetailsDto(UUID.randomUUID(), null, lastName, birthDate, gender, null, null);
+  }
+}
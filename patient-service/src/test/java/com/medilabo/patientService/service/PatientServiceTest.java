@@ -4,14 +4,25 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.medilabo.patientService.cache.PatientCache;
+import com.medilabo.patientService.dto.PatientDetailsDto;
 import com.medilabo.patientService.dto.PatientDto;
+import com.medilabo.patientService.dto.PatientSuggestionDto;
+import com.medilabo.patientService.dto.PatientSuggestionsDto;
+import com.medilabo.patientService.dto.PatientSummaryDto;
+import com.medilabo.patientService.dto.PatientsCursorDto;
 import com.medilabo.patientService.dto.PatientsDto;
 import com.medilabo.patientService.mapper.PatientMapper;
+import com.medilabo.patientService.model.Gender;
 import com.medilabo.patientService.model.Patient;
 import com.medilabo.patientService.repository.PatientRepository;
+import com.medilabo.patientService.search.PatientSearchIndex;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -19,13 +30,20 @@ import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Window;
 
 class PatientServiceTest {
 
@@ -35,48 +53,158 @@ class PatientServiceTest {
   @Mock
   private PatientMapper patientMapper;
 
+  @Mock
+  private PatientSearchIndex patientSearchIndex;
+
+  @Spy
+  private PatientCache patientCache = new PatientCache(id -> {});
+
   @InjectMocks
   private PatientService patientService;
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    patientCache.start();
   }
 
   @Test
   void getAllPatients_shouldReturnPatientsDto() {
-    List<Patient> patients = Arrays.asList(new Patient(), new Patient());
-    Page<Patient> page = new PageImpl<>(patients, PageRequest.of(0, 2), 2);
-    when(patientRepository.findAll(any(Pageable.class))).thenReturn(page);
+    List<PatientDetailsDto> patients = Arrays.asList(details("Dupont"), details("Martin"));
+    Page<PatientDetailsDto> page = new PageImpl<>(patients, PageRequest.of(0, 2), 2);
+    when(patientRepository.findDetailsBy(any(Pageable.class))).thenReturn(page);
 
-    PatientsDto result = patientService.getAllPatients(PageRequest.of(0, 2));
+    PatientsDto<PatientDetailsDto> result = patientService.getAllPatients(PageRequest.of(0, 2));
 
     assertThat(result.getData()).hasSize(2);
     assertThat(result.getTotalElements()).isEqualTo(2);
-    verify(patientRepository).findAll(any(Pageable.class));
+    verify(patientRepository).findDetailsBy(any(Pageable.class));
+    verify(patientRepository, times(0)).findAll(any(Pageable.class));
+  }
+
+  @Test
+  void getPatientsByCursor_shouldReturnCursorsAroundPage() {
+    PatientDetailsDto first = details("Dupont");
+    PatientDetailsDto last = details("Martin");
+    when(
+      patientRepository.findDetailsBy(any(ScrollPosition.class), any(Sort.class), eq(Limit.of(2)))
+    ).thenReturn(Window.from(List.of(first, last), ScrollPosition::offset, true));
+
+    PatientsCursorDto firstPage = patientService.getPatientsByCursor("", 2, Direction.ASC, "lastName", false);
+
+    assertThat(firstPage.getData()).containsExactly(first, last);
+    assertThat(firstPage.getPreviousCursor()).isNull();
+    assertThat(firstPage.getTotalElements()).isNull();
+    assertThat(PatientCursor.decode(firstPage.getNextCursor()))
+      .isEqualTo(PatientCursor.after(last, "lastName", Direction.ASC));
+
+    PatientsCursorDto nextPage = patientService.getPatientsByCursor(
+      firstPage.getNextCursor(),
+      2,
+      Direction.ASC,
+      "lastName",
+      false
+    );
+
+    assertThat(PatientCursor.decode(nextPage.getPreviousCursor()))
+      .isEqualTo(PatientCursor.before(first, "lastName", Direction.ASC));
+    ArgumentCaptor<ScrollPosition> positions = ArgumentCaptor.forClass(ScrollPosition.class);
+    verify(patientRepository, times(2)).findDetailsBy(positions.capture(), eq(Sort.by(Direction.ASC, "lastName", "id")), eq(Limit.of(2)));
+    assertThat(positions.getAllValues().get(0).isInitial()).isTrue();
+    assertThat(positions.getAllValues().get(1)).isEqualTo(PatientCursor.after(last, "lastName", Direction.ASC).toScrollPosition());
+  }
+
+  @Test
+  void getPatientsByCursor_shouldStartOverWithCursorOfAnotherSort() {
+    when(
+      patientRepository.findDetailsBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))
+    ).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+    String cursor = PatientCursor.after(details("Dupont"), "lastName", Direction.ASC).encode();
+
+    patientService.getPatientsByCursor(cursor, 5, Direction.DESC, "lastName", false);
+
+    ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+    verify(patientRepository).findDetailsBy(position.capture(), any(Sort.class), any(Limit.class));
+    assertThat(position.getValue().isInitial()).isTrue();
+  }
+
+  @Test
+  void countPatients_shouldReuseCountUntilPatientAdded() {
+    when(patientRepository.count()).thenReturn(3L, 4L);
+    when(
+      patientRepository.findDetailsBy(any(ScrollPosition.class), any(Sort.class), any(Limit.class))
+    ).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+    assertThat(patientService.getPatientsByCursor(null, 5, Direction.ASC, "lastName", true).getTotalElements())
+      .isEqualTo(3L);
+    assertThat(patientService.countPatients()).isEqualTo(3L);
+    verify(patientRepository, times(1)).count();
+
+    Patient patient = patient("Dupont");
+    when(patientMapper.toPatient(any())).thenReturn(patient);
+    patientService.addPatient(new PatientDto());
+
+    assertThat(patientService.countPatients()).isEqualTo(4L);
   }
 
   @Test
   void getPatientById_shouldReturnPatient() {
     UUID id = UUID.randomUUID();
-    Patient patient = new Patient();
-    when(patientRepository.findById(id)).thenReturn(Optional.of(patient));
+    PatientDetailsDto patient = details("Dupont");
+    when(patientRepository.findDetailsById(id)).thenReturn(Optional.of(patient));
+
+    Optional<PatientDetailsDto> result = patientService.getPatientById(id);
+
+    assertThat(result).contains(patient);
+    verify(patientRepository).findDetailsById(id);
+  }
+
+  @Test
+  void getPatientById_shouldReadPatientOnceThroughCache() {
+    UUID id = UUID.randomUUID();
+    PatientDetailsDto patient = details("Dupont");
+    when(patientRepository.findDetailsById(id)).thenReturn(Optional.of(patient));
+
+    patientService.getPatientById(id);
+    Optional<PatientDetailsDto> result = patientService.getPatientById(id);
+
+    assertThat(result).containsSame(patient);
+    verify(patientRepository, times(1)).findDetailsById(id);
+  }
+
+  @Test
+  void getPatientsByIds_shouldReturnPatientsFoundInOneQuery() {
+    List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+    List<PatientDetailsDto> patients = List.of(details("Dupont"));
+    when(patientRepository.findDetailsByIdIn(ids)).thenReturn(patients);
 
-    Optional<Patient> result = patientService.getPatientById(id);
+    List<PatientDetailsDto> result = patientService.getPatientsByIds(ids);
+
+    assertThat(result).isSameAs(patients);
+    verify(patientRepository).findDetailsByIdIn(ids);
+  }
 
-    assertThat(result).isPresent();
-    verify(patientRepository).findById(id);
+  @Test
+  void getPatientsByIds_shouldRejectTooManyIds() {
+    List<UUID> ids = Collections.nCopies(
+      PatientService.MAX_BULK_SIZE + 1,
+      UUID.randomUUID()
+    );
+
+    assertThatThrownBy(() -> patientService.getPatientsByIds(ids))
+      .isInstanceOf(RuntimeException.class)
+      .hasMessageContaining("Too many patient ids");
   }
 
   @Test
   void searchPatients_shouldReturnPatientsDto() {
-    List<Patient> patients = Collections.singletonList(new Patient());
-    Page<Patient> page = new PageImpl<>(patients, PageRequest.of(0, 1), 1);
+    List<PatientSummaryDto> patients = Collections.singletonList(summary("John"));
+    Page<PatientSummaryDto> page = new PageImpl<>(patients, PageRequest.of(0, 1), 1);
     when(
       patientRepository.searchByName(eq("John"), any(Pageable.class))
     ).thenReturn(page);
 
-    PatientsDto result = patientService.searchPatients(
+    PatientsDto<PatientSummaryDto> result = patientService.searchPatients(
       "John",
       PageRequest.of(0, 1)
     );
@@ -85,6 +213,54 @@ class PatientServiceTest {
     verify(patientRepository).searchByName(eq("John"), any(Pageable.class));
   }
 
+  @Test
+  void searchPatients_shouldReadPageFoundByIndexInOrder() {
+    PatientSummaryDto first = summary("Dupont");
+    PatientSummaryDto second = summary("Dupond");
+    when(patientSearchIndex.isReady()).thenReturn(true);
+    when(patientSearchIndex.search("dup", 5, 5)).thenReturn(
+      new PatientSearchIndex.Result(List.of(first.id(), second.id()), 7)
+    );
+    when(patientRepository.findSummariesByIdIn(List.of(first.id(), second.id()))).thenReturn(
+      List.of(second, first)
+    );
+
+    PatientsDto<PatientSummaryDto> result = patientService.searchPatients("dup", PageRequest.of(1, 5));
+
+    assertThat(result.getData()).containsExactly(first, second);
+    assertThat(result.getTotalElements()).isEqualTo(7);
+    assertThat(result.getTotalPages()).isEqualTo(2);
+    assertThat(result.getCurrentPage()).isEqualTo(1);
+  }
+
+  @Test
+  void suggestPatients_shouldAnswerFromIndexWithinMaximum() {
+    List<PatientSuggestionDto> suggestions = List.of(new PatientSuggestionDto(UUID.randomUUID(), "Jean", "Dupont"));
+    when(patientSearchIndex.isReady()).thenReturn(true);
+    when(patientSearchIndex.suggest("dup", PatientService.MAX_SUGGESTIONS)).thenReturn(suggestions);
+
+    PatientSuggestionsDto result = patientService.suggestPatients("dup", 1000);
+
+    assertThat(result.getData()).isSameAs(suggestions);
+    verifyNoInteractions(patientRepository);
+  }
+
+  @Test
+  void suggestPatients_shouldSearchDatabaseUntilIndexIsBuilt() {
+    PatientSummaryDto patient = summary("Dupont");
+    when(patientRepository.searchByName(eq("dup"), eq(PageRequest.of(0, 5)))).thenReturn(
+      new PageImpl<>(List.of(patient))
+    );
+
+    PatientSuggestionsDto result = patientService.suggestPatients("dup", 5);
+
+    assertThat(result.getData()).singleElement().satisfies(suggestion -> {
+      assertThat(suggestion.getId()).isEqualTo(patient.id());
+      assertThat(suggestion.getFirstName()).isEqualTo("Jean");
+      assertThat(suggestion.getLastName()).isEqualTo("Dupont");
+    });
+  }
+
   @Test
   void addPatient_shouldSaveAndReturnId() {
     PatientDto dto = new PatientDto();
@@ -99,6 +275,7 @@ class PatientServiceTest {
 
     assertThat(result).isEqualTo(id.toString());
     verify(patientRepository).save(patient);
+    verify(patientSearchIndex).add(patient);
   }
 
   @Test
@@ -118,6 +295,8 @@ class PatientServiceTest {
     assertThat(patient.getPhoneNumber()).isEqualTo("123456789");
     assertThat(patient.getPostalAddress()).isEqualTo("123 Main St");
     verify(patientRepository).save(patient);
+    verify(patientCache).evict(id);
+    verify(patientSearchIndex).update(patient);
   }
 
   @Test
@@ -141,6 +320,8 @@ class PatientServiceTest {
     patientService.deletePatient(id);
 
     verify(patientRepository).delete(patient);
+    verify(patientCache).evict(id);
+    verify(patientSearchIndex).remove(patient);
   }
 
   @Test
@@ -152,4 +333,27 @@ class PatientServiceTest {
       .isInstanceOf(RuntimeException.class)
       .hasMessageContaining("Patient not found with id");
   }
+
+  private static Patient patient(String lastName) {
+    Patient patient = new Patient();
+    patient.setId(UUID.randomUUID());
+    patient.setLastName(lastName);
+    return patient;
+  }
+
+  private static PatientDetailsDto details(String lastName) {
+    return new PatientDetailsDto(
+      UUID.randomUUID(),
+      "Jean",
+      lastName,
+      LocalDate.of(1980, 1, 1),
+      Gender.M,
+      "1 rue de Paris",
+      "01 23 45 67 89"
+    );
+  }
+
+  private static PatientSummaryDto summary(String lastName) {
+    return new PatientSummaryDto(UUID.randomUUID(), "Jean", lastName, LocalDate.of(1980, 1, 1), Gender.M);
+  }
 }
@@ -3,6 +3,9 @@ export class Pagination extends HTMLElement {
     private currentPage: number | null = null;
     private totalPages: number | null = null;
     private pageSize: number | null = null;
+    private cursorMode = false;
+    private nextCursor: string | null = null;
+    private previousCursor: string | null = null;
 
     connectedCallback() {
         const totalElements = this.getAttribute("total-elements");
@@ -17,6 +20,11 @@ export class Pagination extends HTMLElement {
         const pageSize = this.getAttribute("page-size");
         this.pageSize = pageSize ? parseInt(pageSize, 10) : null;
 
+        // In cursor mode, the pages are reached through the cursors of the pages around the current one
+        this.cursorMode = this.getAttribute("mode") === "cursor";
+        this.nextCursor = this.getAttribute("next-cursor");
+        this.previousCursor = this.getAttribute("previous-cursor");
+
         this.render();
         this.addListeners();
     }
@@ -56,7 +64,9 @@ export class Pagination extends HTMLElement {
     }
 
     private onPrevClick = () => {
-        if (this.currentPage !== null) {
+        if (this.cursorMode) {
+            if (this.previousCursor !== null) this.goToCursor(this.previousCursor);
+        } else if (this.currentPage !== null) {
             const params = new URLSearchParams(window.location.search);
             params.set("page", String(this.currentPage - 1));
             window.location.search = params.toString();
@@ -64,13 +74,22 @@ export class Pagination extends HTMLElement {
     };
 
     private onNextClick = () => {
-        if (this.currentPage !== null) {
+        if (this.cursorMode) {
+            if (this.nextCursor !== null) this.goToCursor(this.nextCursor);
+        } else if (this.currentPage !== null) {
             const params = new URLSearchParams(window.location.search);
             params.set("page", String(this.currentPage + 1));
             window.location.search = params.toString();
         }
     };
 
+    private goToCursor(cursor: string) {
+        const params = new URLSearchParams(window.location.search);
+        params.set("cursor", cursor);
+        params.delete("page");
+        window.location.search = params.toString();
+    }
+
     private onPageSizeChange = (event: Event) => {
         const selectElement = event.target as HTMLSelectElement;
         const newPageSize = parseInt(selectElement.value, 10);
@@ -82,10 +101,13 @@ export class Pagination extends HTMLElement {
     };
 
     private render() {
-        const disabledCurrentPage = this.currentPage === 1 ? "disabled" : "";
+        const disabledCurrentPage = (
+            this.cursorMode ? this.previousCursor === null : this.currentPage === 1
+        ) ? "disabled" : "";
 
-        const disabledNextPage =
-            this.currentPage === this.totalPages ? "disabled" : "";
+        const disabledNextPage = (
+            this.cursorMode ? this.nextCursor === null : this.currentPage === this.totalPages
+        ) ? "disabled" : "";
 
         const pageSizeFive = this.pageSize === 5 ? "selected" : "";
         const pageSizeTen = this.pageSize === 10 ? "selected" : "";
@@ -104,6 +126,10 @@ export class Pagination extends HTMLElement {
                 ? this.totalPages * this.pageSize
                 : "-";
 
+        const positionDisplay = this.cursorMode
+            ? `<div>${this.totalElements !== null ? this.totalElements : "-"} <span>patients</span></div>`
+            : `<div>${currentPageDisplay} <span>sur ${totalPagesDisplay}</span></div>`;
+
         this.innerHTML =
             `<div class="page-size">` +
             `<span>Éléments par page</span>` +
@@ -115,7 +141,7 @@ export class Pagination extends HTMLElement {
             `</select>` +
             `</div>` +
             `<div class="pagination">` +
-            `<div>${currentPageDisplay} <span>sur ${totalPagesDisplay}</span></div>` +
+            positionDisplay +
             `<div class="group-btn">` +
             `<button id="prev-button" ${disabledCurrentPage}><svg xmlns="http://www.w3.org/2000/svg" width="28" height="28" viewBox="0 0 512 512"><path fill="currentColor" d="M512 256a256 256 0 1 0-512 0a256 256 0 1 0 512 0M271 135c9.4-9.4 24.6-9.4 33.9 0s9.4 24.6 0 33.9l-87 87l87 87c9.4 9.4 9.4 24.6 0 33.9s-24.6 9.4-33.9 0L167 273c-9.4-9.4-9.4-24.6 0-33.9z"/></svg></button>` +
             `<button id="next-button" ${disabledNextPage}><svg xmlns="http://www.w3.org/2000/svg" width="28" height="28" viewBox="0 0 512 512"><path fill="currentColor" d="M0 256a256 256 0 1 0 512 0a256 256 0 1 0-512 0m241 121c-9.4 9.4-24.6 9.4-33.9 0s-9.4-24.6 0-33.9l87-87l-87-87c-9.4-9.4-9.4-24.6 0-33.9s24.6-9.4 33.9 0L345 239c9.4 9.4 9.4 24.6 0 33.9z"/></svg></button>` +
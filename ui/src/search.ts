@@ -1,17 +1,9 @@
 interface PatientsResults {
-    currentPage: number;
     data: Array<{
-        birthDate: string;
         firstName: string;
-        gender: "M" | "F";
         id: string;
         lastName: string;
-        phoneNumber: string | null;
-        postalAddress: string | null;
     }>;
-    pageSize: number;
-    totalElements: number;
-    totalPages: number;
 }
 
 export class Search extends HTMLElement {
@@ -145,14 +137,20 @@ export class Search extends HTMLElement {
         }
     }
 
+    async fetchPatients(endpoint: "typeahead" | "search", value: string): Promise<PatientsResults> {
+        const response = await fetch(`/api/patients/${endpoint}?q=${encodeURIComponent(value)}`);
+
+        if (!response.ok) throw new Error(`Erreur HTTP: ${response.status}`);
+
+        return response.json();
+    }
+
     // @ts-ignore
     async searchPatients(value: string): Promise<void> {
         try {
-            const response = await fetch(`/api/patients/search?q=${encodeURIComponent(value)}`);
-
-            if (!response.ok) throw new Error(`Erreur HTTP: ${response.status}`);
-
-            const results: PatientsResults = await response.json();
+            // The typeahead only finds names starting with the value, the search also finds a fragment of a name
+            let results = await this.fetchPatients("typeahead", value);
+            if (!results.data.length) results = await this.fetchPatients("search", value);
 
             const resultsContainer = document.body.querySelector("#search-results") as HTMLElement;
             if (resultsContainer) {
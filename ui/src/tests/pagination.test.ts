@@ -257,4 +257,39 @@ describe("Pagination custom element", () => {
         expect(removeSpy).toHaveBeenCalled();
         removeSpy.mockRestore();
     });
+
+    it("uses the cursors of the pages around the current one in cursor mode", () => {
+        const el = createPaginationElement({pageSize: "10"});
+        el.setAttribute("mode", "cursor");
+        el.setAttribute("next-cursor", "next");
+        el.setAttribute("total-elements", "42");
+        el.connectedCallback();
+
+        expect(el.innerHTML).toMatch(/<button id="prev-button" disabled(="")?>/);
+        expect(el.innerHTML).toContain('<button id="next-button">');
+        expect(el.innerHTML).toContain("42 <span>patients</span>");
+
+        const spy = vi.spyOn(window, "location", "get").mockReturnValue({
+            set search(val: string) {
+                this._search = val;
+            },
+            get search() {
+                return this._search || "?page=2&cursor=current";
+            },
+            _search: "?page=2&cursor=current",
+        } as any);
+
+        const setSpy = vi.spyOn(window.location, "search", "set");
+        el.querySelector("#prev-button")?.dispatchEvent(
+            new MouseEvent("click", {bubbles: true})
+        );
+        expect(setSpy).not.toHaveBeenCalled();
+        el.querySelector("#next-button")?.dispatchEvent(
+            new MouseEvent("click", {bubbles: true})
+        );
+        expect(setSpy).toHaveBeenCalledWith("cursor=next");
+
+        setSpy.mockRestore();
+        spy.mockRestore();
+    });
 });
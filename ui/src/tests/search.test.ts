@@ -175,6 +175,18 @@ describe("Search custom element", () => {
         expect(resultsContainer?.textContent).toContain("Doe John");
     });
 
+    it("searchPatients falls back to the search when the typeahead finds nothing", async () => {
+        searchEl.createSearchForm();
+        window.fetch = vi.fn()
+            .mockResolvedValueOnce({ok: true, json: async () => ({data: []})})
+            .mockResolvedValueOnce({ok: true, json: async () => ({data: [{firstName: "John", id: "123", lastName: "Doe"}]})});
+        await searchEl.searchPatients("oh");
+        expect(window.fetch).toHaveBeenNthCalledWith(1, "/api/patients/typeahead?q=oh");
+        expect(window.fetch).toHaveBeenNthCalledWith(2, "/api/patients/search?q=oh");
+        const resultsContainer = document.body.querySelector("#search-results");
+        expect(resultsContainer?.textContent).toContain("Doe John");
+    });
+
     it("searchPatients handles fetch error", async () => {
         searchEl.createSearchForm();
         const spyConsole = vi.spyOn(console, "error").mockImplementation(() => {